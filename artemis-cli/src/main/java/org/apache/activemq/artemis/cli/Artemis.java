@@ -42,6 +42,10 @@ import org.apache.activemq.artemis.cli.commands.address.UpdateAddress;
 import org.apache.activemq.artemis.cli.commands.messages.Browse;
 import org.apache.activemq.artemis.cli.commands.messages.Consumer;
 import org.apache.activemq.artemis.cli.commands.messages.Producer;
+import org.apache.activemq.artemis.cli.commands.messages.perf.HelpPerf;
+import org.apache.activemq.artemis.cli.commands.messages.perf.PerfClientCommand;
+import org.apache.activemq.artemis.cli.commands.messages.perf.PerfConsumerCommand;
+import org.apache.activemq.artemis.cli.commands.messages.perf.PerfProducerCommand;
 import org.apache.activemq.artemis.cli.commands.migration1x.Migrate1X;
 import org.apache.activemq.artemis.cli.commands.queue.CreateQueue;
 import org.apache.activemq.artemis.cli.commands.queue.DeleteQueue;
@@ -160,6 +164,9 @@ public class Artemis {
       builder.withGroup("address").withDescription("Address tools group (create|delete|update|show) (example ./artemis address create)").
          withDefaultCommand(HelpAddress.class).withCommands(CreateAddress.class, DeleteAddress.class, UpdateAddress.class, ShowAddress.class);
 
+      builder.withGroup("perf").withDescription("Perf tools group (producer|consumer|client) (example ./artemis perf client)").
+         withDefaultCommand(HelpPerf.class).withCommands(PerfProducerCommand.class, PerfConsumerCommand.class, PerfClientCommand.class);
+
       if (instance != null) {
          builder.withGroup("data").withDescription("data tools group (print|imp|exp|encode|decode|compact) (example ./artemis data print)").
             withDefaultCommand(HelpData.class).withCommands(PrintData.class, XmlDataExporter.class, XmlDataImporter.class, DecodeJournal.class, EncodeJournal.class, CompactJournal.class);
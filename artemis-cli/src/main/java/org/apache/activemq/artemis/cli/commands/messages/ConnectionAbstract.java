@@ -41,7 +41,7 @@ public class ConnectionAbstract extends InputAbstract {
    @Option(name = "--clientID", description = "ClientID to be associated with connection")
    String clientID;
 
-   @Option(name = "--protocol", description = "Protocol used. Valid values are amqp or core. Default=core.")
+   @Option(name = "--protocol", description = "Protocol used. Valid values are amqp, core or openwire. Default=core.")
    String protocol = "core";
 
    public String getUser() {
@@ -84,6 +84,8 @@ public class ConnectionAbstract extends InputAbstract {
          return createCoreConnectionFactory();
       } else if (protocol.equals("amqp")) {
          return createAMQPConnectionFactory();
+      } else if (protocol.equals("openwire")) {
+         return createOpenWireConnectionFactory();
       } else {
          throw new IllegalStateException("protocol " + protocol + " not supported");
       }
@@ -125,6 +127,38 @@ public class ConnectionAbstract extends InputAbstract {
       }
    }
 
+   private ConnectionFactory createOpenWireConnectionFactory() {
+      org.apache.activemq.ActiveMQConnectionFactory cf = new org.apache.activemq.ActiveMQConnectionFactory(user, password, brokerURL);
+      if (clientID != null) {
+         cf.setClientID(clientID);
+      }
+
+      try {
+         Connection connection = cf.createConnection();
+         connection.close();
+         return cf;
+      } catch (JMSSecurityException e) {
+         // if a security exception will get the user and password through an input
+         context.err.println("Connection failed::" + e.getMessage());
+         userPassword();
+         cf = new org.apache.activemq.ActiveMQConnectionFactory(user, password, brokerURL);
+         if (clientID != null) {
+            cf.setClientID(clientID);
+         }
+         return cf;
+      } catch (JMSException e) {
+         // if a connection exception will ask for the URL, user and password
+         context.err.println("Connection failed::" + e.getMessage());
+         brokerURL = input("--url", "Type in the broker URL for a retry (e.g. tcp://localhost:61616)", brokerURL);
+         userPassword();
+         cf = new org.apache.activemq.ActiveMQConnectionFactory(user, password, brokerURL);
+         if (clientID != null) {
+            cf.setClientID(clientID);
+         }
+         return cf;
+      }
+   }
+
    protected ActiveMQConnectionFactory createCoreConnectionFactory() {
       ActiveMQConnectionFactory cf = new ActiveMQConnectionFactory(brokerURL, user, password);
 
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.cli.commands.messages.perf;
+
+import javax.jms.BytesMessage;
+import javax.jms.Connection;
+import javax.jms.Destination;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.Session;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receives messages and records their end to end latency, from the time they were meant to be sent.
+ * <p>
+ * Latencies between different hosts are only as accurate as the synchronization of their clocks.
+ */
+final class ConsumerLoadGenerator extends LoadGenerator {
+
+   private static final long RECEIVE_TIMEOUT_MILLIS = 100;
+
+   private final Destination destination;
+
+   private final int transactionBatchSize;
+
+   private final long idleTimeoutMillis;
+
+   private final Session session;
+
+   private final MessageConsumer consumer;
+
+   // System.nanoTime() of drain(), 0 until then
+   private volatile long drainStart;
+
+   /**
+    * The consumer is created right away, so it doesn't miss the messages sent to a topic before it runs.
+    *
+    * @param idleTimeoutMillis how long to wait for more messages once {@link #drain()} is called
+    */
+   ConsumerLoadGenerator(Connection connection,
+                         Destination destination,
+                         long messageCount,
+                         int transactionBatchSize,
+                         long idleTimeoutMillis) throws Exception {
+      super(connection, messageCount);
+      this.destination = destination;
+      this.transactionBatchSize = transactionBatchSize;
+      this.idleTimeoutMillis = idleTimeoutMillis;
+      final boolean transacted = transactionBatchSize > 0;
+      this.session = connection.createSession(transacted, transacted ? Session.SESSION_TRANSACTED : Session.AUTO_ACKNOWLEDGE);
+      this.consumer = session.createConsumer(destination);
+      connection.start();
+   }
+
+   /**
+    * Stops once no message is received for the idle timeout, ie when the producers are done.
+    */
+   void drain() {
+      drainStart = System.nanoTime();
+   }
+
+   @Override
+   protected void generate() throws Exception {
+      final boolean transacted = transactionBatchSize > 0;
+      long received = 0;
+      long lastReceived = System.nanoTime();
+
+      while (!isDone()) {
+         Message message = consumer.receive(RECEIVE_TIMEOUT_MILLIS);
+         if (message == null) {
+            final long drainStart = this.drainStart;
+            if (drainStart != 0 && System.nanoTime() - Math.max(lastReceived, drainStart) >= TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis)) {
+               break;
+            }
+            continue;
+         }
+         lastReceived = System.nanoTime();
+
+         if (message instanceof BytesMessage && ((BytesMessage) message).getBodyLength() >= ProducerLoadGenerator.TIMESTAMP_SIZE) {
+            recordLatency(toEpochNanos(lastReceived) - ((BytesMessage) message).readLong());
+         }
+
+         received++;
+         if (transacted && received % transactionBatchSize == 0) {
+            session.commit();
+         }
+         increment();
+      }
+
+      if (transacted && received % transactionBatchSize != 0) {
+         session.commit();
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "ConsumerLoadGenerator[destination=" + destination + ", received=" + getCount() + "]";
+   }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.cli.commands.messages.perf;
+
+import javax.jms.Connection;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.SingleWriterRecorder;
+
+/**
+ * A producer or a consumer of a perf command, running on its own thread and connection.
+ * <p>
+ * Latencies are recorded in nanoseconds by the generator thread and sampled by the reporting thread.
+ */
+abstract class LoadGenerator implements Runnable {
+
+   // anchors System.nanoTime() to the wall clock, to compare the timestamps of different JVMs
+   private static final long EPOCH_OFFSET_NANOS = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()) - System.nanoTime();
+
+   protected final Connection connection;
+
+   protected final long messageCount;
+
+   private final SingleWriterRecorder latencies = new SingleWriterRecorder(3);
+
+   // recycled by the reporting thread
+   private Histogram sample;
+
+   private volatile long count;
+
+   private volatile boolean stopped;
+
+   private volatile Exception failure;
+
+   LoadGenerator(Connection connection, long messageCount) {
+      this.connection = connection;
+      this.messageCount = messageCount;
+   }
+
+   static long toEpochNanos(long nanoTime) {
+      return nanoTime + EPOCH_OFFSET_NANOS;
+   }
+
+   @Override
+   public final void run() {
+      try {
+         generate();
+      } catch (Exception e) {
+         if (!stopped) {
+            failure = e;
+         }
+      } finally {
+         close();
+      }
+   }
+
+   void close() {
+      try {
+         connection.close();
+      } catch (Exception ignored) {
+      }
+   }
+
+   protected abstract void generate() throws Exception;
+
+   protected final void recordLatency(long latencyNanos) {
+      latencies.recordValue(Math.max(0, latencyNanos));
+   }
+
+   protected final void increment() {
+      // single writer
+      count = count + 1;
+   }
+
+   protected final boolean isDone() {
+      return stopped || (messageCount > 0 && count >= messageCount);
+   }
+
+   void stop() {
+      stopped = true;
+   }
+
+   long getCount() {
+      return count;
+   }
+
+   Exception getFailure() {
+      return failure;
+   }
+
+   /**
+    * @return the latencies recorded since the previous call, valid until the next one
+    */
+   Histogram sampleLatencies() {
+      sample = latencies.getIntervalHistogram(sample);
+      return sample;
+   }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.cli.commands.messages.perf;
+
+import javax.jms.ConnectionFactory;
+import javax.json.JsonObjectBuilder;
+import java.util.List;
+
+import io.airlift.airline.Command;
+import io.airlift.airline.Option;
+
+@Command(name = "client", description = "It will send messages at a given rate and receive them, measuring their send and end to end latencies")
+public class PerfClientCommand extends PerfProducerCommand {
+
+   @Option(name = "--consumers", description = "Number of consumers, each with its own connection (Default: 1)")
+   protected int consumers = 1;
+
+   @Option(name = "--drain-timeout", description = "Milliseconds without any message received after the producers are done to stop the consumers (Default: 1000)")
+   protected long drainTimeout = 1000;
+
+   public int getConsumers() {
+      return consumers;
+   }
+
+   public PerfClientCommand setConsumers(int consumers) {
+      this.consumers = consumers;
+      return this;
+   }
+
+   public long getDrainTimeout() {
+      return drainTimeout;
+   }
+
+   public PerfClientCommand setDrainTimeout(long drainTimeout) {
+      this.drainTimeout = drainTimeout;
+      return this;
+   }
+
+   @Override
+   protected List<ConsumerLoadGenerator> createConsumers(ConnectionFactory factory) throws Exception {
+      // on a topic each consumer gets all the messages: they stop once the producers are done instead
+      return createConsumers(factory, consumers, 0, drainTimeout);
+   }
+
+   @Override
+   protected boolean drainConsumers() {
+      return true;
+   }
+
+   @Override
+   protected void configuration(JsonObjectBuilder configuration) {
+      super.configuration(configuration);
+      configuration
+         .add("consumers", consumers)
+         .add("drainTimeout", drainTimeout);
+   }
+}
@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.cli.commands.messages.perf;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import javax.jms.Session;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonWriter;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.airlift.airline.Option;
+import org.apache.activemq.artemis.cli.commands.ActionContext;
+import org.apache.activemq.artemis.cli.commands.messages.DestAbstract;
+import org.apache.activemq.artemis.utils.JsonLoader;
+
+/**
+ * Runs producers and/or consumers, each on its own thread and connection, and reports their throughput and
+ * latencies every second.
+ * <p>
+ * The run ends once {@code --message-count} messages are sent or received or after {@code --duration}
+ * seconds, or when interrupted if there is neither: the summary is still reported and written.
+ */
+public abstract class PerfCommand extends DestAbstract {
+
+   @Option(name = "--duration", description = "Seconds to run for after the warmup, 0 to only stop on --message-count (Default: 0)")
+   protected int duration = 0;
+
+   @Option(name = "--warmup", description = "Seconds to run for before measuring, the warmup seconds are reported but not summed up (Default: 0)")
+   protected int warmup = 0;
+
+   @Option(name = "--json", description = "File to write the configuration, the per second samples and the summary of the run to, in JSON")
+   protected String json;
+
+   public PerfCommand() {
+      // until --duration or interrupted, unless set
+      setMessageCount(0);
+   }
+
+   public int getDuration() {
+      return duration;
+   }
+
+   public PerfCommand setDuration(int duration) {
+      this.duration = duration;
+      return this;
+   }
+
+   public int getWarmup() {
+      return warmup;
+   }
+
+   public PerfCommand setWarmup(int warmup) {
+      this.warmup = warmup;
+      return this;
+   }
+
+   public String getJson() {
+      return json;
+   }
+
+   public PerfCommand setJson(String json) {
+      this.json = json;
+      return this;
+   }
+
+   protected List<ProducerLoadGenerator> createProducers(ConnectionFactory factory) throws Exception {
+      return Collections.emptyList();
+   }
+
+   protected List<ConsumerLoadGenerator> createConsumers(ConnectionFactory factory) throws Exception {
+      return Collections.emptyList();
+   }
+
+   /**
+    * @param messageCount the messages received by all the consumers, 0 for no limit
+    * @param idleTimeoutMillis see {@link ConsumerLoadGenerator#drain()}
+    */
+   protected List<ConsumerLoadGenerator> createConsumers(ConnectionFactory factory,
+                                                         int consumers,
+                                                         long messageCount,
+                                                         long idleTimeoutMillis) throws Exception {
+      final List<ConsumerLoadGenerator> generators = new ArrayList<>(consumers);
+      try {
+         for (int i = 0; i < consumers; i++) {
+            Connection connection = factory.createConnection();
+            try {
+               generators.add(new ConsumerLoadGenerator(connection, createDestination(connection), share(messageCount, consumers, i), getTxBatchSize(), idleTimeoutMillis));
+            } catch (Exception e) {
+               connection.close();
+               throw e;
+            }
+         }
+      } catch (Exception e) {
+         generators.forEach(LoadGenerator::close);
+         throw e;
+      }
+      return generators;
+   }
+
+   /**
+    * Whether the consumers stop once the producers are done and no more messages are received, rather than
+    * on their own message count and duration.
+    */
+   protected boolean drainConsumers() {
+      return false;
+   }
+
+   protected void configuration(JsonObjectBuilder configuration) {
+      configuration
+         .add("protocol", getProtocol())
+         .add("url", brokerURL)
+         .add("destination", getDestination())
+         .add("threads", getThreads())
+         .add("messageCount", getMessageCount())
+         .add("transactionBatchSize", getTxBatchSize())
+         .add("duration", duration)
+         .add("warmup", warmup);
+   }
+
+   /**
+    * @return the {@code messageCount} share of the {@code index}th of {@code generators}, 0 for no limit
+    */
+   protected static long share(long messageCount, int generators, int index) {
+      if (messageCount <= 0) {
+         return 0;
+      }
+      return messageCount / generators + (index < messageCount % generators ? 1 : 0);
+   }
+
+   protected Destination createDestination(Connection connection) throws Exception {
+      try (Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE)) {
+         return getDestination(session);
+      }
+   }
+
+   @Override
+   public Object execute(ActionContext context) throws Exception {
+      super.execute(context);
+
+      if (getThreads() <= 0) {
+         throw new IllegalArgumentException("--threads must be > 0");
+      }
+
+      final ConnectionFactory factory = createConnectionFactory();
+
+      // the consumers first, to not miss any message sent to a topic
+      final List<ConsumerLoadGenerator> consumers = new ArrayList<>(createConsumers(factory));
+      final List<ProducerLoadGenerator> producers;
+      try {
+         producers = createProducers(factory);
+      } catch (Exception e) {
+         consumers.forEach(LoadGenerator::close);
+         throw e;
+      }
+
+      final List<LoadGenerator> generators = new ArrayList<>(consumers);
+      generators.addAll(producers);
+      final CountDownLatch finished = new CountDownLatch(generators.size());
+      final CountDownLatch producersFinished = new CountDownLatch(producers.size());
+      for (LoadGenerator generator : generators) {
+         Thread thread = new Thread(() -> {
+            try {
+               generator.run();
+            } finally {
+               if (generator instanceof ProducerLoadGenerator) {
+                  producersFinished.countDown();
+               }
+               finished.countDown();
+            }
+         }, "perf " + generator.getClass().getSimpleName() + " " + generators.indexOf(generator));
+         thread.setDaemon(true);
+         thread.start();
+      }
+
+      final PerfStatistics statistics = new PerfStatistics(producers, consumers, context.out);
+      final CountDownLatch reported = new CountDownLatch(1);
+      final Thread shutdownHook = new Thread(() -> {
+         generators.forEach(LoadGenerator::stop);
+         try {
+            reported.await(10, TimeUnit.SECONDS);
+         } catch (InterruptedException ignored) {
+         }
+      });
+      Runtime.getRuntime().addShutdownHook(shutdownHook);
+
+      final JsonObject result;
+      try {
+         report(statistics, generators, consumers, finished, producersFinished);
+
+         JsonObjectBuilder configuration = JsonLoader.createObjectBuilder();
+         configuration(configuration);
+         result = statistics.toJson(configuration);
+         if (json != null) {
+            try (JsonWriter writer = JsonLoader.createWriter(new FileWriter(json))) {
+               writer.writeObject(result);
+            }
+            context.out.println("Results written to " + json);
+         }
+      } finally {
+         generators.forEach(LoadGenerator::stop);
+         reported.countDown();
+         try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+         } catch (IllegalStateException shuttingDown) {
+         }
+      }
+
+      for (LoadGenerator generator : generators) {
+         if (generator.getFailure() != null) {
+            context.err.println(generator.getClass().getSimpleName() + " failed: " + generator.getFailure());
+         }
+      }
+      return result;
+   }
+
+   private void report(PerfStatistics statistics,
+                       List<LoadGenerator> generators,
+                       List<ConsumerLoadGenerator> consumers,
+                       CountDownLatch finished,
+                       CountDownLatch producersFinished) throws Exception {
+      final long sampleNanos = TimeUnit.SECONDS.toNanos(1);
+      final long start = System.nanoTime();
+      final long warmupEnd = start + TimeUnit.SECONDS.toNanos(warmup);
+      final long end = duration > 0 ? warmupEnd + TimeUnit.SECONDS.toNanos(duration) : Long.MAX_VALUE;
+      long lastSample = start;
+      long nextSample = start + sampleNanos;
+      boolean stopped = false;
+      boolean draining = false;
+
+      while (true) {
+         final boolean done = finished.await(Math.max(0, Math.min(nextSample, end) - System.nanoTime()), TimeUnit.NANOSECONDS);
+         final long now = System.nanoTime();
+
+         if (done || now >= nextSample || now >= end) {
+            statistics.sample(now - lastSample, lastSample < warmupEnd);
+            lastSample = now;
+            nextSample = Math.max(nextSample + sampleNanos, now + 1);
+         }
+         if (done) {
+            break;
+         }
+
+         if (!stopped && now >= end) {
+            stopped = true;
+            for (LoadGenerator generator : generators) {
+               if (!drainConsumers() || generator instanceof ProducerLoadGenerator) {
+                  generator.stop();
+               }
+            }
+         }
+         if (!draining && drainConsumers() && producersFinished.getCount() == 0) {
+            draining = true;
+            consumers.forEach(ConsumerLoadGenerator::drain);
+         }
+      }
+
+      statistics.printSummary();
+   }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.cli.commands.messages.perf;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.json.JsonObjectBuilder;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.airlift.airline.Command;
+import io.airlift.airline.Option;
+
+@Command(name = "producer", description = "It will send messages at a given rate and measure their send latency")
+public class PerfProducerCommand extends PerfCommand {
+
+   @Option(name = "--rate", description = "Messages per second sent by all the producers, 0 to send as fast as possible (Default: 0)")
+   protected long rate = 0;
+
+   @Option(name = "--message-size", description = "Size of each bytes message, including the 8 bytes of the send timestamp (Default: 1024)")
+   protected int messageSize = 1024;
+
+   @Option(name = "--non-persistent", description = "It will send messages non persistently")
+   protected boolean nonpersistent = false;
+
+   public long getRate() {
+      return rate;
+   }
+
+   public PerfProducerCommand setRate(long rate) {
+      this.rate = rate;
+      return this;
+   }
+
+   public int getMessageSize() {
+      return messageSize;
+   }
+
+   public PerfProducerCommand setMessageSize(int messageSize) {
+      this.messageSize = messageSize;
+      return this;
+   }
+
+   public boolean isNonpersistent() {
+      return nonpersistent;
+   }
+
+   public PerfProducerCommand setNonpersistent(boolean nonpersistent) {
+      this.nonpersistent = nonpersistent;
+      return this;
+   }
+
+   @Override
+   protected List<ProducerLoadGenerator> createProducers(ConnectionFactory factory) throws Exception {
+      final int producers = getThreads();
+      final List<ProducerLoadGenerator> generators = new ArrayList<>(producers);
+      try {
+         for (int i = 0; i < producers; i++) {
+            Connection connection = factory.createConnection();
+            try {
+               generators.add(new ProducerLoadGenerator(connection, createDestination(connection), share(getMessageCount(), producers, i), !nonpersistent, messageSize, rate / (double) producers, getTxBatchSize()));
+            } catch (Exception e) {
+               connection.close();
+               throw e;
+            }
+         }
+      } catch (Exception e) {
+         generators.forEach(LoadGenerator::close);
+         throw e;
+      }
+      return generators;
+   }
+
+   @Override
+   protected void configuration(JsonObjectBuilder configuration) {
+      super.configuration(configuration);
+      configuration
+         .add("rate", rate)
+         .add("messageSize", messageSize)
+         .add("persistent", !nonpersistent);
+   }
+}
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.cli.commands.messages.perf;
+
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.apache.activemq.artemis.utils.JsonLoader;
+
+/**
+ * Samples the counts and the latencies of the load generators every second, reports them and sums them up,
+ * apart from the warmup samples.
+ */
+final class PerfStatistics {
+
+   private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+   private final List<ProducerLoadGenerator> producers;
+
+   private final List<ConsumerLoadGenerator> consumers;
+
+   private final PrintStream out;
+
+   private final Histogram sendLatencies = new Histogram(3);
+
+   private final Histogram endToEndLatencies = new Histogram(3);
+
+   private final Histogram intervalSendLatencies = new Histogram(3);
+
+   private final Histogram intervalEndToEndLatencies = new Histogram(3);
+
+   private final JsonArrayBuilder intervals = JsonLoader.createArrayBuilder();
+
+   private long lastSent;
+
+   private long lastReceived;
+
+   private long sent;
+
+   private long received;
+
+   private long measuredNanos;
+
+   private int samples;
+
+   PerfStatistics(List<ProducerLoadGenerator> producers, List<ConsumerLoadGenerator> consumers, PrintStream out) {
+      this.producers = producers;
+      this.consumers = consumers;
+      this.out = out;
+   }
+
+   /**
+    * Samples the load generators since the previous sample.
+    *
+    * @param elapsedNanos the time since the previous sample
+    */
+   void sample(long elapsedNanos, boolean warmup) {
+      samples++;
+      intervalSendLatencies.reset();
+      intervalEndToEndLatencies.reset();
+
+      long totalSent = 0;
+      for (ProducerLoadGenerator producer : producers) {
+         totalSent += producer.getCount();
+         intervalSendLatencies.add(producer.sampleLatencies());
+      }
+      long totalReceived = 0;
+      for (ConsumerLoadGenerator consumer : consumers) {
+         totalReceived += consumer.getCount();
+         intervalEndToEndLatencies.add(consumer.sampleLatencies());
+      }
+      final long intervalSent = totalSent - lastSent;
+      final long intervalReceived = totalReceived - lastReceived;
+      lastSent = totalSent;
+      lastReceived = totalReceived;
+
+      if (!warmup) {
+         sent += intervalSent;
+         received += intervalReceived;
+         measuredNanos += elapsedNanos;
+         sendLatencies.add(intervalSendLatencies);
+         endToEndLatencies.add(intervalEndToEndLatencies);
+      }
+
+      StringBuilder line = new StringBuilder();
+      line.append("--- ").append(warmup ? "warmup " : "").append("second ").append(samples).append(" ---");
+      if (!producers.isEmpty()) {
+         line.append(" sent: ").append(rate(intervalSent, elapsedNanos)).append(" msg/sec");
+      }
+      if (!consumers.isEmpty()) {
+         line.append(" received: ").append(rate(intervalReceived, elapsedNanos)).append(" msg/sec");
+      }
+      appendLatencies(line, "send", intervalSendLatencies);
+      appendLatencies(line, "end to end", intervalEndToEndLatencies);
+      out.println(line);
+
+      intervals.add(JsonLoader.createObjectBuilder()
+                       .add("second", samples)
+                       .add("warmup", warmup)
+                       .add("sent", intervalSent)
+                       .add("received", intervalReceived)
+                       .add("sendLatencyMicros", toJson(intervalSendLatencies))
+                       .add("endToEndLatencyMicros", toJson(intervalEndToEndLatencies)));
+   }
+
+   void printSummary() {
+      StringBuilder line = new StringBuilder();
+      line.append("--- summary ---");
+      if (!producers.isEmpty()) {
+         line.append(" sent: ").append(sent).append(" (").append(rate(sent, measuredNanos)).append(" msg/sec)");
+      }
+      if (!consumers.isEmpty()) {
+         line.append(" received: ").append(received).append(" (").append(rate(received, measuredNanos)).append(" msg/sec)");
+      }
+      appendLatencies(line, "send", sendLatencies);
+      appendLatencies(line, "end to end", endToEndLatencies);
+      out.println(line);
+   }
+
+   JsonObject toJson(JsonObjectBuilder configuration) {
+      return JsonLoader.createObjectBuilder()
+         .add("configuration", configuration)
+         .add("summary", JsonLoader.createObjectBuilder()
+            .add("durationSeconds", measuredNanos / (double) TimeUnit.SECONDS.toNanos(1))
+            .add("sent", sent)
+            .add("received", received)
+            .add("sendRate", rate(sent, measuredNanos))
+            .add("receiveRate", rate(received, measuredNanos))
+            .add("sendLatencyMicros", toJson(sendLatencies))
+            .add("endToEndLatencyMicros", toJson(endToEndLatencies)))
+         .add("intervals", intervals)
+         .build();
+   }
+
+   long getSent() {
+      return sent;
+   }
+
+   long getReceived() {
+      return received;
+   }
+
+   private static long rate(long count, long elapsedNanos) {
+      return elapsedNanos == 0 ? 0 : Math.round(count * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+   }
+
+   private static void appendLatencies(StringBuilder line, String name, Histogram latencies) {
+      if (latencies.getTotalCount() == 0) {
+         return;
+      }
+      line.append(" --- ").append(name).append(" latency (us)");
+      for (double percentile : PERCENTILES) {
+         line.append(' ').append(percentile).append("%: ").append(toMicros(latencies.getValueAtPercentile(percentile)));
+      }
+      line.append(" max: ").append(toMicros(latencies.getMaxValue()));
+   }
+
+   private static JsonObjectBuilder toJson(Histogram latencies) {
+      JsonObjectBuilder json = JsonLoader.createObjectBuilder().add("count", latencies.getTotalCount());
+      if (latencies.getTotalCount() > 0) {
+         json.add("mean", latencies.getMean() / 1000);
+         for (double percentile : PERCENTILES) {
+            json.add(Double.toString(percentile), toMicros(latencies.getValueAtPercentile(percentile)));
+         }
+         json.add("max", toMicros(latencies.getMaxValue()));
+      }
+      return json;
+   }
+
+   private static long toMicros(long nanos) {
+      return TimeUnit.NANOSECONDS.toMicros(nanos);
+   }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.cli.commands.messages.perf;
+
+import javax.jms.BytesMessage;
+import javax.jms.Connection;
+import javax.jms.DeliveryMode;
+import javax.jms.Destination;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends bytes messages stamped with the time they were meant to be sent.
+ * <p>
+ * With a target rate the send times are fixed upfront (open loop): a send stalled by the broker delays the
+ * following ones, but their latencies are still measured from the time they were meant to be sent. This avoids
+ * the coordinated omission of closed loop generators, that wait for the broker and so never measure the stalls.
+ */
+final class ProducerLoadGenerator extends LoadGenerator {
+
+   static final int TIMESTAMP_SIZE = Long.BYTES;
+
+   private final Destination destination;
+
+   private final boolean persistent;
+
+   private final int messageSize;
+
+   private final double ratePerSecond;
+
+   private final int transactionBatchSize;
+
+   ProducerLoadGenerator(Connection connection,
+                         Destination destination,
+                         long messageCount,
+                         boolean persistent,
+                         int messageSize,
+                         double ratePerSecond,
+                         int transactionBatchSize) {
+      super(connection, messageCount);
+      if (messageSize < TIMESTAMP_SIZE) {
+         throw new IllegalArgumentException("The message size must be at least " + TIMESTAMP_SIZE + " bytes");
+      }
+      this.destination = destination;
+      this.persistent = persistent;
+      this.messageSize = messageSize;
+      this.ratePerSecond = ratePerSecond;
+      this.transactionBatchSize = transactionBatchSize;
+   }
+
+   @Override
+   protected void generate() throws Exception {
+      final boolean transacted = transactionBatchSize > 0;
+      final Session session = connection.createSession(transacted, transacted ? Session.SESSION_TRANSACTED : Session.AUTO_ACKNOWLEDGE);
+      final MessageProducer producer = session.createProducer(destination);
+      producer.setDeliveryMode(persistent ? DeliveryMode.PERSISTENT : DeliveryMode.NON_PERSISTENT);
+      producer.setDisableMessageTimestamp(true);
+
+      final byte[] payload = new byte[messageSize - TIMESTAMP_SIZE];
+      final double periodNanos = ratePerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / ratePerSecond : 0;
+      final long start = System.nanoTime();
+      long sent = 0;
+
+      while (!isDone()) {
+         final long intendedTime;
+         if (periodNanos > 0) {
+            // computed from the start to not accumulate rounding errors
+            intendedTime = start + (long) (sent * periodNanos);
+            long now;
+            while ((now = System.nanoTime()) < intendedTime && !isDone()) {
+               LockSupport.parkNanos(intendedTime - now);
+            }
+            if (now < intendedTime) {
+               break;
+            }
+         } else {
+            intendedTime = System.nanoTime();
+         }
+
+         BytesMessage message = session.createBytesMessage();
+         message.writeLong(toEpochNanos(intendedTime));
+         message.writeBytes(payload);
+         producer.send(message);
+         sent++;
+         if (transacted && sent % transactionBatchSize == 0) {
+            session.commit();
+         }
+
+         recordLatency(System.nanoTime() - intendedTime);
+         increment();
+      }
+
+      if (transacted && sent % transactionBatchSize != 0) {
+         session.commit();
+      }
+   }
+}
@@ -29,6 +29,7 @@ import org.apache.activemq.artemis.core.io.SequentialFile;
 import org.apache.activemq.artemis.core.io.SequentialFileFactory;
 import org.apache.activemq.artemis.core.io.aio.AIOSequentialFileFactory;
 import org.apache.activemq.artemis.core.io.mapped.MappedSequentialFileFactory;
+import org.apache.activemq.artemis.core.io.nio.BatchedNIOSequentialFileFactory;
 import org.apache.activemq.artemis.core.io.nio.NIOSequentialFileFactory;
 import org.apache.activemq.artemis.core.server.ActiveMQMessageBundle;
 import org.apache.activemq.artemis.core.server.JournalType;
@@ -251,6 +252,10 @@ public class SyncCalculation {
                .disableBufferReuse();
             factory.start();
             return factory;
+         case BATCHED_NIO:
+            factory = new BatchedNIOSequentialFileFactory(datafolder, maxAIO).setDatasync(datasync);
+            factory.start();
+            return factory;
          default:
             throw ActiveMQMessageBundle.BUNDLE.invalidJournalType2(journalType);
       }
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.cli.test;
+
+import javax.json.JsonObject;
+import java.io.File;
+import java.io.FileReader;
+
+import org.apache.activemq.artemis.cli.commands.messages.perf.PerfClientCommand;
+import org.apache.activemq.artemis.cli.commands.messages.perf.PerfConsumerCommand;
+import org.apache.activemq.artemis.cli.commands.messages.perf.PerfProducerCommand;
+import org.apache.activemq.artemis.utils.JsonLoader;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CliPerfTest extends CliTestBase {
+
+   private static final int TEST_MESSAGE_COUNT = 100;
+
+   @Before
+   @Override
+   public void setup() throws Exception {
+      setupAuth();
+      super.setup();
+      startServer();
+   }
+
+   @Test
+   public void testClient() throws Exception {
+      File json = new File(temporaryFolder.getRoot(), "perf.json");
+
+      PerfClientCommand client = new PerfClientCommand();
+      client.setConsumers(2)
+         .setRate(1000)
+         .setMessageSize(100)
+         .setJson(json.getAbsolutePath())
+         .setMessageCount(TEST_MESSAGE_COUNT)
+         .setDestination("queue://perf")
+         .setThreads(2)
+         .setUser("admin")
+         .setPassword("admin");
+      JsonObject result = (JsonObject) client.execute(new TestActionContext());
+
+      JsonObject summary = result.getJsonObject("summary");
+      assertEquals(TEST_MESSAGE_COUNT, summary.getJsonNumber("sent").longValue());
+      assertEquals(TEST_MESSAGE_COUNT, summary.getJsonNumber("received").longValue());
+      assertEquals(TEST_MESSAGE_COUNT, summary.getJsonObject("sendLatencyMicros").getJsonNumber("count").longValue());
+      assertEquals(TEST_MESSAGE_COUNT, summary.getJsonObject("endToEndLatencyMicros").getJsonNumber("count").longValue());
+
+      try (FileReader reader = new FileReader(json)) {
+         JsonObject written = JsonLoader.createReader(reader).readObject();
+         assertEquals(2, written.getJsonObject("configuration").getInt("consumers"));
+         assertTrue(written.getJsonArray("intervals").size() > 0);
+      }
+   }
+
+   @Test
+   public void testProducerThenConsumer() throws Exception {
+      PerfProducerCommand producer = new PerfProducerCommand();
+      producer.setMessageCount(TEST_MESSAGE_COUNT)
+         .setDestination("queue://perf")
+         .setUser("admin")
+         .setPassword("admin");
+      JsonObject sent = (JsonObject) producer.execute(new TestActionContext());
+      assertEquals(TEST_MESSAGE_COUNT, sent.getJsonObject("summary").getJsonNumber("sent").longValue());
+
+      PerfConsumerCommand consumer = new PerfConsumerCommand();
+      consumer.setMessageCount(TEST_MESSAGE_COUNT)
+         .setDestination("queue://perf")
+         .setThreads(3)
+         .setUser("admin")
+         .setPassword("admin");
+      JsonObject received = (JsonObject) consumer.execute(new TestActionContext());
+      assertEquals(TEST_MESSAGE_COUNT, received.getJsonObject("summary").getJsonNumber("received").longValue());
+   }
+}
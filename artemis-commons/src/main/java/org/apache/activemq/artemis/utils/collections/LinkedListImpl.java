@@ -146,6 +146,29 @@ public class LinkedListImpl<E> implements LinkedList<E> {
       size++;
    }
 
+   /**
+    * Removes {@code e} without scanning the list if it's an intrusive element (see {@link Node}) linked to this list.
+    * <p>
+    * It's up to the caller to know that {@code e} can't be linked to any other list.
+    *
+    * @return {@code false} if {@code e} isn't linked to any list
+    */
+   @SuppressWarnings("unchecked")
+   public boolean removeIntrusive(E e) {
+      if (!isLinked(e)) {
+         return false;
+      }
+      removeAfter(((Node<E>) e).prev);
+      return true;
+   }
+
+   /**
+    * @return whether {@code e} is an intrusive element (see {@link Node}) currently linked to a list
+    */
+   public static boolean isLinked(Object e) {
+      return e instanceof Node && ((Node<?>) e).prev != null;
+   }
+
    @Override
    public E poll() {
       Node<E> ret = head.next;
@@ -31,6 +31,14 @@ public interface PriorityLinkedList<T> {
 
    T poll();
 
+   /**
+    * Removes {@code t} without scanning the list if it's an intrusive element linked to this list with the given
+    * {@code priority}, see {@link LinkedListImpl#removeIntrusive(Object)}.
+    *
+    * @return {@code false} if {@code t} isn't linked to any list
+    */
+   boolean removeIntrusive(T t, int priority);
+
    void clear();
 
    /**
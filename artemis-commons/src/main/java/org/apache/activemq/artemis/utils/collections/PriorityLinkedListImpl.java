@@ -128,6 +128,23 @@ public class PriorityLinkedListImpl<T> implements PriorityLinkedList<T> {
       return t;
    }
 
+   @Override
+   public boolean removeIntrusive(T t, int priority) {
+      LinkedListImpl<T> ll = levels[priority];
+
+      if (!ll.removeIntrusive(t)) {
+         return false;
+      }
+
+      exclusiveIncrementSize(-1);
+
+      if (ll.size() == 0 && highestPriority == priority) {
+         highestPriority--;
+      }
+
+      return true;
+   }
+
    @Override
    public void clear() {
       for (LinkedListImpl<T> list : levels) {
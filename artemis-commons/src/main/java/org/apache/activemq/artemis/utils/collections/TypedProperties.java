@@ -379,6 +379,62 @@ public class TypedProperties {
     * @throws IllegalStateException if any not-valid property is found while searching the {@code key} property
     */
    public static boolean searchProperty(SimpleString key, ByteBuf buffer, int startIndex) {
+      return findProperty(key, buffer, startIndex) >= 0;
+   }
+
+   /**
+    * Reads the value of the {@code key} property from {@code buffer}, starting from {@code startIndex} assuming it to
+    * be a valid encoded {@link TypedProperties} content, without decoding the other properties: it returns the same
+    * value {@link #getProperty(SimpleString)} would return once decoded.
+    *
+    * @param keyValuePools the pools of the decoded values, can be {@code null}
+    * @throws IllegalStateException if any not-valid property is found while searching the {@code key} property
+    */
+   public static Object readProperty(SimpleString key,
+                                     ByteBuf buffer,
+                                     int startIndex,
+                                     TypedPropertiesDecoderPools keyValuePools) {
+      int index = findProperty(key, buffer, startIndex);
+      if (index < 0) {
+         return null;
+      }
+      final byte type = buffer.getByte(index);
+      index++;
+      switch (type) {
+         case NULL:
+            return null;
+         case CHAR:
+            return (char) buffer.getShort(index);
+         case BOOLEAN:
+            return buffer.getBoolean(index);
+         case BYTE:
+            return buffer.getByte(index);
+         case BYTES: {
+            final byte[] bytes = new byte[buffer.getInt(index)];
+            buffer.getBytes(index + Integer.BYTES, bytes);
+            return bytes;
+         }
+         case SHORT:
+            return buffer.getShort(index);
+         case INT:
+            return buffer.getInt(index);
+         case LONG:
+            return buffer.getLong(index);
+         case FLOAT:
+            return Float.intBitsToFloat(buffer.getInt(index));
+         case DOUBLE:
+            return Double.longBitsToDouble(buffer.getLong(index));
+         case STRING:
+            return StringValue.readStringValue(buffer.duplicate().readerIndex(index), keyValuePools == null ? null : keyValuePools.getPropertyValuesPool()).val;
+         default:
+            throw ActiveMQUtilBundle.BUNDLE.invalidType(type);
+      }
+   }
+
+   /**
+    * @return the index of the type of the value of the {@code key} property or {@code -1} if not found
+    */
+   private static int findProperty(SimpleString key, ByteBuf buffer, int startIndex) {
       // It won't implement a straight linear search for key
       // because it would risk to find a SimpleString encoded property value
       // equals to the key we're searching for!
@@ -386,7 +442,7 @@ public class TypedProperties {
       byte b = buffer.getByte(index);
       index++;
       if (b == DataConstants.NULL) {
-         return false;
+         return -1;
       }
       final int numHeaders = buffer.getInt(index);
       index += Integer.BYTES;
@@ -394,10 +450,10 @@ public class TypedProperties {
          final int keyLength = buffer.getInt(index);
          index += Integer.BYTES;
          if (key.equals(buffer, index, keyLength)) {
-            return true;
+            return index + keyLength;
          }
          if (i == numHeaders - 1) {
-            return false;
+            return -1;
          }
          index += keyLength;
          byte type = buffer.getByte(index);
@@ -442,7 +498,7 @@ public class TypedProperties {
             }
          }
       }
-      return false;
+      return -1;
    }
 
    public synchronized void decode(final ByteBuf buffer,
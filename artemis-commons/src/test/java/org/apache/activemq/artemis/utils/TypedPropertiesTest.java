@@ -31,6 +31,7 @@ import org.junit.Test;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 
+import static org.apache.activemq.artemis.utils.collections.TypedProperties.readProperty;
 import static org.apache.activemq.artemis.utils.collections.TypedProperties.searchProperty;
 import static org.hamcrest.Matchers.greaterThan;
 
@@ -295,6 +296,38 @@ public class TypedPropertiesTest {
       });
    }
 
+   @Test
+   public void testReadAllProperties() {
+      TypedProperties props = new TypedProperties();
+      props.putByteProperty(RandomUtil.randomSimpleString(), RandomUtil.randomByte());
+      props.putBytesProperty(RandomUtil.randomSimpleString(), RandomUtil.randomBytes());
+      props.putBytesProperty(RandomUtil.randomSimpleString(), null);
+      props.putBooleanProperty(RandomUtil.randomSimpleString(), RandomUtil.randomBoolean());
+      props.putShortProperty(RandomUtil.randomSimpleString(), RandomUtil.randomShort());
+      props.putIntProperty(RandomUtil.randomSimpleString(), RandomUtil.randomInt());
+      props.putLongProperty(RandomUtil.randomSimpleString(), RandomUtil.randomLong());
+      props.putFloatProperty(RandomUtil.randomSimpleString(), RandomUtil.randomFloat());
+      props.putDoubleProperty(RandomUtil.randomSimpleString(), RandomUtil.randomDouble());
+      props.putCharProperty(RandomUtil.randomSimpleString(), RandomUtil.randomChar());
+      props.putSimpleStringProperty(RandomUtil.randomSimpleString(), RandomUtil.randomSimpleString());
+      props.putSimpleStringProperty(RandomUtil.randomSimpleString(), null);
+      ByteBuf buf = Unpooled.buffer();
+      props.encode(buf);
+      buf.resetReaderIndex();
+      final int readerIndex = buf.readerIndex();
+      Assert.assertNull(readProperty(RandomUtil.randomSimpleString(), buf, 0, null));
+      props.forEachKey(key -> {
+         final Object expected = props.getProperty(key);
+         final Object actual = readProperty(SimpleString.toSimpleString(key.toString()), buf, 0, null);
+         if (expected instanceof byte[]) {
+            Assert.assertArrayEquals((byte[]) expected, (byte[]) actual);
+         } else {
+            Assert.assertEquals(expected, actual);
+         }
+      });
+      Assert.assertEquals("reading a property must not move the buffer", readerIndex, buf.readerIndex());
+   }
+
    @Test(expected = IndexOutOfBoundsException.class)
    public void testSearchPartiallyEncodedBuffer() {
       final int expectedLength = Integer.BYTES + Byte.BYTES;
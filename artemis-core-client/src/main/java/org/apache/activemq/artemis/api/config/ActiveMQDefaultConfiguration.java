@@ -282,6 +282,18 @@ public final class ActiveMQDefaultConfiguration {
    // The time to wait when opening a new journal file before failing
    private static int DEFAULT_JOURNAL_FILE_OPEN_TIMEOUT = 5;
 
+   // Whether the message journal keeps track of its records on a compact index
+   private static boolean DEFAULT_JOURNAL_COMPACT_RECORD_INDEX = false;
+
+   // How many message journal files are read and decoded concurrently on load
+   private static int DEFAULT_JOURNAL_LOAD_THREADS = 1;
+
+   // How often (in ms) the message journal is checkpointed into compacted files, -1 to disable
+   private static long DEFAULT_JOURNAL_CHECKPOINT_PERIOD = -1;
+
+   // How many bytes of message journal files the background compaction reads per second, -1 for no limit
+   private static long DEFAULT_JOURNAL_COMPACT_MAX_RATE = -1;
+
    // The minimal number of data files before we can start compacting
    private static int DEFAULT_JOURNAL_COMPACT_MIN_FILES = 10;
 
@@ -472,6 +484,10 @@ public final class ActiveMQDefaultConfiguration {
 
    private static final long DEFAULT_JDBC_JOURNAL_SYNC_PERIOD_MILLIS = 5;
 
+   private static final int DEFAULT_JDBC_JOURNAL_PARTITIONS = 1;
+
+   private static final boolean DEFAULT_JDBC_CHUNKED_FILES = false;
+
    private static final long DEFAULT_JDBC_LOCK_ACQUISITION_TIMEOUT_MILLIS = -1;
 
    // Default period to wait between connection TTL checks
@@ -484,6 +500,9 @@ public final class ActiveMQDefaultConfiguration {
 
    public static final long DEFAULT_GLOBAL_MAX_SIZE = Runtime.getRuntime().maxMemory() / 2;
 
+   // -1 means a tenth of the max heap
+   public static final long DEFAULT_GLOBAL_PAGE_CACHE_SIZE = -1;
+
    public static final int DEFAULT_MAX_DISK_USAGE;
 
    static {
@@ -953,6 +972,34 @@ public final class ActiveMQDefaultConfiguration {
       return DEFAULT_JOURNAL_FILE_OPEN_TIMEOUT;
    }
 
+   /**
+    * Whether the message journal keeps track of its records on a compact index
+    */
+   public static boolean isDefaultJournalCompactRecordIndex() {
+      return DEFAULT_JOURNAL_COMPACT_RECORD_INDEX;
+   }
+
+   /**
+    * How many message journal files are read and decoded concurrently on load
+    */
+   public static int getDefaultJournalLoadThreads() {
+      return DEFAULT_JOURNAL_LOAD_THREADS;
+   }
+
+   /**
+    * How often (in ms) the message journal is checkpointed into compacted files, -1 to disable
+    */
+   public static long getDefaultJournalCheckpointPeriod() {
+      return DEFAULT_JOURNAL_CHECKPOINT_PERIOD;
+   }
+
+   /**
+    * How many bytes of message journal files the background compaction reads per second, -1 for no limit
+    */
+   public static long getDefaultJournalCompactMaxRate() {
+      return DEFAULT_JOURNAL_COMPACT_MAX_RATE;
+   }
+
    /**
     * The minimal number of data files before we can start compacting
     */
@@ -1381,6 +1428,14 @@ public final class ActiveMQDefaultConfiguration {
       return DEFAULT_JDBC_JOURNAL_SYNC_PERIOD_MILLIS;
    }
 
+   public static int getDefaultJdbcJournalPartitions() {
+      return DEFAULT_JDBC_JOURNAL_PARTITIONS;
+   }
+
+   public static boolean isDefaultJdbcChunkedFiles() {
+      return DEFAULT_JDBC_CHUNKED_FILES;
+   }
+
    public static long getDefaultJdbcLockExpirationMillis() {
       return DEFAULT_JDBC_LOCK_EXPIRATION_MILLIS;
    }
@@ -1408,6 +1463,13 @@ public final class ActiveMQDefaultConfiguration {
       return DEFAULT_GLOBAL_MAX_SIZE;
    }
 
+   /**
+    * The default size of the page caches of all the addresses. -1 = a tenth of the max heap, 0 = no limit.
+    */
+   public static long getDefaultGlobalPageCacheSize() {
+      return DEFAULT_GLOBAL_PAGE_CACHE_SIZE;
+   }
+
    public static int getDefaultMaxDiskUsage() {
       return DEFAULT_MAX_DISK_USAGE;
    }
@@ -16,6 +16,8 @@
  */
 package org.apache.activemq.artemis.api.core.client;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.spi.core.remoting.ConsumerContext;
 
@@ -83,6 +85,22 @@ public interface ClientConsumer extends AutoCloseable {
     */
    ClientMessage receiveImmediate() throws ActiveMQException;
 
+   /**
+    * Receives a message from a queue without blocking the calling thread.
+    * <p>
+    * The returned future is completed with the next message delivered to this consumer, in the order the futures were
+    * requested, on the thread which would have called a {@link MessageHandler}. It is completed with {@code null}
+    * if the consumer is closed before a message arrives, and exceptionally if the consumer is closed or has a
+    * MessageHandler set when this method is called.
+    * <p>
+    * Like with {@link #receive()}, the body of a large message is discarded when the next message is asked for: by
+    * the next call of this method, or right after the future is completed if a next one is already pending. In that
+    * case the body can only be read by the actions depending on the future, like by a {@link MessageHandler}.
+    *
+    * @return a future completed with the received message
+    */
+   CompletableFuture<ClientMessage> receiveAsync();
+
    /**
     * Returns the MessageHandler associated to this consumer.
     * <p>
@@ -16,6 +16,9 @@
  */
 package org.apache.activemq.artemis.api.core.client;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.SimpleString;
@@ -119,6 +122,52 @@ public interface ClientProducer extends AutoCloseable {
     */
    void send(String address, Message message) throws ActiveMQException;
 
+   /**
+    * Sends a message to the address specified in {@link ClientSession#createProducer(String)} or
+    * similar methods, without blocking the calling thread. <br>
+    * <br>
+    * The returned future is completed when the server confirms it has received the message, or exceptionally
+    * if the server fails to handle it. Many messages can be in flight at the same time, as long as
+    * {@link ServerLocator#setConfirmationWindowSize(int)} is set: otherwise the message is sent blocking and the
+    * future is completed before this method returns.
+    *
+    * @param message the message to send
+    * @return a future completed on the confirmation of the message by the server
+    */
+   CompletableFuture<Void> sendAsync(Message message);
+
+   /**
+    * Sends a message to the specified address instead of the ClientProducer's address, without blocking the
+    * calling thread.
+    *
+    * @param address the address where the message will be sent
+    * @param message the message to send
+    * @return a future completed on the confirmation of the message by the server
+    * @see #sendAsync(Message)
+    */
+   CompletableFuture<Void> sendAsync(SimpleString address, Message message);
+
+   /**
+    * Sends several messages to the address specified in {@link ClientSession#createProducer(String)} or
+    * similar methods, in order. <br>
+    * <br>
+    * The messages are sent in a single packet and the server routes them together, answering with a single
+    * response: when the session is not transacted the durable messages are stored in a single transaction, so
+    * if one of them fails to be routed none of the messages of that transaction is. A message with a duplicate ID
+    * already known to the server, or repeated in the batch, is routed on its own after the messages before it have
+    * been stored, and is dropped like any other duplicate without failing the rest of the batch.
+    * Large messages are still streamed on their own.
+    * <p>
+    * This will block until confirmation that the messages have reached the server has been received
+    * if {@link ServerLocator#setBlockOnDurableSend(boolean)} or
+    * {@link ServerLocator#setBlockOnNonDurableSend(boolean)} are set to <code>true</code> for the
+    * type of any of the messages.
+    *
+    * @param messages the messages to send
+    * @throws ActiveMQException if an exception occurs while sending the messages
+    */
+   void send(Collection<? extends Message> messages) throws ActiveMQException;
+
    /**
     * Closes the ClientProducer. If already closed nothing is done.
     *
@@ -425,6 +425,21 @@ public interface ActiveMQClientLogger extends BasicLogger {
            format = Message.Format.MESSAGE_FORMAT)
    void broadcastTimeout(int retry, int maxretry);
 
+   @LogMessage(level = Logger.Level.WARN)
+   @Message(id = 212078, value = "Unable to check io_uring availability ",
+           format = Message.Format.MESSAGE_FORMAT)
+   void unableToCheckIoUringAvailability(@Cause Throwable e);
+
+   @LogMessage(level = Logger.Level.WARN)
+   @Message(id = 212079, value = "io_uring is not available, please add to the classpath or configure useIoUring=false to remove this warning",
+           format = Message.Format.MESSAGE_FORMAT)
+   void unableToCheckIoUringAvailabilityNoClass();
+
+   @LogMessage(level = Logger.Level.WARN)
+   @Message(id = 212080, value = "io_uring is not supported by this system, falling back to the next available transport: {0}",
+           format = Message.Format.MESSAGE_FORMAT)
+   void ioUringNotAvailable(String cause);
+
    @LogMessage(level = Logger.Level.ERROR)
    @Message(id = 214000, value = "Failed to call onMessage", format = Message.Format.MESSAGE_FORMAT)
    void onMessageError(@Cause Throwable e);
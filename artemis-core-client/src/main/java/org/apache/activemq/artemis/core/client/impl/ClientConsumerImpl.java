@@ -19,7 +19,11 @@ package org.apache.activemq.artemis.core.client.impl;
 import java.io.File;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayDeque;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
@@ -98,6 +102,9 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
 
    private final Runner runner = new Runner();
 
+   // the futures returned by receiveAsync, completed in order by the runner as messages are available
+   private final Queue<CompletableFuture<ClientMessage>> pendingReceives = new ArrayDeque<>();
+
    private LargeMessageControllerImpl currentLargeMessageController;
 
    // When receiving LargeMessages, the user may choose to not read the body, on this case we need to discard the body
@@ -412,6 +419,43 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
       return receive(0, true);
    }
 
+   @Override
+   public CompletableFuture<ClientMessage> receiveAsync() {
+      final CompletableFuture<ClientMessage> future = new CompletableFuture<>();
+      try {
+         checkClosed();
+
+         final ClientMessageInternal previousLargeMessage;
+         synchronized (this) {
+            if (handler != null) {
+               throw ActiveMQClientMessageBundle.BUNDLE.messageHandlerSet();
+            }
+
+            previousLargeMessage = largeMessageReceived;
+            largeMessageReceived = null;
+
+            pendingReceives.add(future);
+
+            // a message may already be waiting in the buffer
+            if (!stopped) {
+               queueExecutor();
+            }
+         }
+
+         if (previousLargeMessage != null) {
+            // as receive does: the credits of the chunks not read yet are given back
+            previousLargeMessage.discardBody();
+         }
+
+         if (clientWindowSize == 0) {
+            startSlowConsumer();
+         }
+      } catch (ActiveMQException e) {
+         future.completeExceptionally(e);
+      }
+      return future;
+   }
+
    @Override
    public MessageHandler getMessageHandler() throws ActiveMQException {
       checkClosed();
@@ -434,7 +478,7 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
    public synchronized ClientConsumerImpl setMessageHandler(final MessageHandler theHandler) throws ActiveMQException {
       checkClosed();
 
-      if (receiverThread != null) {
+      if (receiverThread != null || !pendingReceives.isEmpty()) {
          throw ActiveMQClientMessageBundle.BUNDLE.inReceive();
       }
 
@@ -596,6 +640,13 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
       }
    }
 
+   @Override
+   public synchronized void handleMessages(final List<ClientMessageInternal> messages) throws Exception {
+      for (ClientMessageInternal message : messages) {
+         handleMessage(message);
+      }
+   }
+
    private void handleRegularMessage(ClientMessageInternal message) {
       if (message.getAddress() == null) {
          message.setAddress(queueInfo.getAddress());
@@ -613,7 +664,7 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
       // Add it to the buffer
       buffer.addTail(message, message.getPriority());
 
-      if (handler != null) {
+      if (handler != null || !pendingReceives.isEmpty()) {
          // Execute using executor
          if (!stopped) {
             queueExecutor();
@@ -1061,6 +1112,72 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
                startSlowConsumer();
             }
          }
+      } else {
+         completePendingReceive();
+      }
+   }
+
+   private synchronized CompletableFuture<ClientMessage> pollPendingReceive() {
+      return pendingReceives.poll();
+   }
+
+   private void completePendingReceive() throws Exception {
+      final ClientMessageInternal message;
+
+      synchronized (this) {
+         if (pendingReceives.isEmpty()) {
+            return;
+         }
+
+         message = buffer.poll();
+      }
+
+      if (message == null) {
+         return;
+      }
+
+      if (message.containsProperty(ClientConsumerImpl.FORCED_DELIVERY_MESSAGE)) {
+         //Ignore, this could be a relic from a previous receiveImmediate();
+         return;
+      }
+
+      if (rateLimiter != null) {
+         rateLimiter.limit();
+      }
+
+      boolean expired = message.isExpired();
+
+      flowControlBeforeConsumption(message);
+
+      if (!expired) {
+         final CompletableFuture<ClientMessage> future = pollPendingReceive();
+
+         if (future != null) {
+            if (logger.isTraceEnabled()) {
+               logger.trace(this + "::Completing pending receive with " + message);
+            }
+            future.complete(message);
+
+            if (message.isLargeMessage()) {
+               final boolean nextPending;
+               synchronized (this) {
+                  nextPending = !pendingReceives.isEmpty();
+                  if (!nextPending) {
+                     largeMessageReceived = message;
+                  }
+               }
+               if (nextPending) {
+                  message.discardBody();
+               }
+            }
+         }
+      } else {
+         session.expire(this, message);
+
+         // If slow consumer, we need to send 1 credit to make sure we get another message for the same receive
+         if (clientWindowSize == 0) {
+            startSlowConsumer();
+         }
       }
    }
 
@@ -1105,6 +1222,12 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
             receiverThread = null;
          }
 
+         // no more messages will come for the pending receives
+         CompletableFuture<ClientMessage> future;
+         while ((future = pollPendingReceive()) != null) {
+            future.complete(null);
+         }
+
          flushAcks();
 
          clearBuffer();
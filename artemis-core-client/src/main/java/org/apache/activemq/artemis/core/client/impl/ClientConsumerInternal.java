@@ -16,6 +16,8 @@
  */
 package org.apache.activemq.artemis.core.client.impl;
 
+import java.util.List;
+
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.api.core.client.ClientConsumer;
@@ -35,6 +37,11 @@ public interface ClientConsumerInternal extends ClientConsumer {
 
    void handleMessage(ClientMessageInternal message) throws Exception;
 
+   /**
+    * Handles the messages the server delivered in a single packet, in their order.
+    */
+   void handleMessages(List<ClientMessageInternal> messages) throws Exception;
+
    void handleLargeMessage(ClientLargeMessageInternal clientLargeMessage, long largeMessageSize) throws Exception;
 
    void handleLargeMessageContinuation(byte[] chunk, int flowControlSize, boolean isContinues) throws Exception;
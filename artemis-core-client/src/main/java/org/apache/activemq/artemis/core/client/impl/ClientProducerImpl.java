@@ -19,6 +19,10 @@ package org.apache.activemq.artemis.core.client.impl;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.activemq.artemis.api.core.ActiveMQException;
@@ -157,6 +161,61 @@ public class ClientProducerImpl implements ClientProducerInternal {
       send(null, message, handler);
    }
 
+   @Override
+   public CompletableFuture<Void> sendAsync(final Message message) {
+      return sendAsync(null, message);
+   }
+
+   @Override
+   public CompletableFuture<Void> sendAsync(final SimpleString address1, final Message message) {
+      final CompletableFuture<Void> future = new CompletableFuture<>();
+      try {
+         checkClosed();
+
+         if (session.isConfirmationWindowEnabled()) {
+            // the handler is called back through the response cache of the channel, once the server has handled the message
+            send(address1, message, new SendAcknowledgementHandler() {
+               @Override
+               public void sendAcknowledged(Message confirmed) {
+                  future.complete(null);
+               }
+
+               @Override
+               public void sendFailed(Message failed, Exception e) {
+                  future.completeExceptionally(e);
+               }
+            });
+         } else {
+            // without a confirmation window the server only answers blocking sends
+            doSend(address1, message, null, true);
+            future.complete(null);
+         }
+      } catch (ActiveMQException e) {
+         future.completeExceptionally(e);
+      }
+      return future;
+   }
+
+   @Override
+   public void send(final Collection<? extends Message> messages) throws ActiveMQException {
+      checkClosed();
+
+      SendAcknowledgementHandler handler = sessionContext.getSendAcknowledgementHandler();
+
+      if (handler != null) {
+         handler = new SendAcknowledgementHandlerWrapper(handler);
+      }
+
+      doSend(messages, handler);
+
+      if (handler != null && !session.isConfirmationWindowEnabled()) {
+         // if there is no confirmation enabled, we will at least call the handler after the sent is done
+         for (Message message : messages) {
+            session.scheduleConfirmation(handler, message);
+         }
+      }
+   }
+
    @Override
    public synchronized void close() throws ActiveMQException {
       if (closed) {
@@ -215,6 +274,13 @@ public class ClientProducerImpl implements ClientProducerInternal {
    private void doSend(SimpleString sendingAddress,
                        final Message msgToSend,
                        final SendAcknowledgementHandler handler) throws ActiveMQException {
+      doSend(sendingAddress, msgToSend, handler, false);
+   }
+
+   private void doSend(SimpleString sendingAddress,
+                       final Message msgToSend,
+                       final SendAcknowledgementHandler handler,
+                       final boolean forceBlocking) throws ActiveMQException {
       if (sendingAddress == null) {
          sendingAddress = this.address;
       }
@@ -226,16 +292,7 @@ public class ClientProducerImpl implements ClientProducerInternal {
 
          ClientProducerCredits theCredits;
 
-         boolean isLarge;
-         // a note about the second check on the writerIndexSize,
-         // If it's a server's message, it means this is being done through the bridge or some special consumer on the
-         // server's on which case we can't' convert the message into large at the servers
-         if (sessionContext.supportsLargeMessage() && (getBodyInputStream(msg) != null || msg.isLargeMessage() ||
-            msg.getBodyBuffer().writerIndex() > minLargeMessageSize)) {
-            isLarge = true;
-         } else {
-            isLarge = false;
-         }
+         final boolean isLarge = isLargeMessage(msg);
 
          if (!isLarge) {
             session.setAddress(msg, sendingAddress);
@@ -258,7 +315,7 @@ public class ClientProducerImpl implements ClientProducerInternal {
 
          final boolean sendBlockingConfig = msg.isDurable() ? blockOnDurableSend : blockOnNonDurableSend;
          // if Handler != null, we will send non blocking
-         final boolean sendBlocking = sendBlockingConfig && handler == null && sessionContext.getSendAcknowledgementHandler() == null;
+         final boolean sendBlocking = forceBlocking || sendBlockingConfig && handler == null && sessionContext.getSendAcknowledgementHandler() == null;
 
          session.workDone();
 
@@ -272,6 +329,90 @@ public class ClientProducerImpl implements ClientProducerInternal {
       }
    }
 
+   /**
+    * Sends the messages in a single packet, except for the large ones which are streamed on their own after the
+    * messages preceding them.
+    */
+   private void doSend(final Collection<? extends Message> messagesToSend,
+                       final SendAcknowledgementHandler handler) throws ActiveMQException {
+      final SimpleString sendingAddress = this.address;
+      session.startCall();
+
+      try {
+         final ClientProducerCredits theCredits = session.getCredits(sendingAddress, true);
+
+         final List<ICoreMessage> batch = new ArrayList<>(messagesToSend.size());
+         boolean batchBlocking = false;
+
+         session.workDone();
+
+         for (Message msgToSend : messagesToSend) {
+            ICoreMessage msg = msgToSend.toCore();
+
+            final boolean isLarge = isLargeMessage(msg);
+
+            if (!isLarge) {
+               session.setAddress(msg, sendingAddress);
+            } else {
+               msg.setAddress(sendingAddress);
+            }
+
+            if (rateLimiter != null) {
+               // Rate flow control
+
+               rateLimiter.limit();
+            }
+
+            if (groupID != null) {
+               msg.putStringProperty(Message.HDR_GROUP_ID, groupID);
+            }
+
+            final boolean sendBlockingConfig = msg.isDurable() ? blockOnDurableSend : blockOnNonDurableSend;
+            // if Handler != null, we will send non blocking
+            final boolean sendBlocking = sendBlockingConfig && handler == null;
+
+            if (isLarge) {
+               sendRegularMessages(batch, batchBlocking, handler);
+               batch.clear();
+               batchBlocking = false;
+
+               largeMessageSend(sendBlocking, msg, theCredits, handler);
+            } else {
+               logger.tracef("sendRegularMessage::%s, Blocking=%s", msg, sendBlocking);
+
+               // This will block if credits are not available
+               theCredits.acquireCredits(sessionContext.getCreditsOnSendingFull(msg));
+
+               batch.add(msg);
+               // the whole batch is blocking as soon as one of its messages is
+               batchBlocking |= sendBlocking;
+            }
+         }
+
+         sendRegularMessages(batch, batchBlocking, handler);
+      } finally {
+         session.endCall();
+      }
+   }
+
+   private void sendRegularMessages(final List<ICoreMessage> batch,
+                                    final boolean sendBlocking,
+                                    final SendAcknowledgementHandler handler) throws ActiveMQException {
+      if (batch.size() == 1) {
+         sessionContext.sendFullMessage(batch.get(0), sendBlocking, handler, address);
+      } else if (!batch.isEmpty()) {
+         sessionContext.sendFullMessages(new ArrayList<>(batch), sendBlocking, handler, address);
+      }
+   }
+
+   private boolean isLargeMessage(ICoreMessage msg) {
+      // a note about the second check on the writerIndexSize,
+      // If it's a server's message, it means this is being done through the bridge or some special consumer on the
+      // server's on which case we can't' convert the message into large at the servers
+      return sessionContext.supportsLargeMessage() && (getBodyInputStream(msg) != null || msg.isLargeMessage() ||
+         msg.getBodyBuffer().writerIndex() > minLargeMessageSize);
+   }
+
    private InputStream getBodyInputStream(ICoreMessage msgI) {
       return msgI.getBodyInputStream();
    }
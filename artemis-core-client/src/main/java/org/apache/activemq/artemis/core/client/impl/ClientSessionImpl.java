@@ -23,6 +23,7 @@ import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executor;
@@ -1274,6 +1275,16 @@ public final class ClientSessionImpl implements ClientSessionInternal, FailureLi
       }
    }
 
+   @Override
+   public void handleReceiveMessages(final ConsumerContext consumerID,
+                                     final List<ClientMessageInternal> messages) throws Exception {
+      ClientConsumerInternal consumer = getConsumer(consumerID);
+
+      if (consumer != null) {
+         consumer.handleMessages(messages);
+      }
+   }
+
    @Override
    public void handleReceiveLargeMessage(final ConsumerContext consumerID,
                                          ClientLargeMessageInternal clientLargeMessage,
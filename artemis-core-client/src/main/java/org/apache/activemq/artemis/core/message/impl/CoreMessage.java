@@ -63,6 +63,9 @@ public class CoreMessage extends RefCountMessage implements ICoreMessage {
    // There's an integer with the number of bytes for the body
    public static final int BODY_OFFSET = DataConstants.SIZE_INT;
 
+   // Routing and filtering only look up a few properties: past that it's cheaper to decode them all
+   private static final int MAX_ENCODED_PROPERTY_READS = 4;
+
    /** That is the readInto for the whole message, including properties..
        it does not include the buffer for the Packet send and receive header on core protocol */
    protected ByteBuf buffer;
@@ -98,6 +101,9 @@ public class CoreMessage extends RefCountMessage implements ICoreMessage {
 
    private int propertiesLocation = -1;
 
+   // the lookups read straight from the encoded properties since they were last decoded, guarded by this
+   private int encodedPropertyReads;
+
    protected volatile TypedProperties properties;
 
    private final CoreMessageObjectPools coreMessageObjectPools;
@@ -153,7 +159,11 @@ public class CoreMessage extends RefCountMessage implements ICoreMessage {
 
    @Override
    public RoutingType getRoutingType() {
-      if (containsProperty(Message.HDR_ROUTING_TYPE)) {
+      final Object routingType = readProperty(Message.HDR_ROUTING_TYPE);
+      if (routingType instanceof Byte) {
+         return RoutingType.getType((Byte) routingType);
+      }
+      if (routingType != null) {
          return RoutingType.getType(getByteProperty(Message.HDR_ROUTING_TYPE));
       }
       return null;
@@ -696,6 +706,7 @@ public class CoreMessage extends RefCountMessage implements ICoreMessage {
       if (lazyProperties) {
          properties = null;
          propertiesLocation = buffer.readerIndex();
+         encodedPropertyReads = 0;
       } else {
          properties = new TypedProperties(INTERNAL_PROPERTY_NAMES_PREDICATE);
          properties.decode(buffer, pools == null ? null : pools.getPropertiesDecoderPools());
@@ -887,6 +898,10 @@ public class CoreMessage extends RefCountMessage implements ICoreMessage {
 
    @Override
    public byte[] getBytesProperty(final SimpleString key) throws ActiveMQPropertyConversionException {
+      final Object value = readProperty(key);
+      if (value == null || value instanceof byte[]) {
+         return (byte[]) value;
+      }
       return getProperties().getBytesProperty(key);
    }
 
@@ -1029,7 +1044,7 @@ public class CoreMessage extends RefCountMessage implements ICoreMessage {
 
    @Override
    public Object getObjectProperty(final SimpleString key) {
-      return getProperties().getProperty(key);
+      return readProperty(key);
    }
 
    @Override
@@ -1075,6 +1090,10 @@ public class CoreMessage extends RefCountMessage implements ICoreMessage {
 
    @Override
    public SimpleString getSimpleStringProperty(final SimpleString key) throws ActiveMQPropertyConversionException {
+      final Object value = readProperty(key);
+      if (value == null || value instanceof SimpleString) {
+         return (SimpleString) value;
+      }
       return getProperties().getSimpleStringProperty(key);
    }
 
@@ -1128,6 +1147,34 @@ public class CoreMessage extends RefCountMessage implements ICoreMessage {
       }
    }
 
+   /**
+    * Reads the value of the {@code key} property: until the properties are decoded (i.e. until the message is
+    * modified) it's read straight from the encoded ones, see {@link TypedProperties#readProperty}, instead of
+    * decoding all of them. Each of these reads scans the encoded properties and decodes a new value, so after
+    * {@link #MAX_ENCODED_PROPERTY_READS} of them the properties are decoded once and for all.
+    */
+   private Object readProperty(SimpleString key) {
+      Objects.requireNonNull(key, "key cannot be null");
+      TypedProperties properties = this.properties;
+      if (properties != null) {
+         return properties.getProperty(key);
+      }
+      synchronized (this) {
+         properties = this.properties;
+         final ByteBuf buffer = this.buffer;
+         final int propertiesLocation = this.propertiesLocation;
+         if (properties != null || buffer == null || propertiesLocation < 0 || encodedPropertyReads >= MAX_ENCODED_PROPERTY_READS) {
+            return getProperties().getProperty(key);
+         }
+         encodedPropertyReads++;
+         try {
+            return TypedProperties.readProperty(key, buffer, propertiesLocation, coreMessageObjectPools == null ? null : coreMessageObjectPools.getPropertiesDecoderPools());
+         } catch (Throwable e) {
+            throw onCheckPropertiesError(e);
+         }
+      }
+   }
+
    @Override
    public boolean containsProperty(final SimpleString key) {
       return getProperties().containsProperty(key);
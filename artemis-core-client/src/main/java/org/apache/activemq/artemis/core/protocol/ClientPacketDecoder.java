@@ -25,10 +25,12 @@ import org.apache.activemq.artemis.core.protocol.core.Packet;
 import org.apache.activemq.artemis.core.protocol.core.impl.PacketDecoder;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveClientLargeMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveMessageBatch;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveMessage_1X;
 
 import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.SESS_RECEIVE_LARGE_MSG;
 import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.SESS_RECEIVE_MSG;
+import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.SESS_RECEIVE_MSG_BATCH;
 
 public class ClientPacketDecoder extends PacketDecoder {
 
@@ -63,6 +65,10 @@ public class ClientPacketDecoder extends PacketDecoder {
             packet = new SessionReceiveClientLargeMessage(new ClientLargeMessageImpl());
             break;
          }
+         case SESS_RECEIVE_MSG_BATCH: {
+            packet = new SessionReceiveMessageBatch(() -> new ClientMessageImpl(coreMessageObjectPools));
+            break;
+         }
          default: {
             packet = super.decode(packetType, connection);
          }
@@ -51,6 +51,16 @@ public interface CoreRemotingConnection extends RemotingConnection {
       return  version >= PacketImpl.ARTEMIS_2_7_0_VERSION;
    }
 
+   default boolean isVersionSupportBatchedDelivery() {
+      int version = getChannelVersion();
+      return  version >= PacketImpl.BATCHED_DELIVERY_CHANGE_VERSION;
+   }
+
+   default boolean isVersionSupportBatchedSend() {
+      int version = getChannelVersion();
+      return  version >= PacketImpl.BATCHED_SEND_CHANGE_VERSION;
+   }
+
    /**
     * Sets the client protocol used on the communication. This will determine if the client has
     * support for certain packet types
@@ -30,9 +30,11 @@ import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.EXC
 import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.SESS_RECEIVE_CONTINUATION;
 import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.SESS_RECEIVE_LARGE_MSG;
 import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.SESS_RECEIVE_MSG;
+import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.SESS_RECEIVE_MSG_BATCH;
 
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
@@ -100,11 +102,13 @@ import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionQue
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveContinuationMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveLargeMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveMessageBatch;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionRequestProducerCreditsMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendContinuationMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendContinuationMessage_V2;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendLargeMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendMessageBatch;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendMessage_1X;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendMessage_V2;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionUniqueAddMetaDataMessage;
@@ -219,6 +223,11 @@ public class ActiveMQSessionContext extends SessionContext {
          if (packet.getType() == PacketImpl.SESS_SEND) {
             SessionSendMessage ssm = (SessionSendMessage) packet;
             callSendAck(ssm.getHandler(), ssm.getMessage(), activeMQException);
+         } else if (packet.getType() == PacketImpl.SESS_SEND_BATCH) {
+            SessionSendMessageBatch ssmb = (SessionSendMessageBatch) packet;
+            for (Message message : ssmb.getMessages()) {
+               callSendAck(ssmb.getHandler(), message, activeMQException);
+            }
          } else if (packet.getType() == PacketImpl.SESS_SEND_CONTINUATION) {
             SessionSendContinuationMessage scm = (SessionSendContinuationMessage) packet;
             if (!scm.isContinues()) {
@@ -555,6 +564,24 @@ public class ActiveMQSessionContext extends SessionContext {
       }
    }
 
+   @Override
+   public void sendFullMessages(List<ICoreMessage> messages,
+                                boolean sendBlocking,
+                                SendAcknowledgementHandler handler,
+                                SimpleString defaultAddress) throws ActiveMQException {
+      if (!sessionChannel.getConnection().isVersionSupportBatchedSend()) {
+         super.sendFullMessages(messages, sendBlocking, handler, defaultAddress);
+         return;
+      }
+      boolean responseRequired = confirmationWindow != -1 || sendBlocking;
+      SessionSendMessageBatch packet = new SessionSendMessageBatch(messages, responseRequired, handler);
+      if (sendBlocking) {
+         sessionChannel.sendBlocking(packet, PacketImpl.NULL_RESPONSE);
+      } else {
+         sessionChannel.sendBatched(packet);
+      }
+   }
+
    @Override
    public int sendInitialChunkOnLargeMessage(Message msgI) throws ActiveMQException {
       SessionSendLargeMessage initialChunk = new SessionSendLargeMessage(msgI);
@@ -997,6 +1024,24 @@ public class ActiveMQSessionContext extends SessionContext {
       handleReceiveMessage(new ActiveMQConsumerContext(messagePacket.getConsumerID()), msgi);
    }
 
+   private void handleReceivedMessageBatch(SessionReceiveMessageBatch batchPacket) throws Exception {
+      List<ICoreMessage> messages = batchPacket.getMessages();
+
+      List<ClientMessageInternal> received = new ArrayList<>(messages.size());
+
+      for (int i = 0; i < messages.size(); i++) {
+         ClientMessageInternal msgi = (ClientMessageInternal) messages.get(i);
+
+         msgi.setDeliveryCount(batchPacket.getDeliveryCount(i));
+
+         msgi.setFlowControlSize(batchPacket.getFlowControlSize(i));
+
+         received.add(msgi);
+      }
+
+      handleReceiveMessages(new ActiveMQConsumerContext(batchPacket.getConsumerID()), received);
+   }
+
    private void handleReceiveLargeMessage(SessionReceiveLargeMessage serverPacket) throws Exception {
       ClientLargeMessageInternal clientLargeMessage = (ClientLargeMessageInternal) serverPacket.getLargeMessage();
 
@@ -1092,6 +1137,11 @@ public class ActiveMQSessionContext extends SessionContext {
 
                   break;
                }
+               case SESS_RECEIVE_MSG_BATCH: {
+                  handleReceivedMessageBatch((SessionReceiveMessageBatch) packet);
+
+                  break;
+               }
                case PacketImpl.SESS_PRODUCER_CREDITS: {
                   handleReceiveProducerCredits((SessionProducerCreditsMessage) packet);
 
@@ -38,6 +38,11 @@ public class PacketImpl implements Packet {
    public static final int CONSUMER_PRIORITY_CHANGE_VERSION = ARTEMIS_2_7_0_VERSION;
    public static final int FQQN_CHANGE_VERSION = ARTEMIS_2_7_0_VERSION;
 
+   // 2.13.0
+   public static final int ARTEMIS_2_13_0_VERSION = 131;
+   public static final int BATCHED_DELIVERY_CHANGE_VERSION = ARTEMIS_2_13_0_VERSION;
+   public static final int BATCHED_SEND_CHANGE_VERSION = ARTEMIS_2_13_0_VERSION;
+
 
    public static final SimpleString OLD_QUEUE_PREFIX = new SimpleString("jms.queue.");
    public static final SimpleString OLD_TEMP_QUEUE_PREFIX = new SimpleString("jms.tempqueue.");
@@ -279,6 +284,14 @@ public class PacketImpl implements Packet {
 
    public static final byte FEDERATION_DOWNSTREAM_CONNECT = -16;
 
+   public static final byte REPLICATION_RESPONSE_V3 = -17;
+
+   public static final byte REPLICATION_SYNC_INVENTORY = -18;
+
+   public static final byte SESS_RECEIVE_MSG_BATCH = -19;
+
+   public static final byte SESS_SEND_BATCH = -20;
+
 
    // Static --------------------------------------------------------
 
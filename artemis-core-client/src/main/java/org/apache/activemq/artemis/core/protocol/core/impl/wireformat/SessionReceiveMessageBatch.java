@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.protocol.core.impl.wireformat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.api.core.ICoreMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
+import org.apache.activemq.artemis.utils.DataConstants;
+
+/**
+ * Several messages delivered to the same consumer in a single packet.
+ * <p>
+ * Each message is encoded as in {@link SessionReceiveMessage}, preceded by its delivery count and its length.
+ */
+public class SessionReceiveMessageBatch extends PacketImpl {
+
+   private static final int BATCH_HEADER_SIZE = PACKET_HEADERS_SIZE + DataConstants.SIZE_LONG + DataConstants.SIZE_INT;
+
+   private static final int MESSAGE_HEADER_SIZE = DataConstants.SIZE_INT + DataConstants.SIZE_INT;
+
+   private final Supplier<? extends ICoreMessage> messageFactory;
+
+   private long consumerID;
+
+   private final List<ICoreMessage> messages;
+
+   private int[] deliveryCounts;
+
+   // the share of the packet taken by each message, for the flow control of the consumer
+   private int[] flowControlSizes;
+
+   public SessionReceiveMessageBatch(final long consumerID,
+                                     final List<ICoreMessage> messages,
+                                     final int[] deliveryCounts) {
+      super(SESS_RECEIVE_MSG_BATCH);
+
+      this.messageFactory = null;
+
+      this.consumerID = consumerID;
+
+      this.messages = messages;
+
+      this.deliveryCounts = deliveryCounts;
+   }
+
+   public SessionReceiveMessageBatch(final Supplier<? extends ICoreMessage> messageFactory) {
+      super(SESS_RECEIVE_MSG_BATCH);
+
+      this.messageFactory = messageFactory;
+
+      this.messages = new ArrayList<>();
+   }
+
+   // Public --------------------------------------------------------
+
+   public long getConsumerID() {
+      return consumerID;
+   }
+
+   public List<ICoreMessage> getMessages() {
+      return messages;
+   }
+
+   public int getDeliveryCount(int index) {
+      return deliveryCounts[index];
+   }
+
+   /**
+    * @return the share of the packet size taken by the message at {@code index}, the shares of all the messages
+    * adding up to the size of the packet
+    */
+   public int getFlowControlSize(int index) {
+      return flowControlSizes[index];
+   }
+
+   @Override
+   public int expectedEncodeSize() {
+      int size = BATCH_HEADER_SIZE;
+      for (ICoreMessage message : messages) {
+         size += MESSAGE_HEADER_SIZE + message.getEncodeSize();
+      }
+      return size;
+   }
+
+   @Override
+   public void encodeRest(ActiveMQBuffer buffer) {
+      buffer.writeLong(consumerID);
+      buffer.writeInt(messages.size());
+      for (int i = 0; i < messages.size(); i++) {
+         buffer.writeInt(deliveryCounts[i]);
+         final int lengthIndex = buffer.writerIndex();
+         buffer.writeInt(0);
+         messages.get(i).sendBuffer(buffer.byteBuf(), deliveryCounts[i]);
+         buffer.setInt(lengthIndex, buffer.writerIndex() - lengthIndex - DataConstants.SIZE_INT);
+      }
+   }
+
+   @Override
+   public void decodeRest(final ActiveMQBuffer buffer) {
+      consumerID = buffer.readLong();
+      final int count = buffer.readInt();
+      deliveryCounts = new int[count];
+      flowControlSizes = new int[count];
+      for (int i = 0; i < count; i++) {
+         deliveryCounts[i] = buffer.readInt();
+         final int length = buffer.readInt();
+         final ByteBuf messageBuffer = Unpooled.buffer(length);
+         buffer.byteBuf().readBytes(messageBuffer, length);
+         final ICoreMessage message = messageFactory.get();
+         message.receiveBuffer(messageBuffer);
+         messages.add(message);
+         flowControlSizes[i] = MESSAGE_HEADER_SIZE + length;
+      }
+      if (count > 0) {
+         flowControlSizes[0] += BATCH_HEADER_SIZE;
+      }
+   }
+
+   @Override
+   public int hashCode() {
+      final int prime = 31;
+      int result = super.hashCode();
+      result = prime * result + (int) (consumerID ^ (consumerID >>> 32));
+      result = prime * result + messages.hashCode();
+      result = prime * result + Arrays.hashCode(deliveryCounts);
+      return result;
+   }
+
+   @Override
+   public String toString() {
+      StringBuffer buff = new StringBuffer(getParentString());
+      buff.append(", consumerID=" + consumerID);
+      buff.append(", messages=" + messages.size());
+      buff.append("]");
+      return buff.toString();
+   }
+
+   @Override
+   public boolean equals(Object obj) {
+      if (this == obj)
+         return true;
+      if (!super.equals(obj))
+         return false;
+      if (!(obj instanceof SessionReceiveMessageBatch))
+         return false;
+      SessionReceiveMessageBatch other = (SessionReceiveMessageBatch) obj;
+      if (consumerID != other.consumerID)
+         return false;
+      if (!messages.equals(other.messages))
+         return false;
+      if (!Arrays.equals(deliveryCounts, other.deliveryCounts))
+         return false;
+      return true;
+   }
+
+}
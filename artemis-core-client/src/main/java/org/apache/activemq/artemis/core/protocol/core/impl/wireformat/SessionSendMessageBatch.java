@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.protocol.core.impl.wireformat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.api.core.ICoreMessage;
+import org.apache.activemq.artemis.api.core.client.SendAcknowledgementHandler;
+import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
+import org.apache.activemq.artemis.utils.DataConstants;
+
+/**
+ * Several messages sent by a producer in a single packet, answered by a single response.
+ * <p>
+ * Each message is encoded as in {@link SessionSendMessage}, preceded by its length.
+ */
+public class SessionSendMessageBatch extends PacketImpl {
+
+   private final Supplier<? extends ICoreMessage> messageFactory;
+
+   private final List<ICoreMessage> messages;
+
+   private boolean requiresResponse;
+
+   private long correlationID;
+
+   /**
+    * The handler to call back for each message of the batch.
+    * <br>
+    * This field is only used at the client side.
+    */
+   private final transient SendAcknowledgementHandler handler;
+
+   public SessionSendMessageBatch(final List<ICoreMessage> messages,
+                                  final boolean requiresResponse,
+                                  final SendAcknowledgementHandler handler) {
+      super(SESS_SEND_BATCH);
+
+      this.messageFactory = null;
+
+      this.messages = messages;
+
+      this.requiresResponse = requiresResponse;
+
+      this.handler = handler;
+   }
+
+   public SessionSendMessageBatch(final Supplier<? extends ICoreMessage> messageFactory) {
+      super(SESS_SEND_BATCH);
+
+      this.messageFactory = messageFactory;
+
+      this.messages = new ArrayList<>();
+
+      this.handler = null;
+   }
+
+   // Public --------------------------------------------------------
+
+   public List<ICoreMessage> getMessages() {
+      return messages;
+   }
+
+   public SendAcknowledgementHandler getHandler() {
+      return handler;
+   }
+
+   @Override
+   public boolean isRequiresResponse() {
+      return requiresResponse;
+   }
+
+   @Override
+   public long getCorrelationID() {
+      return this.correlationID;
+   }
+
+   @Override
+   public void setCorrelationID(long correlationID) {
+      this.correlationID = correlationID;
+   }
+
+   @Override
+   public boolean isResponseAsync() {
+      return true;
+   }
+
+   @Override
+   public int expectedEncodeSize() {
+      int size = PACKET_HEADERS_SIZE + DataConstants.SIZE_INT + DataConstants.SIZE_BOOLEAN + DataConstants.SIZE_LONG;
+      for (ICoreMessage message : messages) {
+         size += DataConstants.SIZE_INT + message.getEncodeSize();
+      }
+      return size;
+   }
+
+   @Override
+   public void encodeRest(ActiveMQBuffer buffer) {
+      buffer.writeInt(messages.size());
+      for (ICoreMessage message : messages) {
+         final int lengthIndex = buffer.writerIndex();
+         buffer.writeInt(0);
+         message.sendBuffer(buffer.byteBuf(), 0);
+         buffer.setInt(lengthIndex, buffer.writerIndex() - lengthIndex - DataConstants.SIZE_INT);
+      }
+      buffer.writeBoolean(requiresResponse);
+      buffer.writeLong(correlationID);
+   }
+
+   @Override
+   public void decodeRest(final ActiveMQBuffer buffer) {
+      final int count = buffer.readInt();
+      for (int i = 0; i < count; i++) {
+         final int length = buffer.readInt();
+         final ByteBuf messageBuffer = Unpooled.buffer(length);
+         buffer.byteBuf().readBytes(messageBuffer, length);
+         final ICoreMessage message = messageFactory.get();
+         message.receiveBuffer(messageBuffer);
+         messages.add(message);
+      }
+      requiresResponse = buffer.readBoolean();
+      correlationID = buffer.readLong();
+   }
+
+   @Override
+   public int hashCode() {
+      final int prime = 31;
+      int result = super.hashCode();
+      result = prime * result + messages.hashCode();
+      result = prime * result + (requiresResponse ? 1231 : 1237);
+      result = prime * result + (int) (correlationID ^ (correlationID >>> 32));
+      return result;
+   }
+
+   @Override
+   public String toString() {
+      StringBuffer buff = new StringBuffer(getParentString());
+      buff.append(", messages=" + messages.size());
+      buff.append(", requiresResponse=" + requiresResponse);
+      buff.append(", correlationID=" + correlationID);
+      buff.append("]");
+      return buff.toString();
+   }
+
+   @Override
+   public boolean equals(Object obj) {
+      if (this == obj)
+         return true;
+      if (!super.equals(obj))
+         return false;
+      if (!(obj instanceof SessionSendMessageBatch))
+         return false;
+      SessionSendMessageBatch other = (SessionSendMessageBatch) obj;
+      if (!messages.equals(other.messages))
+         return false;
+      if (requiresResponse != other.requiresResponse)
+         return false;
+      if (correlationID != other.correlationID)
+         return false;
+      return true;
+   }
+
+}
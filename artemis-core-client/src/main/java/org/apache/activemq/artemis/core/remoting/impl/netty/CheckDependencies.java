@@ -24,7 +24,7 @@ import org.apache.activemq.artemis.utils.Env;
 import org.jboss.logging.Logger;
 
 /**
- * This class will check for Epoll or KQueue is available, and return false in case of NoClassDefFoundError
+ * This class will check for Epoll, KQueue or io_uring is available, and return false in case of NoClassDefFoundError
  * it could be improved to check for other cases eventually.
  */
 public class CheckDependencies {
@@ -54,4 +54,26 @@ public class CheckDependencies {
          return false;
       }
    }
+
+   public static final boolean isIoUringAvailable() {
+      try {
+         if (!Env.isLinuxOs()) {
+            return false;
+         }
+         if (!IoUringTransport.isOnClasspath()) {
+            ActiveMQClientLogger.LOGGER.unableToCheckIoUringAvailabilityNoClass();
+            return false;
+         }
+         Throwable cause = IoUringTransport.unavailabilityCause();
+         if (cause != null) {
+            // eg a kernel older than 5.9 or io_uring disabled by a seccomp profile
+            ActiveMQClientLogger.LOGGER.ioUringNotAvailable(String.valueOf(cause));
+            return false;
+         }
+         return true;
+      } catch (Throwable e) {
+         ActiveMQClientLogger.LOGGER.unableToCheckIoUringAvailability(e);
+         return false;
+      }
+   }
 }
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.remoting.impl.netty;
+
+import java.util.concurrent.ThreadFactory;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+
+/**
+ * Access to the Netty incubator io_uring transport.
+ * <p>
+ * The transport is an optional dependency, so its classes are only ever loaded by reflection: the connector
+ * and the acceptor must keep working when it's not on the classpath.
+ */
+public final class IoUringTransport {
+
+   private static final String PACKAGE = "io.netty.incubator.channel.uring.";
+
+   private IoUringTransport() {
+   }
+
+   /**
+    * @return {@code false} if the transport is not on the classpath
+    */
+   static boolean isOnClasspath() {
+      try {
+         Class.forName(PACKAGE + "IOUring", false, IoUringTransport.class.getClassLoader());
+         return true;
+      } catch (ClassNotFoundException | LinkageError e) {
+         return false;
+      }
+   }
+
+   /**
+    * @return {@code null} if io_uring is supported by the system, otherwise the reason why it isn't
+    */
+   static Throwable unavailabilityCause() throws Exception {
+      Class<?> ioUring = load("IOUring");
+      if ((Boolean) ioUring.getMethod("isAvailable").invoke(null)) {
+         return null;
+      }
+      return (Throwable) ioUring.getMethod("unavailabilityCause").invoke(null);
+   }
+
+   public static EventLoopGroup newEventLoopGroup(final int threads, final ThreadFactory threadFactory) {
+      try {
+         return (EventLoopGroup) load("IOUringEventLoopGroup").getConstructor(int.class, ThreadFactory.class).newInstance(threads, threadFactory);
+      } catch (Exception e) {
+         throw new IllegalStateException("Unable to create an io_uring event loop group", e);
+      }
+   }
+
+   public static Class<? extends Channel> socketChannelClass() {
+      return load("IOUringSocketChannel").asSubclass(Channel.class);
+   }
+
+   public static Class<? extends ServerChannel> serverSocketChannelClass() {
+      return load("IOUringServerSocketChannel").asSubclass(ServerChannel.class);
+   }
+
+   private static Class<?> load(final String className) {
+      try {
+         return Class.forName(PACKAGE + className, true, IoUringTransport.class.getClassLoader());
+      } catch (ClassNotFoundException e) {
+         throw new IllegalStateException(e);
+      }
+   }
+}
@@ -128,6 +128,7 @@ public class NettyConnector extends AbstractConnector {
    public static String NIO_CONNECTOR_TYPE = "NIO";
    public static String EPOLL_CONNECTOR_TYPE = "EPOLL";
    public static String KQUEUE_CONNECTOR_TYPE = "KQUEUE";
+   public static String IO_URING_CONNECTOR_TYPE = "IO_URING";
 
    private static final Logger logger = Logger.getLogger(NettyConnector.class);
 
@@ -272,6 +273,8 @@ public class NettyConnector extends AbstractConnector {
 
    private boolean useKQueue;
 
+   private boolean useIoUring;
+
    private int remotingThreads;
 
    private boolean useGlobalWorkerPool;
@@ -362,6 +365,7 @@ public class NettyConnector extends AbstractConnector {
 
       useEpoll = ConfigurationHelper.getBooleanProperty(TransportConstants.USE_EPOLL_PROP_NAME, TransportConstants.DEFAULT_USE_EPOLL, configuration);
       useKQueue = ConfigurationHelper.getBooleanProperty(TransportConstants.USE_KQUEUE_PROP_NAME, TransportConstants.DEFAULT_USE_KQUEUE, configuration);
+      useIoUring = ConfigurationHelper.getBooleanProperty(TransportConstants.USE_IO_URING_PROP_NAME, TransportConstants.DEFAULT_USE_IO_URING, configuration);
 
       useServlet = ConfigurationHelper.getBooleanProperty(TransportConstants.USE_SERVLET_PROP_NAME, TransportConstants.DEFAULT_USE_SERVLET, configuration);
       host = ConfigurationHelper.getStringProperty(TransportConstants.HOST_PROP_NAME, TransportConstants.DEFAULT_HOST, configuration);
@@ -475,9 +479,18 @@ public class NettyConnector extends AbstractConnector {
 
       String connectorType;
 
-      if (useEpoll && CheckDependencies.isEpollAvailable()) {
+      if (useIoUring && CheckDependencies.isIoUringAvailable()) {
+         if (useGlobalWorkerPool) {
+            group = SharedEventLoopGroup.getInstance(IO_URING_CONNECTOR_TYPE, (threadFactory -> IoUringTransport.newEventLoopGroup(remotingThreads, threadFactory)));
+         } else {
+            group = IoUringTransport.newEventLoopGroup(remotingThreads, null);
+         }
+         connectorType = IO_URING_CONNECTOR_TYPE;
+         channelClazz = IoUringTransport.socketChannelClass();
+         logger.debug("Connector " + this + " using native io_uring");
+      } else if (useEpoll && CheckDependencies.isEpollAvailable()) {
          if (useGlobalWorkerPool) {
-            group = SharedEventLoopGroup.getInstance((threadFactory -> new EpollEventLoopGroup(remotingThreads, threadFactory)));
+            group = SharedEventLoopGroup.getInstance(EPOLL_CONNECTOR_TYPE, (threadFactory -> new EpollEventLoopGroup(remotingThreads, threadFactory)));
          } else {
             group = new EpollEventLoopGroup(remotingThreads);
          }
@@ -486,7 +499,7 @@ public class NettyConnector extends AbstractConnector {
          logger.debug("Connector " + this + " using native epoll");
       } else if (useKQueue && CheckDependencies.isKQueueAvailable()) {
          if (useGlobalWorkerPool) {
-            group = SharedEventLoopGroup.getInstance((threadFactory -> new KQueueEventLoopGroup(remotingThreads, threadFactory)));
+            group = SharedEventLoopGroup.getInstance(KQUEUE_CONNECTOR_TYPE, (threadFactory -> new KQueueEventLoopGroup(remotingThreads, threadFactory)));
          } else {
             group = new KQueueEventLoopGroup(remotingThreads);
          }
@@ -496,7 +509,7 @@ public class NettyConnector extends AbstractConnector {
       } else {
          if (useGlobalWorkerPool) {
             channelClazz = NioSocketChannel.class;
-            group = SharedEventLoopGroup.getInstance((threadFactory -> new NioEventLoopGroup(remotingThreads, threadFactory)));
+            group = SharedEventLoopGroup.getInstance(NIO_CONNECTOR_TYPE, (threadFactory -> new NioEventLoopGroup(remotingThreads, threadFactory)));
          } else {
             channelClazz = NioSocketChannel.class;
             group = new NioEventLoopGroup(remotingThreads);
@@ -18,6 +18,8 @@ package org.apache.activemq.artemis.core.remoting.impl.netty;
 
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
@@ -34,39 +36,53 @@ import io.netty.util.concurrent.Promise;
 import org.apache.activemq.artemis.core.client.impl.ClientSessionFactoryImpl;
 import org.apache.activemq.artemis.utils.ActiveMQThreadFactory;
 
+/**
+ * The event loop group shared by the connectors using the global worker pool.
+ * <p>
+ * There is one shared group per transport, as the channels of a transport can only be registered with the event
+ * loops of the same transport (e.g. an epoll channel with an epoll event loop).
+ */
 public class SharedEventLoopGroup extends DelegatingEventLoopGroup {
 
-   private static SharedEventLoopGroup instance;
+   private static final Map<String, SharedEventLoopGroup> instances = new HashMap<>();
 
+   private final String transport;
    private final AtomicReference<ScheduledFuture<?>> shutdown = new AtomicReference<>();
    private final AtomicLong channelFactoryCount = new AtomicLong();
    private final Promise<?> terminationPromise = ImmediateEventExecutor.INSTANCE.newPromise();
 
-   private SharedEventLoopGroup(EventLoopGroup eventLoopGroup) {
+   private SharedEventLoopGroup(String transport, EventLoopGroup eventLoopGroup) {
       super(eventLoopGroup);
+      this.transport = transport;
    }
 
    public static synchronized void forceShutdown() {
-      if (instance != null) {
+      for (SharedEventLoopGroup instance : instances.values()) {
          instance.forEach(executor -> executor.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS));
          instance.channelFactoryCount.set(0);
-         instance = null;
       }
+      instances.clear();
    }
 
-   public static synchronized SharedEventLoopGroup getInstance(Function<ThreadFactory, EventLoopGroup> eventLoopGroupSupplier) {
+   /**
+    * @param transport the transport of the event loops, e.g. {@link NettyConnector#EPOLL_CONNECTOR_TYPE}
+    * @param eventLoopGroupSupplier creates the event loop group if there isn't one for {@code transport}
+    */
+   public static synchronized SharedEventLoopGroup getInstance(String transport, Function<ThreadFactory, EventLoopGroup> eventLoopGroupSupplier) {
+      SharedEventLoopGroup instance = instances.get(transport);
       if (instance != null) {
          ScheduledFuture<?> f = instance.shutdown.getAndSet(null);
          if (f != null) {
             f.cancel(false);
          }
       } else {
-         instance = new SharedEventLoopGroup(eventLoopGroupSupplier.apply(AccessController.doPrivileged(new PrivilegedAction<ThreadFactory>() {
+         instance = new SharedEventLoopGroup(transport, eventLoopGroupSupplier.apply(AccessController.doPrivileged(new PrivilegedAction<ThreadFactory>() {
             @Override
             public ThreadFactory run() {
                return new ActiveMQThreadFactory("ActiveMQ-client-netty-threads", true, ClientSessionFactoryImpl.class.getClassLoader());
             }
          })));
+         instances.put(transport, instance);
       }
       instance.channelFactoryCount.incrementAndGet();
       return instance;
@@ -102,7 +118,7 @@ public class SharedEventLoopGroup extends DelegatingEventLoopGroup {
                               }
                            }
                         });
-                        instance = null;
+                        instances.remove(transport, SharedEventLoopGroup.this);
                      }
                   }
                }
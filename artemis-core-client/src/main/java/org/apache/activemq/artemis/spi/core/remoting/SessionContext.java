@@ -20,6 +20,7 @@ import javax.transaction.xa.XAException;
 import javax.transaction.xa.Xid;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executor;
 
@@ -106,6 +107,15 @@ public abstract class SessionContext {
       }
    }
 
+   protected void handleReceiveMessages(ConsumerContext consumerID,
+                                        List<ClientMessageInternal> messages) throws Exception {
+
+      ClientSessionInternal session = this.session;
+      if (session != null) {
+         session.handleReceiveMessages(consumerID, messages);
+      }
+   }
+
    protected void handleReceiveContinuation(ConsumerContext consumerID,
                                             byte[] chunk,
                                             int flowControlSize,
@@ -139,6 +149,21 @@ public abstract class SessionContext {
                                         SendAcknowledgementHandler handler,
                                         SimpleString defaultAddress) throws ActiveMQException;
 
+   /**
+    * Sends several messages at once, in order.
+    * <p>
+    * By default each message is sent on its own, implementations able to send them in a single packet should
+    * override this method.
+    */
+   public void sendFullMessages(List<ICoreMessage> messages,
+                                boolean sendBlocking,
+                                SendAcknowledgementHandler handler,
+                                SimpleString defaultAddress) throws ActiveMQException {
+      for (ICoreMessage message : messages) {
+         sendFullMessage(message, sendBlocking, handler, defaultAddress);
+      }
+   }
+
    /**
     * it should return the number of credits (or bytes) used to send this packet
     *
@@ -37,7 +37,7 @@ public class SharedEventLoopGroupTest {
       Thread t1 = new Thread(new Runnable() {
          @Override
          public void run() {
-            sharedEventLoopGroup1.set(SharedEventLoopGroup.getInstance(threadFactory -> customNioEventLoopGroup));
+            sharedEventLoopGroup1.set(SharedEventLoopGroup.getInstance(NettyConnector.NIO_CONNECTOR_TYPE, threadFactory -> customNioEventLoopGroup));
             customNioEventLoopGroup.setCyclicBarrier(barrier);
             sharedEventLoopGroup1.get().shutdownGracefully();
             customNioEventLoopGroup.setCyclicBarrier(null);
@@ -51,7 +51,7 @@ public class SharedEventLoopGroupTest {
          public void run() {
             try {
                barrier.await();
-               sharedEventLoopGroup2.set(SharedEventLoopGroup.getInstance(threadFactory -> new NioEventLoopGroup(2, threadFactory)));
+               sharedEventLoopGroup2.set(SharedEventLoopGroup.getInstance(NettyConnector.NIO_CONNECTOR_TYPE, threadFactory -> new NioEventLoopGroup(2, threadFactory)));
             } catch (InterruptedException e) {
                e.printStackTrace();
             } catch (BrokenBarrierException e) {
@@ -69,6 +69,19 @@ public class SharedEventLoopGroupTest {
       assertFalse(sharedEventLoopGroup2.get().isShuttingDown());
    }
 
+   @Test
+   public void testSharedEventLoopGroupPerTransport() {
+      try {
+         SharedEventLoopGroup nio = SharedEventLoopGroup.getInstance(NettyConnector.NIO_CONNECTOR_TYPE, threadFactory -> new NioEventLoopGroup(1, threadFactory));
+         // a connector of another transport must not get the event loops created for nio
+         SharedEventLoopGroup other = SharedEventLoopGroup.getInstance(NettyConnector.EPOLL_CONNECTOR_TYPE, threadFactory -> new NioEventLoopGroup(1, threadFactory));
+         assertTrue(nio != other);
+         assertTrue(nio == SharedEventLoopGroup.getInstance(NettyConnector.NIO_CONNECTOR_TYPE, threadFactory -> new NioEventLoopGroup(1, threadFactory)));
+      } finally {
+         SharedEventLoopGroup.forceShutdown();
+      }
+   }
+
    private static class CustomNioEventLoopGroup extends NioEventLoopGroup {
       private CyclicBarrier barrier;
 
@@ -237,6 +237,43 @@ public class CoreMessageTest {
       }
    }
 
+   @Test
+   public void testReadPropertiesBeforeAndAfterModification() {
+      final SimpleString stringKey = SimpleString.toSimpleString("stringProperty");
+      final SimpleString intKey = SimpleString.toSimpleString("intProperty");
+
+      CoreMessage received = receiveWithProperties(stringKey, intKey);
+      // read from the encoded properties first, then from the decoded ones
+      for (int i = 0; i < 10; i++) {
+         Assert.assertEquals(SimpleString.toSimpleString("value"), received.getSimpleStringProperty(stringKey));
+         Assert.assertEquals(7, received.getObjectProperty(intKey));
+         Assert.assertNull(received.getObjectProperty(SimpleString.toSimpleString("missing")));
+      }
+      received.putIntProperty(intKey, 8);
+      received.removeProperty(stringKey);
+      Assert.assertEquals(8, received.getObjectProperty(intKey));
+      Assert.assertNull(received.getSimpleStringProperty(stringKey));
+
+      // modified before reaching the limit of reads from the encoded properties
+      received = receiveWithProperties(stringKey, intKey);
+      Assert.assertEquals(7, received.getObjectProperty(intKey));
+      received.putIntProperty(intKey, 9);
+      Assert.assertEquals(9, received.getObjectProperty(intKey));
+      Assert.assertEquals(SimpleString.toSimpleString("value"), received.getSimpleStringProperty(stringKey));
+   }
+
+   private static CoreMessage receiveWithProperties(SimpleString stringKey, SimpleString intKey) {
+      CoreMessage message = new CoreMessage().initBuffer(100);
+      message.putStringProperty(stringKey, SimpleString.toSimpleString("value"));
+      message.putIntProperty(intKey, 7);
+      ByteBuf buffer = Unpooled.buffer(200);
+      message.sendBuffer(buffer, 0);
+
+      CoreMessage received = new CoreMessage();
+      received.receiveBuffer(buffer);
+      return received;
+   }
+
    @Test
    public void testChangeBodySmallerString() {
       testChangeBodyString(SMALLER_TEXT);
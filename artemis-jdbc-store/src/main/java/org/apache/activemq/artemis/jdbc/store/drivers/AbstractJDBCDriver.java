@@ -204,7 +204,7 @@ public abstract class AbstractJDBCDriver {
       }
    }
 
-   private void createTableIfNotExists(String tableName, String... sqls) throws SQLException {
+   protected final void createTableIfNotExists(String tableName, String... sqls) throws SQLException {
       logger.tracef("Validating if table %s didn't exist before creating", tableName);
       try {
          connection.setAutoCommit(false);
@@ -376,4 +376,17 @@ public abstract class AbstractJDBCDriver {
       this.networkTimeoutMillis = milliseconds;
    }
 
+   /**
+    * Makes the given driver connect to the same database as this one, through its own connection.
+    */
+   protected final void copyConnectionSettingsTo(AbstractJDBCDriver driver) {
+      driver.dataSource = dataSource;
+      driver.jdbcConnectionUrl = jdbcConnectionUrl;
+      driver.jdbcDriverClass = jdbcDriverClass;
+      driver.user = user;
+      driver.password = password;
+      driver.networkTimeoutExecutor = networkTimeoutExecutor;
+      driver.networkTimeoutMillis = networkTimeoutMillis;
+   }
+
 }
@@ -0,0 +1,282 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.jdbc.store.file;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+
+import org.apache.activemq.artemis.jdbc.store.sql.SQLProvider;
+
+/**
+ * Stores the data of each file as a sequence of chunks, one row of the chunk table per write: appending to a file
+ * inserts a row instead of updating the BLOB holding the whole file, and reading a range of a file streams only the
+ * chunks overlapping it.
+ * <p>
+ * The file table only keeps the names of the files.
+ */
+@SuppressWarnings("SynchronizeOnNonFinalField")
+public final class JDBCChunkedSequentialFileDriver extends JDBCSequentialFileFactoryDriver {
+
+   // whether the ID of a new file is read with Statement.RETURN_GENERATED_KEYS instead of by column name
+   private final boolean returnGeneratedKeys;
+
+   private PreparedStatement insertFileChunk;
+
+   private PreparedStatement selectFileChunks;
+
+   private PreparedStatement selectLastFileChunk;
+
+   private PreparedStatement deleteFileChunks;
+
+   private PreparedStatement copyFileChunks;
+
+   public JDBCChunkedSequentialFileDriver(boolean returnGeneratedKeys) {
+      super();
+      this.returnGeneratedKeys = returnGeneratedKeys;
+   }
+
+   public JDBCChunkedSequentialFileDriver(DataSource dataSource, SQLProvider provider, boolean returnGeneratedKeys) {
+      super(dataSource, provider);
+      this.returnGeneratedKeys = returnGeneratedKeys;
+   }
+
+   public JDBCChunkedSequentialFileDriver(Connection connection, SQLProvider provider, boolean returnGeneratedKeys) {
+      super(connection, provider);
+      this.returnGeneratedKeys = returnGeneratedKeys;
+   }
+
+   @Override
+   protected void createSchema() throws SQLException {
+      super.createSchema();
+      createTableIfNotExists(sqlProvider.getFileChunkTableName(), sqlProvider.getCreateFileChunkTableSQL());
+   }
+
+   @Override
+   protected void prepareStatements() throws SQLException {
+      this.deleteFile = connection.prepareStatement(sqlProvider.getDeleteFileSQL());
+      if (returnGeneratedKeys) {
+         this.createFile = connection.prepareStatement(sqlProvider.getInsertFileSQL(), Statement.RETURN_GENERATED_KEYS);
+      } else {
+         this.createFile = connection.prepareStatement(sqlProvider.getInsertFileSQL(), new String[] {"ID"});
+      }
+      this.selectFileByFileName = connection.prepareStatement(sqlProvider.getSelectFileByFileName());
+      this.renameFile = connection.prepareStatement(sqlProvider.getUpdateFileNameByIdSQL());
+      this.selectFileNamesByExtension = connection.prepareStatement(sqlProvider.getSelectFileNamesByExtensionSQL());
+      this.insertFileChunk = connection.prepareStatement(sqlProvider.getInsertFileChunkSQL());
+      this.selectFileChunks = connection.prepareStatement(sqlProvider.getSelectFileChunksSQL());
+      this.selectLastFileChunk = connection.prepareStatement(sqlProvider.getSelectLastFileChunkSQL());
+      this.deleteFileChunks = connection.prepareStatement(sqlProvider.getDeleteFileChunksSQL());
+      this.copyFileChunks = connection.prepareStatement(sqlProvider.getCopyFileChunksSQL());
+   }
+
+   @Override
+   public void createFile(JDBCSequentialFile file) throws SQLException {
+      synchronized (connection) {
+         try {
+            connection.setAutoCommit(false);
+            createFile.setString(1, file.getFileName());
+            createFile.setString(2, file.getExtension());
+            createFile.setNull(3, Types.BLOB);
+            createFile.executeUpdate();
+            try (ResultSet keys = createFile.getGeneratedKeys()) {
+               keys.next();
+               file.setId(keys.getLong(1));
+            }
+            connection.commit();
+         } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+         }
+      }
+   }
+
+   @Override
+   public void loadFile(JDBCSequentialFile file) throws SQLException {
+      synchronized (connection) {
+         try {
+            connection.setAutoCommit(false);
+            file.setWritePosition(readEnd(file)[1]);
+            connection.commit();
+         } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+         }
+      }
+   }
+
+   @Override
+   public void deleteFile(JDBCSequentialFile file) throws SQLException {
+      synchronized (connection) {
+         try {
+            connection.setAutoCommit(false);
+            deleteFileChunks.setLong(1, file.getId());
+            deleteFileChunks.executeUpdate();
+            deleteFile.setLong(1, file.getId());
+            deleteFile.executeUpdate();
+            connection.commit();
+         } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+         }
+      }
+   }
+
+   @Override
+   public int writeToFile(JDBCSequentialFile file, byte[] data, boolean append) throws SQLException {
+      synchronized (connection) {
+         try {
+            connection.setAutoCommit(false);
+            int seq = 0;
+            long position = 0;
+            if (append) {
+               final long[] end = readEnd(file);
+               seq = (int) end[0];
+               position = end[1];
+            } else {
+               deleteFileChunks.setLong(1, file.getId());
+               deleteFileChunks.executeUpdate();
+            }
+            if (data.length > 0) {
+               insertFileChunk.setLong(1, file.getId());
+               insertFileChunk.setInt(2, seq);
+               insertFileChunk.setLong(3, position);
+               insertFileChunk.setInt(4, data.length);
+               insertFileChunk.setBytes(5, data);
+               insertFileChunk.executeUpdate();
+            }
+            connection.commit();
+            return data.length;
+         } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+         }
+      }
+   }
+
+   @Override
+   public int readFromFile(JDBCSequentialFile file, ByteBuffer bytes) throws SQLException {
+      synchronized (connection) {
+         try {
+            connection.setAutoCommit(false);
+            final long from = file.position();
+            int readLength = (int) calculateReadLength(readEnd(file)[1], bytes.remaining(), from);
+            if (readLength < 0) {
+               readLength = -1;
+            } else if (readLength > 0) {
+               final long to = from + readLength;
+               selectFileChunks.setLong(1, file.getId());
+               selectFileChunks.setLong(2, to);
+               selectFileChunks.setLong(3, from);
+               try (ResultSet rs = selectFileChunks.executeQuery()) {
+                  while (rs.next()) {
+                     final long chunkStart = rs.getLong(1);
+                     final long chunkEnd = chunkStart + rs.getInt(2);
+                     try (InputStream data = rs.getBinaryStream(3)) {
+                        readChunk(data, Math.max(from - chunkStart, 0), (int) (Math.min(to, chunkEnd) - Math.max(from, chunkStart)), bytes);
+                     }
+                  }
+               }
+            }
+            connection.commit();
+            return readLength;
+         } catch (IOException e) {
+            connection.rollback();
+            throw new SQLException(e);
+         } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+         }
+      }
+   }
+
+   private static void readChunk(InputStream data, long skip, int length, ByteBuffer bytes) throws IOException {
+      while (skip > 0) {
+         final long skipped = data.skip(skip);
+         if (skipped <= 0) {
+            throw new IOException("Unexpected end of chunk");
+         }
+         skip -= skipped;
+      }
+      final byte[] read = new byte[length];
+      int offset = 0;
+      while (offset < length) {
+         final int n = data.read(read, offset, length - offset);
+         if (n < 0) {
+            throw new IOException("Unexpected end of chunk");
+         }
+         offset += n;
+      }
+      bytes.put(read);
+   }
+
+   /**
+    * @return the sequence of the next chunk of the file and the length of the file
+    */
+   private long[] readEnd(JDBCSequentialFile file) throws SQLException {
+      selectLastFileChunk.setLong(1, file.getId());
+      selectLastFileChunk.setLong(2, file.getId());
+      try (ResultSet rs = selectLastFileChunk.executeQuery()) {
+         if (rs.next()) {
+            return new long[] {rs.getInt(1) + 1, rs.getLong(2)};
+         }
+         return new long[] {0, 0};
+      }
+   }
+
+   @Override
+   public void copyFileData(JDBCSequentialFile fileFrom, JDBCSequentialFile fileTo) throws SQLException {
+      synchronized (connection) {
+         try {
+            connection.setAutoCommit(false);
+            deleteFileChunks.setLong(1, fileTo.getId());
+            deleteFileChunks.executeUpdate();
+            copyFileChunks.setLong(1, fileTo.getId());
+            copyFileChunks.setLong(2, fileFrom.getId());
+            copyFileChunks.executeUpdate();
+            connection.commit();
+         } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+         }
+      }
+   }
+
+   @Override
+   public void destroy() throws SQLException {
+      synchronized (connection) {
+         try {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+               statement.executeUpdate(sqlProvider.getDropFileChunkTableSQL());
+               statement.executeUpdate(sqlProvider.getDropFileTableSQL());
+            }
+            connection.commit();
+         } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+         }
+      }
+   }
+}
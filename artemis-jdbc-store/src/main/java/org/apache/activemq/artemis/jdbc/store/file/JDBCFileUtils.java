@@ -33,10 +33,13 @@ class JDBCFileUtils {
                                                           String jdbcConnectionUrl,
                                                           String user,
                                                           String password,
-                                                          SQLProvider provider) throws SQLException {
+                                                          SQLProvider provider,
+                                                          boolean chunked) throws SQLException {
       final JDBCSequentialFileFactoryDriver dbDriver;
       final PropertySQLProvider.Factory.SQLDialect sqlDialect = PropertySQLProvider.Factory.identifyDialect(driverClass);
-      if (POSTGRESQL.equals(sqlDialect)) {
+      if (chunked) {
+         dbDriver = new JDBCChunkedSequentialFileDriver(POSTGRESQL.equals(sqlDialect));
+      } else if (POSTGRESQL.equals(sqlDialect)) {
          dbDriver = new PostgresSequentialSequentialFileDriver();
       } else if (DB2.equals(sqlDialect)) {
          dbDriver = new Db2SequentialFileDriver();
@@ -51,13 +54,15 @@ class JDBCFileUtils {
       return dbDriver;
    }
 
-   static JDBCSequentialFileFactoryDriver getDBFileDriver(DataSource dataSource, SQLProvider provider) throws SQLException {
+   static JDBCSequentialFileFactoryDriver getDBFileDriver(DataSource dataSource, SQLProvider provider, boolean chunked) throws SQLException {
       final JDBCSequentialFileFactoryDriver dbDriver;
       final PropertySQLProvider.Factory.SQLDialect sqlDialect;
       try (Connection connection = dataSource.getConnection()) {
          sqlDialect = PropertySQLProvider.Factory.investigateDialect(connection);
       }
-      if (POSTGRESQL.equals(sqlDialect)) {
+      if (chunked) {
+         dbDriver = new JDBCChunkedSequentialFileDriver(dataSource, provider, POSTGRESQL.equals(sqlDialect));
+      } else if (POSTGRESQL.equals(sqlDialect)) {
          dbDriver = new PostgresSequentialSequentialFileDriver(dataSource, provider);
       } else if (DB2.equals(sqlDialect)) {
          dbDriver = new Db2SequentialFileDriver(dataSource, provider);
@@ -67,10 +72,12 @@ class JDBCFileUtils {
       return dbDriver;
    }
 
-   static JDBCSequentialFileFactoryDriver getDBFileDriver(Connection connection, SQLProvider provider) throws SQLException {
+   static JDBCSequentialFileFactoryDriver getDBFileDriver(Connection connection, SQLProvider provider, boolean chunked) throws SQLException {
       JDBCSequentialFileFactoryDriver dbDriver;
       final PropertySQLProvider.Factory.SQLDialect sqlDialect = PropertySQLProvider.Factory.investigateDialect(connection);
-      if (POSTGRESQL.equals(sqlDialect)) {
+      if (chunked) {
+         dbDriver = new JDBCChunkedSequentialFileDriver(connection, provider, POSTGRESQL.equals(sqlDialect));
+      } else if (POSTGRESQL.equals(sqlDialect)) {
          dbDriver = new PostgresSequentialSequentialFileDriver(connection, provider);
          dbDriver.setConnection(connection);
       } else if (DB2.equals(sqlDialect)) {
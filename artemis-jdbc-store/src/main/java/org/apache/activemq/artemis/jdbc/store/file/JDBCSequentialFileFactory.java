@@ -57,12 +57,24 @@ public class JDBCSequentialFileFactory implements SequentialFileFactory, ActiveM
                                     final SQLProvider sqlProvider,
                                     Executor executor,
                                     IOCriticalErrorListener criticalErrorListener) throws Exception {
+      this(dataSource, sqlProvider, executor, criticalErrorListener, false);
+   }
+
+   /**
+    * @param chunked whether the data of the files is stored as a sequence of chunks, see
+    *                {@link JDBCChunkedSequentialFileDriver}
+    */
+   public JDBCSequentialFileFactory(final DataSource dataSource,
+                                    final SQLProvider sqlProvider,
+                                    Executor executor,
+                                    IOCriticalErrorListener criticalErrorListener,
+                                    boolean chunked) throws Exception {
 
       this.executor = executor;
       this.criticalErrorListener = criticalErrorListener;
 
       try {
-         this.dbDriver = JDBCFileUtils.getDBFileDriver(dataSource, sqlProvider);
+         this.dbDriver = JDBCFileUtils.getDBFileDriver(dataSource, sqlProvider, chunked);
       } catch (SQLException e) {
          criticalErrorListener.onIOException(e, "Failed to start JDBC Driver", null);
       }
@@ -75,10 +87,21 @@ public class JDBCSequentialFileFactory implements SequentialFileFactory, ActiveM
                                     final SQLProvider sqlProvider,
                                     Executor executor,
                                     IOCriticalErrorListener criticalErrorListener) throws Exception {
+      this(connectionUrl, userName, password, className, sqlProvider, executor, criticalErrorListener, false);
+   }
+
+   public JDBCSequentialFileFactory(final String connectionUrl,
+                                    String userName,
+                                    String password,
+                                    final String className,
+                                    final SQLProvider sqlProvider,
+                                    Executor executor,
+                                    IOCriticalErrorListener criticalErrorListener,
+                                    boolean chunked) throws Exception {
       this.executor = executor;
       this.criticalErrorListener = criticalErrorListener;
       try {
-         this.dbDriver = JDBCFileUtils.getDBFileDriver(className, connectionUrl, userName, password, sqlProvider);
+         this.dbDriver = JDBCFileUtils.getDBFileDriver(className, connectionUrl, userName, password, sqlProvider, chunked);
       } catch (SQLException e) {
          criticalErrorListener.onIOException(e, "Failed to start JDBC Driver", null);
       }
@@ -89,11 +112,19 @@ public class JDBCSequentialFileFactory implements SequentialFileFactory, ActiveM
                                     final SQLProvider sqlProvider,
                                     final Executor executor,
                                     final IOCriticalErrorListener criticalErrorListener) throws Exception {
+      this(connection, sqlProvider, executor, criticalErrorListener, false);
+   }
+
+   public JDBCSequentialFileFactory(final Connection connection,
+                                    final SQLProvider sqlProvider,
+                                    final Executor executor,
+                                    final IOCriticalErrorListener criticalErrorListener,
+                                    boolean chunked) throws Exception {
       this.executor = executor;
       this.criticalErrorListener = criticalErrorListener;
 
       try {
-         this.dbDriver = JDBCFileUtils.getDBFileDriver(connection, sqlProvider);
+         this.dbDriver = JDBCFileUtils.getDBFileDriver(connection, sqlProvider, chunked);
       } catch (SQLException e) {
          criticalErrorListener.onIOException(e, "Failed to start JDBC Driver", null);
       }
@@ -18,18 +18,25 @@
 package org.apache.activemq.artemis.jdbc.store.journal;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.ActiveMQExceptionType;
@@ -95,6 +102,19 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
 
    private final IOCriticalErrorListener criticalIOErrorListener;
 
+   // The tables added with addPartition and the executors writing them
+   private final List<SQLProvider> partitionProviders = new ArrayList<>();
+   private final List<Executor> partitionExecutors = new ArrayList<>();
+
+   // Empty unless the journal is partitioned: the journal's own table first, then the added ones
+   private final List<Partition> partitions = new ArrayList<>();
+
+   // whether the first table holds the high water mark row of a partitioned journal
+   private boolean highWaterWritten;
+
+   // the highest sequence taken by a sync of a partitioned journal, guarded by records
+   private long takenSeq;
+
    public JDBCJournalImpl(DataSource dataSource,
                           SQLProvider provider,
                           ScheduledExecutorService scheduledExecutorService,
@@ -126,9 +146,44 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
       this.syncDelay = syncDelay;
    }
 
+   /**
+    * Spreads the records over one more table, written through its own connection in parallel to the other ones.
+    * <p>
+    * Non transactional records go to the table of their id, and the records of a transaction to the table of the
+    * transaction, so the order of the records that depend on each other is kept within a table. The tables must
+    * be the same every time the journal is loaded. Must be called before {@link #start()}.
+    *
+    * @param provider the SQL of the table
+    * @param executor where the table is written, it must not be shared with the other tables
+    */
+   public void addPartition(SQLProvider provider, Executor executor) {
+      partitionProviders.add(provider);
+      partitionExecutors.add(executor);
+   }
+
    @Override
    public void start() throws SQLException {
       super.start();
+      if (!partitionProviders.isEmpty()) {
+         final Partition own = new Partition(connection, sqlProvider, null);
+         own.prepareStatements();
+         partitions.add(own);
+         for (int i = 0; i < partitionProviders.size(); i++) {
+            final Partition partition = new Partition(null, partitionProviders.get(i), partitionExecutors.get(i));
+            copyConnectionSettingsTo(partition);
+            partition.start();
+            partitions.add(partition);
+         }
+         int count = 0;
+         for (Partition partition : partitions) {
+            count += count(partition.countJournalRecords);
+         }
+         if (count == 0) {
+            // the first sync is only complete once it raises the mark
+            own.writeHighWater(0);
+            highWaterWritten = true;
+         }
+      }
       syncTimer = new JDBCJournalSync(scheduledExecutorService, completeExecutor, syncDelay, TimeUnit.MILLISECONDS, this);
       started = true;
    }
@@ -172,12 +227,19 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
          if (sync)
             sync();
          started = false;
+         for (int i = 1; i < partitions.size(); i++) {
+            partitions.get(i).stop();
+         }
+         partitions.clear();
          super.stop();
       }
    }
 
    @Override
    public synchronized void destroy() throws Exception {
+      for (int i = 1; i < partitions.size(); i++) {
+         partitions.get(i).destroy();
+      }
       super.destroy();
       stop();
    }
@@ -191,6 +253,11 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
          }
          recordRef = new ArrayList<>(records);
          records.clear();
+         if (!partitions.isEmpty()) {
+            for (JDBCJournalRecord record : recordRef) {
+               takenSeq = Math.max(takenSeq, record.getSeq());
+            }
+         }
       }
 
       if (!started || failed.get()) {
@@ -198,6 +265,9 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
          return 0;
       }
 
+      if (!partitions.isEmpty()) {
+         return syncPartitions(recordRef);
+      }
 
       // We keep a list of deleted records and committed tx (used for cleaning up old transaction data).
       List<Long> deletedRecords = new ArrayList<>();
@@ -255,7 +325,12 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
             logger.trace("JDBC commit worked");
          }
 
-         if (cleanupTxRecords(deletedRecords, committedTransactions)) {
+         final List<Long> cleanedTransactions = cleanupTxRecords(deletedRecords, committedTransactions);
+         if (!cleanedTransactions.isEmpty()) {
+            for (Long txId : cleanedTransactions) {
+               deleteJournalTxRecords.setLong(1, txId);
+               deleteJournalTxRecords.addBatch();
+            }
             deleteJournalTxRecords.executeBatch();
             connection.commit();
             logger.trace("JDBC commit worked on cleanupTxRecords");
@@ -270,6 +345,156 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
       }
    }
 
+   /**
+    * Writes the records of a partitioned journal, each table in a database transaction of its own connection. As
+    * the tables are committed independently, the sync is only complete once its high water mark, the sequence of its
+    * last record, is committed on the first table after all of them: a load ignores the records above it. The records
+    * are only deleted after that, each from the table of its id and from those of the transactions holding records of
+    * it, and then the transactions they complete are cleaned up.
+    */
+   private int syncPartitions(List<JDBCJournalRecord> recordRef) {
+      List<Long> deletedRecords = new ArrayList<>();
+      List<Long> committedTransactions = new ArrayList<>();
+      List<Long> rolledBackTransactions = new ArrayList<>();
+      long highWater = 0;
+      boolean completed = false;
+
+      try {
+         for (JDBCJournalRecord record : recordRef) {
+            highWater = Math.max(highWater, record.getSeq());
+
+            switch (record.getRecordType()) {
+               case JDBCJournalRecord.DELETE_RECORD:
+                  deletedRecords.add(record.getId());
+                  break;
+               case JDBCJournalRecord.ROLLBACK_RECORD:
+                  rolledBackTransactions.add(record.getTxId());
+                  break;
+               case JDBCJournalRecord.COMMIT_RECORD:
+                  TransactionHolder holder = transactions.get(record.getTxId());
+                  for (RecordInfo info : holder.recordsToDelete) {
+                     deletedRecords.add(info.id);
+                  }
+                  record.writeRecord(getPartition(record).insertJournalRecords);
+                  committedTransactions.add(record.getTxId());
+                  break;
+               default:
+                  final Partition partition = getPartition(record);
+                  if (logger.isTraceEnabled()) {
+                     logger.trace("syncPartitions::preparing JDBC statement for " + record + " on " + partition.getTableName());
+                  }
+                  record.writeRecord(partition.insertJournalRecords);
+                  break;
+            }
+         }
+
+         executeOnPartitions(Partition::executeBatches);
+
+         partitions.get(0).writeHighWater(highWater);
+         highWaterWritten = true;
+
+         if (!deletedRecords.isEmpty() || !rolledBackTransactions.isEmpty()) {
+            addDeletes(deletedRecords);
+            for (Long txId : rolledBackTransactions) {
+               // all the records of the TX are on the same table
+               final Partition partition = getPartition(txId);
+               partition.deleteJournalTxRecords.setLong(1, txId);
+               partition.deleteJournalTxRecords.addBatch();
+            }
+            executeOnPartitions(Partition::executeBatches);
+         }
+         if (logger.isTraceEnabled()) {
+            logger.trace("JDBC commit worked on " + partitions.size() + " partitions up to " + highWater);
+         }
+         executeCallbacks(recordRef, true);
+         completed = true;
+
+         final List<Long> cleanedTransactions = cleanupTxRecords(deletedRecords, committedTransactions);
+         if (!cleanedTransactions.isEmpty()) {
+            for (Long txId : cleanedTransactions) {
+               final Partition partition = getPartition(txId);
+               partition.deleteJournalTxRecords.setLong(1, txId);
+               partition.deleteJournalTxRecords.addBatch();
+            }
+            executeOnPartitions(Partition::executeBatches);
+            logger.trace("JDBC commit worked on cleanupTxRecords");
+         }
+
+         return recordRef.size();
+
+      } catch (Exception e) {
+         handleException(completed ? null : recordRef, e);
+         return 0;
+      }
+   }
+
+   /**
+    * Adds the deletes of the records to the table of their id and to the tables of the transactions holding records
+    * of them, rather than to every table.
+    */
+   private void addDeletes(List<Long> deletedRecords) throws SQLException {
+      for (Long id : deletedRecords) {
+         final Partition partition = getPartition(id);
+         partition.deleteJournalRecords.setLong(1, id);
+         partition.deleteJournalRecords.addBatch();
+      }
+      final Set<Long> deleted = new HashSet<>(deletedRecords);
+      for (TransactionHolder holder : transactions.values()) {
+         final Partition partition = getPartition(holder.transactionID);
+         for (RecordInfo info : holder.recordInfos) {
+            if (deleted.contains(info.id) && partition != getPartition(info.id)) {
+               partition.deleteJournalRecords.setLong(1, info.id);
+               partition.deleteJournalRecords.addBatch();
+            }
+         }
+      }
+   }
+
+   private Partition getPartition(JDBCJournalRecord record) {
+      switch (record.getRecordType()) {
+         case JDBCJournalRecord.PREPARE_RECORD:
+         case JDBCJournalRecord.COMMIT_RECORD:
+         case JDBCJournalRecord.ROLLBACK_RECORD:
+            return getPartition(record.getTxId());
+         default:
+            return getPartition(record.isTransactional() ? record.getTxId() : record.getId());
+      }
+   }
+
+   private Partition getPartition(long id) {
+      return partitions.get((int) Math.floorMod(id, (long) partitions.size()));
+   }
+
+   /**
+    * Runs the task on every partition in parallel: the first one on the calling thread, the others on their
+    * executors.
+    */
+   private void executeOnPartitions(PartitionTask task) throws Exception {
+      final CountDownLatch done = new CountDownLatch(partitions.size() - 1);
+      final AtomicReference<Exception> failure = new AtomicReference<>();
+      for (int i = 1; i < partitions.size(); i++) {
+         final Partition partition = partitions.get(i);
+         partition.executor.execute(() -> {
+            try {
+               task.execute(partition);
+            } catch (Exception e) {
+               failure.compareAndSet(null, e);
+            } finally {
+               done.countDown();
+            }
+         });
+      }
+      try {
+         task.execute(partitions.get(0));
+      } catch (Exception e) {
+         failure.compareAndSet(null, e);
+      }
+      done.await();
+      if (failure.get() != null) {
+         throw failure.get();
+      }
+   }
+
    /** public for tests only, not through API */
    public void handleException(List<JDBCJournalRecord> recordRef, Throwable e) {
       logger.warn(e.getMessage(), e);
@@ -292,14 +517,24 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
          logger.warn(rollback);
       }
 
+      for (int i = 1; i < partitions.size(); i++) {
+         final Connection partitionConnection = partitions.get(i).getConnection();
+         try {
+            partitionConnection.rollback();
+            partitionConnection.close();
+         } catch (Throwable rollback) {
+            logger.warn(rollback);
+         }
+      }
+
       if (recordRef != null) {
          executeCallbacks(recordRef, false);
       }
    }
 
    /* We store Transaction reference in memory (once all records associated with a Tranascation are Deleted,
-      we remove the Tx Records (i.e. PREPARE, COMMIT). */
-   private synchronized boolean cleanupTxRecords(List<Long> deletedRecords, List<Long> committedTx) throws SQLException {
+      we remove the Tx Records (i.e. PREPARE, COMMIT): returns the transactions whose records can be removed. */
+   private synchronized List<Long> cleanupTxRecords(List<Long> deletedRecords, List<Long> committedTx) {
       List<RecordInfo> iterableCopy;
       List<TransactionHolder> iterableCopyTx = new ArrayList<>();
       iterableCopyTx.addAll(transactions.values());
@@ -307,7 +542,7 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
       for (Long txId : committedTx) {
          transactions.get(txId).committed = true;
       }
-      boolean hasDeletedJournalTxRecords = false;
+      List<Long> cleanedTx = new ArrayList<>();
       // TODO (mtaylor) perhaps we could store a reverse mapping of IDs to prevent this O(n) loop
       for (TransactionHolder h : iterableCopyTx) {
 
@@ -321,13 +556,11 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
          }
 
          if (h.recordInfos.isEmpty() && h.committed) {
-            deleteJournalTxRecords.setLong(1, h.transactionID);
-            deleteJournalTxRecords.addBatch();
-            hasDeletedJournalTxRecords = true;
+            cleanedTx.add(h.transactionID);
             transactions.remove(h.transactionID);
          }
       }
-      return hasDeletedJournalTxRecords;
+      return cleanedTx;
    }
 
    private void executeCallbacks(final List<JDBCJournalRecord> records, final boolean success) {
@@ -392,6 +625,10 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
          }
 
          synchronized (records) {
+            if (!partitions.isEmpty() && record.getSeq() <= takenSeq) {
+               // created before a sync took later records: it must not fall below the high water mark of that sync
+               record.setSeq(seq.incrementAndGet());
+            }
             records.add(record);
          }
       }
@@ -866,47 +1103,18 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
    public synchronized JournalLoadInformation load(LoaderCallback reloadManager) {
       JournalLoadInformation jli = new JournalLoadInformation();
       JDBCJournalReaderCallback jrc = new JDBCJournalReaderCallback(reloadManager);
-      JDBCJournalRecord r;
 
-      try (ResultSet rs = selectJournalRecords.executeQuery()) {
+      try {
          int noRecords = 0;
-         while (rs.next()) {
-            r = JDBCJournalRecord.readRecord(rs);
-            switch (r.getRecordType()) {
-               case JDBCJournalRecord.ADD_RECORD:
-                  jrc.onReadAddRecord(r.toRecordInfo());
-                  break;
-               case JDBCJournalRecord.UPDATE_RECORD:
-                  jrc.onReadUpdateRecord(r.toRecordInfo());
-                  break;
-               case JDBCJournalRecord.DELETE_RECORD:
-                  jrc.onReadDeleteRecord(r.getId());
-                  break;
-               case JDBCJournalRecord.ADD_RECORD_TX:
-                  jrc.onReadAddRecordTX(r.getTxId(), r.toRecordInfo());
-                  break;
-               case JDBCJournalRecord.UPDATE_RECORD_TX:
-                  jrc.onReadUpdateRecordTX(r.getTxId(), r.toRecordInfo());
-                  break;
-               case JDBCJournalRecord.DELETE_RECORD_TX:
-                  jrc.onReadDeleteRecordTX(r.getTxId(), r.toRecordInfo());
-                  break;
-               case JDBCJournalRecord.PREPARE_RECORD:
-                  jrc.onReadPrepareRecord(r.getTxId(), r.getTxDataAsByteArray(), r.getTxCheckNoRecords());
-                  break;
-               case JDBCJournalRecord.COMMIT_RECORD:
-                  jrc.onReadCommitRecord(r.getTxId(), r.getTxCheckNoRecords());
-                  break;
-               case JDBCJournalRecord.ROLLBACK_RECORD:
-                  jrc.onReadRollbackRecord(r.getTxId());
-                  break;
-               default:
-                  throw new Exception("Error Reading Journal, Unknown Record Type: " + r.getRecordType());
-            }
-            noRecords++;
-            if (r.getSeq() > seq.longValue()) {
-               seq.set(r.getSeq());
+         if (partitions.isEmpty()) {
+            try (ResultSet rs = selectJournalRecords.executeQuery()) {
+               while (rs.next()) {
+                  onReadRecord(jrc, JDBCJournalRecord.readRecord(rs));
+                  noRecords++;
+               }
             }
+         } else {
+            noRecords = readPartitions(jrc);
          }
          jrc.checkPreparedTx();
 
@@ -919,6 +1127,111 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
       return jli;
    }
 
+   private void onReadRecord(JDBCJournalReaderCallback jrc, JDBCJournalRecord r) throws Exception {
+      switch (r.getRecordType()) {
+         case JDBCJournalRecord.ADD_RECORD:
+            jrc.onReadAddRecord(r.toRecordInfo());
+            break;
+         case JDBCJournalRecord.UPDATE_RECORD:
+            jrc.onReadUpdateRecord(r.toRecordInfo());
+            break;
+         case JDBCJournalRecord.DELETE_RECORD:
+            jrc.onReadDeleteRecord(r.getId());
+            break;
+         case JDBCJournalRecord.ADD_RECORD_TX:
+            jrc.onReadAddRecordTX(r.getTxId(), r.toRecordInfo());
+            break;
+         case JDBCJournalRecord.UPDATE_RECORD_TX:
+            jrc.onReadUpdateRecordTX(r.getTxId(), r.toRecordInfo());
+            break;
+         case JDBCJournalRecord.DELETE_RECORD_TX:
+            jrc.onReadDeleteRecordTX(r.getTxId(), r.toRecordInfo());
+            break;
+         case JDBCJournalRecord.PREPARE_RECORD:
+            jrc.onReadPrepareRecord(r.getTxId(), r.getTxDataAsByteArray(), r.getTxCheckNoRecords());
+            break;
+         case JDBCJournalRecord.COMMIT_RECORD:
+            jrc.onReadCommitRecord(r.getTxId(), r.getTxCheckNoRecords());
+            break;
+         case JDBCJournalRecord.ROLLBACK_RECORD:
+            jrc.onReadRollbackRecord(r.getTxId());
+            break;
+         default:
+            throw new Exception("Error Reading Journal, Unknown Record Type: " + r.getRecordType());
+      }
+      if (r.getSeq() > seq.longValue()) {
+         seq.set(r.getSeq());
+      }
+   }
+
+   /**
+    * Queries the tables of a partitioned journal in parallel and merges their records back in the order they were
+    * appended in, as they are read. The records above the high water mark belong to a sync that didn't complete:
+    * they're ignored, and deleted. Without a mark, only the records of a journal that wasn't partitioned before are
+    * complete: the ones in the added tables belong to a sync before the first mark got committed.
+    *
+    * @return the number of records read
+    */
+   private int readPartitions(JDBCJournalReaderCallback jrc) throws Exception {
+      int noRecords = 0;
+      long highWater = Long.MAX_VALUE;
+      boolean incomplete = false;
+      highWaterWritten = false;
+      try {
+         executeOnPartitions(Partition::openRecords);
+         final PriorityQueue<Partition> heads = new PriorityQueue<>(partitions.size(), Comparator.comparingLong(partition -> partition.head.getSeq()));
+         boolean partitionedRecords = false;
+         for (Partition partition : partitions) {
+            if (partition.nextRecord()) {
+               heads.add(partition);
+               partitionedRecords |= partition != partitions.get(0);
+            }
+         }
+         final Partition own = partitions.get(0);
+         if (own.head != null && own.head.getRecordType() == JDBCJournalRecord.HIGH_WATER_RECORD) {
+            // it sorts first
+            highWater = own.head.getTxId();
+            highWaterWritten = true;
+            heads.remove(own);
+            if (own.nextRecord()) {
+               heads.add(own);
+            }
+         } else if (partitionedRecords) {
+            highWater = 0;
+         }
+         Partition partition;
+         while ((partition = heads.poll()) != null) {
+            final JDBCJournalRecord r = partition.head;
+            if (r.getSeq() > highWater) {
+               // and so are all the ones after it
+               incomplete = true;
+               break;
+            } else {
+               onReadRecord(jrc, r);
+               noRecords++;
+            }
+            if (partition.nextRecord()) {
+               heads.add(partition);
+            }
+         }
+      } finally {
+         for (Partition partition : partitions) {
+            partition.closeRecords();
+         }
+      }
+      if (incomplete) {
+         logger.warn("Deleting the records of an incomplete sync of " + sqlProvider.getTableName() + " above " + highWater);
+         final long lastComplete = highWater;
+         executeOnPartitions(partition -> partition.deleteAbove(lastComplete));
+      }
+      if (!highWaterWritten) {
+         // the records of the journal before it was partitioned: the next syncs go above them
+         partitions.get(0).writeHighWater(seq.longValue());
+         highWaterWritten = true;
+      }
+      return noRecords;
+   }
+
    @Override
    public JournalLoadInformation loadInternalOnly() throws Exception {
       return null;
@@ -962,9 +1275,18 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
    @Override
    public int getNumberOfRecords() {
       int count = 0;
-      try (ResultSet rs = countJournalRecords.executeQuery()) {
-         rs.next();
-         count = rs.getInt(1);
+      try {
+         if (partitions.isEmpty()) {
+            count = count(countJournalRecords);
+         } else {
+            for (Partition partition : partitions) {
+               count += count(partition.countJournalRecords);
+            }
+            if (highWaterWritten) {
+               // not a record
+               count--;
+            }
+         }
       } catch (SQLException e) {
          logger.warn(e.getMessage(), e);
          return -1;
@@ -972,6 +1294,13 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
       return count;
    }
 
+   private static int count(PreparedStatement countJournalRecords) throws SQLException {
+      try (ResultSet rs = countJournalRecords.executeQuery()) {
+         rs.next();
+         return rs.getInt(1);
+      }
+   }
+
    @Override
    public int getUserVersion() {
       return USER_VERSION;
@@ -1035,6 +1364,120 @@ public class JDBCJournalImpl extends AbstractJDBCDriver implements Journal {
       return started;
    }
 
+   @FunctionalInterface
+   private interface PartitionTask {
+
+      void execute(Partition partition) throws Exception;
+   }
+
+   /**
+    * One of the tables of a partitioned journal, see {@link #addPartition}.
+    */
+   private static final class Partition extends AbstractJDBCDriver {
+
+      // the id of the high water mark row, never taken by a record
+      private static final long HIGH_WATER_ID = -1;
+
+      private final Executor executor;
+
+      private PreparedStatement insertJournalRecords;
+
+      private PreparedStatement selectJournalRecords;
+
+      private PreparedStatement countJournalRecords;
+
+      private PreparedStatement deleteJournalRecords;
+
+      private PreparedStatement deleteJournalTxRecords;
+
+      private PreparedStatement deleteJournalRecordsAboveSeq;
+
+      // while loading: the records of the table, and the current one
+      private ResultSet loadedRecords;
+
+      private JDBCJournalRecord head;
+
+      /**
+       * @param connection the connection of the journal, for its own table, or {@code null} to open a new one
+       */
+      Partition(Connection connection, SQLProvider sqlProvider, Executor executor) {
+         if (connection != null) {
+            setConnection(connection);
+         }
+         setSqlProvider(sqlProvider);
+         this.executor = executor;
+      }
+
+      String getTableName() {
+         return sqlProvider.getTableName();
+      }
+
+      @Override
+      protected void createSchema() throws SQLException {
+         createTable(sqlProvider.getCreateJournalTableSQL());
+      }
+
+      @Override
+      protected void prepareStatements() throws SQLException {
+         insertJournalRecords = connection.prepareStatement(sqlProvider.getInsertJournalRecordsSQL());
+         selectJournalRecords = connection.prepareStatement(sqlProvider.getSelectJournalRecordsSQL());
+         countJournalRecords = connection.prepareStatement(sqlProvider.getCountJournalRecordsSQL());
+         deleteJournalRecords = connection.prepareStatement(sqlProvider.getDeleteJournalRecordsSQL());
+         deleteJournalTxRecords = connection.prepareStatement(sqlProvider.getDeleteJournalTxRecordsSQL());
+         deleteJournalRecordsAboveSeq = connection.prepareStatement(sqlProvider.getDeleteJournalRecordsAboveSeqSQL());
+      }
+
+      void executeBatches() throws SQLException {
+         connection.setAutoCommit(false);
+         insertJournalRecords.executeBatch();
+         deleteJournalRecords.executeBatch();
+         deleteJournalTxRecords.executeBatch();
+         connection.commit();
+      }
+
+      /**
+       * Replaces the high water mark, in a database transaction of its own.
+       */
+      void writeHighWater(long seq) throws SQLException {
+         final JDBCJournalRecord highWater = new JDBCJournalRecord(HIGH_WATER_ID, JDBCJournalRecord.HIGH_WATER_RECORD, 0);
+         highWater.setTxId(seq);
+         connection.setAutoCommit(false);
+         deleteJournalRecords.setLong(1, HIGH_WATER_ID);
+         deleteJournalRecords.executeUpdate();
+         highWater.writeRecord(insertJournalRecords);
+         insertJournalRecords.executeBatch();
+         connection.commit();
+      }
+
+      void deleteAbove(long seq) throws SQLException {
+         connection.setAutoCommit(false);
+         deleteJournalRecordsAboveSeq.setLong(1, seq);
+         deleteJournalRecordsAboveSeq.executeUpdate();
+         connection.commit();
+      }
+
+      void openRecords() throws SQLException {
+         loadedRecords = selectJournalRecords.executeQuery();
+      }
+
+      boolean nextRecord() throws SQLException {
+         head = loadedRecords.next() ? JDBCJournalRecord.readRecord(loadedRecords) : null;
+         return head != null;
+      }
+
+      void closeRecords() {
+         head = null;
+         if (loadedRecords != null) {
+            try {
+               loadedRecords.close();
+            } catch (SQLException e) {
+               logger.warn(e.getMessage(), e);
+            }
+            loadedRecords = null;
+         }
+      }
+   }
+
    private static class JDBCJournalSync extends ActiveMQScheduledComponent {
 
       private final JDBCJournalImpl journal;
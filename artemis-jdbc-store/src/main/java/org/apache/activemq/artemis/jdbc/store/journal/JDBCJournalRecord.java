@@ -63,6 +63,9 @@ class JDBCJournalRecord {
    static final byte COMMIT_RECORD = 18;
    static final byte ROLLBACK_RECORD = 19;
 
+   // Only on the first table of a partitioned journal: the txId is the sequence of the last complete sync
+   static final byte HIGH_WATER_RECORD = 20;
+
    // Callback and sync operations
    private IOCompletion ioCompletion = null;
    private boolean storeLineUp = true;
@@ -307,6 +310,10 @@ class JDBCJournalRecord {
       return seq;
    }
 
+   void setSeq(long seq) {
+      this.seq = seq;
+   }
+
    @Override
    public String toString() {
       return "JDBCJournalRecord{" +
@@ -67,6 +67,7 @@ public class PropertySQLProvider implements SQLProvider {
    private static final int NODE_ID_ROW_ID = 3;
 
    private final String tableName;
+   private final String fileChunkTableName;
    private final Factory.SQLDialect dialect;
    private volatile Properties sql;
 
@@ -75,6 +76,7 @@ public class PropertySQLProvider implements SQLProvider {
       this.sql = sqlProperties;
       final LetterCase tableNamesCase = LetterCase.parse(sql("table-names-case", dialect, sqlProperties));
       this.tableName = tableNamesCase.apply(tableName);
+      this.fileChunkTableName = tableNamesCase.apply(tableName + "_CHUNK");
    }
 
    @Override
@@ -111,6 +113,11 @@ public class PropertySQLProvider implements SQLProvider {
       return format(sql("delete-journal-tx-record"), tableName);
    }
 
+   @Override
+   public String getDeleteJournalRecordsAboveSeqSQL() {
+      return format(sql("delete-journal-record-above-seq"), tableName);
+   }
+
    @Override
    public String getTableName() {
       return tableName;
@@ -171,6 +178,46 @@ public class PropertySQLProvider implements SQLProvider {
       return format(sql("clone-file-record"), tableName);
    }
 
+   @Override
+   public String getFileChunkTableName() {
+      return fileChunkTableName;
+   }
+
+   @Override
+   public String getCreateFileChunkTableSQL() {
+      return format(sql("create-file-chunk-table"), fileChunkTableName);
+   }
+
+   @Override
+   public String getInsertFileChunkSQL() {
+      return format(sql("insert-file-chunk"), fileChunkTableName);
+   }
+
+   @Override
+   public String getSelectFileChunksSQL() {
+      return format(sql("select-file-chunks"), fileChunkTableName);
+   }
+
+   @Override
+   public String getSelectLastFileChunkSQL() {
+      return format(sql("select-last-file-chunk"), fileChunkTableName);
+   }
+
+   @Override
+   public String getDeleteFileChunksSQL() {
+      return format(sql("delete-file-chunks"), fileChunkTableName);
+   }
+
+   @Override
+   public String getCopyFileChunksSQL() {
+      return format(sql("copy-file-chunks"), fileChunkTableName);
+   }
+
+   @Override
+   public String getDropFileChunkTableSQL() {
+      return format(sql("drop-table"), fileChunkTableName);
+   }
+
    @Override
    public String getCountJournalRecordsSQL() {
       return format(sql("count-journal-record"), tableName);
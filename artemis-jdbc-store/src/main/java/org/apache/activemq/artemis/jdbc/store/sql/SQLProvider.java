@@ -34,6 +34,8 @@ public interface SQLProvider {
 
    String getDeleteJournalTxRecordsSQL();
 
+   String getDeleteJournalRecordsAboveSeqSQL();
+
    String getTableName();
 
    String getCreateFileTableSQL();
@@ -58,6 +60,22 @@ public interface SQLProvider {
 
    String getCloneFileRecordByIdSQL();
 
+   String getFileChunkTableName();
+
+   String getCreateFileChunkTableSQL();
+
+   String getInsertFileChunkSQL();
+
+   String getSelectFileChunksSQL();
+
+   String getSelectLastFileChunkSQL();
+
+   String getDeleteFileChunksSQL();
+
+   String getCopyFileChunksSQL();
+
+   String getDropFileChunkTableSQL();
+
    String getCountJournalRecordsSQL();
 
    boolean closeConnectionOnShutdown();
@@ -68,12 +68,14 @@ public class JDBCSequentialFileFactoryTest {
 
    @Parameterized.Parameter
    public boolean useAuthentication;
+   @Parameterized.Parameter(1)
+   public boolean chunked;
    private String user = null;
    private String password = null;
 
-   @Parameterized.Parameters(name = "authentication = {0}")
+   @Parameterized.Parameters(name = "authentication = {0}, chunked = {1}")
    public static Collection<Object[]> data() {
-      return Arrays.asList(new Object[][]{{false}, {true}});
+      return Arrays.asList(new Object[][]{{false, false}, {true, false}, {false, true}});
    }
 
    @Before
@@ -91,7 +93,7 @@ public class JDBCSequentialFileFactoryTest {
          @Override
          public void onIOException(Throwable code, String message, SequentialFile file) {
          }
-      });
+      }, chunked);
       factory.start();
    }
 
@@ -253,6 +255,35 @@ public class JDBCSequentialFileFactoryTest {
       assertEquals(bufferSize, file.size());
    }
 
+   @Test
+   public void testReadAcrossAppends() throws Exception {
+      JDBCSequentialFile file = (JDBCSequentialFile) factory.createSequentialFile("test.txt");
+      file.open();
+
+      final int appends = 10;
+      final int appendSize = 100;
+      ActiveMQBuffer src = ActiveMQBuffers.fixedBuffer(appends * appendSize);
+      for (int i = 0; i < appends * appendSize; i++) {
+         src.writeByte((byte) i);
+      }
+      for (int i = 0; i < appends; i++) {
+         file.internalWrite(src.copy(i * appendSize, appendSize), null);
+      }
+      assertEquals(appends * appendSize, file.size());
+      checkData(file, src);
+
+      // a range starting and ending in the middle of two appends
+      final int start = appendSize / 2;
+      final int length = 3 * appendSize;
+      final ByteBuffer readBuffer = ByteBuffer.allocate(length);
+      file.position(start);
+      assertEquals(length, file.read(readBuffer));
+      final byte[] expected = new byte[length];
+      src.getBytes(start, expected);
+      assertArrayEquals(expected, readBuffer.array());
+      file.close();
+   }
+
    @Test
    public void testCopyFile() throws Exception {
       JDBCSequentialFile file = (JDBCSequentialFile) factory.createSequentialFile("test.txt");
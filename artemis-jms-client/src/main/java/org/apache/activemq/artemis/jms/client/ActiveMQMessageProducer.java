@@ -33,6 +33,9 @@ import javax.jms.StreamMessage;
 import javax.jms.TextMessage;
 import javax.jms.Topic;
 import javax.jms.TopicPublisher;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.ActiveMQInterruptedException;
@@ -328,6 +331,38 @@ public class ActiveMQMessageProducer implements MessageProducer, QueueSender, To
 
    // Public --------------------------------------------------------
 
+   /**
+    * Sends several messages to the default destination of this producer, with its default delivery mode, priority
+    * and time to live.
+    * <p>
+    * The messages are sent together, see {@link ClientProducer#send(Collection)}.
+    */
+   public void send(final Collection<? extends Message> messages) throws JMSException {
+      checkClosed();
+
+      checkDefaultDestination();
+
+      final List<ClientMessage> coreMessages = new ArrayList<>(messages.size());
+      for (Message message : messages) {
+         coreMessages.add(prepareMessage(defaultDestination, message, defaultDeliveryMode, defaultPriority, defaultTimeToLive));
+      }
+
+      try {
+         clientProducer.send(coreMessages);
+      } catch (ActiveMQInterruptedException e) {
+         JMSException jmsException = new JMSException(e.getMessage());
+         jmsException.initCause(e);
+         throw jmsException;
+      } catch (ActiveMQException e) {
+         throw JMSExceptionHelper.convertFromActiveMQException(e);
+      } catch (java.lang.IllegalStateException e) {
+         JMSException je = new IllegalStateException(e.getMessage());
+         je.setStackTrace(e.getStackTrace());
+         je.initCause(e);
+         throw je;
+      }
+   }
+
    @Override
    public String toString() {
       return "ActiveMQMessageProducer->" + clientProducer;
@@ -369,25 +404,7 @@ public class ActiveMQMessageProducer implements MessageProducer, QueueSender, To
                         final int priority,
                         final long timeToLive,
                         CompletionListener completionListener) throws JMSException {
-
-      jmsMessage.setJMSDeliveryMode(deliveryMode);
-
-      jmsMessage.setJMSPriority(priority);
-
-      if (timeToLive == 0) {
-         jmsMessage.setJMSExpiration(0);
-      } else {
-         jmsMessage.setJMSExpiration(System.currentTimeMillis() + timeToLive);
-      }
-
-      if (!disableMessageTimestamp) {
-         jmsMessage.setJMSTimestamp(System.currentTimeMillis());
-      } else {
-         jmsMessage.setJMSTimestamp(0);
-      }
-
       SimpleString address = null;
-      ClientSession clientSession = session.getCoreSession();
 
       if (destination == null) {
          if (defaultDestination == null) {
@@ -407,6 +424,55 @@ public class ActiveMQMessageProducer implements MessageProducer, QueueSender, To
          address = destination.getSimpleAddress();
       }
 
+      ClientMessage coreMessage = prepareMessage(destination, jmsMessage, deliveryMode, priority, timeToLive);
+
+      try {
+         /**
+          * Using a completionListener requires wrapping using a {@link CompletionListenerWrapper},
+          * so we avoid it if we can.
+          */
+         if (completionListener != null) {
+            clientProducer.send(address, coreMessage, new CompletionListenerWrapper(completionListener, jmsMessage, this));
+         } else {
+            clientProducer.send(address, coreMessage);
+         }
+      } catch (ActiveMQInterruptedException e) {
+         JMSException jmsException = new JMSException(e.getMessage());
+         jmsException.initCause(e);
+         throw jmsException;
+      } catch (ActiveMQException e) {
+         throw JMSExceptionHelper.convertFromActiveMQException(e);
+      } catch (java.lang.IllegalStateException e) {
+         JMSException je = new IllegalStateException(e.getMessage());
+         je.setStackTrace(e.getStackTrace());
+         je.initCause(e);
+         throw je;
+      }
+   }
+
+   private ClientMessage prepareMessage(final ActiveMQDestination destination,
+                                        final Message jmsMessage,
+                                        final int deliveryMode,
+                                        final int priority,
+                                        final long timeToLive) throws JMSException {
+      jmsMessage.setJMSDeliveryMode(deliveryMode);
+
+      jmsMessage.setJMSPriority(priority);
+
+      if (timeToLive == 0) {
+         jmsMessage.setJMSExpiration(0);
+      } else {
+         jmsMessage.setJMSExpiration(System.currentTimeMillis() + timeToLive);
+      }
+
+      if (!disableMessageTimestamp) {
+         jmsMessage.setJMSTimestamp(System.currentTimeMillis());
+      } else {
+         jmsMessage.setJMSTimestamp(0);
+      }
+
+      ClientSession clientSession = session.getCoreSession();
+
       ActiveMQMessage activeMQJmsMessage;
 
       boolean foreign = false;
@@ -472,28 +538,7 @@ public class ActiveMQMessageProducer implements MessageProducer, QueueSender, To
 
       coreMessage.setRoutingType(destination.isQueue() ? RoutingType.ANYCAST : RoutingType.MULTICAST);
 
-      try {
-         /**
-          * Using a completionListener requires wrapping using a {@link CompletionListenerWrapper},
-          * so we avoid it if we can.
-          */
-         if (completionListener != null) {
-            clientProducer.send(address, coreMessage, new CompletionListenerWrapper(completionListener, jmsMessage, this));
-         } else {
-            clientProducer.send(address, coreMessage);
-         }
-      } catch (ActiveMQInterruptedException e) {
-         JMSException jmsException = new JMSException(e.getMessage());
-         jmsException.initCause(e);
-         throw jmsException;
-      } catch (ActiveMQException e) {
-         throw JMSExceptionHelper.convertFromActiveMQException(e);
-      } catch (java.lang.IllegalStateException e) {
-         JMSException je = new IllegalStateException(e.getMessage());
-         je.setStackTrace(e.getStackTrace());
-         je.initCause(e);
-         throw je;
-      }
+      return coreMessage;
    }
 
    private void checkClosed() throws JMSException {
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.io.nio;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.api.core.ActiveMQExceptionType;
+import org.apache.activemq.artemis.core.io.IOCallback;
+import org.apache.activemq.artemis.core.io.SequentialFile;
+import org.apache.activemq.artemis.core.io.buffer.TimedBufferObserver;
+import org.apache.activemq.artemis.core.journal.impl.SimpleWaitIOCallback;
+import org.apache.activemq.artemis.journal.ActiveMQJournalBundle;
+import org.apache.activemq.artemis.journal.ActiveMQJournalLogger;
+import org.apache.activemq.artemis.utils.ReusableLatch;
+
+/**
+ * A {@link NIOSequentialFile} whose writes are submitted to the submission queue of its
+ * {@link BatchedNIOSequentialFileFactory}, instead of being performed by the caller.
+ */
+public class BatchedNIOSequentialFile extends NIOSequentialFile {
+
+   private final BatchedNIOSequentialFileFactory batchedFactory;
+
+   private final ReusableLatch pendingWrites = new ReusableLatch();
+
+   public BatchedNIOSequentialFile(final BatchedNIOSequentialFileFactory factory,
+                                   final File directory,
+                                   final String file,
+                                   final int maxIO) {
+      super(factory, directory, file, maxIO, null);
+      this.batchedFactory = factory;
+   }
+
+   @Override
+   protected TimedBufferObserver createTimedBufferObserver() {
+      // the timed buffer is reused as soon as it's flushed: its content must be copied before being submitted
+      return new LocalBufferObserver();
+   }
+
+   @Override
+   protected ByteBuffer newBuffer(int size, int limit) {
+      // always ask for the whole size of the timed buffer, so that the factory can pool the buffers:
+      // no need to zero them, the flushed bytes are copied right after
+      final ByteBuffer buffer = batchedFactory.newWriteBuffer(size);
+      buffer.limit(limit);
+      return buffer;
+   }
+
+   @Override
+   public void close() throws IOException, InterruptedException, ActiveMQException {
+      close(true);
+   }
+
+   @Override
+   public synchronized void close(boolean waitSync) throws IOException, InterruptedException, ActiveMQException {
+      if (isOpen()) {
+         awaitPendingWrites();
+      }
+      super.close(waitSync);
+   }
+
+   @Override
+   public void sync() throws IOException {
+      try {
+         awaitPendingWrites();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new IOException(e);
+      }
+      super.sync();
+   }
+
+   private void awaitPendingWrites() throws InterruptedException {
+      int waitCount = 0;
+      while (!pendingWrites.await(10, TimeUnit.SECONDS)) {
+         waitCount++;
+         ActiveMQJournalLogger.LOGGER.warn("waiting pending writes on " + getFileName() + " from " + (waitCount * 10) + " seconds!");
+      }
+   }
+
+   @Override
+   public void writeDirect(final ByteBuffer bytes, final boolean sync, final IOCallback callback) {
+      if (callback == null) {
+         throw new NullPointerException("callback parameter need to be set");
+      }
+
+      submit(bytes, sync, callback, true);
+   }
+
+   @Override
+   public void writeDirect(final ByteBuffer bytes, final boolean sync) throws Exception {
+      blockingWriteDirect(bytes, sync, true);
+   }
+
+   @Override
+   public void blockingWriteDirect(ByteBuffer bytes, boolean sync, boolean releaseBuffer) throws Exception {
+      final SimpleWaitIOCallback completion = new SimpleWaitIOCallback();
+      submit(bytes, sync, completion, releaseBuffer);
+      completion.waitCompletion();
+   }
+
+   private void submit(final ByteBuffer bytes,
+                       final boolean sync,
+                       final IOCallback callback,
+                       final boolean releaseBuffer) {
+      final FileChannel channel = getChannel();
+      if (channel == null) {
+         if (releaseBuffer) {
+            factory.releaseBuffer(bytes);
+         }
+         callback.onError(ActiveMQExceptionType.IO_ERROR.getCode(), ActiveMQJournalBundle.BUNDLE.fileNotOpened().getMessage());
+         return;
+      }
+
+      final long writePosition = position.getAndAdd(bytes.remaining());
+      pendingWrites.countUp();
+      try {
+         batchedFactory.submit(new BatchedNIOSequentialFileFactory.Submission(this, channel, writePosition, bytes, sync, callback, releaseBuffer));
+      } catch (InterruptedException e) {
+         pendingWrites.countDown();
+         Thread.currentThread().interrupt();
+         if (releaseBuffer) {
+            factory.releaseBuffer(bytes);
+         }
+         callback.onError(ActiveMQExceptionType.IO_ERROR.getCode(), "Interrupted while submitting a write to " + getFileName());
+      }
+   }
+
+   /**
+    * Called by the submission queue once a submitted write is completed, whatever its outcome.
+    */
+   void writeDone() {
+      pendingWrites.countDown();
+   }
+
+   @Override
+   public SequentialFile cloneFile() {
+      return new BatchedNIOSequentialFile(batchedFactory, directory, getFileName(), batchedFactory.getMaxIO());
+   }
+
+   @Override
+   public String toString() {
+      return "BatchedNIOSequentialFile " + getFile();
+   }
+}
@@ -0,0 +1,291 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.io.nio;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.activemq.artemis.ArtemisConstants;
+import org.apache.activemq.artemis.api.core.ActiveMQExceptionType;
+import org.apache.activemq.artemis.api.core.ActiveMQIOErrorException;
+import org.apache.activemq.artemis.api.core.ActiveMQInterruptedException;
+import org.apache.activemq.artemis.core.io.AbstractSequentialFileFactory;
+import org.apache.activemq.artemis.core.io.IOCallback;
+import org.apache.activemq.artemis.core.io.IOCriticalErrorListener;
+import org.apache.activemq.artemis.core.io.SequentialFile;
+import org.apache.activemq.artemis.core.io.util.ByteBufferPool;
+import org.apache.activemq.artemis.journal.ActiveMQJournalLogger;
+import org.apache.activemq.artemis.utils.critical.CriticalAnalyzer;
+import org.jboss.logging.Logger;
+
+/**
+ * A {@link NIOSequentialFileFactory} that performs the writes of its files asynchronously, the same way
+ * {@link org.apache.activemq.artemis.core.io.aio.AIOSequentialFileFactory} does, but without libaio nor
+ * {@code O_DIRECT}.
+ * <p>
+ * Writes are queued on a submission queue of up to {@link #getMaxIO()} entries. A single submitter thread drains
+ * all the queued writes at once: it writes them in order with positional writes, then syncs each of the written
+ * files once if any of its writes requested it, before completing their callbacks in submission order.
+ * While a batch is written and synced the journal keeps on filling the next one, and the buffers of the
+ * writes are borrowed from a pool shared with the submitter thread.
+ */
+public final class BatchedNIOSequentialFileFactory extends NIOSequentialFileFactory {
+
+   private static final Logger logger = Logger.getLogger(BatchedNIOSequentialFileFactory.class);
+
+   /**
+    * Max number of write buffers kept for reuse, whatever the max IO is: with the default AIO buffer size and max IO
+    * a buffer per write in flight could retain about 2GB of direct memory. Buffers borrowed above it are freed on
+    * release.
+    */
+   static final int MAX_POOLED_BUFFERS = 32;
+
+   private final LinkedBlockingQueue<Submission> submissions = new LinkedBlockingQueue<>();
+
+   private final Semaphore submissionSlots;
+
+   private final ByteBufferPool buffersPool;
+
+   private final AtomicBoolean running = new AtomicBoolean(false);
+
+   private Thread submitterThread;
+
+   public BatchedNIOSequentialFileFactory(final File journalDir, final int maxIO) {
+      this(journalDir, ArtemisConstants.DEFAULT_JOURNAL_BUFFER_SIZE_AIO, ArtemisConstants.DEFAULT_JOURNAL_BUFFER_TIMEOUT_AIO, maxIO, false, null, null);
+   }
+
+   public BatchedNIOSequentialFileFactory(final File journalDir,
+                                          final int bufferSize,
+                                          final int bufferTimeout,
+                                          final int maxIO,
+                                          final boolean logRates,
+                                          final IOCriticalErrorListener listener,
+                                          final CriticalAnalyzer analyzer) {
+      super(journalDir, true, bufferSize, bufferTimeout, maxIO, logRates, listener, analyzer);
+      this.submissionSlots = new Semaphore(maxIO);
+      // a buffer for each write in flight, plus the one being filled, up to MAX_POOLED_BUFFERS
+      this.buffersPool = ByteBufferPool.concurrent(true, Math.min(maxIO + 1, MAX_POOLED_BUFFERS));
+   }
+
+   @Override
+   public SequentialFile createSequentialFile(final String fileName) {
+      return new BatchedNIOSequentialFile(this, journalDir, fileName, maxIO);
+   }
+
+   @Override
+   public boolean isSupportsCallbacks() {
+      return true;
+   }
+
+   @Override
+   public ByteBuffer newBuffer(int size) {
+      return buffersPool.borrow(size, true);
+   }
+
+   /**
+    * Borrows a buffer that the caller is going to overwrite, without zeroing it.
+    */
+   ByteBuffer newWriteBuffer(int size) {
+      return buffersPool.borrow(size, false);
+   }
+
+   @Override
+   public void releaseBuffer(ByteBuffer buffer) {
+      buffersPool.release(buffer);
+   }
+
+   @Override
+   public void start() {
+      if (running.compareAndSet(false, true)) {
+         super.start();
+
+         submitterThread = new SubmitterThread();
+         submitterThread.start();
+      }
+   }
+
+   @Override
+   public void stop() {
+      if (running.compareAndSet(true, false)) {
+         if (submitterThread != null) {
+            try {
+               submitterThread.join(AbstractSequentialFileFactory.EXECUTOR_TIMEOUT * 1000);
+
+               if (submitterThread.isAlive()) {
+                  ActiveMQJournalLogger.LOGGER.timeoutOnPollerShutdown(new Exception("trace"));
+               }
+            } catch (InterruptedException e) {
+               throw new ActiveMQInterruptedException(e);
+            }
+            submitterThread = null;
+         }
+
+         super.stop();
+      }
+   }
+
+   /**
+    * Queues {@code submission}, waiting for a free slot if {@link #getMaxIO()} writes are already in flight.
+    * <p>
+    * A completion callback submitting a write never waits: the slots are only released by the submitter thread
+    * running it.
+    */
+   void submit(final Submission submission) throws InterruptedException {
+      if (Thread.currentThread() == submitterThread) {
+         submission.slotAcquired = submissionSlots.tryAcquire();
+      } else {
+         submissionSlots.acquire();
+      }
+      submissions.add(submission);
+   }
+
+   private void write(final List<Submission> batch) {
+      final int size = batch.size();
+      int start = 0;
+      while (start < size) {
+         // the writes of the same file are linked to a single sync
+         final BatchedNIOSequentialFile file = batch.get(start).file;
+         int end = start;
+         boolean sync = false;
+         IOException error = null;
+         while (end < size && batch.get(end).file == file) {
+            final Submission submission = batch.get(end);
+            sync |= submission.sync;
+            if (error == null) {
+               try {
+                  submission.write();
+               } catch (IOException e) {
+                  error = e;
+               }
+            }
+            end++;
+         }
+         if (error == null && sync && dataSync) {
+            try {
+               batch.get(start).channel.force(false);
+            } catch (IOException e) {
+               error = e;
+            }
+         }
+         if (error != null) {
+            onIOError(new ActiveMQIOErrorException(error.getMessage(), error), error.getMessage(), file);
+         }
+         for (int i = start; i < end; i++) {
+            complete(batch.get(i), error);
+         }
+         start = end;
+      }
+   }
+
+   private void complete(final Submission submission, final IOException error) {
+      // the slot is released before the callback, which could submit another write
+      if (submission.releaseBuffer) {
+         releaseBuffer(submission.buffer);
+      }
+      submission.file.writeDone();
+      if (submission.slotAcquired) {
+         submissionSlots.release();
+      }
+      try {
+         if (error == null) {
+            submission.callback.done();
+         } else {
+            submission.callback.onError(ActiveMQExceptionType.IO_ERROR.getCode(), error.getMessage());
+         }
+      } catch (Throwable e) {
+         logger.warn("Error completing a write on " + submission.file + ": " + e.getMessage(), e);
+      }
+   }
+
+   static final class Submission {
+
+      final BatchedNIOSequentialFile file;
+      final FileChannel channel;
+      final long position;
+      final ByteBuffer buffer;
+      final boolean sync;
+      final IOCallback callback;
+      final boolean releaseBuffer;
+
+      // false if submitted by a completion callback while every slot was taken
+      boolean slotAcquired = true;
+
+      Submission(final BatchedNIOSequentialFile file,
+                 final FileChannel channel,
+                 final long position,
+                 final ByteBuffer buffer,
+                 final boolean sync,
+                 final IOCallback callback,
+                 final boolean releaseBuffer) {
+         this.file = file;
+         this.channel = channel;
+         this.position = position;
+         this.buffer = buffer;
+         this.sync = sync;
+         this.callback = callback;
+         this.releaseBuffer = releaseBuffer;
+      }
+
+      void write() throws IOException {
+         long writePosition = position;
+         while (buffer.hasRemaining()) {
+            writePosition += channel.write(buffer, writePosition);
+         }
+      }
+   }
+
+   private class SubmitterThread extends Thread {
+
+      private SubmitterThread() {
+         super("Apache ActiveMQ Artemis batched NIO submitter");
+         setDaemon(true);
+      }
+
+      @Override
+      public void run() {
+         final List<Submission> batch = new ArrayList<>(maxIO);
+         // keep on draining after stop, until the in flight writes are completed
+         while (running.get() || submissionSlots.availablePermits() < maxIO || !submissions.isEmpty()) {
+            try {
+               final Submission first = submissions.poll(100, TimeUnit.MILLISECONDS);
+               if (first == null) {
+                  continue;
+               }
+               batch.add(first);
+               submissions.drainTo(batch);
+               write(batch);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+               return;
+            } catch (Throwable e) {
+               ActiveMQJournalLogger.LOGGER.warn(e.getMessage(), e);
+               onIOError(new ActiveMQIOErrorException(e.getMessage(), e), e.getMessage(), null);
+            } finally {
+               batch.clear();
+            }
+         }
+      }
+   }
+}
@@ -89,6 +89,10 @@ public class NIOSequentialFile extends AbstractSequentialFile {
       return channel != null;
    }
 
+   final synchronized FileChannel getChannel() {
+      return channel;
+   }
+
    /**
     * this.maxIO represents the default maxIO.
     * Some operations while initializing files on the journal may require a different maxIO
@@ -48,4 +48,12 @@ public interface ByteBufferPool {
       return new ThreadLocalByteBufferPool(direct);
    }
 
+   /**
+    * Factory method that creates a pool of up to {@code capacity} {@link ByteBuffer}s of the specified type (direct/heap),
+    * that can be borrowed and released by different threads.
+    */
+   static ByteBufferPool concurrent(boolean direct, int capacity) {
+      return new ConcurrentByteBufferPool(direct, capacity);
+   }
+
 }
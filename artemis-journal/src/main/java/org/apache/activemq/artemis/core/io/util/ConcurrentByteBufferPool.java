@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.io.util;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import io.netty.util.internal.PlatformDependent;
+import org.apache.activemq.artemis.utils.ByteUtil;
+import org.apache.activemq.artemis.utils.Env;
+import org.apache.activemq.artemis.utils.PowerOf2Util;
+
+final class ConcurrentByteBufferPool implements ByteBufferPool {
+
+   private final ArrayBlockingQueue<ByteBuffer> bytesPool;
+   private final boolean direct;
+
+   ConcurrentByteBufferPool(boolean direct, int capacity) {
+      this.bytesPool = new ArrayBlockingQueue<>(capacity);
+      this.direct = direct;
+   }
+
+   @Override
+   public ByteBuffer borrow(final int size, boolean zeroed) {
+      final int requiredCapacity = PowerOf2Util.align(size, Env.osPageSize());
+      ByteBuffer byteBuffer = bytesPool.poll();
+      if (byteBuffer == null || requiredCapacity > byteBuffer.capacity()) {
+         if (byteBuffer != null && direct) {
+            //too small to be of any use
+            PlatformDependent.freeDirectBuffer(byteBuffer);
+         }
+         byteBuffer = direct ? ByteBuffer.allocateDirect(requiredCapacity) : ByteBuffer.allocate(requiredCapacity);
+      } else {
+         if (zeroed) {
+            ByteUtil.zeros(byteBuffer, 0, size);
+         }
+         byteBuffer.clear();
+      }
+      byteBuffer.limit(size);
+      return byteBuffer;
+   }
+
+   @Override
+   public void release(ByteBuffer buffer) {
+      Objects.requireNonNull(buffer);
+      boolean directBuffer = buffer.isDirect();
+      if (directBuffer == direct && !buffer.isReadOnly()) {
+         if (!bytesPool.offer(buffer) && directBuffer) {
+            PlatformDependent.freeDirectBuffer(buffer);
+         }
+      }
+   }
+
+}
@@ -0,0 +1,441 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.journal.impl;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+import org.apache.activemq.artemis.utils.collections.ConcurrentLongHashSet;
+
+/**
+ * A {@link JournalRecordIndex} keeping the records in primitive arrays instead of a {@link JournalRecord} per record.
+ * <p>
+ * Each record takes its id, the slot of its add file, its size and the head of its chain of updates, and each update
+ * the slot of its file, its size and the next update of the chain: the files are referenced by the slots of a small
+ * table per section, freed as soon as no record nor update refers to them anymore.
+ * <p>
+ * This saves most of the memory taken by the index of a journal with millions of records
+ * and it leaves no object per record to be traced by the garbage collector.
+ */
+public final class CompactJournalRecordIndex implements JournalRecordIndex {
+
+   private static final float FILL_FACTOR = 0.66f;
+
+   private static final int DEFAULT_SECTIONS = 16;
+
+   private static final int DEFAULT_SECTION_CAPACITY = 64;
+
+   private static final long HASH_MIXER = 0xc6a4a7935bd1e995L;
+
+   private final Section[] sections;
+
+   public CompactJournalRecordIndex() {
+      this(DEFAULT_SECTIONS, DEFAULT_SECTION_CAPACITY);
+   }
+
+   public CompactJournalRecordIndex(int numSections, int sectionCapacity) {
+      if (Integer.bitCount(numSections) != 1) {
+         throw new IllegalArgumentException("numSections must be a power of 2: " + numSections);
+      }
+      if (Integer.bitCount(sectionCapacity) != 1) {
+         throw new IllegalArgumentException("sectionCapacity must be a power of 2: " + sectionCapacity);
+      }
+      sections = new Section[numSections];
+      for (int i = 0; i < numSections; i++) {
+         sections[i] = new Section(sectionCapacity);
+      }
+   }
+
+   private static long hash(long id) {
+      long hash = id * HASH_MIXER;
+      hash ^= hash >>> 47;
+      hash *= HASH_MIXER;
+      return hash;
+   }
+
+   private Section section(long hash) {
+      return sections[(int) (hash >>> 32) & (sections.length - 1)];
+   }
+
+   @Override
+   public void add(long id, JournalFile addFile, int size) {
+      final long hash = hash(id);
+      section(hash).add(id, hash, addFile, size);
+   }
+
+   @Override
+   public boolean update(long id, JournalFile updateFile, int size) {
+      final long hash = hash(id);
+      return section(hash).update(id, hash, updateFile, size);
+   }
+
+   @Override
+   public boolean delete(long id, JournalFile deleteFile) {
+      final long hash = hash(id);
+      return section(hash).delete(id, hash, deleteFile);
+   }
+
+   @Override
+   public boolean contains(long id) {
+      final long hash = hash(id);
+      return section(hash).contains(id, hash);
+   }
+
+   @Override
+   public int size() {
+      int size = 0;
+      for (Section section : sections) {
+         size += section.size;
+      }
+      return size;
+   }
+
+   @Override
+   public void clear() {
+      for (Section section : sections) {
+         section.clear();
+      }
+   }
+
+   @Override
+   public void merge(JournalRecordIndex other) {
+      for (Section section : ((CompactJournalRecordIndex) other).sections) {
+         section.moveTo(this);
+      }
+   }
+
+   @Override
+   public void forEach(LongConsumer idConsumer) {
+      for (Section section : sections) {
+         // the ids are copied so the consumer is free to change the index
+         for (long id : section.ids()) {
+            idConsumer.accept(id);
+         }
+      }
+   }
+
+   @Override
+   public ConcurrentLongHashSet keysLongHashSet() {
+      ConcurrentLongHashSet keys = new ConcurrentLongHashSet(size());
+      forEach(keys::add);
+      return keys;
+   }
+
+   @Override
+   public String toString() {
+      return "CompactJournalRecordIndex(size=" + size() + ")";
+   }
+
+   private static final class Section {
+
+      private final int initialCapacity;
+
+      private long[] ids;
+
+      // the slot of the add file + 1: 0 marks an empty bucket
+      private int[] addFiles;
+
+      private int[] sizes;
+
+      // the first update of the chain + 1: 0 marks a record without updates
+      private int[] updateHeads;
+
+      private int resizeThreshold;
+
+      // written under the lock, but read by size() without it
+      private volatile int size;
+
+      private int[] updateFiles;
+
+      private int[] updateSizes;
+
+      // the next update of the chain + 1: 0 marks its end
+      private int[] updateNexts;
+
+      private int usedUpdates;
+
+      // the first free update + 1, chained through updateNexts: 0 if there are none
+      private int freeUpdates;
+
+      private JournalFile[] files;
+
+      private int[] fileRefs;
+
+      private final Map<JournalFile, Integer> fileSlots = new IdentityHashMap<>();
+
+      // almost every record goes to the current file, no need to look it up on fileSlots
+      private int lastFileSlot;
+
+      Section(int capacity) {
+         this.initialCapacity = capacity;
+         reset();
+      }
+
+      private void reset() {
+         ids = new long[initialCapacity];
+         addFiles = new int[initialCapacity];
+         sizes = new int[initialCapacity];
+         updateHeads = new int[initialCapacity];
+         resizeThreshold = (int) (initialCapacity * FILL_FACTOR);
+         size = 0;
+         updateFiles = new int[initialCapacity];
+         updateSizes = new int[initialCapacity];
+         updateNexts = new int[initialCapacity];
+         usedUpdates = 0;
+         freeUpdates = 0;
+         files = new JournalFile[4];
+         fileRefs = new int[4];
+         fileSlots.clear();
+         lastFileSlot = -1;
+      }
+
+      synchronized void add(long id, long hash, JournalFile addFile, int size) {
+         insert(id, hash, addFile, size);
+         addFile.incPosCount();
+         addFile.addSize(size);
+      }
+
+      synchronized boolean update(long id, long hash, JournalFile updateFile, int size) {
+         final int bucket = find(id, hash);
+         if (bucket < 0) {
+            return false;
+         }
+         pushUpdate(bucket, updateFile, size);
+         updateFile.incPosCount();
+         updateFile.addSize(size);
+         return true;
+      }
+
+      synchronized boolean delete(long id, long hash, JournalFile deleteFile) {
+         final int bucket = find(id, hash);
+         if (bucket < 0) {
+            return false;
+         }
+         release(bucket, deleteFile);
+         removeAt(bucket);
+         return true;
+      }
+
+      synchronized boolean contains(long id, long hash) {
+         return find(id, hash) >= 0;
+      }
+
+      synchronized void clear() {
+         reset();
+      }
+
+      synchronized long[] ids() {
+         final long[] copy = new long[size];
+         int count = 0;
+         for (int bucket = 0; bucket < addFiles.length; bucket++) {
+            if (addFiles[bucket] != 0) {
+               copy[count++] = ids[bucket];
+            }
+         }
+         return copy;
+      }
+
+      synchronized void moveTo(CompactJournalRecordIndex target) {
+         for (int bucket = 0; bucket < addFiles.length; bucket++) {
+            if (addFiles[bucket] != 0) {
+               final long id = ids[bucket];
+               final long hash = hash(id);
+               target.section(hash).put(id, hash, this, bucket);
+            }
+         }
+         reset();
+      }
+
+      /**
+       * Copies a record of another section with its updates, without accounting them again on their files.
+       */
+      private synchronized void put(long id, long hash, Section from, int fromBucket) {
+         final int bucket = insert(id, hash, from.files[from.addFiles[fromBucket] - 1], from.sizes[fromBucket]);
+         for (int next = from.updateHeads[fromBucket]; next != 0; next = from.updateNexts[next - 1]) {
+            pushUpdate(bucket, from.files[from.updateFiles[next - 1]], from.updateSizes[next - 1]);
+         }
+      }
+
+      /**
+       * @return the bucket of the record or, if it is not found, {@code -1 - bucket} of the first empty bucket
+       */
+      private int find(long id, long hash) {
+         final int mask = ids.length - 1;
+         int bucket = (int) hash & mask;
+         while (addFiles[bucket] != 0) {
+            if (ids[bucket] == id) {
+               return bucket;
+            }
+            bucket = (bucket + 1) & mask;
+         }
+         return -1 - bucket;
+      }
+
+      private int insert(long id, long hash, JournalFile addFile, int size) {
+         int bucket = find(id, hash);
+         if (bucket >= 0) {
+            // it replaces the record, as a put on a map would do
+            release(bucket, null);
+         } else {
+            if (this.size >= resizeThreshold) {
+               rehash(ids.length * 2);
+               bucket = find(id, hash);
+            }
+            bucket = -1 - bucket;
+            this.size++;
+         }
+         ids[bucket] = id;
+         addFiles[bucket] = acquireFile(addFile) + 1;
+         sizes[bucket] = size;
+         updateHeads[bucket] = 0;
+         return bucket;
+      }
+
+      private void pushUpdate(int bucket, JournalFile updateFile, int size) {
+         final int update;
+         if (freeUpdates != 0) {
+            update = freeUpdates - 1;
+            freeUpdates = updateNexts[update];
+         } else {
+            if (usedUpdates == updateNexts.length) {
+               final int newLength = usedUpdates * 2;
+               updateFiles = Arrays.copyOf(updateFiles, newLength);
+               updateSizes = Arrays.copyOf(updateSizes, newLength);
+               updateNexts = Arrays.copyOf(updateNexts, newLength);
+            }
+            update = usedUpdates++;
+         }
+         updateFiles[update] = acquireFile(updateFile);
+         updateSizes[update] = size;
+         updateNexts[update] = updateHeads[bucket];
+         updateHeads[bucket] = update + 1;
+      }
+
+      /**
+       * Releases the files and the updates of a record, accounting them as negatives on {@code deleteFile} if not {@code null}.
+       */
+      private void release(int bucket, JournalFile deleteFile) {
+         final int addFileSlot = addFiles[bucket] - 1;
+         if (deleteFile != null) {
+            final JournalFile addFile = files[addFileSlot];
+            deleteFile.incNegCount(addFile);
+            addFile.decSize(sizes[bucket]);
+         }
+         releaseFile(addFileSlot);
+         int next = updateHeads[bucket];
+         while (next != 0) {
+            final int update = next - 1;
+            if (deleteFile != null) {
+               final JournalFile updateFile = files[updateFiles[update]];
+               deleteFile.incNegCount(updateFile);
+               updateFile.decSize(updateSizes[update]);
+            }
+            releaseFile(updateFiles[update]);
+            next = updateNexts[update];
+            updateNexts[update] = freeUpdates;
+            freeUpdates = update + 1;
+         }
+         updateHeads[bucket] = 0;
+      }
+
+      /**
+       * Empties a bucket shifting back the records of the same probe sequence, so no tombstones are needed.
+       */
+      private void removeAt(int bucket) {
+         final int mask = ids.length - 1;
+         int hole = bucket;
+         int next = (hole + 1) & mask;
+         while (addFiles[next] != 0) {
+            final int ideal = (int) hash(ids[next]) & mask;
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+               ids[hole] = ids[next];
+               addFiles[hole] = addFiles[next];
+               sizes[hole] = sizes[next];
+               updateHeads[hole] = updateHeads[next];
+               hole = next;
+            }
+            next = (next + 1) & mask;
+         }
+         addFiles[hole] = 0;
+         updateHeads[hole] = 0;
+         size--;
+      }
+
+      private void rehash(int newCapacity) {
+         final long[] oldIds = ids;
+         final int[] oldAddFiles = addFiles;
+         final int[] oldSizes = sizes;
+         final int[] oldUpdateHeads = updateHeads;
+         ids = new long[newCapacity];
+         addFiles = new int[newCapacity];
+         sizes = new int[newCapacity];
+         updateHeads = new int[newCapacity];
+         resizeThreshold = (int) (newCapacity * FILL_FACTOR);
+         final int mask = newCapacity - 1;
+         for (int i = 0; i < oldAddFiles.length; i++) {
+            if (oldAddFiles[i] != 0) {
+               int bucket = (int) hash(oldIds[i]) & mask;
+               while (addFiles[bucket] != 0) {
+                  bucket = (bucket + 1) & mask;
+               }
+               ids[bucket] = oldIds[i];
+               addFiles[bucket] = oldAddFiles[i];
+               sizes[bucket] = oldSizes[i];
+               updateHeads[bucket] = oldUpdateHeads[i];
+            }
+         }
+      }
+
+      private int acquireFile(JournalFile file) {
+         int slot = lastFileSlot;
+         if (slot < 0 || files[slot] != file) {
+            final Integer existingSlot = fileSlots.get(file);
+            if (existingSlot != null) {
+               slot = existingSlot;
+            } else {
+               slot = newFileSlot();
+               files[slot] = file;
+               fileSlots.put(file, slot);
+            }
+            lastFileSlot = slot;
+         }
+         fileRefs[slot]++;
+         return slot;
+      }
+
+      private void releaseFile(int slot) {
+         if (--fileRefs[slot] == 0) {
+            fileSlots.remove(files[slot]);
+            files[slot] = null;
+         }
+      }
+
+      private int newFileSlot() {
+         for (int slot = 0; slot < files.length; slot++) {
+            if (files[slot] == null) {
+               return slot;
+            }
+         }
+         final int slot = files.length;
+         files = Arrays.copyOf(files, slot * 2);
+         fileRefs = Arrays.copyOf(fileRefs, slot * 2);
+         return slot;
+      }
+   }
+}
@@ -48,7 +48,7 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
    // Snapshot of transactions that were pending when the compactor started
    private final ConcurrentLongHashMap<PendingTransaction> pendingTransactions = new ConcurrentLongHashMap<>();
 
-   private final ConcurrentLongHashMap<JournalRecord> newRecords = new ConcurrentLongHashMap<>();
+   private final JournalRecordIndex newRecords;
 
    private final ConcurrentLongHashMap<JournalTransaction> newTransactions = new ConcurrentLongHashMap<>();
 
@@ -63,7 +63,7 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
       return newDataFiles;
    }
 
-   public ConcurrentLongHashMap<JournalRecord> getNewRecords() {
+   public JournalRecordIndex getNewRecords() {
       return newRecords;
    }
 
@@ -77,6 +77,7 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
                            final ConcurrentLongHashSet recordsSnapshot,
                            final long firstFileID) {
       super(fileFactory, journal, filesRepository, recordsSnapshot, firstFileID);
+      newRecords = journal.createRecordIndex();
    }
 
    /**
@@ -229,7 +230,7 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
 
          writeEncoder(addRecord);
 
-         newRecords.put(info.id, new JournalRecord(currentFile, addRecord.getEncodeSize()));
+         newRecords.add(info.id, currentFile, addRecord.getEncodeSize());
       }
    }
 
@@ -283,7 +284,7 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
          logger.trace("onReadDeleteRecord " + recordID);
       }
 
-      if (newRecords.get(recordID) != null) {
+      if (newRecords.contains(recordID)) {
          // Sanity check, it should never happen
          ActiveMQJournalLogger.LOGGER.inconsistencyDuringCompactingDelete(recordID);
       }
@@ -377,12 +378,8 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
 
          checkSize(updateRecord.getEncodeSize(), info.compactCount);
 
-         JournalRecord newRecord = newRecords.get(info.id);
-
-         if (newRecord == null) {
+         if (!newRecords.update(info.id, currentFile, updateRecord.getEncodeSize())) {
             ActiveMQJournalLogger.LOGGER.compactingWithNoAddRecord(info.id);
-         } else {
-            newRecord.addUpdateFile(currentFile, updateRecord.getEncodeSize());
          }
 
          writeEncoder(updateRecord);
@@ -450,11 +447,8 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
 
       @Override
       void execute() throws Exception {
-         JournalRecord deleteRecord = journal.getRecords().remove(id);
-         if (deleteRecord == null) {
+         if (!journal.getRecords().delete(id, usedFile)) {
             ActiveMQJournalLogger.LOGGER.noRecordDuringCompactReplay(id);
-         } else {
-            deleteRecord.delete(usedFile);
          }
       }
    }
@@ -485,11 +479,8 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
 
       @Override
       void execute() throws Exception {
-         JournalRecord updateRecord = journal.getRecords().get(id);
-         if (updateRecord == null) {
+         if (!journal.getRecords().update(id, usedFile, size)) {
             ActiveMQJournalLogger.LOGGER.noRecordDuringCompactReplay(id);
-         } else {
-            updateRecord.addUpdateFile(usedFile, size);
          }
       }
 
@@ -575,7 +566,7 @@ public class JournalCompactor extends AbstractJournalUpdateTask implements Journ
    }
 
    @Override
-   public ConcurrentLongHashMap<JournalRecord> getRecords() {
+   public JournalRecordIndex getRecords() {
       return newRecords;
    }
 
@@ -171,8 +171,11 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
    private final JournalFilesRepository filesRepository;
 
-   // Compacting may replace this structure
-   private final ConcurrentLongHashMap<JournalRecord> records = new ConcurrentLongHashMap<>();
+   private boolean compactRecordIndex;
+
+   private int loadThreads = 1;
+
+   private JournalRecordIndex records = createRecordIndex();
 
    private final ConcurrentLongHashSet pendingRecords = new ConcurrentLongHashSet();
 
@@ -215,6 +218,17 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
    private volatile int compactCount = 0;
 
+   // how many bytes of data files the compactor may read per second, 0 or less for no limit
+   private volatile long compactMaxBytesPerSecond = -1;
+
+   // set by stop and synchronizationLock, which wait on the locks held by the compactor: it stops pacing the compactor
+   private volatile boolean compactThrottleAborted = false;
+
+   // the explicit compactions waiting on the monitor held by the compactor: it doesn't pace the compactor either
+   private final AtomicInteger explicitCompactions = new AtomicInteger(0);
+
+   private volatile long lastCompactDurationMillis = 0;
+
    public float getCompactPercentage() {
       return compactPercentage;
    }
@@ -415,10 +429,79 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
    }
 
    @Override
-   public ConcurrentLongHashMap<JournalRecord> getRecords() {
+   public JournalRecordIndex getRecords() {
       return records;
    }
 
+   /**
+    * Uses a {@link CompactJournalRecordIndex} to keep track of the live records, trading a bit of CPU for much less
+    * memory on journals with millions of records. It can only be changed while the journal is stopped.
+    */
+   public void setCompactRecordIndex(boolean compactRecordIndex) {
+      if (state != JournalState.STOPPED) {
+         throw new IllegalStateException("The record index can only be changed while the journal is stopped");
+      }
+      this.compactRecordIndex = compactRecordIndex;
+      this.records = createRecordIndex();
+   }
+
+   public boolean isCompactRecordIndex() {
+      return compactRecordIndex;
+   }
+
+   /**
+    * Reads and decodes up to {@code loadThreads} files concurrently while loading, ahead of the records being applied
+    * in the order of the files: 1 reads the files one by one on the loading thread.
+    */
+   public void setLoadThreads(int loadThreads) {
+      if (loadThreads < 1) {
+         throw new IllegalArgumentException("loadThreads must be at least 1: " + loadThreads);
+      }
+      this.loadThreads = loadThreads;
+   }
+
+   public int getLoadThreads() {
+      return loadThreads;
+   }
+
+   /**
+    * Paces the compactor so that it doesn't read the data files faster than {@code compactMaxBytesPerSecond}, spreading
+    * its disk I/O over a longer compaction: 0 or less doesn't limit it.
+    */
+   public void setCompactMaxBytesPerSecond(long compactMaxBytesPerSecond) {
+      this.compactMaxBytesPerSecond = compactMaxBytesPerSecond;
+   }
+
+   public long getCompactMaxBytesPerSecond() {
+      return compactMaxBytesPerSecond;
+   }
+
+   /**
+    * @return how long the last completed compaction took, in milliseconds
+    */
+   public long getLastCompactDuration() {
+      return lastCompactDurationMillis;
+   }
+
+   /**
+    * @return the bytes of the data files not taken by live records, ie what a compaction would give back
+    */
+   public long getReclaimableBytes() {
+      JournalFile[] dataFiles = getDataFiles();
+
+      long totalLiveSize = 0;
+
+      for (JournalFile file : dataFiles) {
+         totalLiveSize += file.getLiveSize();
+      }
+
+      return Math.max(0, dataFiles.length * (long) fileSize - totalLiveSize);
+   }
+
+   JournalRecordIndex createRecordIndex() {
+      return compactRecordIndex ? new CompactJournalRecordIndex() : new MapJournalRecordIndex();
+   }
+
    @Override
    public JournalFile getCurrentFile() {
       return currentFile;
@@ -847,7 +930,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
             journalLock.readLock().lock();
             try {
                JournalFile usedFile = appendRecord(addRecord, false, sync, null, callback);
-               records.put(id, new JournalRecord(usedFile, addRecordEncodeSize));
+               records.add(id, usedFile, addRecordEncodeSize);
 
                if (logger.isTraceEnabled()) {
                   logger.trace("appendAddRecord::id=" + id +
@@ -938,7 +1021,6 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
          public void run() {
             journalLock.readLock().lock();
             try {
-               JournalRecord jrnRecord = records.get(id);
                JournalInternalRecord updateRecord = new JournalAddRecord(false, id, recordType, persister, record);
                JournalFile usedFile = appendRecord(updateRecord, false, sync, null, callback);
 
@@ -950,12 +1032,10 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
                                   usedFile);
                }
 
-               // record==null here could only mean there is a compactor
-               // computing the delete should be done after compacting is done
-               if (jrnRecord == null) {
+               // a missing record here could only mean there is a compactor
+               // computing the update should be done after compacting is done
+               if (!records.update(id, usedFile, updateRecord.getEncodeSize())) {
                   compactor.addCommandUpdate(id, usedFile, updateRecord.getEncodeSize());
-               } else {
-                  jrnRecord.addUpdateFile(usedFile, updateRecord.getEncodeSize());
                }
 
                result.set(true);
@@ -1022,11 +1102,6 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
          public void run() {
             journalLock.readLock().lock();
             try {
-               JournalRecord record = null;
-               if (compactor == null) {
-                  record = records.remove(id);
-               }
-
                JournalInternalRecord deleteRecord = new JournalDeleteRecord(id);
                JournalFile usedFile = appendRecord(deleteRecord, false, sync, null, callback);
 
@@ -1034,17 +1109,12 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
                   logger.trace("appendDeleteRecord::id=" + id + ", usedFile = " + usedFile);
                }
 
-               // record==null here could only mean there is a compactor
                // computing the delete should be done after compacting is done
-               if (record == null) {
+               if (compactor != null) {
+                  compactor.addCommandDelete(id, usedFile);
+               } else if (!records.delete(id, usedFile)) {
                   // JournalImplTestUni::testDoubleDelete was written to validate this condition:
-                  if (compactor == null) {
-                     logger.debug("Record " + id + " had been deleted already from a different call");
-                  } else {
-                     compactor.addCommandDelete(id, usedFile);
-                  }
-               } else {
-                  record.delete(usedFile);
+                  logger.debug("Record " + id + " had been deleted already from a different call");
                }
                result.set(true);
             } catch (ActiveMQShutdownException e) {
@@ -1124,7 +1194,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
    }
 
    private boolean checkKnownRecordID(final long id, boolean strict) throws Exception {
-      if (records.containsKey(id) || pendingRecords.contains(id) || (compactor != null && compactor.containsRecord(id))) {
+      if (records.contains(id) || pendingRecords.contains(id) || (compactor != null && compactor.containsRecord(id))) {
          return true;
       }
 
@@ -1137,7 +1207,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
             journalLock.readLock().lock();
             try {
 
-               known.set(records.containsKey(id)
+               known.set(records.contains(id)
                   || pendingRecords.contains(id)
                   || (compactor != null && compactor.containsRecord(id)));
             } finally {
@@ -1653,16 +1723,33 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
     * stop, start records will still come as this is being executed
     */
 
-   public synchronized void compact() throws Exception {
+   public void compact() throws Exception {
+      explicitCompactions.incrementAndGet();
+      try {
+         compact(false);
+      } finally {
+         explicitCompactions.decrementAndGet();
+      }
+   }
+
+   /**
+    * @param throttled whether the compactor is paced by {@link #setCompactMaxBytesPerSecond(long)}: only background
+    *                  compactions are, as the ones asked for explicitly have someone waiting on them
+    */
+   private synchronized void compact(boolean throttled) throws Exception {
 
       if (compactor != null) {
          throw new IllegalStateException("There is pending compacting operation");
       }
 
+      compactCount++;
+
       if (logger.isDebugEnabled()) {
-         logger.debug("JournalImpl::compact " + JournalImpl.this + " for its " + (++compactCount) + " time");
+         logger.debug("JournalImpl::compact " + JournalImpl.this + " for its " + compactCount + " time");
       }
 
+      final long compactStart = System.nanoTime();
+
       compactorLock.writeLock().lock();
       try {
          ArrayList<JournalFile> dataFilesToProcess = new ArrayList<>(filesRepository.getDataFilesCount());
@@ -1726,6 +1813,8 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
             // this AtomicReference is not used for thread-safety, but just as a reference
             final AtomicReference<ByteBuffer> wholeFileBufferRef = dataFilesToProcess.isEmpty() ? null : new AtomicReference<>();
             try {
+               final long readStart = System.nanoTime();
+               long bytesRead = 0;
                for (final JournalFile file : dataFilesToProcess) {
                   try {
                      JournalImpl.readJournalFile(fileFactory, file, compactor, wholeFileBufferRef);
@@ -1733,6 +1822,10 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
                      ActiveMQJournalLogger.LOGGER.compactReadError(file);
                      throw new Exception("Error on reading compacting for " + file, e);
                   }
+                  if (throttled) {
+                     bytesRead += fileSize;
+                     throttleCompacting(readStart, bytesRead);
+                  }
                }
             } finally {
                ByteBuffer wholeFileBuffer;
@@ -1764,9 +1857,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
                newDatafiles = localCompactor.getNewDataFiles();
 
                // Restore newRecords created during compacting
-               localCompactor.getNewRecords().forEach((id, newRecord) -> {
-                  records.put(id, newRecord);
-               });
+               records.merge(localCompactor.getNewRecords());
 
                // Restore compacted dataFiles
                for (int i = newDatafiles.size() - 1; i >= 0; i--) {
@@ -1810,8 +1901,10 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
             renameFiles(dataFilesToProcess, newDatafiles);
             deleteControlFile(controlFile);
 
+            lastCompactDurationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - compactStart);
+
             if (logger.isDebugEnabled()) {
-               logger.debug("Finished compacting on journal " + this);
+               logger.debug("Finished compacting " + dataFilesToProcess.size() + " files into " + newDatafiles.size() + " on journal " + this + " in " + lastCompactDurationMillis + " milliseconds");
             }
 
          } finally {
@@ -1843,6 +1936,24 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
    }
 
+   /**
+    * Sleeps until reading {@code bytesRead} since {@code readStart} fits within {@link #compactMaxBytesPerSecond}.
+    * The compactor holds the journal monitor and the compactor lock while it sleeps, so it gives up waiting as soon as
+    * a stop, a synchronization or an explicit compaction asks for them: the rest of the compaction then runs at full
+    * speed.
+    */
+   private void throttleCompacting(long readStart, long bytesRead) throws InterruptedException {
+      final long maxBytesPerSecond = compactMaxBytesPerSecond;
+      if (maxBytesPerSecond <= 0) {
+         return;
+      }
+      final long readDeadline = readStart + (long) (bytesRead * (double) TimeUnit.SECONDS.toNanos(1) / maxBytesPerSecond);
+      long waitNanos;
+      while ((waitNanos = readDeadline - System.nanoTime()) > 0 && !compactThrottleAborted && explicitCompactions.get() == 0 && state == JournalState.LOADED) {
+         TimeUnit.NANOSECONDS.sleep(Math.min(waitNanos, TimeUnit.MILLISECONDS.toNanos(100)));
+      }
+   }
+
    /**
     * <p>Load data accordingly to the record layouts</p>
     * <p>Basic record layout:</p>
@@ -1890,7 +2001,10 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
    private synchronized JournalLoadInformation load(final LoaderCallback loadManager,
                                                     final boolean changeData,
                                                     final JournalState replicationSync,
-                                                    final AtomicReference<ByteBuffer> wholeFileBufferRef) throws Exception {
+                                                    final AtomicReference<ByteBuffer> wholeFileBufferRef,
+                                                    final AtomicReference<ParallelJournalFilesReader> parallelReaderRef) throws Exception {
+      final long loadStart = System.nanoTime();
+
       JournalState state;
       assert (state = this.state) != JournalState.STOPPED &&
          state != JournalState.LOADED &&
@@ -1911,6 +2025,14 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
       filesRepository.calculateNextfileID(orderedFiles);
 
+      final ParallelJournalFilesReader parallelReader;
+      if (loadThreads > 1 && orderedFiles.size() > 1) {
+         parallelReader = new ParallelJournalFilesReader(fileFactory, orderedFiles, ioExecutorFactory, loadThreads);
+         parallelReaderRef.lazySet(parallelReader);
+      } else {
+         parallelReader = null;
+      }
+
       int lastDataPos = JournalImpl.SIZE_HEADER;
 
       // AtomicLong is used only as a reference, not as an Atomic value
@@ -1921,7 +2043,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
          final AtomicBoolean hasData = new AtomicBoolean(false);
 
-         int resultLastPost = JournalImpl.readJournalFile(fileFactory, file, new JournalReaderCallback() {
+         final JournalReaderCallback reader = new JournalReaderCallback() {
 
             private void checkID(final long id) {
                if (id > maxID.longValue()) {
@@ -1937,7 +2059,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
                loadManager.addRecord(info);
 
-               records.put(info.id, new JournalRecord(file, info.data.length + JournalImpl.SIZE_ADD_RECORD + 1));
+               records.add(info.id, file, info.data.length + JournalImpl.SIZE_ADD_RECORD + 1);
             }
 
             @Override
@@ -1948,16 +2070,10 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
                loadManager.updateRecord(info);
 
-               JournalRecord posFiles = records.get(info.id);
-
-               if (posFiles != null) {
-                  // It's legal for this to be null. The file(s) with the may
-                  // have been deleted
-                  // just leaving some updates in this file
-
-                  posFiles.addUpdateFile(file, info.data.length + JournalImpl.SIZE_ADD_RECORD + 1); // +1 = compact
-                  // count
-               }
+               // It's legal for the record to be missing. The file(s) with the add may
+               // have been deleted
+               // just leaving some updates in this file
+               records.update(info.id, file, info.data.length + JournalImpl.SIZE_ADD_RECORD + 1); // +1 = compact count
             }
 
             @Override
@@ -1966,11 +2082,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
                loadManager.deleteRecord(recordID);
 
-               JournalRecord posFiles = records.remove(recordID);
-
-               if (posFiles != null) {
-                  posFiles.delete(file);
-               }
+               records.delete(recordID, file);
             }
 
             @Override
@@ -2143,7 +2255,9 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
                hasData.lazySet(true);
             }
 
-         }, wholeFileBufferRef);
+         };
+
+         final int resultLastPost = parallelReader == null ? JournalImpl.readJournalFile(fileFactory, file, reader, wholeFileBufferRef) : parallelReader.read(file, reader);
 
          if (hasData.get()) {
             lastDataPos = resultLastPost;
@@ -2195,6 +2309,14 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
       checkReclaimStatus();
 
+      final long loadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loadStart);
+      if (parallelReader == null) {
+         ActiveMQJournalLogger.LOGGER.journalLoaded(filesRepository.getFilePrefix(), orderedFiles.size(), records.size(), loadMillis);
+      } else {
+         ActiveMQJournalLogger.LOGGER.journalLoadedInParallel(filesRepository.getFilePrefix(), orderedFiles.size(), records.size(), loadMillis,
+                                                              TimeUnit.NANOSECONDS.toMillis(parallelReader.getWaitNanos()), loadThreads);
+      }
+
       return new JournalLoadInformation(records.size(), maxID.longValue());
    }
 
@@ -2211,14 +2333,19 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
       }
       // AtomicReference is used only as a reference, not as an Atomic value
       final AtomicReference<ByteBuffer> wholeFileBufferRef = new AtomicReference<>();
+      final AtomicReference<ParallelJournalFilesReader> parallelReaderRef = new AtomicReference<>();
       try {
-         return load(loadManager, changeData, replicationSync, wholeFileBufferRef);
+         return load(loadManager, changeData, replicationSync, wholeFileBufferRef, parallelReaderRef);
       } finally {
          final ByteBuffer wholeFileBuffer = wholeFileBufferRef.get();
          if (wholeFileBuffer != null) {
             fileFactory.releaseDirectBuffer(wholeFileBuffer);
             wholeFileBufferRef.lazySet(null);
          }
+         final ParallelJournalFilesReader parallelReader = parallelReaderRef.get();
+         if (parallelReader != null) {
+            parallelReader.close();
+         }
       }
    }
 
@@ -2297,6 +2424,41 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
       }
    }
 
+   /**
+    * Rewrites the live records of the data files into new compacted files, regardless of the compact percentage and
+    * minimum files, as long as the data files hold at least a file worth of dead records. The compacted files are a
+    * snapshot of the live record set: a later load only reads them and the files written after them, instead of the
+    * whole history of updates and deletes.
+    *
+    * Does nothing when compacting is disabled, i.e. when the compact min files is 0.
+    *
+    * @return true if a compaction was scheduled
+    */
+   public boolean checkpoint() throws Exception {
+      if (compactMinFiles == 0) {
+         // compacting is disabled
+         return false;
+      }
+
+      if (state != JournalState.LOADED || compactorRunning.get()) {
+         return false;
+      }
+
+      final long reclaimableBytes = getReclaimableBytes();
+
+      if (reclaimableBytes < fileSize) {
+         return false;
+      }
+
+      if (logger.isDebugEnabled()) {
+         logger.debug("Checkpoint reclaiming up to " + reclaimableBytes + " bytes on " + this);
+      }
+
+      scheduleCompact();
+
+      return true;
+   }
+
    private void scheduleCompact() {
       if (!compactorRunning.compareAndSet(false, true)) {
          return;
@@ -2309,7 +2471,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
          public void run() {
 
             try {
-               JournalImpl.this.compact();
+               JournalImpl.this.compact(true);
             } catch (Throwable e) {
                ActiveMQJournalLogger.LOGGER.errorCompacting(e);
             } finally {
@@ -2507,7 +2669,8 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
    // ---------------------------------------------------
 
    @Override
-   public synchronized boolean isStarted() {
+   public boolean isStarted() {
+      // the state is volatile: don't wait on the monitor, held by the compactor for the whole compaction
       return state != JournalState.STOPPED;
    }
 
@@ -2517,6 +2680,8 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
          throw new IllegalStateException("Journal " + this + " is not stopped, state is " + state);
       }
 
+      compactThrottleAborted = false;
+
       if (providedIOThreadPool == null) {
          ThreadFactory factory = AccessController.doPrivileged(new PrivilegedAction<ThreadFactory>() {
             @Override
@@ -2545,7 +2710,14 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
    }
 
    @Override
-   public synchronized void stop() throws Exception {
+   public void stop() throws Exception {
+      // a paced compaction holds the monitor until it's done: don't let it sleep any longer
+      compactThrottleAborted = true;
+
+      internalStop();
+   }
+
+   private synchronized void internalStop() throws Exception {
       if (state == JournalState.STOPPED) {
          return;
       }
@@ -3061,6 +3233,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
 
    @Override
    public final void synchronizationLock() {
+      compactThrottleAborted = true;
       compactorLock.writeLock().lock();
       journalLock.writeLock().lock();
    }
@@ -3071,6 +3244,7 @@ public class JournalImpl extends JournalBase implements TestableJournal, Journal
          compactorLock.writeLock().unlock();
       } finally {
          journalLock.writeLock().unlock();
+         compactThrottleAborted = state == JournalState.STOPPED;
       }
    }
 
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.journal.impl;
+
+import java.util.function.LongConsumer;
+
+import org.apache.activemq.artemis.utils.collections.ConcurrentLongHashSet;
+
+/**
+ * The index of the live records of a journal, keeping for each record the files holding its add and update records
+ * so the deletes can be accounted on the ref-count used for reclaiming.
+ *
+ * @see JournalRecord
+ */
+public interface JournalRecordIndex {
+
+   /**
+    * Adds a record, counting it as positive on the file it was appended to.
+    */
+   void add(long id, JournalFile addFile, int size);
+
+   /**
+    * Adds an update to an existing record, counting it as positive on the file it was appended to.
+    *
+    * @return {@code false} if there is no record with this id
+    */
+   boolean update(long id, JournalFile updateFile, int size);
+
+   /**
+    * Removes a record, counting the add and all its updates as negatives on the file holding the delete record.
+    *
+    * @return {@code false} if there is no record with this id
+    */
+   boolean delete(long id, JournalFile deleteFile);
+
+   boolean contains(long id);
+
+   int size();
+
+   void clear();
+
+   /**
+    * Moves all the records of another index, already accounted for, into this one:
+    * the other index must have been created the same way as this one.
+    */
+   void merge(JournalRecordIndex other);
+
+   void forEach(LongConsumer idConsumer);
+
+   ConcurrentLongHashSet keysLongHashSet();
+}
@@ -248,19 +248,13 @@ public class JournalTransaction {
          }
          if (pos != null) {
             for (JournalUpdate trUpdate : pos) {
-               JournalRecord posFiles = journal.getRecords().get(trUpdate.id);
-
                if (compactor != null && compactor.containsRecord(trUpdate.id)) {
                   // This is a case where the transaction was opened after compacting was started,
                   // but the commit arrived while compacting was working
                   // We need to cache the counter update, so compacting will take the correct files when it is done
                   compactor.addCommandUpdate(trUpdate.id, trUpdate.file, trUpdate.size);
-               } else if (posFiles == null) {
-                  posFiles = new JournalRecord(trUpdate.file, trUpdate.size);
-
-                  journal.getRecords().put(trUpdate.id, posFiles);
-               } else {
-                  posFiles.addUpdateFile(trUpdate.file, trUpdate.size);
+               } else if (!journal.getRecords().update(trUpdate.id, trUpdate.file, trUpdate.size)) {
+                  journal.getRecords().add(trUpdate.id, trUpdate.file, trUpdate.size);
                }
             }
          }
@@ -270,11 +264,7 @@ public class JournalTransaction {
                if (compactor != null) {
                   compactor.addCommandDelete(trDelete.id, trDelete.file);
                } else {
-                  JournalRecord posFiles = journal.getRecords().remove(trDelete.id);
-
-                  if (posFiles != null) {
-                     posFiles.delete(trDelete.file);
-                  }
+                  journal.getRecords().delete(trDelete.id, trDelete.file);
                }
             }
          }
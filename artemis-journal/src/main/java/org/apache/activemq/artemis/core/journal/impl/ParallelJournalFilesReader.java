@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.journal.impl;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.activemq.artemis.core.io.SequentialFileFactory;
+import org.apache.activemq.artemis.core.journal.RecordInfo;
+import org.apache.activemq.artemis.utils.ExecutorFactory;
+import org.apache.activemq.artemis.utils.actors.ArtemisExecutor;
+
+/**
+ * Reads and decodes the files of a journal ahead of its load, on a few executors, while the load applies the records
+ * of the files already decoded: the files are still replayed one after the other in their order, as the add, update
+ * and delete semantics depend on it.
+ * <p>
+ * At most {@code 2 * threads} files are decoded ahead, to bound the memory taken by the records not yet applied.
+ */
+final class ParallelJournalFilesReader implements AutoCloseable {
+
+   private final SequentialFileFactory fileFactory;
+
+   private final List<JournalFile> files;
+
+   private final ArtemisExecutor[] executors;
+
+   // AtomicReference is used only as a reference, not as an Atomic value: each executor reuses its own buffer
+   private final AtomicReference<ByteBuffer>[] buffers;
+
+   private final FutureTask<DecodedFile>[] decodedFiles;
+
+   private final int readAhead;
+
+   private int nextFile;
+
+   private long waitNanos;
+
+   @SuppressWarnings("unchecked")
+   ParallelJournalFilesReader(final SequentialFileFactory fileFactory,
+                              final List<JournalFile> files,
+                              final ExecutorFactory executorFactory,
+                              final int threads) {
+      this.fileFactory = fileFactory;
+      this.files = files;
+      this.executors = new ArtemisExecutor[threads];
+      this.buffers = new AtomicReference[threads];
+      for (int i = 0; i < threads; i++) {
+         executors[i] = executorFactory.getExecutor();
+         buffers[i] = new AtomicReference<>();
+      }
+      this.decodedFiles = new FutureTask[files.size()];
+      this.readAhead = threads * 2;
+      for (int i = 0; i < Math.min(readAhead, files.size()); i++) {
+         decode(i);
+      }
+   }
+
+   private void decode(final int index) {
+      final JournalFile file = files.get(index);
+      final int executor = index % executors.length;
+      final AtomicReference<ByteBuffer> buffer = buffers[executor];
+      final FutureTask<DecodedFile> task = new FutureTask<>(() -> {
+         final DecodedFile decodedFile = new DecodedFile();
+         decodedFile.lastDataPos = JournalImpl.readJournalFile(fileFactory, file, decodedFile, buffer);
+         return decodedFile;
+      });
+      decodedFiles[index] = task;
+      executors[executor].execute(task);
+   }
+
+   /**
+    * Replays the records of the next file on {@code reader}, waiting for the file to be decoded if needed.
+    *
+    * @return the position after the last valid record of the file, as {@link JournalImpl#readJournalFile} does
+    */
+   int read(final JournalFile file, final JournalReaderCallback reader) throws Exception {
+      final int index = nextFile++;
+      if (files.get(index) != file) {
+         throw new IllegalStateException("Journal files must be read in order, expected " + files.get(index) + " but was " + file);
+      }
+      final DecodedFile decodedFile;
+      final long start = System.nanoTime();
+      try {
+         decodedFile = decodedFiles[index].get();
+      } catch (ExecutionException e) {
+         final Throwable cause = e.getCause();
+         throw cause instanceof Exception ? (Exception) cause : new Exception(cause.getMessage(), cause);
+      } finally {
+         waitNanos += System.nanoTime() - start;
+         decodedFiles[index] = null;
+      }
+      if (index + readAhead < files.size()) {
+         decode(index + readAhead);
+      }
+      decodedFile.replay(reader);
+      return decodedFile.lastDataPos;
+   }
+
+   /**
+    * @return how long the load has been waiting for the files to be read and decoded
+    */
+   long getWaitNanos() {
+      return waitNanos;
+   }
+
+   @Override
+   public void close() {
+      for (FutureTask<DecodedFile> decodedFile : decodedFiles) {
+         if (decodedFile != null) {
+            decodedFile.cancel(false);
+         }
+      }
+      // the executors are ordered: the buffers are released after the files still being read
+      for (int i = 0; i < executors.length; i++) {
+         final AtomicReference<ByteBuffer> buffer = buffers[i];
+         executors[i].execute(() -> {
+            final ByteBuffer wholeFileBuffer = buffer.getAndSet(null);
+            if (wholeFileBuffer != null) {
+               fileFactory.releaseDirectBuffer(wholeFileBuffer);
+            }
+         });
+      }
+   }
+
+   @FunctionalInterface
+   private interface ReadEvent {
+
+      void replay(JournalReaderCallback reader) throws Exception;
+   }
+
+   /**
+    * The records of a file, as decoded by {@link JournalImpl#readJournalFile}, to be replayed on the load callback.
+    */
+   private static final class DecodedFile implements JournalReaderCallback {
+
+      private final List<ReadEvent> events = new ArrayList<>();
+
+      private int lastDataPos;
+
+      void replay(final JournalReaderCallback reader) throws Exception {
+         for (ReadEvent event : events) {
+            event.replay(reader);
+         }
+      }
+
+      @Override
+      public void onReadAddRecord(final RecordInfo info) {
+         events.add(reader -> reader.onReadAddRecord(info));
+      }
+
+      @Override
+      public void onReadUpdateRecord(final RecordInfo recordInfo) {
+         events.add(reader -> reader.onReadUpdateRecord(recordInfo));
+      }
+
+      @Override
+      public void onReadDeleteRecord(final long recordID) {
+         events.add(reader -> reader.onReadDeleteRecord(recordID));
+      }
+
+      @Override
+      public void onReadAddRecordTX(final long transactionID, final RecordInfo recordInfo) {
+         events.add(reader -> reader.onReadAddRecordTX(transactionID, recordInfo));
+      }
+
+      @Override
+      public void onReadUpdateRecordTX(final long transactionID, final RecordInfo recordInfo) {
+         events.add(reader -> reader.onReadUpdateRecordTX(transactionID, recordInfo));
+      }
+
+      @Override
+      public void onReadDeleteRecordTX(final long transactionID, final RecordInfo recordInfo) {
+         events.add(reader -> reader.onReadDeleteRecordTX(transactionID, recordInfo));
+      }
+
+      @Override
+      public void onReadPrepareRecord(final long transactionID, final byte[] extraData, final int numberOfRecords) {
+         events.add(reader -> reader.onReadPrepareRecord(transactionID, extraData, numberOfRecords));
+      }
+
+      @Override
+      public void onReadCommitRecord(final long transactionID, final int numberOfRecords) {
+         events.add(reader -> reader.onReadCommitRecord(transactionID, numberOfRecords));
+      }
+
+      @Override
+      public void onReadRollbackRecord(final long transactionID) {
+         events.add(reader -> reader.onReadRollbackRecord(transactionID));
+      }
+
+      @Override
+      public void markAsDataFile(final JournalFile file) {
+         events.add(reader -> reader.markAsDataFile(file));
+      }
+   }
+}
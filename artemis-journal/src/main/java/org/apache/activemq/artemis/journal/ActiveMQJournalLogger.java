@@ -85,6 +85,15 @@ public interface ActiveMQJournalLogger extends BasicLogger {
    @Message(id = 141009, value = "A Free File is less than the maximum data", format = Message.Format.MESSAGE_FORMAT)
    void fileTooSmall();
 
+   @LogMessage(level = Logger.Level.INFO)
+   @Message(id = 141010, value = "Loaded {1} files of the {0} journal with {2} records in {3} milliseconds", format = Message.Format.MESSAGE_FORMAT)
+   void journalLoaded(String journal, Integer files, Integer records, Long millis);
+
+   @LogMessage(level = Logger.Level.INFO)
+   @Message(id = 141011, value = "Loaded {1} files of the {0} journal with {2} records in {3} milliseconds, {4} milliseconds of which waiting for {5} threads to read and decode the files",
+      format = Message.Format.MESSAGE_FORMAT)
+   void journalLoadedInParallel(String journal, Integer files, Integer records, Long millis, Long waitMillis, Integer threads);
+
    @LogMessage(level = Logger.Level.WARN)
    @Message(id = 142000, value = "You have a native library with a different version than expected", format = Message.Format.MESSAGE_FORMAT)
    void incompatibleNativeLibrary();
@@ -61,15 +61,18 @@ public class MQTTProtocolManager extends AbstractProtocolManager<MqttMessage, MQ
    //TODO Read in a list of existing client IDs from stored Sessions.
    private final Map<String, MQTTConnection> connectedClients;
    private final Map<String, MQTTSessionState> sessionStates;
+   private final MQTTRetainedMessageStore retainedMessageStore;
 
    MQTTProtocolManager(ActiveMQServer server,
                        Map<String, MQTTConnection> connectedClients,
                        Map<String, MQTTSessionState> sessionStates,
+                       MQTTRetainedMessageStore retainedMessageStore,
                        List<BaseInterceptor> incomingInterceptors,
                        List<BaseInterceptor> outgoingInterceptors) {
       this.server = server;
       this.connectedClients = connectedClients;
       this.sessionStates = sessionStates;
+      this.retainedMessageStore = retainedMessageStore;
       this.updateInterceptors(incomingInterceptors, outgoingInterceptors);
       server.getManagementService().addNotificationListener(this);
    }
@@ -254,6 +257,10 @@ public class MQTTProtocolManager extends AbstractProtocolManager<MqttMessage, MQ
       return new HashMap<>(sessionStates);
    }
 
+   public MQTTRetainedMessageStore getRetainedMessageStore() {
+      return retainedMessageStore;
+   }
+
    /** For DEBUG only */
    public Map<String, MQTTConnection> getConnectedClients() {
       return connectedClients;
@@ -41,13 +41,22 @@ public class MQTTProtocolManagerFactory extends AbstractProtocolManagerFactory<M
    private final Map<String, MQTTConnection> connectedClients  = new ConcurrentHashMap<>();
    private final Map<String, MQTTSessionState> sessionStates = new ConcurrentHashMap<>();
 
+   private MQTTRetainedMessageStore retainedMessageStore;
+
    @Override
    public ProtocolManager createProtocolManager(ActiveMQServer server,
                                                 final Map<String, Object> parameters,
                                                 List<BaseInterceptor> incomingInterceptors,
                                                 List<BaseInterceptor> outgoingInterceptors) throws Exception {
       stripPasswordParameters(parameters);
-      return BeanSupport.setData(new MQTTProtocolManager(server, connectedClients, sessionStates, incomingInterceptors, outgoingInterceptors), parameters);
+      synchronized (this) {
+         if (retainedMessageStore == null) {
+            retainedMessageStore = new MQTTRetainedMessageStore(server);
+         }
+      }
+      // the acceptors aren't started yet: load the retained messages before the first MQTT client needs them
+      retainedMessageStore.load();
+      return BeanSupport.setData(new MQTTProtocolManager(server, connectedClients, sessionStates, retainedMessageStore, incomingInterceptors, outgoingInterceptors), parameters);
    }
 
    @Override
@@ -18,15 +18,11 @@
 package org.apache.activemq.artemis.core.protocol.mqtt;
 
 import org.apache.activemq.artemis.api.core.Message;
-import org.apache.activemq.artemis.api.core.QueueConfiguration;
 import org.apache.activemq.artemis.api.core.SimpleString;
-import org.apache.activemq.artemis.core.server.BindingQueryResult;
-import org.apache.activemq.artemis.core.server.MessageReference;
 import org.apache.activemq.artemis.core.server.Queue;
 import org.apache.activemq.artemis.core.server.RoutingContext;
 import org.apache.activemq.artemis.core.server.impl.RoutingContextImpl;
 import org.apache.activemq.artemis.core.transaction.Transaction;
-import org.apache.activemq.artemis.utils.collections.LinkedListIterator;
 
 public class MQTTRetainMessageManager {
 
@@ -37,54 +33,29 @@ public class MQTTRetainMessageManager {
    }
 
    /**
-    * FIXME
-    * Retained messages should be handled in the core API.  There is currently no support for retained messages
-    * at the time of writing.  Instead we handle retained messages here.  This method will create a new queue for
-    * every address that is used to store retained messages.  THere should only ever be one message in the retained
-    * message queue.  When a new subscription is created the queue should be browsed and the message copied onto
-    * the subscription queue for the consumer.  When a new retained message is received the message will be sent to
-    * the retained queue and the previous retain message consumed to remove it from the queue.
+    * Retained messages are kept on the {@link MQTTRetainedMessageStore} of the broker: a new retained message replaces
+    * the previous one of its topic once {@code tx} is committed, and an empty one (a reset) removes it.
     */
    void handleRetainedMessage(Message message, String address, boolean reset, Transaction tx) throws Exception {
-      SimpleString retainAddress = new SimpleString(MQTTUtil.convertMQTTAddressFilterToCoreRetain(address, session.getWildcardConfiguration()));
+      MQTTRetainedMessageStore store = session.getProtocolManager().getRetainedMessageStore();
 
-      Queue queue = session.getServer().locateQueue(retainAddress);
-      if (queue == null) {
-         queue = session.getServer().createQueue(new QueueConfiguration(retainAddress));
+      if (reset) {
+         store.remove(new SimpleString(MQTTUtil.convertMQTTAddressFilterToCore(address, session.getWildcardConfiguration())));
+      } else {
+         store.retain(message.copy(session.getServer().getStorageManager().generateID()), tx);
       }
-
-      queue.deleteAllReferences();
-
-      if (!reset) {
-         sendToQueue(message.copy(session.getServer().getStorageManager().generateID()), queue, tx);
-      }
-
    }
 
    // SEND to Queue.
    void addRetainedMessagesToQueue(Queue queue, String address) throws Exception {
-      // The address filter that matches all retained message queues.
-      String retainAddress = MQTTUtil.convertMQTTAddressFilterToCoreRetain(address, session.getWildcardConfiguration());
-      BindingQueryResult bindingQueryResult = session.getServerSession().executeBindingQuery(new SimpleString(retainAddress));
+      // The address filter that matches all the retained messages of the subscription.
+      String filter = MQTTUtil.convertMQTTAddressFilterToCore(address, session.getWildcardConfiguration());
 
-      // Iterate over all matching retain queues and add the queue
       Transaction tx = session.getServerSession().newTransaction();
       try {
-         for (SimpleString retainedQueueName : bindingQueryResult.getQueueNames()) {
-            Queue retainedQueue = session.getServer().locateQueue(retainedQueueName);
-            try (LinkedListIterator<MessageReference> i = retainedQueue.iterator()) {
-               if (i.hasNext()) {
-                  MessageReference ref = i.next();
-                  while (i.hasNext()) {
-                     ref = i.next();
-                     if (i.hasNext()) {
-                        i.remove();
-                     }
-                  }
-                  Message message = ref.getMessage().copy(session.getServer().getStorageManager().generateID());
-                  sendToQueue(message, queue, tx);
-               }
-            }
+         for (Message retained : session.getProtocolManager().getRetainedMessageStore().getMatching(filter)) {
+            Message message = retained.copy(session.getServer().getStorageManager().generateID());
+            sendToQueue(message, queue, tx);
          }
       } catch (Exception t) {
          tx.rollback();
@@ -0,0 +1,451 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.activemq.artemis.core.protocol.mqtt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.activemq.artemis.api.core.ActiveMQQueueExistsException;
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.config.WildcardConfiguration;
+import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.Consumer;
+import org.apache.activemq.artemis.core.server.HandleStatus;
+import org.apache.activemq.artemis.core.server.MessageReference;
+import org.apache.activemq.artemis.core.server.Queue;
+import org.apache.activemq.artemis.core.server.RoutingContext;
+import org.apache.activemq.artemis.core.server.impl.RoutingContextImpl;
+import org.apache.activemq.artemis.core.transaction.Transaction;
+import org.apache.activemq.artemis.core.transaction.TransactionOperationAbstract;
+import org.apache.activemq.artemis.core.transaction.impl.TransactionImpl;
+import org.apache.activemq.artemis.utils.collections.LinkedListIterator;
+import org.jboss.logging.Logger;
+
+/**
+ * The retained messages of all the MQTT topics of a broker.
+ * <p>
+ * They are all kept on a single durable queue, so they are persisted on the journal like any other message, and this
+ * store is the only consumer of that queue: it holds the retained message of each topic, and its reference once the
+ * queue delivers it, on a trie of the topic levels. Replacing a retained message acknowledges the previous one, and a
+ * subscription is served by a single walk of the trie, whatever its wildcards, rather than by a query and a queue for
+ * every retained topic.
+ * <p>
+ * Topics are kept in their core address form, with the delimiter and wildcards of the broker.
+ * <p>
+ * The references of the retained messages stay delivering until they are replaced or removed, so all the retained
+ * messages are held in memory: paging {@code $sys.mqtt.retained} doesn't bound the memory they take, as the queue
+ * depages them all to deliver them to the store, and a page file is only removed once all the retained messages on it
+ * have been replaced or removed.
+ */
+public class MQTTRetainedMessageStore implements Consumer {
+
+   private static final Logger logger = Logger.getLogger(MQTTRetainedMessageStore.class);
+
+   private static final SimpleString QUEUE_NAME = SimpleString.toSimpleString(MQTTUtil.MQTT_RETAINED_STORE_QUEUE);
+
+   private final ActiveMQServer server;
+
+   private final WildcardConfiguration wildcardConfiguration;
+
+   private final Object attachLock = new Object();
+
+   private volatile Queue queue;
+
+   private long sequentialID;
+
+   // guarded by this
+   private final TopicNode root = new TopicNode(null, null);
+
+   private int size;
+
+   // the messages removed before the queue delivered their reference, to acknowledge them when it does
+   private final Set<Long> removedBeforeDelivery = new HashSet<>();
+
+   MQTTRetainedMessageStore(ActiveMQServer server) {
+      this.server = server;
+      this.wildcardConfiguration = server.getConfiguration().getWildcardConfiguration();
+   }
+
+   /**
+    * Sends {@code message} to the store as the retained message of its address, within {@code tx}: it replaces the
+    * previous one once {@code tx} is committed.
+    */
+   void retain(Message message, Transaction tx) throws Exception {
+      route(message, getQueue(), tx);
+      // index it on commit, the queue may deliver its reference later than the next subscription
+      tx.addOperation(new TransactionOperationAbstract() {
+         @Override
+         public void afterCommit(Transaction tx) {
+            committed(message);
+         }
+      });
+   }
+
+   private void committed(Message message) {
+      final MessageReference replaced;
+      synchronized (this) {
+         final TopicNode node = node(message.getAddress(), true);
+         if (node.message != null && node.message.getMessageID() >= message.getMessageID()) {
+            return;
+         }
+         if (node.message == null) {
+            size++;
+         }
+         replaced = node.reference;
+         node.message = message;
+         node.reference = null;
+      }
+      acknowledge(replaced);
+   }
+
+   /**
+    * Removes the retained message of {@code address}, if any.
+    */
+   void remove(SimpleString address) throws Exception {
+      getQueue();
+      final MessageReference removed;
+      synchronized (this) {
+         final TopicNode node = node(address.toString(), false);
+         if (node == null || node.message == null) {
+            return;
+         }
+         removed = node.reference;
+         if (removed == null) {
+            removedBeforeDelivery.add(node.message.getMessageID());
+         }
+         node.message = null;
+         node.reference = null;
+         size--;
+         node.prune();
+      }
+      // never call into the queue while holding the store, the queue delivers to it while holding its own lock
+      acknowledge(removed);
+   }
+
+   /**
+    * @return the retained messages of the addresses matching {@code filter}, in core address form.
+    */
+   List<Message> getMatching(String filter) throws Exception {
+      getQueue();
+      final List<Message> matching = new ArrayList<>();
+      synchronized (this) {
+         match(root, split(filter), 0, matching);
+      }
+      return matching;
+   }
+
+   /**
+    * Attaches the store to its queue, indexing the retained messages loaded from the journal, so that the first MQTT
+    * clients don't have to.
+    */
+   void load() {
+      try {
+         getQueue();
+      } catch (Exception e) {
+         logger.warn("Error loading the retained messages, they're loaded on their first use", e);
+      }
+   }
+
+   synchronized int size() {
+      return size;
+   }
+
+   private Queue getQueue() throws Exception {
+      Queue queue = this.queue;
+      // the broker may have been restarted since, with a new queue
+      if (queue == null || queue != server.locateQueue(QUEUE_NAME)) {
+         synchronized (attachLock) {
+            queue = this.queue;
+            if (queue == null || queue != server.locateQueue(QUEUE_NAME)) {
+               disconnect();
+               queue = attach();
+            }
+         }
+      }
+      return queue;
+   }
+
+   private Queue attach() throws Exception {
+      Queue queue = server.locateQueue(QUEUE_NAME);
+      if (queue == null) {
+         try {
+            queue = server.createQueue(new QueueConfiguration(QUEUE_NAME));
+         } catch (ActiveMQQueueExistsException e) {
+            queue = server.locateQueue(QUEUE_NAME);
+         }
+      }
+
+      // index the retained messages loaded from the journal rather than waiting for the queue to deliver them, or the
+      // first subscriptions would miss them: the store gets their reference when the queue delivers it
+      try (LinkedListIterator<MessageReference> i = queue.browserIterator()) {
+         while (i.hasNext()) {
+            loaded(i.next().getMessage());
+         }
+      }
+
+      sequentialID = server.getStorageManager().generateID();
+      queue.addConsumer(this);
+
+      migrateRetainQueues(queue);
+
+      if (logger.isDebugEnabled()) {
+         logger.debug("Retained message store attached to " + queue + " with " + size() + " retained messages");
+      }
+      this.queue = queue;
+      return queue;
+   }
+
+   private synchronized void loaded(Message message) {
+      final TopicNode node = node(message.getAddress(), true);
+      if (node.message == null) {
+         size++;
+      } else if (node.message.getMessageID() > message.getMessageID()) {
+         // a restart happened before the older one was acknowledged
+         return;
+      }
+      node.message = message;
+   }
+
+   /**
+    * Moves the retained messages of the queue per topic used by previous versions into the store.
+    */
+   private void migrateRetainQueues(Queue queue) throws Exception {
+      final SimpleString retainQueues = SimpleString.toSimpleString(MQTTUtil.MQTT_RETAIN_ADDRESS_PREFIX + wildcardConfiguration.getAnyWords());
+      for (SimpleString retainQueueName : server.bindingQuery(retainQueues).getQueueNames()) {
+         final Queue retainQueue = server.locateQueue(retainQueueName);
+         if (retainQueue == null) {
+            continue;
+         }
+         MessageReference last = null;
+         try (LinkedListIterator<MessageReference> i = retainQueue.browserIterator()) {
+            while (i.hasNext()) {
+               last = i.next();
+            }
+         }
+         if (last != null) {
+            final Transaction tx = new TransactionImpl(server.getStorageManager());
+            route(last.getMessage().copy(server.getStorageManager().generateID()), queue, tx);
+            tx.commit();
+         }
+         server.destroyQueue(retainQueueName, null, false);
+      }
+   }
+
+   private void route(Message message, Queue queue, Transaction tx) throws Exception {
+      RoutingContext context = new RoutingContextImpl(tx);
+      queue.route(message, context);
+      server.getPostOffice().processRoute(message, context, false);
+   }
+
+   @Override
+   public HandleStatus handle(MessageReference reference) throws Exception {
+      reference.handled();
+      final Message message = reference.getMessage();
+      final MessageReference acknowledged;
+      synchronized (this) {
+         final TopicNode node;
+         if (removedBeforeDelivery.remove(message.getMessageID())) {
+            acknowledged = reference;
+         } else if ((node = node(message.getAddress(), true)).message == null) {
+            // loaded from the journal
+            node.message = message;
+            node.reference = reference;
+            size++;
+            acknowledged = null;
+         } else if (node.message.getMessageID() == message.getMessageID()) {
+            node.reference = reference;
+            acknowledged = null;
+         } else if (node.message.getMessageID() > message.getMessageID()) {
+            // replaced already, or a restart happened before the older one was acknowledged
+            acknowledged = reference;
+         } else {
+            acknowledged = node.reference;
+            node.message = message;
+            node.reference = reference;
+         }
+      }
+      acknowledge(acknowledged);
+      return HandleStatus.HANDLED;
+   }
+
+   private void acknowledge(MessageReference reference) {
+      if (reference != null) {
+         try {
+            reference.getQueue().acknowledge(reference);
+         } catch (Exception e) {
+            logger.warn("Error acknowledging replaced retained message " + reference, e);
+         }
+      }
+   }
+
+   private TopicNode node(String address, boolean create) {
+      TopicNode node = root;
+      for (String word : split(address)) {
+         TopicNode child = node.children == null ? null : node.children.get(word);
+         if (child == null) {
+            if (!create) {
+               return null;
+            }
+            child = node.addChild(word);
+         }
+         node = child;
+      }
+      return node;
+   }
+
+   private void match(TopicNode node, String[] words, int index, List<Message> matching) {
+      if (index == words.length) {
+         if (node.message != null) {
+            matching.add(node.message);
+         }
+         return;
+      }
+      final String word = words[index];
+      if (word.length() == 1 && word.charAt(0) == wildcardConfiguration.getAnyWords()) {
+         // it matches this level and any below it
+         collect(node, matching);
+      } else if (node.children != null) {
+         if (word.length() == 1 && word.charAt(0) == wildcardConfiguration.getSingleWord()) {
+            for (TopicNode child : node.children.values()) {
+               match(child, words, index + 1, matching);
+            }
+         } else {
+            final TopicNode child = node.children.get(word);
+            if (child != null) {
+               match(child, words, index + 1, matching);
+            }
+         }
+      }
+   }
+
+   private static void collect(TopicNode node, List<Message> matching) {
+      if (node.message != null) {
+         matching.add(node.message);
+      }
+      if (node.children != null) {
+         for (TopicNode child : node.children.values()) {
+            collect(child, matching);
+         }
+      }
+   }
+
+   /**
+    * Splits on the delimiter keeping the empty levels, which are meaningful on MQTT topics.
+    */
+   private String[] split(String address) {
+      final char delimiter = wildcardConfiguration.getDelimiter();
+      final List<String> words = new ArrayList<>();
+      int start = 0;
+      for (int i = 0; i < address.length(); i++) {
+         if (address.charAt(i) == delimiter) {
+            words.add(address.substring(start, i));
+            start = i + 1;
+         }
+      }
+      words.add(address.substring(start));
+      return words.toArray(new String[words.size()]);
+   }
+
+   @Override
+   public void proceedDeliver(MessageReference reference) {
+      // no op
+   }
+
+   @Override
+   public Filter getFilter() {
+      return null;
+   }
+
+   @Override
+   public List<MessageReference> getDeliveringMessages() {
+      return Collections.emptyList();
+   }
+
+   @Override
+   public String debug() {
+      return toString();
+   }
+
+   @Override
+   public String toManagementString() {
+      return "MQTTRetainedMessageStore[" + MQTTUtil.MQTT_RETAINED_STORE_QUEUE + "]";
+   }
+
+   @Override
+   public void disconnect() {
+      // the queue is going away: the retained messages are loaded again from a new one on the next use
+      queue = null;
+      synchronized (this) {
+         root.children = null;
+         size = 0;
+         removedBeforeDelivery.clear();
+      }
+   }
+
+   @Override
+   public long sequentialID() {
+      return sequentialID;
+   }
+
+   private static final class TopicNode {
+
+      private final TopicNode parent;
+
+      private final String word;
+
+      private Map<String, TopicNode> children;
+
+      private Message message;
+
+      // null until the queue delivers the reference of message
+      private MessageReference reference;
+
+      private TopicNode(TopicNode parent, String word) {
+         this.parent = parent;
+         this.word = word;
+      }
+
+      private TopicNode addChild(String word) {
+         if (children == null) {
+            children = new HashMap<>(2);
+         }
+         final TopicNode child = new TopicNode(this, word);
+         children.put(word, child);
+         return child;
+      }
+
+      /**
+       * Removes this node, and its parents, while they don't hold anything.
+       */
+      private void prune() {
+         TopicNode node = this;
+         while (node.parent != null && node.message == null && (node.children == null || node.children.isEmpty())) {
+            node.parent.children.remove(node.word);
+            node = node.parent;
+         }
+      }
+   }
+}
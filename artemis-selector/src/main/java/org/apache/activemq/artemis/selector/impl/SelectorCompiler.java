@@ -0,0 +1,467 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.selector.impl;
+
+import org.apache.activemq.artemis.selector.filter.BooleanExpression;
+import org.apache.activemq.artemis.selector.filter.ComparisonExpression;
+import org.apache.activemq.artemis.selector.filter.ConstantExpression;
+import org.apache.activemq.artemis.selector.filter.Expression;
+import org.apache.activemq.artemis.selector.filter.FilterException;
+import org.apache.activemq.artemis.selector.filter.Filterable;
+import org.apache.activemq.artemis.selector.filter.LogicExpression;
+import org.apache.activemq.artemis.selector.filter.PropertyExpression;
+import org.apache.activemq.artemis.selector.filter.UnaryExpression;
+
+/**
+ * Turns a parsed selector into a flat tree of specialized nodes.
+ * <p>
+ * The interpreted {@link BooleanExpression} tree boxes every intermediate result and dispatches on the
+ * runtime type of each operand for every message. The compiled tree evaluates the logical operators on a
+ * primitive three-valued result ({@code TRUE}, {@code FALSE} and {@code UNKNOWN} for SQL NULL), folds
+ * constant operands at compile time, and compares a property against a numeric or string literal without
+ * going through the generic type promotion of {@link ComparisonExpression}.
+ * <p>
+ * Whenever a node can't be specialized, or a property has a type the fast path doesn't cover, the original
+ * expression is evaluated instead so the result is always the same as the interpreter's.
+ */
+public final class SelectorCompiler {
+
+   static final int FALSE = 0;
+   static final int TRUE = 1;
+   static final int UNKNOWN = -1;
+
+   private SelectorCompiler() {
+   }
+
+   public static BooleanExpression compile(BooleanExpression expression) {
+      if (expression == null || expression instanceof CompiledExpression) {
+         return expression;
+      }
+      Node root = compileNode(expression);
+      if (root instanceof ExpressionNode) {
+         // nothing could be specialized, keep the interpreted tree as it is
+         return expression;
+      }
+      return new CompiledExpression(expression, root);
+   }
+
+   static Node compileNode(BooleanExpression expression) {
+      if (expression instanceof ConstantExpression) {
+         return constantNode(((ConstantExpression) expression).getValue(), expression);
+      }
+
+      if (expression instanceof LogicExpression) {
+         LogicExpression logic = (LogicExpression) expression;
+         Node left = compileNode((BooleanExpression) logic.getLeft());
+         Node right = compileNode((BooleanExpression) logic.getRight());
+         switch (logic.getExpressionSymbol()) {
+            case "AND":
+               return and(left, right);
+            case "OR":
+               return or(left, right);
+            default:
+               return new ExpressionNode(expression);
+         }
+      }
+
+      if (expression instanceof UnaryExpression && "NOT".equals(((UnaryExpression) expression).getExpressionSymbol())) {
+         Expression operand = ((UnaryExpression) expression).getRight();
+         if (operand instanceof BooleanExpression) {
+            return not(compileNode((BooleanExpression) operand));
+         }
+      }
+
+      if (expression instanceof ComparisonExpression) {
+         Node node = compileComparison((ComparisonExpression) expression);
+         if (node != null) {
+            return node;
+         }
+      }
+
+      return new ExpressionNode(expression);
+   }
+
+   private static Node compileComparison(ComparisonExpression comparison) {
+      final int operator = operator(comparison.getExpressionSymbol());
+      if (operator < 0) {
+         return null;
+      }
+
+      Expression left = comparison.getLeft();
+      Expression right = comparison.getRight();
+
+      if (left instanceof ConstantExpression && right instanceof ConstantExpression) {
+         try {
+            return constantNode(comparison.evaluate(null), comparison);
+         } catch (Exception e) {
+            // let it fail at evaluation time, as the interpreter would
+            return null;
+         }
+      }
+
+      if (!(left instanceof PropertyExpression) || !(right instanceof ConstantExpression)) {
+         return null;
+      }
+
+      PropertyExpression property = (PropertyExpression) left;
+      Object value = ((ConstantExpression) right).getValue();
+      if (value == null) {
+         return null;
+      }
+
+      Class<?> valueClass = value.getClass();
+      if (valueClass == Integer.class || valueClass == Long.class) {
+         return new LongComparisonNode(comparison, property, operator, ((Number) value).longValue());
+      } else if (valueClass == Float.class || valueClass == Double.class) {
+         return new DoubleComparisonNode(comparison, property, operator, ((Number) value).doubleValue());
+      } else if (valueClass == String.class && operator == Operator.EQ) {
+         return new StringEqualsNode(comparison, property, (String) value);
+      }
+      return null;
+   }
+
+   private static int operator(String symbol) {
+      switch (symbol) {
+         case "=":
+            return Operator.EQ;
+         case ">":
+            return Operator.GT;
+         case ">=":
+            return Operator.GE;
+         case "<":
+            return Operator.LT;
+         case "<=":
+            return Operator.LE;
+         default:
+            return -1;
+      }
+   }
+
+   private static Node constantNode(Object value, BooleanExpression source) {
+      if (value == null) {
+         return ConstantNode.UNKNOWN_NODE;
+      } else if (value instanceof Boolean) {
+         return ((Boolean) value).booleanValue() ? ConstantNode.TRUE_NODE : ConstantNode.FALSE_NODE;
+      }
+      return new ExpressionNode(source);
+   }
+
+   private static Node and(Node left, Node right) {
+      if (left instanceof ConstantNode) {
+         // AND short-circuits on both FALSE and UNKNOWN
+         return left.value() == TRUE ? right : left;
+      }
+      if (right == ConstantNode.TRUE_NODE) {
+         return left;
+      }
+      return new AndNode(left, right);
+   }
+
+   private static Node or(Node left, Node right) {
+      if (left instanceof ConstantNode) {
+         return left.value() == TRUE ? left : right;
+      }
+      return new OrNode(left, right);
+   }
+
+   private static Node not(Node operand) {
+      if (operand instanceof ConstantNode) {
+         int value = operand.value();
+         if (value == UNKNOWN) {
+            return operand;
+         }
+         return value == TRUE ? ConstantNode.FALSE_NODE : ConstantNode.TRUE_NODE;
+      }
+      return new NotNode(operand);
+   }
+
+   static int toResult(Object value) {
+      if (value == null) {
+         return UNKNOWN;
+      }
+      return ((Boolean) value).booleanValue() ? TRUE : FALSE;
+   }
+
+   static final class Operator {
+
+      static final int EQ = 0;
+      static final int GT = 1;
+      static final int GE = 2;
+      static final int LT = 3;
+      static final int LE = 4;
+
+      private Operator() {
+      }
+
+      static int apply(int operator, int comparison) {
+         final boolean result;
+         switch (operator) {
+            case EQ:
+               result = comparison == 0;
+               break;
+            case GT:
+               result = comparison > 0;
+               break;
+            case GE:
+               result = comparison >= 0;
+               break;
+            case LT:
+               result = comparison < 0;
+               break;
+            default:
+               result = comparison <= 0;
+               break;
+         }
+         return result ? TRUE : FALSE;
+      }
+   }
+
+   abstract static class Node {
+
+      abstract int eval(Filterable message) throws FilterException;
+
+      /**
+       * Only meaningful on constant nodes.
+       */
+      int value() {
+         throw new IllegalStateException("not a constant");
+      }
+   }
+
+   static final class ConstantNode extends Node {
+
+      static final ConstantNode TRUE_NODE = new ConstantNode(TRUE);
+      static final ConstantNode FALSE_NODE = new ConstantNode(FALSE);
+      static final ConstantNode UNKNOWN_NODE = new ConstantNode(UNKNOWN);
+
+      private final int value;
+
+      private ConstantNode(int value) {
+         this.value = value;
+      }
+
+      @Override
+      int eval(Filterable message) {
+         return value;
+      }
+
+      @Override
+      int value() {
+         return value;
+      }
+   }
+
+   /**
+    * Falls back to the interpreted expression.
+    */
+   static final class ExpressionNode extends Node {
+
+      private final BooleanExpression expression;
+
+      ExpressionNode(BooleanExpression expression) {
+         this.expression = expression;
+      }
+
+      @Override
+      int eval(Filterable message) throws FilterException {
+         return toResult(expression.evaluate(message));
+      }
+   }
+
+   static final class AndNode extends Node {
+
+      private final Node left;
+      private final Node right;
+
+      AndNode(Node left, Node right) {
+         this.left = left;
+         this.right = right;
+      }
+
+      @Override
+      int eval(Filterable message) throws FilterException {
+         int lv = left.eval(message);
+         if (lv != TRUE) {
+            return lv;
+         }
+         return right.eval(message);
+      }
+   }
+
+   static final class OrNode extends Node {
+
+      private final Node left;
+      private final Node right;
+
+      OrNode(Node left, Node right) {
+         this.left = left;
+         this.right = right;
+      }
+
+      @Override
+      int eval(Filterable message) throws FilterException {
+         if (left.eval(message) == TRUE) {
+            return TRUE;
+         }
+         return right.eval(message);
+      }
+   }
+
+   static final class NotNode extends Node {
+
+      private final Node operand;
+
+      NotNode(Node operand) {
+         this.operand = operand;
+      }
+
+      @Override
+      int eval(Filterable message) throws FilterException {
+         int value = operand.eval(message);
+         if (value == UNKNOWN) {
+            return UNKNOWN;
+         }
+         return value == TRUE ? FALSE : TRUE;
+      }
+   }
+
+   abstract static class PropertyComparisonNode extends Node {
+
+      private final ComparisonExpression source;
+      protected final PropertyExpression property;
+      protected final int operator;
+
+      PropertyComparisonNode(ComparisonExpression source, PropertyExpression property, int operator) {
+         this.source = source;
+         this.property = property;
+         this.operator = operator;
+      }
+
+      /**
+       * The interpreter answers FALSE for {@code =} and UNKNOWN for the ordering operators on a missing property.
+       */
+      protected int missing() {
+         return operator == Operator.EQ ? FALSE : UNKNOWN;
+      }
+
+      protected int interpret(Filterable message) throws FilterException {
+         return toResult(source.evaluate(message));
+      }
+   }
+
+   static final class LongComparisonNode extends PropertyComparisonNode {
+
+      private final long constant;
+
+      LongComparisonNode(ComparisonExpression source, PropertyExpression property, int operator, long constant) {
+         super(source, property, operator);
+         this.constant = constant;
+      }
+
+      @Override
+      int eval(Filterable message) throws FilterException {
+         Object value = property.evaluate(message);
+         if (value == null) {
+            return missing();
+         }
+         Class<?> valueClass = value.getClass();
+         if (valueClass == Integer.class || valueClass == Long.class || valueClass == Short.class || valueClass == Byte.class) {
+            return Operator.apply(operator, Long.compare(((Number) value).longValue(), constant));
+         }
+         return interpret(message);
+      }
+   }
+
+   static final class DoubleComparisonNode extends PropertyComparisonNode {
+
+      private final double constant;
+
+      DoubleComparisonNode(ComparisonExpression source, PropertyExpression property, int operator, double constant) {
+         super(source, property, operator);
+         this.constant = constant;
+      }
+
+      @Override
+      int eval(Filterable message) throws FilterException {
+         Object value = property.evaluate(message);
+         if (value == null) {
+            return missing();
+         }
+         Class<?> valueClass = value.getClass();
+         if (valueClass == Double.class || valueClass == Float.class) {
+            return Operator.apply(operator, Double.compare(((Number) value).doubleValue(), constant));
+         }
+         return interpret(message);
+      }
+   }
+
+   static final class StringEqualsNode extends PropertyComparisonNode {
+
+      private final String constant;
+
+      StringEqualsNode(ComparisonExpression source, PropertyExpression property, String constant) {
+         super(source, property, Operator.EQ);
+         this.constant = constant;
+      }
+
+      @Override
+      int eval(Filterable message) throws FilterException {
+         Object value = property.evaluate(message);
+         if (value == null) {
+            return FALSE;
+         }
+         if (value.getClass() == String.class) {
+            return constant.equals(value) ? TRUE : FALSE;
+         }
+         return interpret(message);
+      }
+   }
+
+   /**
+    * The {@link BooleanExpression} handed back to the callers, keeping the source expression for
+    * {@link #toString()}.
+    */
+   static final class CompiledExpression implements BooleanExpression {
+
+      private final BooleanExpression source;
+      private final Node root;
+
+      CompiledExpression(BooleanExpression source, Node root) {
+         this.source = source;
+         this.root = root;
+      }
+
+      @Override
+      public boolean matches(Filterable message) throws FilterException {
+         return root.eval(message) == TRUE;
+      }
+
+      @Override
+      public Object evaluate(Filterable message) throws FilterException {
+         int result = root.eval(message);
+         if (result == UNKNOWN) {
+            return null;
+         }
+         return result == TRUE ? Boolean.TRUE : Boolean.FALSE;
+      }
+
+      @Override
+      public String toString() {
+         return source.toString();
+      }
+   }
+}
@@ -22,6 +22,7 @@ import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.selector.filter.BooleanExpression;
 import org.apache.activemq.artemis.selector.filter.FilterException;
 import org.apache.activemq.artemis.selector.filter.Filterable;
+import org.apache.activemq.artemis.selector.impl.SelectorCompiler;
 import org.apache.activemq.artemis.selector.impl.SelectorParser;
 import org.junit.Assert;
 import org.junit.Test;
@@ -466,6 +467,26 @@ public class SelectorTest {
       assertSelector(message, "endingUnderScore LIKE '%D7xlJIQn\\_' ESCAPE '\\'", true);
    }
 
+   @Test
+   public void testCompiledSelector() throws Exception {
+      MockMessage message = createMessage();
+
+      assertSelector(message, "intProp = 123 AND longProp >= 123 AND doubleProp < 123.5", true);
+      assertSelector(message, "byteProp > 100 AND shortProp <= 123 AND floatProp = 123.0", true);
+      assertSelector(message, "intProp = 123.0 AND longProp = '123'", false);
+      assertSelector(message, "missing = 1 OR missing > 1", false);
+      assertSelector(message, "NOT (missing > 1)", false);
+      assertSelector(message, "NOT (missing = 1)", true);
+      assertSelector(message, "name = 'James' AND NOT location = 'Paris'", true);
+      assertSelector(message, "TRUE AND name = 'James'", true);
+      assertSelector(message, "FALSE OR name = 'James'", true);
+      assertSelector(message, "1 = 1 AND (2 < 1 OR rank = 123)", true);
+      assertSelector(message, "1 > 2 AND rank = 123", false);
+
+      BooleanExpression folded = SelectorCompiler.compile(SelectorParser.parse("1 < 2 OR rank = 0"));
+      Assert.assertEquals(Boolean.TRUE, folded.evaluate(null));
+   }
+
    @Test
    public void testInvalidSelector() throws Exception {
       MockMessage message = createMessage();
@@ -515,6 +536,9 @@ public class SelectorTest {
       Assert.assertTrue("Created a valid selector", selector != null);
       boolean value = selector.matches(message);
       Assert.assertEquals("Selector for: " + text, expected, value);
+      BooleanExpression compiled = SelectorCompiler.compile(selector);
+      Assert.assertEquals("Compiled selector for: " + text, expected, compiled.matches(message));
+      Assert.assertEquals("Compiled selector for: " + text, selector.evaluate(message), compiled.evaluate(message));
    }
 
    protected MockMessage createMessage(String subject) {
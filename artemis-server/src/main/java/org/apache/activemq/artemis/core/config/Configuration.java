@@ -723,6 +723,52 @@ public interface Configuration {
    */
    Configuration setJournalFileOpenTimeout(int journalFileOpenTimeout);
 
+   /**
+    * @return whether the message journal keeps track of its records on a compact index, using less memory
+    * on journals with millions of records. Default value is {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_JOURNAL_COMPACT_RECORD_INDEX}.
+    */
+   boolean isJournalCompactRecordIndex();
+
+   /**
+    * Sets whether the message journal keeps track of its records on a compact index
+    */
+   Configuration setJournalCompactRecordIndex(boolean journalCompactRecordIndex);
+
+   /**
+    * @return how many message journal files are read and decoded concurrently on load, ahead of their records
+    * being applied in order. Default value is {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_JOURNAL_LOAD_THREADS}.
+    */
+   int getJournalLoadThreads();
+
+   /**
+    * Sets how many message journal files are read and decoded concurrently on load
+    */
+   Configuration setJournalLoadThreads(int journalLoadThreads);
+
+   /**
+    * @return how often (in milliseconds) the live records of the message journal are rewritten into compacted files,
+    * so that a restart only replays them and the files written afterwards; -1 disables it.
+    * Default value is {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_JOURNAL_CHECKPOINT_PERIOD}.
+    */
+   long getJournalCheckpointPeriod();
+
+   /**
+    * Sets how often (in milliseconds) the message journal is checkpointed into compacted files
+    */
+   Configuration setJournalCheckpointPeriod(long journalCheckpointPeriod);
+
+   /**
+    * @return how many bytes of message journal files the background compaction reads per second, spreading its disk
+    * I/O over a longer compaction; -1 doesn't limit it.
+    * Default value is {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_JOURNAL_COMPACT_MAX_RATE}.
+    */
+   long getJournalCompactMaxRate();
+
+   /**
+    * Sets how many bytes of message journal files the background compaction reads per second
+    */
+   Configuration setJournalCompactMaxRate(long journalCompactMaxRate);
+
    /**
     * Sets the percentage of live data before compacting the journal.
     */
@@ -1162,6 +1208,17 @@ public interface Configuration {
 
    Configuration setGlobalMaxSize(long globalMaxSize);
 
+   /**
+    * Returns the size in bytes of the page caches of all the addresses, the least recently used pages are evicted
+    * once it's exceeded. -1 means a tenth of the max heap and 0 means no limit.
+    */
+   long getGlobalPageCacheSize();
+
+   /**
+    * Sets the size in bytes of the page caches of all the addresses.
+    */
+   Configuration setGlobalPageCacheSize(long globalPageCacheSize);
+
    int getMaxDiskUsage();
 
    Configuration setMaxDiskUsage(int maxDiskUsage);
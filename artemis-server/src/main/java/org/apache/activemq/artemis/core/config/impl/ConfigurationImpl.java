@@ -206,6 +206,14 @@ public class ConfigurationImpl implements Configuration, Serializable {
 
    protected int journalFileOpenTimeout = ActiveMQDefaultConfiguration.getDefaultJournalFileOpenTimeout();
 
+   protected boolean journalCompactRecordIndex = ActiveMQDefaultConfiguration.isDefaultJournalCompactRecordIndex();
+
+   protected int journalLoadThreads = ActiveMQDefaultConfiguration.getDefaultJournalLoadThreads();
+
+   protected long journalCheckpointPeriod = ActiveMQDefaultConfiguration.getDefaultJournalCheckpointPeriod();
+
+   protected long journalCompactMaxRate = ActiveMQDefaultConfiguration.getDefaultJournalCompactMaxRate();
+
    protected int journalFileSize = ActiveMQDefaultConfiguration.getDefaultJournalFileSize();
 
    protected int journalPoolFiles = ActiveMQDefaultConfiguration.getDefaultJournalPoolFiles();
@@ -311,6 +319,8 @@ public class ConfigurationImpl implements Configuration, Serializable {
 
    private Long globalMaxSize;
 
+   private long globalPageCacheSize = ActiveMQDefaultConfiguration.getDefaultGlobalPageCacheSize();
+
    private boolean amqpUseCoreSubscriptionNaming = ActiveMQDefaultConfiguration.getDefaultAmqpUseCoreSubscriptionNaming();
 
    private int maxDiskUsage = ActiveMQDefaultConfiguration.getDefaultMaxDiskUsage();
@@ -428,6 +438,17 @@ public class ConfigurationImpl implements Configuration, Serializable {
       return globalMaxSize;
    }
 
+   @Override
+   public long getGlobalPageCacheSize() {
+      return globalPageCacheSize;
+   }
+
+   @Override
+   public ConfigurationImpl setGlobalPageCacheSize(long globalPageCacheSize) {
+      this.globalPageCacheSize = globalPageCacheSize;
+      return this;
+   }
+
    @Override
    public ConfigurationImpl setPersistenceEnabled(final boolean enable) {
       persistenceEnabled = enable;
@@ -1283,6 +1304,50 @@ public class ConfigurationImpl implements Configuration, Serializable {
       return this;
    }
 
+   @Override
+   public boolean isJournalCompactRecordIndex() {
+      return journalCompactRecordIndex;
+   }
+
+   @Override
+   public Configuration setJournalCompactRecordIndex(boolean journalCompactRecordIndex) {
+      this.journalCompactRecordIndex = journalCompactRecordIndex;
+      return this;
+   }
+
+   @Override
+   public int getJournalLoadThreads() {
+      return journalLoadThreads;
+   }
+
+   @Override
+   public Configuration setJournalLoadThreads(int journalLoadThreads) {
+      this.journalLoadThreads = journalLoadThreads;
+      return this;
+   }
+
+   @Override
+   public long getJournalCheckpointPeriod() {
+      return journalCheckpointPeriod;
+   }
+
+   @Override
+   public Configuration setJournalCheckpointPeriod(long journalCheckpointPeriod) {
+      this.journalCheckpointPeriod = journalCheckpointPeriod;
+      return this;
+   }
+
+   @Override
+   public long getJournalCompactMaxRate() {
+      return journalCompactMaxRate;
+   }
+
+   @Override
+   public Configuration setJournalCompactMaxRate(long journalCompactMaxRate) {
+      this.journalCompactMaxRate = journalCompactMaxRate;
+      return this;
+   }
+
    @Override
    public ConfigurationImpl setJournalCompactPercentage(final int percentage) {
       journalCompactPercentage = percentage;
@@ -2162,6 +2227,9 @@ public class ConfigurationImpl implements Configuration, Serializable {
       if (globalMaxSize != null && !globalMaxSize.equals(other.globalMaxSize)) {
          return false;
       }
+      if (globalPageCacheSize != other.globalPageCacheSize) {
+         return false;
+      }
       if (maxDiskUsage != other.maxDiskUsage) {
          return false;
       }
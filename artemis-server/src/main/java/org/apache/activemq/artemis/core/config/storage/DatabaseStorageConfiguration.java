@@ -56,6 +56,10 @@ public class DatabaseStorageConfiguration implements StoreConfiguration {
 
    private long jdbcJournalSyncPeriodMillis = ActiveMQDefaultConfiguration.getDefaultJdbcJournalSyncPeriodMillis();
 
+   private int jdbcJournalPartitions = ActiveMQDefaultConfiguration.getDefaultJdbcJournalPartitions();
+
+   private boolean jdbcChunkedFiles = ActiveMQDefaultConfiguration.isDefaultJdbcChunkedFiles();
+
    @Override
    public StoreType getStoreType() {
       return StoreType.DATABASE;
@@ -205,4 +209,28 @@ public class DatabaseStorageConfiguration implements StoreConfiguration {
    public void setJdbcJournalSyncPeriodMillis(long jdbcJournalSyncPeriodMillis) {
       this.jdbcJournalSyncPeriodMillis = jdbcJournalSyncPeriodMillis;
    }
+
+   public int getJdbcJournalPartitions() {
+      return jdbcJournalPartitions;
+   }
+
+   /**
+    * The number of tables the message journal is spread over: the message table and, after the first one, the
+    * tables named after it with the suffix {@code _<partition>}.
+    */
+   public void setJdbcJournalPartitions(int jdbcJournalPartitions) {
+      this.jdbcJournalPartitions = jdbcJournalPartitions;
+   }
+
+   public boolean isJdbcChunkedFiles() {
+      return jdbcChunkedFiles;
+   }
+
+   /**
+    * Whether the pages and the large messages are stored as a sequence of chunks, one row per write, in the tables
+    * named after their tables with the suffix {@code _CHUNK}.
+    */
+   public void setJdbcChunkedFiles(boolean jdbcChunkedFiles) {
+      this.jdbcChunkedFiles = jdbcChunkedFiles;
+   }
 }
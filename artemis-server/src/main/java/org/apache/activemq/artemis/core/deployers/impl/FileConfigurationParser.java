@@ -177,6 +177,16 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
 
    private static final String EXPIRY_DELAY_NODE_NAME = "expiry-delay";
 
+   private static final String COMPILE_SELECTORS_NODE_NAME = "compile-selectors";
+
+   private static final String QUEUE_SHARDS_NODE_NAME = "queue-shards";
+
+   private static final String INDEX_CONSUMER_FILTERS_NODE_NAME = "index-consumer-filters";
+
+   private static final String DELIVERY_BATCH_SIZE_NODE_NAME = "delivery-batch-size";
+
+   private static final String INDEX_ROUTING_FILTERS_NODE_NAME = "index-routing-filters";
+
    private static final String REDELIVERY_DELAY_NODE_NAME = "redelivery-delay";
 
    private static final String REDELIVERY_DELAY_MULTIPLIER_NODE_NAME = "redelivery-delay-multiplier";
@@ -273,6 +283,8 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
 
    private static final String GLOBAL_MAX_SIZE = "global-max-size";
 
+   private static final String GLOBAL_PAGE_CACHE_SIZE = "global-page-cache-size";
+
    private static final String MAX_DISK_USAGE = "max-disk-usage";
 
    private static final String DISK_SCAN_PERIOD = "disk-scan-period";
@@ -409,6 +421,8 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
          config.setGlobalMaxSize(globalMaxSize);
       }
 
+      config.setGlobalPageCacheSize(getTextBytesAsLongBytes(e, GLOBAL_PAGE_CACHE_SIZE, config.getGlobalPageCacheSize(), Validators.MINUS_ONE_OR_GE_ZERO));
+
       config.setMaxDiskUsage(getInteger(e, MAX_DISK_USAGE, config.getMaxDiskUsage(), Validators.PERCENTAGE_OR_MINUS_ONE));
 
       config.setDiskScanPeriod(getInteger(e, DISK_SCAN_PERIOD, config.getDiskScanPeriod(), Validators.MINUS_ONE_OR_GT_ZERO));
@@ -622,15 +636,15 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
 
       config.setJournalFileSize(getTextBytesAsIntBytes(e, "journal-file-size", config.getJournalFileSize(), Validators.POSITIVE_INT));
 
-      int journalBufferTimeout = getInteger(e, "journal-buffer-timeout", config.getJournalType() == JournalType.ASYNCIO ? ArtemisConstants.DEFAULT_JOURNAL_BUFFER_TIMEOUT_AIO : ArtemisConstants.DEFAULT_JOURNAL_BUFFER_TIMEOUT_NIO, Validators.GE_ZERO);
+      int journalBufferTimeout = getInteger(e, "journal-buffer-timeout", config.getJournalType().isAsync() ? ArtemisConstants.DEFAULT_JOURNAL_BUFFER_TIMEOUT_AIO : ArtemisConstants.DEFAULT_JOURNAL_BUFFER_TIMEOUT_NIO, Validators.GE_ZERO);
 
-      int journalBufferSize = getTextBytesAsIntBytes(e, "journal-buffer-size", config.getJournalType() == JournalType.ASYNCIO ? ArtemisConstants.DEFAULT_JOURNAL_BUFFER_SIZE_AIO : ArtemisConstants.DEFAULT_JOURNAL_BUFFER_SIZE_NIO, Validators.POSITIVE_INT);
+      int journalBufferSize = getTextBytesAsIntBytes(e, "journal-buffer-size", config.getJournalType().isAsync() ? ArtemisConstants.DEFAULT_JOURNAL_BUFFER_SIZE_AIO : ArtemisConstants.DEFAULT_JOURNAL_BUFFER_SIZE_NIO, Validators.POSITIVE_INT);
 
-      int journalMaxIO = getInteger(e, "journal-max-io", config.getJournalType() == JournalType.ASYNCIO ? ActiveMQDefaultConfiguration.getDefaultJournalMaxIoAio() : ActiveMQDefaultConfiguration.getDefaultJournalMaxIoNio(), Validators.GT_ZERO);
+      int journalMaxIO = getInteger(e, "journal-max-io", config.getJournalType().isAsync() ? ActiveMQDefaultConfiguration.getDefaultJournalMaxIoAio() : ActiveMQDefaultConfiguration.getDefaultJournalMaxIoNio(), Validators.GT_ZERO);
 
       config.setJournalDeviceBlockSize(getInteger(e, "journal-device-block-size", null, Validators.MINUS_ONE_OR_GE_ZERO));
 
-      if (config.getJournalType() == JournalType.ASYNCIO) {
+      if (config.getJournalType().isAsync()) {
          config.setJournalBufferTimeout_AIO(journalBufferTimeout);
          config.setJournalBufferSize_AIO(journalBufferSize);
          config.setJournalMaxIO_AIO(journalMaxIO);
@@ -642,6 +656,14 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
 
       config.setJournalFileOpenTimeout(getInteger(e, "journal-file-open-timeout", ActiveMQDefaultConfiguration.getDefaultJournalFileOpenTimeout(), Validators.GT_ZERO));
 
+      config.setJournalCompactRecordIndex(getBoolean(e, "journal-compact-record-index", config.isJournalCompactRecordIndex()));
+
+      config.setJournalLoadThreads(getInteger(e, "journal-load-threads", config.getJournalLoadThreads(), Validators.GT_ZERO));
+
+      config.setJournalCheckpointPeriod(getLong(e, "journal-checkpoint-period", config.getJournalCheckpointPeriod(), Validators.MINUS_ONE_OR_GT_ZERO));
+
+      config.setJournalCompactMaxRate(getTextBytesAsLongBytes(e, "journal-compact-max-rate", config.getJournalCompactMaxRate(), Validators.MINUS_ONE_OR_GT_ZERO));
+
       config.setJournalMinFiles(getInteger(e, "journal-min-files", config.getJournalMinFiles(), Validators.GT_ZERO));
 
       config.setJournalPoolFiles(getInteger(e, "journal-pool-files", config.getJournalPoolFiles(), Validators.MINUS_ONE_OR_GT_ZERO));
@@ -1207,6 +1229,16 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
             addressSettings.setExpiryQueuePrefix(new SimpleString(getTrimmedTextContent(child)));
          } else if (EXPIRY_QUEUE_SUFFIX_NODE_NAME.equalsIgnoreCase(name)) {
             addressSettings.setExpiryQueueSuffix(new SimpleString(getTrimmedTextContent(child)));
+         } else if (COMPILE_SELECTORS_NODE_NAME.equalsIgnoreCase(name)) {
+            addressSettings.setCompileSelectors(XMLUtil.parseBoolean(child));
+         } else if (QUEUE_SHARDS_NODE_NAME.equalsIgnoreCase(name)) {
+            addressSettings.setQueueShards(XMLUtil.parseInt(child));
+         } else if (INDEX_CONSUMER_FILTERS_NODE_NAME.equalsIgnoreCase(name)) {
+            addressSettings.setIndexConsumerFilters(XMLUtil.parseBoolean(child));
+         } else if (DELIVERY_BATCH_SIZE_NODE_NAME.equalsIgnoreCase(name)) {
+            addressSettings.setDeliveryBatchSize(XMLUtil.parseInt(child));
+         } else if (INDEX_ROUTING_FILTERS_NODE_NAME.equalsIgnoreCase(name)) {
+            addressSettings.setIndexRoutingFilters(XMLUtil.parseBoolean(child));
          }
       }
       return setting;
@@ -1658,6 +1690,8 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
       conf.setJdbcLockRenewPeriodMillis(getLong(storeNode, "jdbc-lock-renew-period", conf.getJdbcLockRenewPeriodMillis(), Validators.NO_CHECK));
       conf.setJdbcLockExpirationMillis(getLong(storeNode, "jdbc-lock-expiration", conf.getJdbcLockExpirationMillis(), Validators.NO_CHECK));
       conf.setJdbcJournalSyncPeriodMillis(getLong(storeNode, "jdbc-journal-sync-period", conf.getJdbcJournalSyncPeriodMillis(), Validators.NO_CHECK));
+      conf.setJdbcJournalPartitions(getInteger(storeNode, "jdbc-journal-partitions", conf.getJdbcJournalPartitions(), Validators.GT_ZERO));
+      conf.setJdbcChunkedFiles(getBoolean(storeNode, "jdbc-chunked-files", conf.isJdbcChunkedFiles()));
       String jdbcUser = getString(storeNode, "jdbc-user", conf.getJdbcUser(), Validators.NO_CHECK);
       if (jdbcUser != null) {
          jdbcUser = PasswordMaskingUtil.resolveMask(mainConfig.isMaskPassword(), jdbcUser, mainConfig.getPasswordCodec());
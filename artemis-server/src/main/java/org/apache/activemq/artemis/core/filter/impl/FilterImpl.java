@@ -28,6 +28,7 @@ import org.apache.activemq.artemis.core.server.federation.address.FederatedAddre
 import org.apache.activemq.artemis.selector.filter.BooleanExpression;
 import org.apache.activemq.artemis.selector.filter.FilterException;
 import org.apache.activemq.artemis.selector.filter.Filterable;
+import org.apache.activemq.artemis.selector.impl.SelectorCompiler;
 import org.apache.activemq.artemis.selector.impl.SelectorParser;
 
 import static org.apache.activemq.artemis.api.core.FilterConstants.NATIVE_MESSAGE_ID;
@@ -74,6 +75,15 @@ public class FilterImpl implements Filter {
     * @throws ActiveMQException if the string does not correspond to a valid filter
     */
    public static Filter createFilter(final SimpleString filterStr) throws ActiveMQException {
+      return createFilter(filterStr, false);
+   }
+
+   /**
+    * @param compile whether the parsed expression should be compiled with {@link SelectorCompiler}
+    * @return null if <code>filterStr</code> is null or an empty String and a valid filter else
+    * @throws ActiveMQException if the string does not correspond to a valid filter
+    */
+   public static Filter createFilter(final SimpleString filterStr, final boolean compile) throws ActiveMQException {
       if (filterStr == null || filterStr.length() == 0) {
          return null;
       }
@@ -81,6 +91,9 @@ public class FilterImpl implements Filter {
       BooleanExpression booleanExpression;
       try {
          booleanExpression = SelectorParser.parse(filterStr.toString());
+         if (compile) {
+            booleanExpression = SelectorCompiler.compile(booleanExpression);
+         }
       } catch (Throwable e) {
          ActiveMQServerLogger.LOGGER.invalidFilter(filterStr);
          if (ActiveMQServerLogger.LOGGER.isDebugEnabled()) {
@@ -97,7 +97,6 @@ import org.apache.activemq.artemis.core.server.ActiveMQServerLogger;
 import org.apache.activemq.artemis.core.server.ConnectorServiceFactory;
 import org.apache.activemq.artemis.core.server.Consumer;
 import org.apache.activemq.artemis.core.server.ComponentConfigurationRoutingType;
-import org.apache.activemq.artemis.core.server.JournalType;
 import org.apache.activemq.artemis.core.server.Queue;
 import org.apache.activemq.artemis.core.server.ServerConsumer;
 import org.apache.activemq.artemis.core.server.ServerProducer;
@@ -304,7 +303,7 @@ public class ActiveMQServerControlImpl extends AbstractControl implements Active
 
       clearIO();
       try {
-         return configuration.getJournalType() == JournalType.ASYNCIO ? configuration.getJournalBufferSize_AIO() : configuration.getJournalBufferSize_NIO();
+         return configuration.getJournalType().isAsync() ? configuration.getJournalBufferSize_AIO() : configuration.getJournalBufferSize_NIO();
       } finally {
          blockOnIO();
       }
@@ -319,7 +318,7 @@ public class ActiveMQServerControlImpl extends AbstractControl implements Active
 
       clearIO();
       try {
-         return configuration.getJournalType() == JournalType.ASYNCIO ? configuration.getJournalBufferTimeout_AIO() : configuration.getJournalBufferTimeout_NIO();
+         return configuration.getJournalType().isAsync() ? configuration.getJournalBufferTimeout_AIO() : configuration.getJournalBufferTimeout_NIO();
       } finally {
          blockOnIO();
       }
@@ -372,7 +371,7 @@ public class ActiveMQServerControlImpl extends AbstractControl implements Active
 
       clearIO();
       try {
-         return configuration.getJournalType() == JournalType.ASYNCIO ? configuration.getJournalMaxIO_AIO() : configuration.getJournalMaxIO_NIO();
+         return configuration.getJournalType().isAsync() ? configuration.getJournalMaxIO_AIO() : configuration.getJournalMaxIO_NIO();
       } finally {
          blockOnIO();
       }
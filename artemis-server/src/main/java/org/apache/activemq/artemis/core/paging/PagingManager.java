@@ -19,6 +19,7 @@ package org.apache.activemq.artemis.core.paging;
 import java.util.Map;
 
 import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.paging.cursor.SharedPageCache;
 import org.apache.activemq.artemis.core.server.ActiveMQComponent;
 import org.apache.activemq.artemis.core.server.files.FileStoreMonitor;
 import org.apache.activemq.artemis.core.settings.HierarchicalRepositoryChangeListener;
@@ -115,6 +116,14 @@ public interface PagingManager extends ActiveMQComponent, HierarchicalRepository
       return 0;
    }
 
+   /**
+    * @return the memory budget shared by the page caches of all the stores, or {@code null} if each store
+    * only bounds its own cache
+    */
+   default SharedPageCache getSharedPageCache() {
+      return null;
+   }
+
    /**
     * Use this when you have no refernce of an address. (anonymous AMQP Producers for example)
     * @param runWhenAvailable
@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.paging.cursor;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.core.paging.PagedMessage;
+import org.jboss.logging.Logger;
+
+/**
+ * The memory budget of the page caches of all the {@link PageCursorProvider}s of a broker.
+ * <p>
+ * Page caches that are no longer live are accounted here with the estimated heap size of their decoded messages
+ * (see {@link #estimateMemory(PageCache)}) and kept in least recently used order across all the providers. Whenever the total size goes above the budget the least recently used
+ * pages are evicted and their {@link Owner} is told to drop them.
+ * <p>
+ * Owners can account pages while holding their own locks, but must release them before calling
+ * {@link #evictIfNeeded()}, as evictions call back into other owners.
+ */
+public final class SharedPageCache {
+
+   private static final Logger logger = Logger.getLogger(SharedPageCache.class);
+
+   /**
+    * Share of the max heap used as budget when none is configured.
+    */
+   private static final int DEFAULT_HEAP_DIVISOR = 10;
+
+   public interface Owner {
+
+      /**
+       * The cache was evicted to honour the global budget, it should not be returned anymore.
+       */
+      void evicted(PageCache cache);
+   }
+
+   private static final class Entry {
+
+      final Owner owner;
+
+      final long size;
+
+      Entry(Owner owner, long size) {
+         this.owner = owner;
+         this.size = size;
+      }
+   }
+
+   private final long maxSize;
+
+   // access ordered: iteration starts from the least recently used page
+   private final LinkedHashMap<PageCache, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+   private volatile long size;
+
+   private final LongAdder hits = new LongAdder();
+
+   private final LongAdder misses = new LongAdder();
+
+   private final LongAdder evictions = new LongAdder();
+
+   /**
+    * @param maxSize the budget in bytes, a negative value means a tenth of the max heap and 0 means no budget
+    */
+   public SharedPageCache(final long maxSize) {
+      this.maxSize = maxSize < 0 ? Runtime.getRuntime().maxMemory() / DEFAULT_HEAP_DIVISOR : maxSize;
+   }
+
+   /**
+    * Accounts a page cache that was just read as the most recently used page.
+    *
+    * @param cacheSize the heap used by the page cache, usually {@link #estimateMemory(PageCache)}
+    *
+    * @return {@code true} if the budget may need {@link #evictIfNeeded()}
+    */
+   public boolean put(final Owner owner, final PageCache cache, final long cacheSize) {
+      if (cache.isLive()) {
+         return false;
+      }
+      synchronized (entries) {
+         Entry old = entries.put(cache, new Entry(owner, cacheSize));
+         size += cacheSize - (old == null ? 0 : old.size);
+      }
+      return true;
+   }
+
+   /**
+    * Records a hit and makes {@code cache} the most recently used page.
+    * <p>
+    * Pages that were cached while live are accounted on their first hit after they're closed.
+    *
+    * @return {@code true} if the budget may need {@link #evictIfNeeded()}
+    */
+   public boolean hit(final Owner owner, final PageCache cache) {
+      hits.increment();
+      if (cache.isLive()) {
+         return false;
+      }
+      synchronized (entries) {
+         if (entries.get(cache) == null) {
+            long cacheSize = estimateMemory(cache);
+            entries.put(cache, new Entry(owner, cacheSize));
+            size += cacheSize;
+            return true;
+         }
+      }
+      return false;
+   }
+
+   public void miss() {
+      misses.increment();
+   }
+
+   public void remove(final PageCache cache) {
+      synchronized (entries) {
+         Entry entry = entries.remove(cache);
+         if (entry != null) {
+            size -= entry.size;
+         }
+      }
+   }
+
+   /**
+    * Drops all the pages of {@code owner}.
+    */
+   public void removeAll(final Owner owner) {
+      synchronized (entries) {
+         Iterator<Entry> iterator = entries.values().iterator();
+         while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.owner == owner) {
+               iterator.remove();
+               size -= entry.size;
+            }
+         }
+      }
+   }
+
+   public void evictIfNeeded() {
+      if (maxSize <= 0 || size <= maxSize) {
+         return;
+      }
+
+      List<Map.Entry<PageCache, Entry>> evicted = new ArrayList<>();
+      synchronized (entries) {
+         Iterator<Map.Entry<PageCache, Entry>> iterator = entries.entrySet().iterator();
+         while (size > maxSize && iterator.hasNext()) {
+            Map.Entry<PageCache, Entry> eldest = iterator.next();
+            iterator.remove();
+            size -= eldest.getValue().size;
+            evicted.add(eldest);
+         }
+      }
+
+      // outside of the lock, the owners take their own
+      for (Map.Entry<PageCache, Entry> entry : evicted) {
+         evictions.increment();
+         if (logger.isTraceEnabled()) {
+            logger.trace("Evicting " + entry.getKey() + " of " + entry.getValue().size + " bytes from the shared page cache");
+         }
+         entry.getValue().owner.evicted(entry.getKey());
+      }
+   }
+
+   public long getMaxSize() {
+      return maxSize;
+   }
+
+   public long getSize() {
+      return size;
+   }
+
+   public int getPageCount() {
+      synchronized (entries) {
+         return entries.size();
+      }
+   }
+
+   public long getHitCount() {
+      return hits.sum();
+   }
+
+   public long getMissCount() {
+      return misses.sum();
+   }
+
+   public long getEvictionCount() {
+      return evictions.sum();
+   }
+
+   /**
+    * @return the heap used by the decoded messages of {@code cache}, which is what the budget bounds: the size of
+    * the page on disk under-counts the objects a decoded message is made of
+    */
+   public static long estimateMemory(final PageCache cache) {
+      PagedMessage[] messages = cache.getMessages();
+      if (messages == null) {
+         return 0;
+      }
+      long estimate = 0;
+      for (PagedMessage pagedMessage : messages) {
+         if (pagedMessage != null) {
+            Message message = pagedMessage.getMessage();
+            estimate += message != null ? message.getMemoryEstimate() : pagedMessage.getStoredSize();
+         }
+      }
+      return estimate;
+   }
+
+   @Override
+   public String toString() {
+      return "SharedPageCache[size=" + size + ", maxSize=" + maxSize + "]";
+   }
+}
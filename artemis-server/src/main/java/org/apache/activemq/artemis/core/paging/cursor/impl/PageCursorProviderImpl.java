@@ -18,6 +18,8 @@ package org.apache.activemq.artemis.core.paging.cursor.impl;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
@@ -27,6 +29,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import io.netty.util.collection.LongObjectHashMap;
 import org.apache.activemq.artemis.core.filter.Filter;
 import org.apache.activemq.artemis.core.paging.PagedMessage;
+import org.apache.activemq.artemis.core.paging.PagingManager;
 import org.apache.activemq.artemis.core.paging.PagingStore;
 import org.apache.activemq.artemis.core.paging.cursor.NonExistentPage;
 import org.apache.activemq.artemis.core.paging.cursor.PageCache;
@@ -35,12 +38,12 @@ import org.apache.activemq.artemis.core.paging.cursor.PagePosition;
 import org.apache.activemq.artemis.core.paging.cursor.PageSubscription;
 import org.apache.activemq.artemis.core.paging.cursor.PagedReference;
 import org.apache.activemq.artemis.core.paging.cursor.PagedReferenceImpl;
+import org.apache.activemq.artemis.core.paging.cursor.SharedPageCache;
 import org.apache.activemq.artemis.core.paging.impl.Page;
 import org.apache.activemq.artemis.core.persistence.StorageManager;
 import org.apache.activemq.artemis.core.server.ActiveMQServerLogger;
 import org.apache.activemq.artemis.core.transaction.Transaction;
 import org.apache.activemq.artemis.core.transaction.impl.TransactionImpl;
-import org.apache.activemq.artemis.utils.SoftValueLongObjectHashMap;
 import org.apache.activemq.artemis.utils.actors.ArtemisExecutor;
 import org.apache.activemq.artemis.utils.collections.ConcurrentLongHashMap;
 import org.jboss.logging.Logger;
@@ -51,7 +54,7 @@ import org.jboss.logging.Logger;
  * TODO: this may be moved entirely into PagingStore as there's an one-to-one relationship here
  * However I want to keep this isolated as much as possible during development
  */
-public class PageCursorProviderImpl implements PageCursorProvider {
+public class PageCursorProviderImpl implements PageCursorProvider, SharedPageCache.Owner {
    // Constants -----------------------------------------------------
 
    private static final Logger logger = Logger.getLogger(PageCursorProviderImpl.class);
@@ -72,7 +75,13 @@ public class PageCursorProviderImpl implements PageCursorProvider {
    // This is the same executor used at the PageStoreImpl. One Executor per pageStore
    private final ArtemisExecutor executor;
 
-   private final SoftValueLongObjectHashMap<PageCache> softCache;
+   // access ordered: iteration starts from the least recently used page
+   private final LinkedHashMap<Long, PageCache> pageCaches = new LinkedHashMap<>(16, 0.75f, true);
+
+   private volatile int maxCacheSize;
+
+   // the memory budget shared with the other stores, pages are evicted from here when it's exceeded
+   private final SharedPageCache sharedPageCache;
 
    private LongObjectHashMap<Integer> numberOfMessages = null;
 
@@ -107,7 +116,10 @@ public class PageCursorProviderImpl implements PageCursorProvider {
       this.pagingStore = pagingStore;
       this.storageManager = storageManager;
       this.executor = executor;
-      this.softCache = new SoftValueLongObjectHashMap<>(maxCacheSize);
+      this.maxCacheSize = maxCacheSize;
+      PagingManager pagingManager = pagingStore.getPagingManager();
+      SharedPageCache sharedPageCache = pagingManager == null ? null : pagingManager.getSharedPageCache();
+      this.sharedPageCache = sharedPageCache == null ? new SharedPageCache(0) : sharedPageCache;
       if (!readWholePage) {
          this.numberOfMessages = new LongObjectHashMap<>();
       }
@@ -165,8 +177,13 @@ public class PageCursorProviderImpl implements PageCursorProvider {
          CompletableFuture<PageCache> inProgressReadPage;
          PageCache cache;
          Page page = null;
-         synchronized (softCache) {
-            cache = softCache.get(pageId);
+         cache = getCachedPage(pageId);
+         if (cache != null) {
+            return cache;
+         }
+         synchronized (pageCaches) {
+            // it could have been read concurrently
+            cache = pageCaches.get(pageId);
             if (cache != null) {
                return cache;
             }
@@ -176,11 +193,12 @@ public class PageCursorProviderImpl implements PageCursorProvider {
             Page currentPage = pagingStore.getCurrentPage();
             // Live page cache might be cleared by gc, we need to retrieve it otherwise partially written page cache is being returned
             if (currentPage != null && currentPage.getPageId() == pageId && (cache = currentPage.getLiveCache()) != null) {
-               softCache.put(cache.getPageId(), cache);
+               putPageCache(cache);
                return cache;
             }
             inProgressReadPage = inProgressReadPages.get(pageId);
             if (inProgressReadPage == null) {
+               sharedPageCache.miss();
                if (numberOfMessages != null && numberOfMessages.containsKey(pageId)) {
                   return new PageReader(pagingStore.createPage((int) pageId), numberOfMessages.get(pageId));
                }
@@ -212,6 +230,19 @@ public class PageCursorProviderImpl implements PageCursorProvider {
       }
    }
 
+   private PageCache getCachedPage(final long pageId) {
+      PageCache cache;
+      boolean checkBudget;
+      synchronized (pageCaches) {
+         cache = pageCaches.get(pageId);
+         checkBudget = cache != null && sharedPageCache.hit(this, cache);
+      }
+      if (checkBudget) {
+         sharedPageCache.evictIfNeeded();
+      }
+      return cache;
+   }
+
    private PageCache readPage(long pageId,
                               Page page,
                               PageCache cache,
@@ -241,7 +272,7 @@ public class PageCursorProviderImpl implements PageCursorProvider {
          cache.setMessages(pgdMessages.toArray(new PagedMessage[num]));
       } catch (Throwable t) {
          inProgressReadPage.completeExceptionally(t);
-         synchronized (softCache) {
+         synchronized (pageCaches) {
             inProgressReadPages.remove(pageId);
          }
          throw t;
@@ -257,40 +288,83 @@ public class PageCursorProviderImpl implements PageCursorProvider {
          }
       }
       inProgressReadPage.complete(cache);
-      synchronized (softCache) {
+      boolean checkBudget;
+      synchronized (pageCaches) {
          inProgressReadPages.remove(pageId);
-         softCache.put(pageId, cache);
+         putPageCache(cache);
+         checkBudget = sharedPageCache.put(this, cache, SharedPageCache.estimateMemory(cache));
          if (numberOfMessages != null && num != -1) {
             numberOfMessages.put(pageId, Integer.valueOf(num));
          }
       }
+      if (checkBudget) {
+         sharedPageCache.evictIfNeeded();
+      }
       return cache;
    }
 
    @Override
    public void addPageCache(PageCache cache) {
       logger.tracef("Add page cache %s", cache);
-      synchronized (softCache) {
-         softCache.put(cache.getPageId(), cache);
+      synchronized (pageCaches) {
+         putPageCache(cache);
+      }
+   }
+
+   /**
+    * Caches {@code cache} as the most recently used page, evicting the least recently used ones that aren't
+    * live anymore if the cache is over its max size.
+    */
+   private void putPageCache(PageCache cache) {
+      pageCaches.put(cache.getPageId(), cache);
+      checkCacheSize();
+   }
+
+   private void checkCacheSize() {
+      final int maxCacheSize = this.maxCacheSize;
+      if (maxCacheSize <= 0 || pageCaches.size() <= maxCacheSize) {
+         return;
+      }
+      Iterator<PageCache> iterator = pageCaches.values().iterator();
+      while (pageCaches.size() > maxCacheSize && iterator.hasNext()) {
+         PageCache eldest = iterator.next();
+         if (!eldest.isLive()) {
+            iterator.remove();
+            sharedPageCache.remove(eldest);
+            if (logger.isTraceEnabled()) {
+               logger.trace("Evicting " + eldest + " from cursor " + pagingStore.getAddress());
+            }
+         }
+      }
+   }
+
+   @Override
+   public void evicted(PageCache cache) {
+      synchronized (pageCaches) {
+         pageCaches.remove(cache.getPageId(), cache);
       }
    }
 
    @Override
    public void setCacheMaxSize(final int size) {
-      softCache.setMaxElements(size);
+      synchronized (pageCaches) {
+         maxCacheSize = size;
+         checkCacheSize();
+      }
    }
 
    @Override
    public int getCacheSize() {
-      synchronized (softCache) {
-         return softCache.size();
+      synchronized (pageCaches) {
+         return pageCaches.size();
       }
    }
 
    @Override
    public void clearCache() {
-      synchronized (softCache) {
-         softCache.clear();
+      synchronized (pageCaches) {
+         pageCaches.clear();
+         sharedPageCache.removeAll(this);
       }
    }
 
@@ -527,8 +601,8 @@ public class PageCursorProviderImpl implements PageCursorProvider {
          for (Page depagedPage : depagedPages) {
             PageCache cache;
             PagedMessage[] pgdMessages;
-            synchronized (softCache) {
-               cache = softCache.get((long) depagedPage.getPageId());
+            synchronized (pageCaches) {
+               cache = pageCaches.get((long) depagedPage.getPageId());
             }
 
             if (logger.isTraceEnabled()) {
@@ -560,9 +634,12 @@ public class PageCursorProviderImpl implements PageCursorProvider {
             }
 
             depagedPage.delete(pgdMessages);
-            synchronized (softCache) {
+            synchronized (pageCaches) {
                long pageId = (long) depagedPage.getPageId();
-               softCache.remove(pageId);
+               PageCache removed = pageCaches.remove(pageId);
+               if (removed != null) {
+                  sharedPageCache.remove(removed);
+               }
                if (numberOfMessages != null) {
                   numberOfMessages.remove(pageId);
                }
@@ -641,8 +718,10 @@ public class PageCursorProviderImpl implements PageCursorProvider {
    @Override
    public void printDebug() {
       System.out.println("Debug information for PageCursorProviderImpl:");
-      for (PageCache cache : softCache.values()) {
-         System.out.println("Cache " + cache);
+      synchronized (pageCaches) {
+         for (PageCache cache : pageCaches.values()) {
+            System.out.println("Cache " + cache);
+         }
       }
    }
 
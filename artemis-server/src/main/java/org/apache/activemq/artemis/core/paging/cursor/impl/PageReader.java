@@ -21,6 +21,7 @@ import org.apache.activemq.artemis.core.paging.PagedMessage;
 import org.apache.activemq.artemis.core.paging.cursor.NonExistentPage;
 import org.apache.activemq.artemis.core.paging.cursor.PageCache;
 import org.apache.activemq.artemis.core.paging.cursor.PagePosition;
+import org.apache.activemq.artemis.core.paging.impl.MappedPage;
 import org.apache.activemq.artemis.core.paging.impl.Page;
 import org.jboss.logging.Logger;
 
@@ -30,6 +31,9 @@ public class PageReader implements PageCache {
    private final Page page;
    private final int numberOfMessages;
    private PagedMessage[] pagedMessages = null;
+   // the page file is mapped if it has an index of its messages, to read them without seeking the file
+   private MappedPage mappedPage = null;
+   private boolean mappingChecked = false;
 
    public PageReader(Page page, int numberOfMessages) {
       this.page = page;
@@ -86,6 +90,25 @@ public class PageReader implements PageCache {
          return null;
       }
 
+      final boolean previouslyUnmapped = !mappingChecked;
+      if (previouslyUnmapped) {
+         mappingChecked = true;
+         try {
+            mappedPage = page.map();
+         } catch (Exception e) {
+            logger.debug("Cannot map page " + page.getPageId() + ", reading it sequentially", e);
+         }
+      }
+      if (mappedPage != null) {
+         try {
+            return mappedPage.getMessage(pagePosition.getMessageNr());
+         } finally {
+            if (!keepOpen && previouslyUnmapped) {
+               close();
+            }
+         }
+      }
+
       boolean previouslyClosed = true;
       try {
          previouslyClosed = openPage();
@@ -127,6 +150,11 @@ public class PageReader implements PageCache {
 
    @Override
    public synchronized void close() {
+      if (mappedPage != null) {
+         mappedPage.close();
+         mappedPage = null;
+      }
+      mappingChecked = false;
       try {
          page.close(false, false);
       } catch (Exception e) {
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.paging.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.internal.PlatformDependent;
+import org.apache.activemq.artemis.core.buffers.impl.ChannelBufferWrapper;
+import org.apache.activemq.artemis.core.paging.PagedMessage;
+import org.apache.activemq.artemis.core.persistence.StorageManager;
+import org.apache.activemq.artemis.utils.DataConstants;
+import org.jboss.logging.Logger;
+
+/**
+ * A read only memory mapping of an indexed page file.
+ * <p>
+ * The index written by {@link Page} when it's closed gives the file offset of each message, so any message
+ * can be decoded from its message number without reading or decoding the messages before it.
+ */
+public final class MappedPage implements AutoCloseable {
+
+   private static final Logger logger = Logger.getLogger(MappedPage.class);
+
+   //sizeOf(START_BYTE) + sizeOf(MESSAGE LENGTH)
+   private static final int HEADER_SIZE = DataConstants.SIZE_BYTE + DataConstants.SIZE_INT;
+
+   private final int pageId;
+
+   private final MappedByteBuffer buffer;
+
+   private final ByteBuf byteBuf;
+
+   private final StorageManager storageManager;
+
+   private final int numberOfMessages;
+
+   private final int indexPosition;
+
+   private boolean closed;
+
+   private MappedPage(int pageId,
+                      MappedByteBuffer buffer,
+                      StorageManager storageManager,
+                      int numberOfMessages,
+                      int indexPosition) {
+      this.pageId = pageId;
+      this.buffer = buffer;
+      this.byteBuf = Unpooled.wrappedBuffer(buffer);
+      this.storageManager = storageManager;
+      this.numberOfMessages = numberOfMessages;
+      this.indexPosition = indexPosition;
+   }
+
+   /**
+    * @return {@code null} if {@code file} doesn't end with a valid index
+    */
+   static MappedPage map(File file, int pageId, StorageManager storageManager) throws IOException {
+      final MappedByteBuffer buffer;
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+         final long fileSize = channel.size();
+         if (fileSize < DataConstants.SIZE_BYTE + Page.INDEX_TRAILER_SIZE || fileSize > Integer.MAX_VALUE) {
+            return null;
+         }
+         // the mapping stays valid once the channel is closed
+         buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+      }
+
+      final int fileSize = buffer.capacity();
+      final int trailerPosition = fileSize - Page.INDEX_TRAILER_SIZE;
+      final int numberOfMessages = buffer.getInt(trailerPosition);
+      final int indexPosition = buffer.getInt(trailerPosition + DataConstants.SIZE_INT);
+      if (buffer.get(fileSize - 1) != Page.INDEX_END_BYTE || numberOfMessages <= 0 || indexPosition < 0 ||
+         (long) indexPosition + DataConstants.SIZE_BYTE + (long) numberOfMessages * DataConstants.SIZE_INT != trailerPosition ||
+         buffer.get(indexPosition) != Page.INDEX_START_BYTE) {
+         if (logger.isTraceEnabled()) {
+            logger.tracef("%s isn't indexed", file);
+         }
+         PlatformDependent.freeDirectBuffer(buffer);
+         return null;
+      }
+      return new MappedPage(pageId, buffer, storageManager, numberOfMessages, indexPosition);
+   }
+
+   public int getPageId() {
+      return pageId;
+   }
+
+   public int getNumberOfMessages() {
+      return numberOfMessages;
+   }
+
+   /**
+    * @return the message decoded from its record or {@code null} if {@code messageNumber} is beyond this page
+    * @throws IllegalStateException if the record isn't valid
+    */
+   public synchronized PagedMessage getMessage(int messageNumber) {
+      if (closed) {
+         throw new IllegalStateException("pageNr=" + pageId + " is not mapped anymore");
+      }
+      if (messageNumber < 0 || messageNumber >= numberOfMessages) {
+         return null;
+      }
+      final int offset = buffer.getInt(indexPosition + DataConstants.SIZE_BYTE + messageNumber * DataConstants.SIZE_INT);
+      if (offset < 0 || offset + HEADER_SIZE > indexPosition || buffer.get(offset) != Page.START_BYTE) {
+         throw new IllegalStateException("Invalid record of messageNr=" + messageNumber + " at position " + offset + " on pageNr=" + pageId);
+      }
+      final int encodedSize = buffer.getInt(offset + DataConstants.SIZE_BYTE);
+      final int endPosition = offset + HEADER_SIZE + encodedSize;
+      if (encodedSize < 0 || endPosition >= indexPosition || buffer.get(endPosition) != Page.END_BYTE) {
+         throw new IllegalStateException("Invalid record of messageNr=" + messageNumber + " at position " + offset + " on pageNr=" + pageId);
+      }
+      final ChannelBufferWrapper wrapper = new ChannelBufferWrapper(byteBuf.slice(offset + HEADER_SIZE, encodedSize));
+      final PagedMessageImpl msg = new PagedMessageImpl(encodedSize, storageManager);
+      msg.decode(wrapper);
+      msg.initMessage(storageManager);
+      if (logger.isTraceEnabled()) {
+         logger.tracef("Reading mapped message %s on pageId=%d", msg, pageId);
+      }
+      return msg;
+   }
+
+   @Override
+   public synchronized void close() {
+      if (!closed) {
+         closed = true;
+         //unmap in a deterministic way: do not rely on GC to do it
+         PlatformDependent.freeDirectBuffer(buffer);
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "MappedPage::pageNr=" + pageId + ", numberOfMessages=" + numberOfMessages;
+   }
+}
@@ -16,8 +16,10 @@
  */
 package org.apache.activemq.artemis.core.paging.impl;
 
+import java.io.File;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -48,9 +50,25 @@ public final class Page implements Comparable<Page> {
 
    public static final int SIZE_RECORD = DataConstants.SIZE_BYTE + DataConstants.SIZE_INT + DataConstants.SIZE_BYTE;
 
-   private static final byte START_BYTE = (byte) '{';
+   static final byte START_BYTE = (byte) '{';
 
-   private static final byte END_BYTE = (byte) '}';
+   static final byte END_BYTE = (byte) '}';
+
+   /**
+    * A page closed after being written is followed by an index of the file offsets of its messages:
+    * <pre>
+    * INDEX_START_BYTE | offset (int) * number of messages | number of messages (int) | index position (int) | INDEX_END_BYTE
+    * </pre>
+    * The index position is the file offset of {@link #INDEX_START_BYTE}, so that the index can be located
+    * from the end of the file.
+    */
+   static final byte INDEX_START_BYTE = (byte) '[';
+
+   static final byte INDEX_END_BYTE = (byte) ']';
+
+   static final int INDEX_TRAILER_SIZE = DataConstants.SIZE_INT + DataConstants.SIZE_INT + DataConstants.SIZE_BYTE;
+
+   private static final int INITIAL_INDEX_CAPACITY = 64;
 
    // Attributes ----------------------------------------------------
 
@@ -86,6 +104,18 @@ public final class Page implements Comparable<Page> {
    private ChannelBufferWrapper readFileBufferWrapper;
    private int readProcessedBytes;
 
+   /**
+    * The file offsets of the messages written on this page, {@code null} if the page wasn't empty when opened
+    */
+   private int[] messageOffsets;
+
+   private int indexedMessages;
+
+   /**
+    * Whether messages were written since the page was opened, the index is only written on close if so
+    */
+   private boolean modified;
+
    public Page(final SimpleString storeName,
                final StorageManager storageManager,
                final SequentialFileFactory factory,
@@ -177,7 +207,9 @@ public final class Page implements Comparable<Page> {
                   break;
                }
             } else {
-               markFileAsSuspect(file.getFileName(), readProcessedBytes, currentMessageNumber);
+               if (headerBuffer.limit() == 0 || headerBuffer.get(0) != INDEX_START_BYTE) {
+                  markFileAsSuspect(file.getFileName(), readProcessedBytes, currentMessageNumber);
+               }
                break;
             }
             remainingBytes = fileSize - readProcessedBytes;
@@ -224,7 +256,7 @@ public final class Page implements Comparable<Page> {
                } else {
                   markFileAsSuspect(file.getFileName(), readProcessedBytes, currentMessageNumber);
                }
-            } else {
+            } else if (startByte != INDEX_START_BYTE) {
                markFileAsSuspect(file.getFileName(), readProcessedBytes, currentMessageNumber);
             }
          }
@@ -424,6 +456,9 @@ public final class Page implements Comparable<Page> {
                      markFileAsSuspect(file.getFileName(), processedBytes, totalMessageCount + 1);
                      return totalMessageCount;
                   }
+               } else if (startByte == Page.INDEX_START_BYTE) {
+                  // the index of a closed page follows its last message
+                  return totalMessageCount;
                } else {
                   markFileAsSuspect(file.getFileName(), processedBytes, totalMessageCount + 1);
                   return totalMessageCount;
@@ -454,6 +489,7 @@ public final class Page implements Comparable<Page> {
       }
       final int messageEncodedSize = message.getEncodeSize();
       final int bufferSize = messageEncodedSize + Page.SIZE_RECORD;
+      final int messageOffset = size.get();
       final ByteBuffer buffer = fileFactory.newBuffer(bufferSize);
       ChannelBufferWrapper activeMQBuffer = new ChannelBufferWrapper(Unpooled.wrappedBuffer(buffer));
       activeMQBuffer.clear();
@@ -465,6 +501,13 @@ public final class Page implements Comparable<Page> {
       //buffer limit and position are the same
       assert (buffer.remaining() == bufferSize) : "buffer position or limit are changed";
       file.writeDirect(buffer, false);
+      if (messageOffsets != null) {
+         if (indexedMessages == messageOffsets.length) {
+            messageOffsets = Arrays.copyOf(messageOffsets, indexedMessages * 2);
+         }
+         messageOffsets[indexedMessages++] = messageOffset;
+      }
+      modified = true;
       if (pageCache != null) {
          pageCache.addLiveMessage(message);
       }
@@ -478,12 +521,18 @@ public final class Page implements Comparable<Page> {
       file.sync();
    }
 
-   public void open() throws Exception {
+   public synchronized void open() throws Exception {
       if (!file.isOpen()) {
          file.open();
       }
       size.set((int) file.size());
       file.position(0);
+      if (size.get() == 0 && numberOfMessages.get() == 0) {
+         // only the offsets of a page written from its start can be indexed
+         messageOffsets = new int[INITIAL_INDEX_CAPACITY];
+         indexedMessages = 0;
+      }
+      modified = false;
    }
 
    public void close(boolean sendEvent) throws Exception {
@@ -495,6 +544,20 @@ public final class Page implements Comparable<Page> {
     * While reading the cache we don't need (and shouldn't inform the backup
     */
    public synchronized void close(boolean sendEvent, boolean waitSync) throws Exception {
+      if (messageOffsets != null) {
+         try {
+            if (modified) {
+               writeIndex();
+            }
+         } catch (Exception e) {
+            // the page can still be read sequentially
+            logger.warn("Cannot write the index of pageNr=" + pageId + " on address=" + storeName, e);
+         } finally {
+            messageOffsets = null;
+            modified = false;
+         }
+      }
+
       if (readFileBuffer != null) {
          fileFactory.releaseDirectBuffer(readFileBuffer);
          readFileBuffer = null;
@@ -522,6 +585,43 @@ public final class Page implements Comparable<Page> {
       return pageCache != null;
    }
 
+   private void writeIndex() throws Exception {
+      final int messages = indexedMessages;
+      if (messages == 0 || messages != numberOfMessages.get() || !file.isOpen()) {
+         // nothing was written through this page or it was also read: the offsets may be incomplete
+         return;
+      }
+      final int indexPosition = size.get();
+      final int indexSize = DataConstants.SIZE_BYTE + messages * DataConstants.SIZE_INT + INDEX_TRAILER_SIZE;
+      final ByteBuffer buffer = fileFactory.newBuffer(indexSize);
+      buffer.put(INDEX_START_BYTE);
+      for (int i = 0; i < messages; i++) {
+         buffer.putInt(messageOffsets[i]);
+      }
+      buffer.putInt(messages);
+      buffer.putInt(indexPosition);
+      buffer.put(INDEX_END_BYTE);
+      buffer.flip();
+      file.position(indexPosition);
+      file.writeDirect(buffer, false);
+      if (logger.isTraceEnabled()) {
+         logger.tracef("Indexed %d messages on pageNr=%d for address=%s", messages, pageId, storeName);
+      }
+   }
+
+   /**
+    * Maps the file of a page closed with its index, to read single messages from their message number.
+    *
+    * @return {@code null} if the page isn't indexed or if its file can't be mapped
+    */
+   public MappedPage map() throws Exception {
+      final File javaFile = file.getJavaFile();
+      if (javaFile == null || !javaFile.exists()) {
+         return null;
+      }
+      return MappedPage.map(javaFile, pageId, storageManager);
+   }
+
    public boolean delete(final PagedMessage[] messages) throws Exception {
       if (storageManager != null) {
          storageManager.pageDeleted(storeName, pageId);
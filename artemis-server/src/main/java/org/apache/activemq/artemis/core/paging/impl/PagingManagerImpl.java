@@ -33,6 +33,7 @@ import org.apache.activemq.artemis.core.paging.PageTransactionInfo;
 import org.apache.activemq.artemis.core.paging.PagingManager;
 import org.apache.activemq.artemis.core.paging.PagingStore;
 import org.apache.activemq.artemis.core.paging.PagingStoreFactory;
+import org.apache.activemq.artemis.core.paging.cursor.SharedPageCache;
 import org.apache.activemq.artemis.core.server.ActiveMQScheduledComponent;
 import org.apache.activemq.artemis.core.server.ActiveMQServerLogger;
 import org.apache.activemq.artemis.core.server.files.FileStoreMonitor;
@@ -91,6 +92,8 @@ public final class PagingManagerImpl implements PagingManager {
 
    private final SimpleString managementAddress;
 
+   private final SharedPageCache sharedPageCache;
+
    // Static
    // --------------------------------------------------------------------------------------------------------------------------
 
@@ -111,13 +114,22 @@ public final class PagingManagerImpl implements PagingManager {
    public PagingManagerImpl(final PagingStoreFactory pagingSPI,
                             final HierarchicalRepository<AddressSettings> addressSettingsRepository,
                             final long maxSize,
-                            final SimpleString managementAddress) {
+                            final SimpleString managementAddress,
+                            final long pageCacheMaxSize) {
       pagingStoreFactory = pagingSPI;
       this.addressSettingsRepository = addressSettingsRepository;
       addressSettingsRepository.registerListener(this);
       this.maxSize = maxSize;
       this.memoryExecutor = pagingSPI.newExecutor();
       this.managementAddress = managementAddress;
+      this.sharedPageCache = new SharedPageCache(pageCacheMaxSize);
+   }
+
+   public PagingManagerImpl(final PagingStoreFactory pagingSPI,
+                            final HierarchicalRepository<AddressSettings> addressSettingsRepository,
+                            final long maxSize,
+                            final SimpleString managementAddress) {
+      this(pagingSPI, addressSettingsRepository, maxSize, managementAddress, -1);
    }
 
    public PagingManagerImpl(final PagingStoreFactory pagingSPI,
@@ -174,6 +186,11 @@ public final class PagingManagerImpl implements PagingManager {
       return globalSizeBytes.get();
    }
 
+   @Override
+   public SharedPageCache getSharedPageCache() {
+      return sharedPageCache;
+   }
+
    protected void checkMemoryRelease() {
       if (!diskFull && (maxSize < 0 || globalSizeBytes.get() < maxSize) && !blockedStored.isEmpty()) {
          if (!memoryCallback.isEmpty()) {
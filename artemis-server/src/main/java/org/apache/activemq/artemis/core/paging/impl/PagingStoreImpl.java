@@ -491,6 +491,7 @@ public class PagingStoreImpl implements PagingStore {
        * The page file might be incomplete in the cases: 1) last message incomplete 2) disk damaged.
        * In case 1 we can keep writing the file. But in case 2 we'd better not bcs old data might be overwritten.
        * Here we open a new page so the incomplete page would be reserved for recovery if needed.
+       * A page closed with its index of message offsets is complete as well and isn't written anymore.
        */
       if (page.getSize() != page.getFile().size()) {
          openNewPage();
@@ -1194,6 +1195,12 @@ public class PagingStoreImpl implements PagingStore {
    @Override
    public void sendPages(ReplicationManager replicator, Collection<Integer> pageIds) throws Exception {
       final SequentialFileFactory factory = fileFactory;
+      long[] ids = new long[pageIds.size()];
+      int i = 0;
+      for (Integer id : pageIds) {
+         ids[i++] = id;
+      }
+      replicator.prepareSyncInventory(null, getAddress(), ids);
       for (Integer id : pageIds) {
          SequentialFile sFile = factory.createSequentialFile(createFileName(id));
          if (!sFile.exists()) {
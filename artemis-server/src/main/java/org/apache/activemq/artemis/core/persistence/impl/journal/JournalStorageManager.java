@@ -45,6 +45,7 @@ import org.apache.activemq.artemis.core.io.SequentialFile;
 import org.apache.activemq.artemis.core.io.SequentialFileFactory;
 import org.apache.activemq.artemis.core.io.aio.AIOSequentialFileFactory;
 import org.apache.activemq.artemis.core.io.mapped.MappedSequentialFileFactory;
+import org.apache.activemq.artemis.core.io.nio.BatchedNIOSequentialFileFactory;
 import org.apache.activemq.artemis.core.io.nio.NIOSequentialFileFactory;
 import org.apache.activemq.artemis.core.journal.Journal;
 import org.apache.activemq.artemis.core.journal.impl.JournalFile;
@@ -59,6 +60,7 @@ import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.Replicatio
 import org.apache.activemq.artemis.core.replication.ReplicatedJournal;
 import org.apache.activemq.artemis.core.replication.ReplicationManager;
 import org.apache.activemq.artemis.core.server.ActiveMQMessageBundle;
+import org.apache.activemq.artemis.core.server.ActiveMQScheduledComponent;
 import org.apache.activemq.artemis.core.server.ActiveMQServerLogger;
 import org.apache.activemq.artemis.core.server.JournalType;
 import org.apache.activemq.artemis.core.server.LargeServerMessage;
@@ -86,6 +88,8 @@ public class JournalStorageManager extends AbstractJournalStorageManager {
 
    protected ReplicationManager replicator;
 
+   private ActiveMQScheduledComponent journalCheckpoint;
+
    public JournalStorageManager(final Configuration config,
                                 final CriticalAnalyzer analyzer,
                                 final ExecutorFactory executorFactory,
@@ -120,6 +124,13 @@ public class JournalStorageManager extends AbstractJournalStorageManager {
       return journalFF;
    }
 
+   /**
+    * @return the local message journal, even while {@link #getMessageJournal()} replicates it
+    */
+   public Journal getOriginalMessageJournal() {
+      return originalMessageJournal;
+   }
+
    @Override
    protected void init(Configuration config, IOCriticalErrorListener criticalErrorListener) {
 
@@ -159,6 +170,12 @@ public class JournalStorageManager extends AbstractJournalStorageManager {
             }
             journalFF = new MappedSequentialFileFactory(config.getJournalLocation(), config.getJournalFileSize(), true, config.getJournalBufferSize_NIO(), config.getJournalBufferTimeout_NIO(), criticalErrorListener);
             break;
+         case BATCHED_NIO:
+            if (criticalErrorListener != null) {
+               ActiveMQServerLogger.LOGGER.journalUseBatchedNIO();
+            }
+            journalFF = new BatchedNIOSequentialFileFactory(config.getJournalLocation(), config.getJournalBufferSize_AIO(), config.getJournalBufferTimeout_AIO(), config.getJournalMaxIO_AIO(), config.isLogJournalWriteRate(), criticalErrorListener, getCriticalAnalyzer());
+            break;
          default:
             throw ActiveMQMessageBundle.BUNDLE.invalidJournalType2(config.getJournalType());
       }
@@ -209,7 +226,11 @@ public class JournalStorageManager extends AbstractJournalStorageManager {
    protected Journal createMessageJournal(Configuration config,
                                         IOCriticalErrorListener criticalErrorListener,
                                         int fileSize) {
-      return new JournalImpl(ioExecutorFactory, fileSize, config.getJournalMinFiles(), config.getJournalPoolFiles(), config.getJournalCompactMinFiles(), config.getJournalCompactPercentage(), config.getJournalFileOpenTimeout(), journalFF, "activemq-data", "amq", journalFF.getMaxIO(), 0, criticalErrorListener);
+      JournalImpl messageJournal = new JournalImpl(ioExecutorFactory, fileSize, config.getJournalMinFiles(), config.getJournalPoolFiles(), config.getJournalCompactMinFiles(), config.getJournalCompactPercentage(), config.getJournalFileOpenTimeout(), journalFF, "activemq-data", "amq", journalFF.getMaxIO(), 0, criticalErrorListener);
+      messageJournal.setCompactRecordIndex(config.isJournalCompactRecordIndex());
+      messageJournal.setLoadThreads(config.getJournalLoadThreads());
+      messageJournal.setCompactMaxBytesPerSecond(config.getJournalCompactMaxRate());
+      return messageJournal;
    }
 
    // Life Cycle Handlers
@@ -221,6 +242,28 @@ public class JournalStorageManager extends AbstractJournalStorageManager {
       cleanupIncompleteFiles();
    }
 
+   @Override
+   public synchronized void start() throws Exception {
+      super.start();
+
+      final long checkpointPeriod = config.getJournalCheckpointPeriod();
+      if (checkpointPeriod > 0 && scheduledExecutorService != null && journalCheckpoint == null && originalMessageJournal instanceof JournalImpl) {
+         final JournalImpl journal = (JournalImpl) originalMessageJournal;
+         // the journal ignores the checkpoint until it is loaded, or while it's compacting already
+         journalCheckpoint = new ActiveMQScheduledComponent(scheduledExecutorService, executorFactory.getExecutor(), checkpointPeriod, TimeUnit.MILLISECONDS, false) {
+            @Override
+            public void run() {
+               try {
+                  journal.checkpoint();
+               } catch (Throwable e) {
+                  ActiveMQServerLogger.LOGGER.journalCheckpointFailed(e);
+               }
+            }
+         };
+         journalCheckpoint.start();
+      }
+   }
+
    @Override
    protected void beforeStop() throws Exception {
       if (replicator != null) {
@@ -265,6 +308,11 @@ public class JournalStorageManager extends AbstractJournalStorageManager {
          return true;
       }
 
+      if (journalCheckpoint != null) {
+         journalCheckpoint.stop();
+         journalCheckpoint = null;
+      }
+
       if (!ioCriticalError) {
          performCachedLargeMessageDeletes();
          // Must call close to make sure last id is persisted
@@ -589,6 +637,11 @@ public class JournalStorageManager extends AbstractJournalStorageManager {
     * Send an entire journal file to a replicating backup server.
     */
    private void sendJournalFile(JournalFile[] journalFiles, JournalContent type) throws Exception {
+      long[] ids = new long[journalFiles.length];
+      for (int i = 0; i < journalFiles.length; i++) {
+         ids[i] = journalFiles[i].getFileID();
+      }
+      replicator.prepareSyncInventory(type, null, ids);
       for (JournalFile jf : journalFiles) {
          if (!started)
             return;
@@ -708,6 +761,14 @@ public class JournalStorageManager extends AbstractJournalStorageManager {
    }
 
    private void sendLargeMessageFiles(final Map<Long, Pair<String, Long>> pendingLargeMessages) throws Exception {
+      if (replicator != null) {
+         long[] ids = new long[pendingLargeMessages.size()];
+         int i = 0;
+         for (Long id : pendingLargeMessages.keySet()) {
+            ids[i++] = id;
+         }
+         replicator.prepareSyncInventory(null, null, ids);
+      }
       Iterator<Map.Entry<Long, Pair<String, Long>>> iter = pendingLargeMessages.entrySet().iterator();
       while (started && iter.hasNext()) {
          Map.Entry<Long, Pair<String, Long>> entry = iter.next();
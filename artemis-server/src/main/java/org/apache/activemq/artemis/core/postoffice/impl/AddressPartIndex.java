@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.postoffice.impl;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.config.WildcardConfiguration;
+import org.apache.activemq.artemis.core.postoffice.Address;
+
+/**
+ * A segment trie (word tree) of {@link Address}es keyed on their {@link Address#getAddressParts() parts}.
+ * <p>
+ * It is used by the {@link WildcardAddressManager} to find the candidates a new address has to be linked to
+ * with a cost proportional to the depth of the address instead of the number of known addresses.
+ * Candidates returned by the lookups are a superset of the real matches: callers are still expected
+ * to confirm them with {@link Address#matches(Address)}.
+ * <p>
+ * Lookups are lock-free and can run concurrently with updates, but updates must be serialized by the caller.
+ */
+public class AddressPartIndex {
+
+   private final SimpleString singleWord;
+
+   private final SimpleString anyWords;
+
+   private final Node root = new Node(null, null);
+
+   public AddressPartIndex(final WildcardConfiguration wildcardConfiguration) {
+      this.singleWord = new SimpleString(wildcardConfiguration.getSingleWordString());
+      this.anyWords = new SimpleString(wildcardConfiguration.getAnyWordsString());
+   }
+
+   public void put(final Address address) {
+      Node node = root;
+      for (SimpleString part : address.getAddressParts()) {
+         node = node.getOrCreateChild(part);
+      }
+      node.address = address;
+   }
+
+   public void remove(final Address address) {
+      Node node = root;
+      for (SimpleString part : address.getAddressParts()) {
+         node = node.children.get(part);
+         if (node == null) {
+            return;
+         }
+      }
+      if (node.address == null || !node.address.getAddress().equals(address.getAddress())) {
+         return;
+      }
+      node.address = null;
+      // prune the branches that do not lead to any address anymore
+      while (node.parent != null && node.address == null && node.children.isEmpty()) {
+         node.parent.children.remove(node.part, node);
+         node = node.parent;
+      }
+   }
+
+   public boolean isEmpty() {
+      return root.children.isEmpty() && root.address == null;
+   }
+
+   public void clear() {
+      root.children.clear();
+      root.address = null;
+   }
+
+   /**
+    * Collects the wildcard addresses stored in this index that could match the given (non wildcard) address.
+    */
+   public void collectWildcardsMatching(final Address address, final Collection<Address> result) {
+      collectWildcardsMatching(root, address.getAddressParts(), 0, result);
+   }
+
+   /**
+    * Collects the (non wildcard) addresses stored in this index that could be matched by the given wildcard address.
+    */
+   public void collectMatchedBy(final Address wildcardAddress, final Collection<Address> result) {
+      collectMatchedBy(root, wildcardAddress.getAddressParts(), 0, result);
+   }
+
+   private void collectWildcardsMatching(final Node node,
+                                         final SimpleString[] parts,
+                                         final int index,
+                                         final Collection<Address> result) {
+      final Node anyWordsChild = node.children.get(anyWords);
+      if (index == parts.length) {
+         final Address address = node.address;
+         if (address != null) {
+            result.add(address);
+         }
+         if (anyWordsChild != null) {
+            // the any-words wildcard matches zero words too
+            collectWildcardsMatching(anyWordsChild, parts, index, result);
+         }
+         return;
+      }
+      final Node literalChild = node.children.get(parts[index]);
+      if (literalChild != null) {
+         collectWildcardsMatching(literalChild, parts, index + 1, result);
+      }
+      final Node singleWordChild = node.children.get(singleWord);
+      if (singleWordChild != null && singleWordChild != literalChild) {
+         collectWildcardsMatching(singleWordChild, parts, index + 1, result);
+      }
+      if (anyWordsChild != null && anyWordsChild != literalChild) {
+         for (int i = index; i <= parts.length; i++) {
+            collectWildcardsMatching(anyWordsChild, parts, i, result);
+         }
+      }
+   }
+
+   private void collectMatchedBy(final Node node,
+                                 final SimpleString[] parts,
+                                 final int index,
+                                 final Collection<Address> result) {
+      if (index == parts.length) {
+         final Address address = node.address;
+         if (address != null) {
+            result.add(address);
+         }
+         return;
+      }
+      final SimpleString part = parts[index];
+      if (part.equals(singleWord)) {
+         for (Node child : node.children.values()) {
+            collectMatchedBy(child, parts, index + 1, result);
+         }
+      } else if (part.equals(anyWords)) {
+         // zero words
+         collectMatchedBy(node, parts, index + 1, result);
+         // one or more words
+         for (Node child : node.children.values()) {
+            collectMatchedBy(child, parts, index, result);
+         }
+      } else {
+         final Node child = node.children.get(part);
+         if (child != null) {
+            collectMatchedBy(child, parts, index + 1, result);
+         }
+      }
+   }
+
+   private static final class Node {
+
+      private final Node parent;
+
+      private final SimpleString part;
+
+      private final Map<SimpleString, Node> children = new ConcurrentHashMap<>();
+
+      private volatile Address address;
+
+      private Node(final Node parent, final SimpleString part) {
+         this.parent = parent;
+         this.part = part;
+      }
+
+      private Node getOrCreateChild(final SimpleString part) {
+         return children.computeIfAbsent(part, p -> new Node(this, p));
+      }
+   }
+}
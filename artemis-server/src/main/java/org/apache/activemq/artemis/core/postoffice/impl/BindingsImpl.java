@@ -68,6 +68,13 @@ public final class BindingsImpl implements Bindings {
 
    private final Set<Binding> exclusiveBindings = new CopyOnWriteArraySet<>();
 
+   /**
+    * Used by {@link #simpleRouting} to skip the routing names whose filters can't match a message.
+    */
+   private final RoutingFilterIndex filterIndex = new RoutingFilterIndex();
+
+   private boolean filterIndexEnabled = true;
+
    private volatile MessageLoadBalancingType messageLoadBalancingType = MessageLoadBalancingType.OFF;
 
    private final GroupingHandler groupingHandler;
@@ -138,6 +145,8 @@ public final class BindingsImpl implements Bindings {
             if (!bindings.contains(binding)) {
                bindings.add(binding);
             }
+
+            updateFilterIndex(routingName);
          }
 
          bindingsIdMap.put(binding.getID(), binding);
@@ -154,6 +163,10 @@ public final class BindingsImpl implements Bindings {
 
    @Override
    public void updated(QueueBinding binding) {
+      if (!binding.isExclusive()) {
+         // the filter may have changed
+         updateFilterIndex(binding.getRoutingName());
+      }
       updated();
    }
 
@@ -161,6 +174,39 @@ public final class BindingsImpl implements Bindings {
       version.set(sequenceVersion.incrementAndGet());
    }
 
+   private void updateFilterIndex(final SimpleString routingName) {
+      synchronized (filterIndex) {
+         if (filterIndexEnabled) {
+            filterIndex.update(routingName, routingNameBindingMap.get(routingName));
+         }
+      }
+   }
+
+   /**
+    * Enables or disables the {@link RoutingFilterIndex}, when disabled every filter is evaluated on routing.
+    */
+   public void setFilterIndexEnabled(final boolean enabled) {
+      synchronized (filterIndex) {
+         if (filterIndexEnabled == enabled) {
+            return;
+         }
+         filterIndexEnabled = enabled;
+         for (SimpleString routingName : routingNameBindingMap.keySet()) {
+            if (enabled) {
+               filterIndex.update(routingName, routingNameBindingMap.get(routingName));
+            } else {
+               filterIndex.remove(routingName);
+            }
+         }
+      }
+   }
+
+   public boolean isFilterIndexEnabled() {
+      synchronized (filterIndex) {
+         return filterIndexEnabled;
+      }
+   }
+
    @Override
    public void removeBinding(final Binding binding) {
       try {
@@ -178,6 +224,8 @@ public final class BindingsImpl implements Bindings {
                   routingNameBindingMap.remove(routingName);
                }
             }
+
+            updateFilterIndex(routingName);
          }
 
          bindingsIdMap.remove(binding.getID());
@@ -358,6 +406,11 @@ public final class BindingsImpl implements Bindings {
          logger.trace("Routing message " + message + " on binding=" + this + " current context::" + context);
       }
 
+      if (filterIndex.hasIndexedRoutingNames()) {
+         indexedRouting(message, context, currentVersion);
+         return;
+      }
+
       for (Map.Entry<SimpleString, List<Binding>> entry : routingNameBindingMap.entrySet()) {
          SimpleString routingName = entry.getKey();
 
@@ -384,6 +437,40 @@ public final class BindingsImpl implements Bindings {
       }
    }
 
+   /**
+    * Same as the loop of {@link #simpleRouting}, restricted to the routing names whose filters may match
+    * according to the {@link RoutingFilterIndex}.
+    */
+   private void indexedRouting(Message message, RoutingContext context, int currentVersion) throws Exception {
+      // indexed routing names always have a filter
+      context.setReusable(false, currentVersion);
+
+      for (SimpleString routingName : filterIndex.getUnindexedRoutingNames()) {
+         routeCandidate(message, context, routingName);
+      }
+
+      List<SimpleString> candidates = filterIndex.collectCandidates(message);
+
+      for (int i = 0, size = candidates.size(); i < size; i++) {
+         routeCandidate(message, context, candidates.get(i));
+      }
+   }
+
+   private void routeCandidate(Message message, RoutingContext context, SimpleString routingName) throws Exception {
+      List<Binding> bindings = routingNameBindingMap.get(routingName);
+
+      if (bindings == null) {
+         // concurrently removed
+         return;
+      }
+
+      Binding theBinding = getNextBinding(message, routingName, bindings);
+
+      if (theBinding != null) {
+         theBinding.route(message, context);
+      }
+   }
+
    @Override
    public String toString() {
       return "BindingsImpl [name=" + name + "]";
@@ -1830,6 +1830,9 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
    public Bindings createBindings(final SimpleString address) {
       GroupingHandler groupingHandler = server.getGroupingHandler();
       BindingsImpl bindings = new BindingsImpl(CompositeAddress.extractAddressName(address), groupingHandler);
+      if (addressSettingsRepository != null) {
+         bindings.setFilterIndexEnabled(addressSettingsRepository.getMatch(bindings.getName().toString()).isIndexRoutingFilters());
+      }
       if (groupingHandler != null) {
          groupingHandler.addListener(bindings);
       }
@@ -0,0 +1,369 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.postoffice.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.apache.activemq.artemis.api.core.FilterConstants;
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.filter.impl.FilterImpl;
+import org.apache.activemq.artemis.core.postoffice.Binding;
+import org.apache.activemq.artemis.core.server.federation.address.FederatedAddress;
+import org.apache.activemq.artemis.selector.filter.BooleanExpression;
+import org.apache.activemq.artemis.selector.filter.ComparisonExpression;
+import org.apache.activemq.artemis.selector.filter.ConstantExpression;
+import org.apache.activemq.artemis.selector.filter.Expression;
+import org.apache.activemq.artemis.selector.filter.LogicExpression;
+import org.apache.activemq.artemis.selector.filter.PropertyExpression;
+import org.apache.activemq.artemis.selector.impl.SelectorParser;
+
+/**
+ * An index of the routing names of a {@link BindingsImpl} keyed on a predicate their filters require.
+ * <p>
+ * A filter is decomposed in the conjuncts of its top level {@code AND} chain and one of them is picked as the
+ * indexed predicate: an equality between a property and a string or integer literal, or else a range bound
+ * of a property against an integer literal. As the filter can't match when the predicate doesn't hold, only
+ * the routing names whose predicate can hold for the property values of a message are returned as
+ * candidates, with a hash lookup for the equalities and a sorted map lookup for the bounds.
+ * <p>
+ * The candidates are a superset of the real matches: callers are still expected to evaluate the filters.
+ * Routing names whose filters can't be decomposed are always candidates, see {@link #getUnindexedRoutingNames()}.
+ * <p>
+ * Lookups are lock-free and can run concurrently with updates, but updates must be serialized by the caller.
+ */
+public class RoutingFilterIndex {
+
+   private static final String CONVERT_STRING_EXPRESSIONS = "convert_string_expressions:";
+
+   private final Set<SimpleString> unindexed = ConcurrentHashMap.newKeySet();
+
+   private final Map<SimpleString, Predicate> indexed = new ConcurrentHashMap<>();
+
+   private final Map<SimpleString, PropertyIndex> properties = new ConcurrentHashMap<>();
+
+   /**
+    * (Re)indexes a routing name after its bindings have changed.
+    */
+   public void update(final SimpleString routingName, final List<Binding> bindings) {
+      if (bindings == null || bindings.isEmpty()) {
+         remove(routingName);
+         return;
+      }
+
+      Predicate predicate = predicateOf(bindings);
+      if (predicate == null ? unindexed.contains(routingName) : predicate.equals(indexed.get(routingName))) {
+         // unchanged: don't make the routing name disappear from concurrent lookups
+         return;
+      }
+
+      remove(routingName);
+      if (predicate == null) {
+         unindexed.add(routingName);
+      } else {
+         indexed.put(routingName, predicate);
+         properties.computeIfAbsent(predicate.property, PropertyIndex::new).add(routingName, predicate);
+      }
+   }
+
+   public void remove(final SimpleString routingName) {
+      unindexed.remove(routingName);
+
+      Predicate predicate = indexed.remove(routingName);
+      if (predicate != null) {
+         PropertyIndex propertyIndex = properties.get(predicate.property);
+         if (propertyIndex != null) {
+            propertyIndex.remove(routingName, predicate);
+            if (propertyIndex.isEmpty()) {
+               properties.remove(predicate.property, propertyIndex);
+            }
+         }
+      }
+   }
+
+   /**
+    * @return {@code true} if at least one routing name is indexed on a predicate, otherwise there is nothing
+    * to gain from {@link #collectCandidates(Message)}
+    */
+   public boolean hasIndexedRoutingNames() {
+      return !indexed.isEmpty();
+   }
+
+   /**
+    * @return the routing names whose filters can't be decomposed, always candidates: they're not part of the
+    * ones returned by {@link #collectCandidates(Message)}
+    */
+   public Set<SimpleString> getUnindexedRoutingNames() {
+      return unindexed;
+   }
+
+   /**
+    * Returns the indexed routing names whose filters may match {@code message}, each routing name at most once.
+    * A shared empty list is returned when no routing name can match, so that messages routed nowhere don't
+    * allocate.
+    */
+   public List<SimpleString> collectCandidates(final Message message) {
+      List<SimpleString> candidates = null;
+      for (PropertyIndex propertyIndex : properties.values()) {
+         candidates = propertyIndex.collectCandidates(message, candidates);
+      }
+      return candidates == null ? Collections.emptyList() : candidates;
+   }
+
+   private static Predicate predicateOf(final List<Binding> bindings) {
+      SimpleString filterString = null;
+      for (Binding binding : bindings) {
+         Filter filter = binding.getFilter();
+         if (!(filter instanceof FilterImpl) || filter.getFilterString() == null) {
+            return null;
+         }
+         if (filterString == null) {
+            filterString = filter.getFilterString();
+         } else if (!filterString.equals(filter.getFilterString())) {
+            return null;
+         }
+      }
+      return predicateOf(filterString.toString());
+   }
+
+   static Predicate predicateOf(final String filterString) {
+      if (filterString.contains(CONVERT_STRING_EXPRESSIONS)) {
+         // string/number conversions would make values of any type candidates
+         return null;
+      }
+
+      BooleanExpression expression;
+      try {
+         expression = SelectorParser.parse(filterString);
+      } catch (Exception e) {
+         return null;
+      }
+
+      return choosePredicate(expression);
+   }
+
+   private static Predicate choosePredicate(final Expression expression) {
+      if (expression instanceof LogicExpression && "AND".equals(((LogicExpression) expression).getExpressionSymbol())) {
+         Predicate left = choosePredicate(((LogicExpression) expression).getLeft());
+         Predicate right = choosePredicate(((LogicExpression) expression).getRight());
+         if (left == null) {
+            return right;
+         }
+         if (right == null) {
+            return left;
+         }
+         // equalities are more selective than bounds
+         return right.type == Predicate.EQUAL && left.type != Predicate.EQUAL ? right : left;
+      }
+
+      if (!(expression instanceof ComparisonExpression)) {
+         return null;
+      }
+
+      ComparisonExpression comparison = (ComparisonExpression) expression;
+      if (!(comparison.getLeft() instanceof PropertyExpression) || !(comparison.getRight() instanceof ConstantExpression)) {
+         return null;
+      }
+
+      SimpleString property = SimpleString.toSimpleString(((PropertyExpression) comparison.getLeft()).getName());
+      if (property.startsWith(FilterConstants.ACTIVEMQ_PREFIX) || property.startsWith(FederatedAddress.HDR_HOPS)) {
+         // header fields are resolved by the filter, not by the message properties
+         return null;
+      }
+
+      Object value = ((ConstantExpression) comparison.getRight()).getValue();
+      boolean integral = value instanceof Integer || value instanceof Long;
+      switch (comparison.getExpressionSymbol()) {
+         case "=":
+            if (value instanceof String) {
+               return new Predicate(property, Predicate.EQUAL, value);
+            } else if (integral) {
+               return new Predicate(property, Predicate.EQUAL, ((Number) value).longValue());
+            }
+            return null;
+         case ">":
+         case ">=":
+            return integral ? new Predicate(property, Predicate.LOWER_BOUND, ((Number) value).longValue()) : null;
+         case "<":
+         case "<=":
+            return integral ? new Predicate(property, Predicate.UPPER_BOUND, ((Number) value).longValue()) : null;
+         default:
+            return null;
+      }
+   }
+
+   static final class Predicate {
+
+      static final int EQUAL = 0;
+      static final int LOWER_BOUND = 1;
+      static final int UPPER_BOUND = 2;
+
+      final SimpleString property;
+
+      final int type;
+
+      /**
+       * A {@link String} or a {@link Long}, bounds are always {@link Long}s.
+       */
+      final Object key;
+
+      Predicate(final SimpleString property, final int type, final Object key) {
+         this.property = property;
+         this.type = type;
+         this.key = key;
+      }
+
+      boolean isNumeric() {
+         return key instanceof Long;
+      }
+
+      @Override
+      public boolean equals(final Object o) {
+         if (this == o) {
+            return true;
+         }
+         if (o == null || getClass() != o.getClass()) {
+            return false;
+         }
+         Predicate other = (Predicate) o;
+         return type == other.type && property.equals(other.property) && key.equals(other.key);
+      }
+
+      @Override
+      public int hashCode() {
+         return 31 * (31 * property.hashCode() + type) + key.hashCode();
+      }
+
+      @Override
+      public String toString() {
+         return "Predicate[property=" + property + ", type=" + type + ", key=" + key + "]";
+      }
+   }
+
+   /**
+    * The routing names indexed on one property.
+    */
+   private static final class PropertyIndex {
+
+      private final SimpleString property;
+
+      private final Map<String, Set<SimpleString>> stringEquals = new ConcurrentHashMap<>();
+
+      private final Map<Long, Set<SimpleString>> numericEquals = new ConcurrentHashMap<>();
+
+      private final ConcurrentNavigableMap<Long, Set<SimpleString>> lowerBounds = new ConcurrentSkipListMap<>();
+
+      private final ConcurrentNavigableMap<Long, Set<SimpleString>> upperBounds = new ConcurrentSkipListMap<>();
+
+      private final Set<SimpleString> numeric = ConcurrentHashMap.newKeySet();
+
+      private int size;
+
+      PropertyIndex(final SimpleString property) {
+         this.property = property;
+      }
+
+      void add(final SimpleString routingName, final Predicate predicate) {
+         bucket(predicate).computeIfAbsent(predicate.key, k -> ConcurrentHashMap.newKeySet()).add(routingName);
+         if (predicate.isNumeric()) {
+            numeric.add(routingName);
+         }
+         size++;
+      }
+
+      void remove(final SimpleString routingName, final Predicate predicate) {
+         Map<Object, Set<SimpleString>> bucket = bucket(predicate);
+         Set<SimpleString> names = bucket.get(predicate.key);
+         if (names != null) {
+            names.remove(routingName);
+            if (names.isEmpty()) {
+               bucket.remove(predicate.key, names);
+            }
+         }
+         numeric.remove(routingName);
+         size--;
+      }
+
+      boolean isEmpty() {
+         return size == 0;
+      }
+
+      @SuppressWarnings("unchecked")
+      private Map<Object, Set<SimpleString>> bucket(final Predicate predicate) {
+         switch (predicate.type) {
+            case Predicate.LOWER_BOUND:
+               return (Map) lowerBounds;
+            case Predicate.UPPER_BOUND:
+               return (Map) upperBounds;
+            default:
+               return predicate.isNumeric() ? (Map) numericEquals : (Map) stringEquals;
+         }
+      }
+
+      /**
+       * @return {@code candidates} with the routing names of this property that may match added,
+       * a new list if {@code candidates} is {@code null} and there is something to add
+       */
+      List<SimpleString> collectCandidates(final Message message, List<SimpleString> candidates) {
+         Object value = message.getObjectProperty(property);
+         if (value == null) {
+            // equalities are FALSE and comparisons are UNKNOWN on a missing property, none of them can match
+            return candidates;
+         }
+
+         if (value instanceof SimpleString || value instanceof String) {
+            // without string conversions a string never compares equal to a number
+            candidates = addAll(stringEquals.get(value.toString()), candidates);
+         } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            long longValue = ((Number) value).longValue();
+            candidates = addAll(numericEquals.get(longValue), candidates);
+            if (!lowerBounds.isEmpty()) {
+               for (Set<SimpleString> names : lowerBounds.headMap(longValue, true).values()) {
+                  candidates = addAll(names, candidates);
+               }
+            }
+            if (!upperBounds.isEmpty()) {
+               for (Set<SimpleString> names : upperBounds.tailMap(longValue, true).values()) {
+                  candidates = addAll(names, candidates);
+               }
+            }
+         } else {
+            // floating point values are promoted by the filter, any numeric predicate may hold
+            candidates = addAll(numeric, candidates);
+         }
+         return candidates;
+      }
+
+      private static List<SimpleString> addAll(final Set<SimpleString> names, List<SimpleString> candidates) {
+         if (names != null && !names.isEmpty()) {
+            if (candidates == null) {
+               candidates = new ArrayList<>(names.size());
+            }
+            candidates.addAll(names);
+         }
+         return candidates;
+      }
+   }
+}
@@ -29,6 +29,7 @@ import org.apache.activemq.artemis.core.server.metrics.MetricsManager;
 import org.apache.activemq.artemis.core.transaction.Transaction;
 
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -46,17 +47,29 @@ public class WildcardAddressManager extends SimpleAddressManager {
 
    private final Map<SimpleString, Address> wildCardAddresses = new ConcurrentHashMap<>();
 
+   /**
+    * Word trees over {@link #addresses} and {@link #wildCardAddresses}, used to find the addresses to link
+    * without scanning every known address.
+    */
+   private final AddressPartIndex addressIndex;
+
+   private final AddressPartIndex wildCardAddressIndex;
+
    public WildcardAddressManager(final BindingsFactory bindingsFactory,
                                  final WildcardConfiguration wildcardConfiguration,
                                  final StorageManager storageManager,
                                  final MetricsManager metricsManager) {
       super(bindingsFactory, wildcardConfiguration, storageManager, metricsManager);
+      this.addressIndex = new AddressPartIndex(this.wildcardConfiguration);
+      this.wildCardAddressIndex = new AddressPartIndex(this.wildcardConfiguration);
    }
 
    public WildcardAddressManager(final BindingsFactory bindingsFactory,
                                  final StorageManager storageManager,
                                  final MetricsManager metricsManager) {
       super(bindingsFactory, storageManager, metricsManager);
+      this.addressIndex = new AddressPartIndex(this.wildcardConfiguration);
+      this.wildCardAddressIndex = new AddressPartIndex(this.wildcardConfiguration);
    }
 
    @Override
@@ -166,10 +179,12 @@ public class WildcardAddressManager extends SimpleAddressManager {
    }
 
    @Override
-   public void clear() {
+   public synchronized void clear() {
       super.clear();
       addresses.clear();
       wildCardAddresses.clear();
+      addressIndex.clear();
+      wildCardAddressIndex.clear();
    }
 
    private Address getAddress(final SimpleString address) {
@@ -196,14 +211,14 @@ public class WildcardAddressManager extends SimpleAddressManager {
          addAddress(address, actualAddress);
       }
       if (actualAddress.containsWildCard()) {
-         for (Address destAdd : addresses.values()) {
+         for (Address destAdd : candidates(addressIndex, actualAddress)) {
             if (destAdd.matches(actualAddress)) {
                destAdd.addLinkedAddress(actualAddress);
                actualAddress.addLinkedAddress(destAdd);
             }
          }
       } else {
-         for (Address destAdd : wildCardAddresses.values()) {
+         for (Address destAdd : candidates(wildCardAddressIndex, actualAddress)) {
             if (actualAddress.matches(destAdd)) {
                destAdd.addLinkedAddress(actualAddress);
                actualAddress.addLinkedAddress(destAdd);
@@ -213,11 +228,23 @@ public class WildcardAddressManager extends SimpleAddressManager {
       return actualAddress;
    }
 
+   private static Collection<Address> candidates(final AddressPartIndex index, final Address address) {
+      final Collection<Address> candidates = new HashSet<>();
+      if (address.containsWildCard()) {
+         index.collectMatchedBy(address, candidates);
+      } else {
+         index.collectWildcardsMatching(address, candidates);
+      }
+      return candidates;
+   }
+
    private void addAddress(final SimpleString address, final Address actualAddress) {
       if (actualAddress.containsWildCard()) {
          wildCardAddresses.put(address, actualAddress);
+         wildCardAddressIndex.put(actualAddress);
       } else {
          addresses.put(address, actualAddress);
+         addressIndex.put(actualAddress);
       }
    }
 
@@ -239,9 +266,13 @@ public class WildcardAddressManager extends SimpleAddressManager {
 
    private void removeAddress(final Address add) {
       if (add.containsWildCard()) {
-         wildCardAddresses.remove(add.getAddress());
+         if (wildCardAddresses.remove(add.getAddress()) != null) {
+            wildCardAddressIndex.remove(add);
+         }
       } else {
-         addresses.remove(add.getAddress());
+         if (addresses.remove(add.getAddress()) != null) {
+            addressIndex.remove(add);
+         }
       }
    }
 }
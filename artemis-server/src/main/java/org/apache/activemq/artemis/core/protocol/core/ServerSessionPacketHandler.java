@@ -18,6 +18,7 @@ package org.apache.activemq.artemis.core.protocol.core;
 
 import javax.transaction.xa.XAResource;
 import javax.transaction.xa.Xid;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -70,6 +71,7 @@ import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReq
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendContinuationMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendLargeMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendMessageBatch;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionUniqueAddMetaDataMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionXAAfterFailedMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionXACommitMessage;
@@ -123,6 +125,7 @@ import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.SES
 import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.SESS_QUEUEQUERY;
 import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.SESS_ROLLBACK;
 import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.SESS_SEND;
+import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.SESS_SEND_BATCH;
 import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.SESS_SEND_CONTINUATION;
 import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.SESS_SEND_LARGE;
 import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.SESS_START;
@@ -270,6 +273,10 @@ public class ServerSessionPacketHandler implements ChannelHandler {
             onSessionSend(packet);
             break;
          }
+         case SESS_SEND_BATCH: {
+            onSessionSendBatch(packet);
+            break;
+         }
          case SESS_ACKNOWLEDGE: {
             onSessionAcknowledge(packet);
             break;
@@ -727,6 +734,39 @@ public class ServerSessionPacketHandler implements ChannelHandler {
       }
    }
 
+   private void onSessionSendBatch(Packet packet) {
+      this.storageManager.setContext(session.getSessionContext());
+      try {
+         Packet response = null;
+         boolean requiresResponse = false;
+         try {
+            final SessionSendMessageBatch batch = (SessionSendMessageBatch) packet;
+            requiresResponse = batch.isRequiresResponse();
+            final List<Message> messages = new ArrayList<>(batch.getMessages().size());
+            for (ICoreMessage message : batch.getMessages()) {
+               messages.add(EmbedMessageUtil.extractEmbedded(message, storageManager));
+            }
+            this.session.sendBatch(messages, this.direct);
+            if (requiresResponse) {
+               response = createNullResponseMessage(packet);
+            }
+         } catch (ActiveMQIOErrorException e) {
+            response = onActiveMQIOErrorExceptionWhileHandlePacket(packet, e, requiresResponse, response, this.session);
+         } catch (ActiveMQXAException e) {
+            response = onActiveMQXAExceptionWhileHandlePacket(packet, e, requiresResponse, response);
+         } catch (ActiveMQQueueMaxConsumerLimitReached e) {
+            response = onActiveMQQueueMaxConsumerLimitReachedWhileHandlePacket(packet, e, requiresResponse, response);
+         } catch (ActiveMQException e) {
+            response = onActiveMQExceptionWhileHandlePacket(packet, e, requiresResponse, response);
+         } catch (Throwable t) {
+            response = onCatchThrowableWhileHandlePacket(packet, t, requiresResponse, response, this.session);
+         }
+         sendResponse(packet, response, false, false);
+      } finally {
+         this.storageManager.clearContext();
+      }
+   }
+
    private void onSessionRequestProducerCredits(Packet packet) {
       this.storageManager.setContext(session.getSessionContext());
       try {
@@ -16,6 +16,10 @@
  */
 package org.apache.activemq.artemis.core.protocol.core.impl;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.activemq.artemis.api.core.ICoreMessage;
 import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.persistence.CoreMessageObjectPools;
@@ -28,6 +32,7 @@ import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionPro
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveContinuationMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveLargeMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveMessageBatch;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveMessage_1X;
 import org.apache.activemq.artemis.core.server.ActiveMQServerLogger;
 import org.apache.activemq.artemis.core.server.MessageReference;
@@ -132,6 +137,31 @@ public final class CoreSessionCallback implements SessionCallback {
       return size;
    }
 
+   @Override
+   public boolean supportsBatchedDelivery() {
+      return channel.getConnection().isVersionSupportBatchedDelivery();
+   }
+
+   @Override
+   public int sendMessages(List<MessageReference> refs, List<Message> messages, ServerConsumer consumer) {
+      List<ICoreMessage> coreMessages = new ArrayList<>(messages.size());
+      int[] deliveryCounts = new int[messages.size()];
+      for (int i = 0; i < messages.size(); i++) {
+         coreMessages.add(messages.get(i).toCore(coreMessageObjectPools));
+         deliveryCounts[i] = refs.get(i).getDeliveryCount();
+      }
+
+      Packet packet = new SessionReceiveMessageBatch(consumer.getID(), coreMessages, deliveryCounts);
+
+      int size = 0;
+
+      if (channel.sendBatched(packet)) {
+         size = packet.getPacketSize();
+      }
+
+      return size;
+   }
+
    @Override
    public void sendProducerCreditsMessage(int credits, SimpleString address) {
       Packet packet = new SessionProducerCreditsMessage(credits, address);
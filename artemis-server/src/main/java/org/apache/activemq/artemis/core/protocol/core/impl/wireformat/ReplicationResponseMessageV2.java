@@ -24,6 +24,8 @@ public final class ReplicationResponseMessageV2 extends ReplicationResponseMessa
 
    boolean synchronizationIsFinishedAcknowledgement = false;
 
+   private boolean deltaSync;
+
    public ReplicationResponseMessageV2(final boolean synchronizationIsFinishedAcknowledgement) {
       super(REPLICATION_RESPONSE_V2);
 
@@ -43,28 +45,48 @@ public final class ReplicationResponseMessageV2 extends ReplicationResponseMessa
       return this;
    }
 
+   /**
+    * @return whether the backup kept files of a previous synchronization the live can resume from, see
+    * {@link ReplicationSyncInventoryMessage}
+    */
+   public boolean isDeltaSync() {
+      return deltaSync;
+   }
+
+   public ReplicationResponseMessageV2 setDeltaSync(boolean deltaSync) {
+      this.deltaSync = deltaSync;
+      return this;
+   }
+
    @Override
    public int expectedEncodeSize() {
       return PACKET_HEADERS_SIZE +
-         DataConstants.SIZE_BOOLEAN; // buffer.writeBoolean(synchronizationIsFinishedAcknowledgement);
+         DataConstants.SIZE_BOOLEAN + // buffer.writeBoolean(synchronizationIsFinishedAcknowledgement);
+         DataConstants.SIZE_BOOLEAN; // buffer.writeBoolean(deltaSync);
    }
 
    @Override
    public void encodeRest(final ActiveMQBuffer buffer) {
       super.encodeRest(buffer);
       buffer.writeBoolean(synchronizationIsFinishedAcknowledgement);
+      buffer.writeBoolean(deltaSync);
    }
 
    @Override
    public void decodeRest(final ActiveMQBuffer buffer) {
       super.decodeRest(buffer);
       synchronizationIsFinishedAcknowledgement = buffer.readBoolean();
+      // older backups don't send it
+      if (buffer.readable()) {
+         deltaSync = buffer.readBoolean();
+      }
    }
 
    @Override
    public String toString() {
       StringBuffer buf = new StringBuffer(getParentString());
       buf.append(", synchronizationIsFinishedAcknowledgement=" + synchronizationIsFinishedAcknowledgement);
+      buf.append(", deltaSync=" + deltaSync);
       buf.append("]");
       return buf.toString();
    }
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.protocol.core.impl.wireformat;
+
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
+import org.apache.activemq.artemis.utils.DataConstants;
+
+/**
+ * A cumulative acknowledgement of replicated packets.
+ * <p>
+ * The sequence is the number of responses the backup has given so far: it acknowledges at once every packet the
+ * previous responses didn't. The backup only sends it to a live that announced it on
+ * {@link ReplicationStartSyncMessage#isBatchedResponses()}.
+ */
+public final class ReplicationResponseMessageV3 extends ReplicationResponseMessage {
+
+   private long sequence;
+
+   public ReplicationResponseMessageV3(final long sequence) {
+      super(PacketImpl.REPLICATION_RESPONSE_V3);
+
+      this.sequence = sequence;
+   }
+
+   public ReplicationResponseMessageV3() {
+      super(PacketImpl.REPLICATION_RESPONSE_V3);
+   }
+
+   public long getSequence() {
+      return sequence;
+   }
+
+   @Override
+   public int expectedEncodeSize() {
+      return PACKET_HEADERS_SIZE +
+         DataConstants.SIZE_LONG; // buffer.writeLong(sequence);
+   }
+
+   @Override
+   public void encodeRest(final ActiveMQBuffer buffer) {
+      super.encodeRest(buffer);
+      buffer.writeLong(sequence);
+   }
+
+   @Override
+   public void decodeRest(final ActiveMQBuffer buffer) {
+      super.decodeRest(buffer);
+      sequence = buffer.readLong();
+   }
+
+   @Override
+   public String toString() {
+      StringBuffer buf = new StringBuffer(getParentString());
+      buf.append(", sequence=" + sequence);
+      buf.append("]");
+      return buf.toString();
+   }
+}
@@ -39,6 +39,8 @@ public class ReplicationStartSyncMessage extends PacketImpl {
    private boolean synchronizationIsFinished;
    private String nodeID;
    private boolean allowsAutoFailBack;
+   private boolean batchedResponses;
+   private boolean deltaSync;
 
    public enum SyncDataType {
       JournalBindings(AbstractJournalStorageManager.JournalContent.BINDINGS.typeByte),
@@ -90,9 +92,20 @@ public class ReplicationStartSyncMessage extends PacketImpl {
                                       AbstractJournalStorageManager.JournalContent contentType,
                                       String nodeID,
                                       boolean allowsAutoFailBack) {
+      this(datafiles, contentType, nodeID, allowsAutoFailBack, false, false);
+   }
+
+   public ReplicationStartSyncMessage(JournalFile[] datafiles,
+                                      AbstractJournalStorageManager.JournalContent contentType,
+                                      String nodeID,
+                                      boolean allowsAutoFailBack,
+                                      boolean batchedResponses,
+                                      boolean deltaSync) {
       this();
       this.nodeID = nodeID;
       this.allowsAutoFailBack = allowsAutoFailBack;
+      this.batchedResponses = batchedResponses;
+      this.deltaSync = deltaSync;
       synchronizationIsFinished = false;
       ids = new long[datafiles.length];
       for (int i = 0; i < datafiles.length; i++) {
@@ -124,7 +137,9 @@ public class ReplicationStartSyncMessage extends PacketImpl {
       }
       size += DataConstants.SIZE_BYTE + // buffer.writeByte(dataType.code);
               DataConstants.SIZE_INT +  // buffer.writeInt(ids.length);
-              DataConstants.SIZE_LONG * ids.length; // the write loop
+              DataConstants.SIZE_LONG * ids.length + // the write loop
+              DataConstants.SIZE_BOOLEAN + // buffer.writeBoolean(batchedResponses);
+              DataConstants.SIZE_BOOLEAN; // buffer.writeBoolean(deltaSync);
 
       return size;
    }
@@ -142,6 +157,8 @@ public class ReplicationStartSyncMessage extends PacketImpl {
       for (long id : ids) {
          buffer.writeLong(id);
       }
+      buffer.writeBoolean(batchedResponses);
+      buffer.writeBoolean(deltaSync);
    }
 
    @Override
@@ -158,6 +175,13 @@ public class ReplicationStartSyncMessage extends PacketImpl {
       for (int i = 0; i < length; i++) {
          ids[i] = buffer.readLong();
       }
+      // older lives don't send it
+      if (buffer.readable()) {
+         batchedResponses = buffer.readBoolean();
+      }
+      if (buffer.readable()) {
+         deltaSync = buffer.readBoolean();
+      }
    }
 
    /**
@@ -175,6 +199,21 @@ public class ReplicationStartSyncMessage extends PacketImpl {
       return synchronizationIsFinished;
    }
 
+   /**
+    * @return whether the live accepts cumulative acknowledgements, see {@link ReplicationResponseMessageV3}
+    */
+   public boolean isBatchedResponses() {
+      return batchedResponses;
+   }
+
+   /**
+    * @return whether the live can resume the synchronization from the files the backup kept of a previous one, see
+    * {@link ReplicationSyncInventoryMessage}
+    */
+   public boolean isDeltaSync() {
+      return deltaSync;
+   }
+
    public SyncDataType getDataType() {
       return dataType;
    }
@@ -192,6 +231,8 @@ public class ReplicationStartSyncMessage extends PacketImpl {
       final int prime = 31;
       int result = super.hashCode();
       result = prime * result + (allowsAutoFailBack ? 1231 : 1237);
+      result = prime * result + (batchedResponses ? 1231 : 1237);
+      result = prime * result + (deltaSync ? 1231 : 1237);
       result = prime * result + ((dataType == null) ? 0 : dataType.hashCode());
       result = prime * result + Arrays.hashCode(ids);
       result = prime * result + ((nodeID == null) ? 0 : nodeID.hashCode());
@@ -210,6 +251,10 @@ public class ReplicationStartSyncMessage extends PacketImpl {
       ReplicationStartSyncMessage other = (ReplicationStartSyncMessage) obj;
       if (allowsAutoFailBack != other.allowsAutoFailBack)
          return false;
+      if (batchedResponses != other.batchedResponses)
+         return false;
+      if (deltaSync != other.deltaSync)
+         return false;
       if (dataType != other.dataType)
          return false;
       if (!Arrays.equals(ids, other.ids))
@@ -232,6 +277,8 @@ public class ReplicationStartSyncMessage extends PacketImpl {
       buf.append(", nodeID=" + nodeID);
       buf.append(", ids=" + Arrays.toString(ids));
       buf.append(", allowsAutoFailBack=" + allowsAutoFailBack);
+      buf.append(", batchedResponses=" + batchedResponses);
+      buf.append(", deltaSync=" + deltaSync);
       buf.append("]");
       return buf.toString();
    }
@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.protocol.core.impl.wireformat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.persistence.impl.journal.AbstractJournalStorageManager;
+import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationSyncFileMessage.FileType;
+import org.apache.activemq.artemis.utils.DataConstants;
+
+/**
+ * Lets the live resume a synchronization from the files a backup kept of a previous one.
+ * <p>
+ * The live {@link Operation#REQUEST requests} the inventory of a set of files it is about to send, and the backup
+ * answers with the {@link Operation#INVENTORY} of those it still has, with their sizes and checksums. For each file
+ * whose beginning is the same on both sides, the live tells the backup to {@link Operation#REUSE} it and only sends
+ * the rest of it with {@link ReplicationSyncFileMessage}s.
+ * <p>
+ * Files are identified as on {@link ReplicationSyncFileMessage}.
+ */
+public final class ReplicationSyncInventoryMessage extends PacketImpl {
+
+   public enum Operation {
+      REQUEST(0), INVENTORY(1), REUSE(2);
+
+      private final byte code;
+
+      Operation(int code) {
+         this.code = (byte) code;
+      }
+
+      public static Operation getOperation(byte code) {
+         for (Operation operation : values()) {
+            if (operation.code == code) {
+               return operation;
+            }
+         }
+         throw new IllegalArgumentException("invalid byte: " + code);
+      }
+   }
+
+   private static final long[] NONE = new long[0];
+
+   private Operation operation;
+   private FileType fileType;
+   private AbstractJournalStorageManager.JournalContent journalContent;
+   private SimpleString pageStore;
+   private long[] ids;
+   private long[] sizes;
+   private long[] checksums;
+
+   public ReplicationSyncInventoryMessage() {
+      super(REPLICATION_SYNC_INVENTORY);
+   }
+
+   /**
+    * @param content   the journal of the files, or {@code null} for large messages and pages
+    * @param pageStore the page store of the files, or {@code null} for journals and large messages
+    * @param sizes     {@code null} for a {@link Operation#REQUEST}
+    * @param checksums {@code null} for a {@link Operation#REQUEST} or a {@link Operation#REUSE}
+    */
+   public ReplicationSyncInventoryMessage(Operation operation,
+                                          AbstractJournalStorageManager.JournalContent content,
+                                          SimpleString pageStore,
+                                          long[] ids,
+                                          long[] sizes,
+                                          long[] checksums) {
+      this();
+      this.operation = operation;
+      this.journalContent = content;
+      this.pageStore = pageStore;
+      this.ids = ids;
+      this.sizes = sizes == null ? NONE : sizes;
+      this.checksums = checksums == null ? NONE : checksums;
+      if (content != null) {
+         fileType = FileType.JOURNAL;
+      } else if (pageStore != null) {
+         fileType = FileType.PAGE;
+      } else {
+         fileType = FileType.LARGE_MESSAGE;
+      }
+   }
+
+   /**
+    * The CRC32 of the first {@code length} bytes of a file, as compared by the live and the backup.
+    */
+   public static long checksum(FileChannel channel, long length) throws IOException {
+      CRC32 crc = new CRC32();
+      ByteBuffer buffer = ByteBuffer.allocate(32 * 1024);
+      long position = 0;
+      while (position < length) {
+         buffer.clear();
+         if (length - position < buffer.capacity()) {
+            buffer.limit((int) (length - position));
+         }
+         int read = channel.read(buffer, position);
+         if (read < 0) {
+            break;
+         }
+         buffer.flip();
+         crc.update(buffer);
+         position += read;
+      }
+      return crc.getValue();
+   }
+
+   @Override
+   public int expectedEncodeSize() {
+      int size = PACKET_HEADERS_SIZE +
+         DataConstants.SIZE_BYTE + // buffer.writeByte(operation.code);
+         DataConstants.SIZE_BYTE; // buffer.writeByte(fileType.getCode());
+      switch (fileType) {
+         case JOURNAL:
+            size += DataConstants.SIZE_BYTE; // buffer.writeByte(journalContent.typeByte);
+            break;
+         case PAGE:
+            size += SimpleString.sizeofString(pageStore);
+            break;
+         default:
+            // no-op
+      }
+      return size +
+         DataConstants.SIZE_INT * 3 + // the lengths of the arrays
+         DataConstants.SIZE_LONG * (ids.length + sizes.length + checksums.length);
+   }
+
+   @Override
+   public void encodeRest(final ActiveMQBuffer buffer) {
+      buffer.writeByte(operation.code);
+      buffer.writeByte(fileType.getCode());
+      switch (fileType) {
+         case JOURNAL:
+            buffer.writeByte(journalContent.typeByte);
+            break;
+         case PAGE:
+            buffer.writeSimpleString(pageStore);
+            break;
+         default:
+            // no-op
+      }
+      writeLongs(buffer, ids);
+      writeLongs(buffer, sizes);
+      writeLongs(buffer, checksums);
+   }
+
+   @Override
+   public void decodeRest(final ActiveMQBuffer buffer) {
+      operation = Operation.getOperation(buffer.readByte());
+      fileType = FileType.getFileType(buffer.readByte());
+      switch (fileType) {
+         case JOURNAL:
+            journalContent = AbstractJournalStorageManager.JournalContent.getType(buffer.readByte());
+            break;
+         case PAGE:
+            pageStore = buffer.readSimpleString();
+            break;
+         default:
+            // no-op
+      }
+      ids = readLongs(buffer);
+      sizes = readLongs(buffer);
+      checksums = readLongs(buffer);
+   }
+
+   private static void writeLongs(ActiveMQBuffer buffer, long[] values) {
+      buffer.writeInt(values.length);
+      for (long value : values) {
+         buffer.writeLong(value);
+      }
+   }
+
+   private static long[] readLongs(ActiveMQBuffer buffer) {
+      long[] values = new long[buffer.readInt()];
+      for (int i = 0; i < values.length; i++) {
+         values[i] = buffer.readLong();
+      }
+      return values;
+   }
+
+   public Operation getOperation() {
+      return operation;
+   }
+
+   public FileType getFileType() {
+      return fileType;
+   }
+
+   public AbstractJournalStorageManager.JournalContent getJournalContent() {
+      return journalContent;
+   }
+
+   public SimpleString getPageStore() {
+      return pageStore;
+   }
+
+   public long[] getIds() {
+      return ids;
+   }
+
+   public long[] getSizes() {
+      return sizes;
+   }
+
+   public long[] getChecksums() {
+      return checksums;
+   }
+
+   /**
+    * @return whether this message is about the same files as a {@link ReplicationSyncFileMessage} sent with the
+    * given journal content and page store
+    */
+   public boolean isSameFiles(AbstractJournalStorageManager.JournalContent content, SimpleString store) {
+      return journalContent == content && (pageStore == null ? store == null : pageStore.equals(store));
+   }
+
+   @Override
+   public String toString() {
+      StringBuffer buf = new StringBuffer(getParentString());
+      buf.append(", operation=" + operation);
+      buf.append(", fileType=" + fileType);
+      buf.append(", journalContent=" + journalContent);
+      buf.append(", pageStore=" + pageStore);
+      buf.append(", ids=" + Arrays.toString(ids));
+      buf.append(", sizes=" + Arrays.toString(sizes));
+      buf.append("]");
+      return buf.toString();
+   }
+}
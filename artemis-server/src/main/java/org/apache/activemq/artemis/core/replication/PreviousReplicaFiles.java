@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.replication;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.paging.impl.PagingStoreFactoryNIO;
+import org.apache.activemq.artemis.core.persistence.StorageManager.LargeMessageExtension;
+import org.apache.activemq.artemis.core.persistence.impl.journal.AbstractJournalStorageManager.JournalContent;
+import org.apache.activemq.artemis.core.server.files.FileMoveManager;
+import org.jboss.logging.Logger;
+
+/**
+ * The files of the last replica a backup moved away (see {@link FileMoveManager}) before synchronizing again with
+ * the live: the live may resume the synchronization from them instead of sending them again.
+ */
+final class PreviousReplicaFiles {
+
+   private static final Logger logger = Logger.getLogger(PreviousReplicaFiles.class);
+
+   private final File bindings;
+   private final File journal;
+   private final File paging;
+   private final File largeMessages;
+
+   // page store directories of the previous replica, by address
+   private Map<SimpleString, File> pageStores;
+
+   PreviousReplicaFiles(Configuration configuration) {
+      bindings = lastReplicaFolder(configuration.getBindingsLocation());
+      journal = lastReplicaFolder(configuration.getJournalLocation());
+      paging = lastReplicaFolder(configuration.getPagingLocation());
+      largeMessages = lastReplicaFolder(configuration.getLargeMessagesLocation());
+   }
+
+   private static File lastReplicaFolder(File location) {
+      FileMoveManager moveManager = new FileMoveManager(location);
+      if (moveManager.getNumberOfFolders() == 0) {
+         return null;
+      }
+      return moveManager.getFolder(moveManager.getMaxID());
+   }
+
+   boolean isEmpty() {
+      return bindings == null && journal == null && paging == null && largeMessages == null;
+   }
+
+   /**
+    * @return the file of the previous replica with the same name, or {@code null}
+    */
+   File getJournalFile(JournalContent content, String fileName) {
+      return existing(content == JournalContent.BINDINGS ? bindings : journal, fileName);
+   }
+
+   File getLargeMessageFile(long messageID) {
+      File file = existing(largeMessages, messageID + LargeMessageExtension.DURABLE.getExtension());
+      if (file == null) {
+         // the previous synchronization didn't complete
+         file = existing(largeMessages, messageID + LargeMessageExtension.SYNC.getExtension());
+      }
+      return file;
+   }
+
+   synchronized File getPageFile(SimpleString address, String fileName) {
+      if (pageStores == null) {
+         pageStores = loadPageStores();
+      }
+      return existing(pageStores.get(address), fileName);
+   }
+
+   private Map<SimpleString, File> loadPageStores() {
+      Map<SimpleString, File> stores = new HashMap<>();
+      File[] directories = paging == null ? null : paging.listFiles(File::isDirectory);
+      if (directories != null) {
+         for (File directory : directories) {
+            File addressFile = new File(directory, PagingStoreFactoryNIO.ADDRESS_FILE);
+            if (!addressFile.exists()) {
+               continue;
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(addressFile)))) {
+               String address = reader.readLine();
+               if (address != null) {
+                  stores.put(SimpleString.toSimpleString(address), directory);
+               }
+            } catch (IOException e) {
+               logger.debug("Ignoring the previous page store " + directory, e);
+            }
+         }
+      }
+      return stores;
+   }
+
+   private static File existing(File folder, String fileName) {
+      if (folder == null) {
+         return null;
+      }
+      File file = new File(folder, fileName);
+      return file.isFile() ? file : null;
+   }
+}
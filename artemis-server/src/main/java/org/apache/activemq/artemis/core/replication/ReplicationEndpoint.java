@@ -17,6 +17,7 @@
 package org.apache.activemq.artemis.core.replication;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -70,9 +71,11 @@ import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.Replicatio
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationPrepareMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationResponseMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationResponseMessageV2;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationResponseMessageV3;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationStartSyncMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationStartSyncMessage.SyncDataType;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationSyncFileMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationSyncInventoryMessage;
 import org.apache.activemq.artemis.core.replication.ReplicationManager.ADD_OPERATION_TYPE;
 import org.apache.activemq.artemis.core.server.ActiveMQComponent;
 import org.apache.activemq.artemis.core.server.ActiveMQMessageBundle;
@@ -117,6 +120,11 @@ public final class ReplicationEndpoint implements ChannelHandler, ActiveMQCompon
 
    private PagingManager pageManager;
 
+   /**
+    * What was kept of the previous synchronization, the live may resume from it.
+    */
+   private PreviousReplicaFiles previousReplica;
+
    private final ConcurrentMap<SimpleString, ConcurrentMap<Integer, Page>> pageIndex = new ConcurrentHashMap<>();
    private final ConcurrentMap<Long, ReplicatedLargeMessage> largeMessages = new ConcurrentHashMap<>();
 
@@ -130,6 +138,22 @@ public final class ReplicationEndpoint implements ChannelHandler, ActiveMQCompon
 
    private List<Interceptor> outgoingInterceptors = null;
 
+   /**
+    * Set once the live announces it accepts cumulative acknowledgements, see {@link ReplicationResponseMessageV3}.
+    */
+   private volatile boolean batchedResponses;
+
+   private final Object responseLock = new Object();
+
+   // responses given to the live so far, guarded by responseLock
+   private long responseSequence;
+
+   // the last responseSequence the live has been told about, guarded by responseLock
+   private long sentSequence;
+
+   // guarded by responseLock
+   private boolean responseFlushScheduled;
+
 
    // Constructors --------------------------------------------------
    public ReplicationEndpoint(final ActiveMQServerImpl server,
@@ -221,6 +245,8 @@ public final class ReplicationEndpoint implements ChannelHandler, ActiveMQCompon
             response = handleStartReplicationSynchronization((ReplicationStartSyncMessage) packet);
          } else if (type == PacketImpl.REPLICATION_SYNC_FILE) {
             handleReplicationSynchronization((ReplicationSyncFileMessage) packet);
+         } else if (type == PacketImpl.REPLICATION_SYNC_INVENTORY) {
+            response = handleSyncInventory((ReplicationSyncInventoryMessage) packet);
          } else if (type == PacketImpl.REPLICATION_SCHEDULED_FAILOVER) {
             handleLiveStopping((ReplicationLiveIsStoppingMessage) packet);
          } else if (type == PacketImpl.BACKUP_REGISTRATION_FAILED) {
@@ -243,12 +269,59 @@ public final class ReplicationEndpoint implements ChannelHandler, ActiveMQCompon
             logger.trace("Returning " + response);
          }
 
-         sendResponse(response);
+         respond(response);
       } else {
          logger.trace("Response is null, ignoring response");
       }
    }
 
+   /**
+    * Once the live accepts it, the plain responses are deferred to the executor and coalesced into a single
+    * cumulative one: a burst of packets handled before the executor gets to it is acknowledged at once.
+    * Any other response first sends the deferred ones, to keep them in order.
+    */
+   private void respond(PacketImpl response) {
+      final byte type = response.getType();
+      final Executor executor = this.executor;
+      if (batchedResponses && executor != null && type == PacketImpl.REPLICATION_RESPONSE) {
+         final boolean schedule;
+         synchronized (responseLock) {
+            responseSequence++;
+            schedule = !responseFlushScheduled;
+            responseFlushScheduled = true;
+         }
+         if (schedule) {
+            executor.execute(this::flushResponses);
+         }
+         return;
+      }
+      synchronized (responseLock) {
+         sendCumulativeResponse();
+         if (type == PacketImpl.REPLICATION_RESPONSE || type == PacketImpl.REPLICATION_RESPONSE_V2 || type == PacketImpl.REPLICATION_SYNC_INVENTORY) {
+            responseSequence++;
+            sentSequence = responseSequence;
+         }
+         sendResponse(response);
+      }
+   }
+
+   private void flushResponses() {
+      synchronized (responseLock) {
+         responseFlushScheduled = false;
+         if (started) {
+            sendCumulativeResponse();
+         }
+      }
+   }
+
+   // must hold responseLock
+   private void sendCumulativeResponse() {
+      if (sentSequence < responseSequence) {
+         sentSequence = responseSequence;
+         sendResponse(new ReplicationResponseMessageV3(responseSequence));
+      }
+   }
+
    protected void sendResponse(PacketImpl response) {
       channel.send(response);
    }
@@ -277,6 +350,15 @@ public final class ReplicationEndpoint implements ChannelHandler, ActiveMQCompon
    @Override
    public synchronized void start() throws Exception {
       Configuration config = server.getConfiguration();
+
+      // the endpoint is started again on every attempt to replicate a live: its responses start over
+      batchedResponses = false;
+      synchronized (responseLock) {
+         responseSequence = 0;
+         sentSequence = 0;
+         responseFlushScheduled = false;
+      }
+
       try {
          storageManager = server.getStorageManager();
          storageManager.start();
@@ -297,6 +379,8 @@ public final class ReplicationEndpoint implements ChannelHandler, ActiveMQCompon
 
          pageManager.start();
 
+         previousReplica = new PreviousReplicaFiles(config);
+
          started = true;
       } catch (Exception e) {
          if (server.isStarted())
@@ -363,6 +447,15 @@ public final class ReplicationEndpoint implements ChannelHandler, ActiveMQCompon
       return channel;
    }
 
+   /**
+    * For tests only
+    */
+   public long getResponseSequence() {
+      synchronized (responseLock) {
+         return responseSequence;
+      }
+   }
+
    public void setChannel(final Channel channel) {
       this.channel = channel;
 
@@ -503,6 +596,100 @@ public final class ReplicationEndpoint implements ChannelHandler, ActiveMQCompon
       channel1.writeDirect(ByteBuffer.wrap(data), false);
    }
 
+   /**
+    * Answers the live with the sizes and checksums of the files kept of the previous synchronization, or copies the
+    * beginning of those it told to reuse into the files being synchronized.
+    */
+   private PacketImpl handleSyncInventory(ReplicationSyncInventoryMessage msg) throws Exception {
+      final long[] ids = msg.getIds();
+      switch (msg.getOperation()) {
+         case REQUEST: {
+            long[] sizes = new long[ids.length];
+            long[] checksums = new long[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+               File previous = getPreviousFile(msg, ids[i]);
+               if (previous != null) {
+                  try (FileInputStream fis = new FileInputStream(previous); FileChannel channel = fis.getChannel()) {
+                     sizes[i] = channel.size();
+                     checksums[i] = ReplicationSyncInventoryMessage.checksum(channel, sizes[i]);
+                  }
+               }
+            }
+            return new ReplicationSyncInventoryMessage(ReplicationSyncInventoryMessage.Operation.INVENTORY, msg.getJournalContent(), msg.getPageStore(), ids, sizes, checksums);
+         }
+         case REUSE: {
+            final long[] sizes = msg.getSizes();
+            for (int i = 0; i < ids.length; i++) {
+               reusePreviousFile(msg, ids[i], sizes[i]);
+            }
+            return new ReplicationResponseMessage();
+         }
+         default:
+            throw ActiveMQMessageBundle.BUNDLE.replicationUnhandledDataType();
+      }
+   }
+
+   private File getPreviousFile(ReplicationSyncInventoryMessage msg, long id) throws Exception {
+      switch (msg.getFileType()) {
+         case JOURNAL: {
+            JournalSyncFile journalSyncFile = filesReservedForSync.get(msg.getJournalContent()).get(id);
+            return journalSyncFile == null ? null : previousReplica.getJournalFile(msg.getJournalContent(), journalSyncFile.file.getName());
+         }
+         case PAGE:
+            return previousReplica.getPageFile(msg.getPageStore(), getPage(msg.getPageStore(), (int) id).getFile().getFileName());
+         case LARGE_MESSAGE:
+            return previousReplica.getLargeMessageFile(id);
+         default:
+            throw ActiveMQMessageBundle.BUNDLE.replicationUnhandledFileType(msg.getFileType());
+      }
+   }
+
+   private void reusePreviousFile(ReplicationSyncInventoryMessage msg, long id, long size) throws Exception {
+      File previous = getPreviousFile(msg, id);
+      if (previous == null) {
+         throw new IOException("No previous replica of " + msg.getFileType() + " " + id + " to reuse");
+      }
+      if (logger.isDebugEnabled()) {
+         logger.debug("Reusing " + size + " bytes of " + previous);
+      }
+      try (FileInputStream fis = new FileInputStream(previous); FileChannel source = fis.getChannel()) {
+         if (msg.getFileType() == ReplicationSyncFileMessage.FileType.JOURNAL) {
+            FileChannel target = filesReservedForSync.get(msg.getJournalContent()).get(id).getChannel();
+            long position = 0;
+            while (position < size) {
+               position += source.transferTo(position, size - position, target);
+            }
+            return;
+         }
+         SequentialFile target;
+         if (msg.getFileType() == ReplicationSyncFileMessage.FileType.PAGE) {
+            target = getPage(msg.getPageStore(), (int) id).getFile();
+         } else {
+            ReplicatedLargeMessage largeMessage = lookupLargeMessage(id, false, false);
+            if (!(largeMessage instanceof LargeServerMessageInSync)) {
+               ActiveMQServerLogger.LOGGER.largeMessageIncompatible();
+               return;
+            }
+            target = ((LargeServerMessageInSync) largeMessage).getSyncFile();
+         }
+         if (!target.isOpen()) {
+            target.open();
+         }
+         long position = 0;
+         while (position < size) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(32 * 1024, size - position));
+            while (buffer.hasRemaining()) {
+               if (source.read(buffer, position + buffer.position()) < 0) {
+                  throw new IOException(previous + " is shorter than " + size + " bytes");
+               }
+            }
+            buffer.flip();
+            position += buffer.remaining();
+            target.writeDirect(buffer, false);
+         }
+      }
+   }
+
    /**
     * Reserves files (with the given fileID) in the specified journal, and places a
     * {@link FileWrapperJournal} in place to store messages while synchronization is going on.
@@ -550,8 +737,11 @@ public final class ReplicationEndpoint implements ChannelHandler, ActiveMQCompon
             FileWrapperJournal syncJournal = new FileWrapperJournal(journal);
             registerJournal(journalContent.typeByte, syncJournal);
 
+            batchedResponses = packet.isBatchedResponses();
+            replicationResponseMessage.setDeltaSync(packet.isDeltaSync() && !previousReplica.isEmpty());
+
             // We send a response now, to avoid a situation where we handle votes during the deactivation of the live during a failback.
-            sendResponse(replicationResponseMessage);
+            respond(replicationResponseMessage);
             replicationResponseMessage = null;
 
             // This needs to be done after the response is sent, to avoid voting shutting it down for any reason.
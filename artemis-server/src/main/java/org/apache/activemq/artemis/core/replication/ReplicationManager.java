@@ -20,19 +20,25 @@ import java.io.FileInputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.PooledByteBufAllocator;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.ActiveMQExceptionType;
+import org.apache.activemq.artemis.api.core.ActiveMQInterruptedException;
 import org.apache.activemq.artemis.api.core.ActiveMQReplicationTimeooutException;
 import org.apache.activemq.artemis.api.core.Pair;
 import org.apache.activemq.artemis.api.core.SimpleString;
@@ -67,8 +73,10 @@ import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.Replicatio
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationPageWriteMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationPrepareMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationResponseMessageV2;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationResponseMessageV3;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationStartSyncMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationSyncFileMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationSyncInventoryMessage;
 import org.apache.activemq.artemis.core.server.ActiveMQComponent;
 import org.apache.activemq.artemis.core.server.ActiveMQMessageBundle;
 import org.apache.activemq.artemis.core.server.ActiveMQServer;
@@ -124,6 +132,17 @@ public final class ReplicationManager implements ActiveMQComponent {
 
    private final Queue<OperationContext> pendingTokens = new ConcurrentLinkedQueue<>();
 
+   /**
+    * Number of responses received from the backup, each one completing a token of {@link #pendingTokens}.
+    * Only accessed by the {@link ResponseHandler}.
+    */
+   private long acknowledgedSequence;
+
+   /**
+    * Packets submitted to the {@link #replicationStream} and not yet written.
+    */
+   private final AtomicInteger queuedPackets = new AtomicInteger();
+
    private final ExecutorFactory ioExecutorFactory;
 
    private final Executor replicationStream;
@@ -140,6 +159,28 @@ public final class ReplicationManager implements ActiveMQComponent {
 
    private final ReusableLatch synchronizationIsFinishedAcknowledgement = new ReusableLatch(0);
 
+   /**
+    * Number of files whose inventory is requested at once, see {@link ReplicationSyncInventoryMessage}.
+    */
+   private static final int SYNC_INVENTORY_SIZE = 16;
+
+   /**
+    * Released by the backup's response to the first start of synchronization, telling whether it can resume from
+    * the files it kept of a previous one.
+    */
+   private final CountDownLatch deltaSyncNegotiated = new CountDownLatch(1);
+
+   private volatile boolean deltaSync;
+
+   private final BlockingQueue<ReplicationSyncInventoryMessage> syncInventories = new LinkedBlockingQueue<>();
+
+   // The files being synchronized whose inventory may be requested, and the last inventory received:
+   // only accessed by the thread synchronizing the backup
+   private AbstractJournalStorageManager.JournalContent syncContent;
+   private SimpleString syncPageStore;
+   private long[] syncIds;
+   private ReplicationSyncInventoryMessage syncInventory;
+
    /**
     * @param remotingConnection
     */
@@ -313,6 +354,9 @@ public final class ReplicationManager implements ActiveMQComponent {
 
       enabled = false;
 
+      // don't keep the synchronization waiting for a backup that's gone
+      deltaSyncNegotiated.countDown();
+
       if (clearTokens) {
          clearReplicationTokens();
       }
@@ -378,11 +422,18 @@ public final class ReplicationManager implements ActiveMQComponent {
          repliToken.replicationLineUp();
       }
 
+      queuedPackets.incrementAndGet();
       replicationStream.execute(() -> {
+         // the last packet of a burst flushes the ones written before it: they leave together
+         final boolean batch = queuedPackets.decrementAndGet() > 0;
          if (enabled) {
             pendingTokens.add(repliToken);
             flowControl(packet.expectedEncodeSize());
-            replicatingChannel.send(packet);
+            if (batch) {
+               replicatingChannel.sendBatched(packet);
+            } else {
+               replicatingChannel.send(packet);
+            }
          } else {
             packet.release();
             repliToken.replicationDone();
@@ -417,6 +468,7 @@ public final class ReplicationManager implements ActiveMQComponent {
     *                               packets were not sent with {@link #sendReplicatePacket(Packet)}.
     */
    private void replicated() {
+      acknowledgedSequence++;
       OperationContext ctx = pendingTokens.poll();
 
       if (ctx == null) {
@@ -426,6 +478,15 @@ public final class ReplicationManager implements ActiveMQComponent {
       ctx.replicationDone();
    }
 
+   /**
+    * Completes the tokens of every packet acknowledged by a cumulative response.
+    */
+   private void replicated(final long sequence) {
+      while (acknowledgedSequence < sequence) {
+         replicated();
+      }
+   }
+
    // Inner classes -------------------------------------------------
 
    private final class ReplicatedSessionFailureListener implements SessionFailureListener {
@@ -466,8 +527,16 @@ public final class ReplicationManager implements ActiveMQComponent {
                ReplicationResponseMessageV2 replicationResponseMessage = (ReplicationResponseMessageV2) packet;
                if (replicationResponseMessage.isSynchronizationIsFinishedAcknowledgement()) {
                   synchronizationIsFinishedAcknowledgement.countDown();
+               } else if (deltaSyncNegotiated.getCount() > 0) {
+                  deltaSync = replicationResponseMessage.isDeltaSync();
+                  deltaSyncNegotiated.countDown();
                }
             }
+         } else if (packet.getType() == PacketImpl.REPLICATION_RESPONSE_V3) {
+            replicated(((ReplicationResponseMessageV3) packet).getSequence());
+         } else if (packet.getType() == PacketImpl.REPLICATION_SYNC_INVENTORY) {
+            replicated();
+            syncInventories.offer((ReplicationSyncInventoryMessage) packet);
          }
       }
 
@@ -522,6 +591,93 @@ public final class ReplicationManager implements ActiveMQComponent {
          sendLargeFile(null, queueName, id, file, Long.MAX_VALUE);
    }
 
+   /**
+    * Announces the files about to be sent with {@link #syncJournalFile}, {@link #syncLargeMessageFile} or
+    * {@link #syncPages}: if the backup kept them from a previous synchronization, their inventory is requested
+    * (in chunks, as they get sent) so that only what the backup misses is sent.
+    *
+    * @param content   journal type or {@code null} for large-messages and pages
+    * @param pageStore page store name for pages, or {@code null} otherwise
+    * @param ids       the journal file ids, large message ids or page numbers, in the order they will be sent
+    */
+   public void prepareSyncInventory(AbstractJournalStorageManager.JournalContent content,
+                                    SimpleString pageStore,
+                                    long[] ids) throws ActiveMQException {
+      syncContent = content;
+      syncPageStore = pageStore;
+      syncIds = ids;
+      syncInventory = null;
+      if (!enabled) {
+         return;
+      }
+      try {
+         if (!deltaSyncNegotiated.await(initialReplicationSyncTimeout, TimeUnit.MILLISECONDS)) {
+            throw ActiveMQMessageBundle.BUNDLE.replicationSynchronizationTimeout(initialReplicationSyncTimeout);
+         }
+      } catch (InterruptedException e) {
+         throw new ActiveMQInterruptedException(e);
+      }
+   }
+
+   /**
+    * @return how many bytes at the beginning of the file the backup already has, {@code 0} if none
+    */
+   private long reusableBytes(AbstractJournalStorageManager.JournalContent content,
+                              SimpleString pageStore,
+                              long id,
+                              FileChannel channel,
+                              long maxBytesToSend) throws Exception {
+      if (!enabled || !deltaSync || syncIds == null || syncContent != content || !(syncPageStore == null ? pageStore == null : syncPageStore.equals(pageStore))) {
+         return 0;
+      }
+      int index = indexOf(syncInventory, id);
+      if (index < 0) {
+         requestSyncInventory(id);
+         index = indexOf(syncInventory, id);
+         if (index < 0) {
+            return 0;
+         }
+      }
+      long size = syncInventory.getSizes()[index];
+      if (size <= 0 || size > Math.min(channel.size(), maxBytesToSend)) {
+         return 0;
+      }
+      return ReplicationSyncInventoryMessage.checksum(channel, size) == syncInventory.getChecksums()[index] ? size : 0;
+   }
+
+   private static int indexOf(ReplicationSyncInventoryMessage inventory, long id) {
+      if (inventory != null) {
+         long[] ids = inventory.getIds();
+         for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+               return i;
+            }
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * Requests the inventory of the next chunk of {@link #syncIds}, starting with the given id.
+    */
+   private void requestSyncInventory(long id) throws Exception {
+      syncInventory = null;
+      int from = 0;
+      while (from < syncIds.length && syncIds[from] != id) {
+         from++;
+      }
+      if (from == syncIds.length) {
+         return;
+      }
+      long[] ids = Arrays.copyOfRange(syncIds, from, Math.min(syncIds.length, from + SYNC_INVENTORY_SIZE));
+      syncInventories.clear();
+      sendReplicatePacket(new ReplicationSyncInventoryMessage(ReplicationSyncInventoryMessage.Operation.REQUEST, syncContent, syncPageStore, ids, null, null));
+      syncInventory = syncInventories.poll(initialReplicationSyncTimeout, TimeUnit.MILLISECONDS);
+      if (syncInventory == null) {
+         throw ActiveMQMessageBundle.BUNDLE.replicationSynchronizationTimeout(initialReplicationSyncTimeout);
+      }
+   }
+
    private class FlushAction implements Runnable {
 
       ReusableLatch latch = new ReusableLatch(1);
@@ -570,6 +726,14 @@ public final class ReplicationManager implements ActiveMQComponent {
       try {
          try (FileInputStream fis = new FileInputStream(file.getJavaFile()); FileChannel channel = fis.getChannel()) {
 
+            final long reusable = reusableBytes(content, pageStore, id, channel, maxBytesToSend);
+            if (reusable > 0) {
+               logger.debug("the backup already has " + reusable + " bytes of " + file.getFileName());
+               sendReplicatePacket(new ReplicationSyncInventoryMessage(ReplicationSyncInventoryMessage.Operation.REUSE, content, pageStore, new long[]{id}, new long[]{reusable}, null));
+               channel.position(reusable);
+               maxBytesToSend -= reusable;
+            }
+
             // We can afford having a single buffer here for this entire loop
             // because sendReplicatePacket will encode the packet as a NettyBuffer
             // through ActiveMQBuffer class leaving this buffer free to be reused on the next copy
@@ -629,7 +793,7 @@ public final class ReplicationManager implements ActiveMQComponent {
                                     String nodeID,
                                     boolean allowsAutoFailBack) throws ActiveMQException {
       if (enabled)
-         sendReplicatePacket(new ReplicationStartSyncMessage(datafiles, contentType, nodeID, allowsAutoFailBack));
+         sendReplicatePacket(new ReplicationStartSyncMessage(datafiles, contentType, nodeID, allowsAutoFailBack, true, true));
    }
 
    /**
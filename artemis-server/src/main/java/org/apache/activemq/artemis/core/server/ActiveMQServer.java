@@ -52,6 +52,7 @@ import org.apache.activemq.artemis.core.server.group.GroupingHandler;
 import org.apache.activemq.artemis.core.server.impl.Activation;
 import org.apache.activemq.artemis.core.server.impl.AddressInfo;
 import org.apache.activemq.artemis.core.server.impl.ConnectorsService;
+import org.apache.activemq.artemis.core.server.impl.ScheduledDeliveryWheel;
 import org.apache.activemq.artemis.core.server.management.ManagementService;
 import org.apache.activemq.artemis.core.server.metrics.MetricsManager;
 import org.apache.activemq.artemis.core.server.plugin.ActiveMQServerFederationPlugin;
@@ -651,6 +652,13 @@ public interface ActiveMQServer extends ServiceComponent {
 
    ScheduledExecutorService getScheduledPool();
 
+   /**
+    * @return the timing wheel expiring the scheduled deliveries of all the queues, {@code null} if not started
+    */
+   default ScheduledDeliveryWheel getScheduledDeliveryWheel() {
+      return null;
+   }
+
    ExecutorFactory getExecutorFactory();
 
    ExecutorFactory getIOExecutorFactory();
@@ -443,6 +443,11 @@ public interface ActiveMQServerLogger extends BasicLogger {
    @Message(id = 221082, value = "Initializing metrics plugin {0} with properties: {1}", format = Message.Format.MESSAGE_FORMAT)
    void initializingMetricsPlugin(String clazz, String properties);
 
+   @LogMessage(level = Logger.Level.INFO)
+   @Message(id = 221083, value = "Loaded the journals in {0} milliseconds: {1} milliseconds loading the bindings, {2} milliseconds loading the messages into their queues and {3} milliseconds recovering duplicate ids, large messages and page counters",
+      format = Message.Format.MESSAGE_FORMAT)
+   void journalsLoaded(Long millis, Long bindingsMillis, Long messagesMillis, Long recoveryMillis);
+
    @LogMessage(level = Logger.Level.WARN)
    @Message(id = 222000, value = "ActiveMQServer is being finalized and has not been stopped. Please remember to stop the server before letting it go out of scope",
       format = Message.Format.MESSAGE_FORMAT)
@@ -1674,6 +1679,10 @@ public interface ActiveMQServerLogger extends BasicLogger {
       format = Message.Format.MESSAGE_FORMAT)
    void pageLookupError(int pageNr, int messageNr, int offset, int startNr);
 
+   @LogMessage(level = Logger.Level.WARN)
+   @Message(id = 222289, value = "Error on the periodic checkpoint of the message journal", format = Message.Format.MESSAGE_FORMAT)
+   void journalCheckpointFailed(@Cause Throwable e);
+
    @LogMessage(level = Logger.Level.ERROR)
    @Message(id = 224000, value = "Failure in initialisation", format = Message.Format.MESSAGE_FORMAT)
    void initializationError(@Cause Throwable e);
@@ -2073,4 +2082,8 @@ public interface ActiveMQServerLogger extends BasicLogger {
    @LogMessage(level = Logger.Level.ERROR)
    @Message(id = 224104, value = "Error starting the Acceptor {0} {1}", format = Message.Format.MESSAGE_FORMAT)
    void errorStartingAcceptor(String name, Object configuration);
+
+   @LogMessage(level = Logger.Level.INFO)
+   @Message(id = 224105, value = "Using BATCHED_NIO Journal", format = Message.Format.MESSAGE_FORMAT)
+   void journalUseBatchedNIO();
 }
@@ -62,6 +62,33 @@ public interface Consumer extends PriorityAware {
     */
    void proceedDeliver(MessageReference reference) throws Exception;
 
+   /**
+    * @return whether the consumer delivers several references at once on {@link #proceedDeliver(List)}
+    */
+   default boolean supportsBatchedDelivery() {
+      return false;
+   }
+
+   /**
+    * @return whether the consumer can take one more reference in the batch it is being handed, the references
+    * already in the batch taking {@code batchedSize} bytes of memory and not being delivered yet
+    */
+   default boolean hasCreditsForBatch(int batchedSize) {
+      return true;
+   }
+
+   /**
+    * This will proceed with the actual delivery of several references accepted by {@link #handle(MessageReference)},
+    * in their order.
+    *
+    * @throws Exception
+    */
+   default void proceedDeliver(List<MessageReference> references) throws Exception {
+      for (MessageReference reference : references) {
+         proceedDeliver(reference);
+      }
+   }
+
    Filter getFilter();
 
    /**
@@ -18,7 +18,7 @@ package org.apache.activemq.artemis.core.server;
 
 
 public enum JournalType {
-   NIO, ASYNCIO, MAPPED;
+   NIO, ASYNCIO, MAPPED, BATCHED_NIO;
 
    public static final String validValues;
 
@@ -36,11 +36,19 @@ public enum JournalType {
       validValues = stringBuffer.toString();
    }
 
+   /**
+    * @return {@code true} if the journal writes asynchronously, using the AIO buffer and max IO settings
+    */
+   public boolean isAsync() {
+      return this == ASYNCIO || this == BATCHED_NIO;
+   }
+
    public static JournalType getType(String type) {
       switch (type) {
          case "NIO": return NIO;
          case "ASYNCIO" : return ASYNCIO;
          case "MAPPED" : return MAPPED;
+         case "BATCHED_NIO" : return BATCHED_NIO;
          default: throw new IllegalStateException("Invalid JournalType:" + type + " valid Types: " + validValues);
       }
    }
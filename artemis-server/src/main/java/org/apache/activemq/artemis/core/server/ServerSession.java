@@ -354,6 +354,12 @@ public interface ServerSession extends SecurityAuth {
 
    RoutingStatus send(Message message, boolean direct) throws Exception;
 
+   /**
+    * Sends several messages in order: unless they are sent in the transaction of the session, the durable messages
+    * are stored in a single transaction, committed once all of them have been routed.
+    */
+   void sendBatch(List<? extends Message> messages, boolean direct) throws Exception;
+
    void forceConsumerDelivery(long consumerID, long sequence) throws Exception;
 
    void requestProducerCredits(SimpleString address, int credits) throws Exception;
@@ -79,9 +79,11 @@ import org.apache.activemq.artemis.core.io.IOCriticalErrorListener;
 import org.apache.activemq.artemis.core.io.SequentialFile;
 import org.apache.activemq.artemis.core.io.aio.AIOSequentialFileFactory;
 import org.apache.activemq.artemis.core.journal.JournalLoadInformation;
+import org.apache.activemq.artemis.core.journal.impl.JournalImpl;
 import org.apache.activemq.artemis.core.management.impl.ActiveMQServerControlImpl;
 import org.apache.activemq.artemis.core.paging.PagingManager;
 import org.apache.activemq.artemis.core.paging.PagingStoreFactory;
+import org.apache.activemq.artemis.core.paging.cursor.SharedPageCache;
 import org.apache.activemq.artemis.core.paging.impl.PagingManagerImpl;
 import org.apache.activemq.artemis.core.paging.impl.PagingStoreFactoryDatabase;
 import org.apache.activemq.artemis.core.paging.impl.PagingStoreFactoryNIO;
@@ -253,6 +255,8 @@ public class ActiveMQServerImpl implements ActiveMQServer {
 
    protected volatile ScheduledExecutorService scheduledPool;
 
+   private volatile ScheduledDeliveryWheel scheduledDeliveryWheel;
+
    protected volatile ExecutorFactory executorFactory;
 
    private volatile ExecutorService ioExecutorPool;
@@ -1191,6 +1195,7 @@ public class ActiveMQServerImpl implements ActiveMQServer {
          threadPool = null;
       if (!scheduledPoolSupplied)
          scheduledPool = null;
+      scheduledDeliveryWheel = null;
 
       if (securityStore != null) {
          try {
@@ -1431,6 +1436,11 @@ public class ActiveMQServerImpl implements ActiveMQServer {
       return scheduledPool;
    }
 
+   @Override
+   public ScheduledDeliveryWheel getScheduledDeliveryWheel() {
+      return scheduledDeliveryWheel;
+   }
+
    @Override
    public Configuration getConfiguration() {
       return configuration;
@@ -2649,7 +2659,7 @@ public class ActiveMQServerImpl implements ActiveMQServer {
 
    @Override
    public PagingManager createPagingManager() throws Exception {
-      return new PagingManagerImpl(getPagingStoreFactory(), addressSettingsRepository, configuration.getGlobalMaxSize(), configuration.getManagementAddress());
+      return new PagingManagerImpl(getPagingStoreFactory(), addressSettingsRepository, configuration.getGlobalMaxSize(), configuration.getManagementAddress(), configuration.getGlobalPageCacheSize());
    }
 
    protected PagingStoreFactory getPagingStoreFactory() throws Exception {
@@ -2772,6 +2782,8 @@ public class ActiveMQServerImpl implements ActiveMQServer {
             ActiveMQServerLogger.LOGGER.scheduledPoolWithNoRemoveOnCancelPolicy();
          }
       }
+
+      scheduledDeliveryWheel = new ScheduledDeliveryWheel(scheduledPool);
    }
 
    @Override
@@ -3031,6 +3043,25 @@ public class ActiveMQServerImpl implements ActiveMQServer {
             builder.register(BrokerMetricNames.TOTAL_CONNECTION_COUNT, this, metrics -> Double.valueOf(getTotalConnectionCount()), ActiveMQServerControl.TOTAL_CONNECTION_COUNT_DESCRIPTION);
             builder.register(BrokerMetricNames.ADDRESS_MEMORY_USAGE, this, metrics -> Double.valueOf(getPagingManager().getGlobalSize()), ActiveMQServerControl.ADDRESS_MEMORY_USAGE_DESCRIPTION);
             builder.register(BrokerMetricNames.DISK_STORE_USAGE, this, metrics -> Double.valueOf(calculateDiskStoreUsage()), ActiveMQServerControl.DISK_STORE_USAGE_DESCRIPTION);
+            ScheduledDeliveryWheel scheduledDeliveryWheel = this.scheduledDeliveryWheel;
+            if (scheduledDeliveryWheel != null) {
+               builder.register(BrokerMetricNames.SCHEDULED_DELIVERY_WHEEL_DEPTH, this, metrics -> Double.valueOf(scheduledDeliveryWheel.getDepth()), "Number of queue ticks holding scheduled messages waiting on the scheduled delivery wheel");
+               builder.register(BrokerMetricNames.SCHEDULED_DELIVERY_LAG, this, metrics -> Double.valueOf(scheduledDeliveryWheel.getLag()), "Delay in milliseconds of the last scheduled delivery expiry behind its tick");
+            }
+            SharedPageCache sharedPageCache = getPagingManager().getSharedPageCache();
+            if (sharedPageCache != null) {
+               builder.register(BrokerMetricNames.PAGE_CACHE_SIZE, this, metrics -> Double.valueOf(sharedPageCache.getSize()), "Memory used by the page caches of all addresses in bytes");
+               builder.register(BrokerMetricNames.PAGE_CACHE_HITS, this, metrics -> Double.valueOf(sharedPageCache.getHitCount()), "Number of pages found in the page caches");
+               builder.register(BrokerMetricNames.PAGE_CACHE_MISSES, this, metrics -> Double.valueOf(sharedPageCache.getMissCount()), "Number of pages read from disk as they weren't in the page caches");
+               builder.register(BrokerMetricNames.PAGE_CACHE_EVICTIONS, this, metrics -> Double.valueOf(sharedPageCache.getEvictionCount()), "Number of pages evicted from the page caches to honour global-page-cache-size");
+            }
+            StorageManager storageManager = this.storageManager;
+            if (storageManager instanceof JournalStorageManager && ((JournalStorageManager) storageManager).getOriginalMessageJournal() instanceof JournalImpl) {
+               JournalImpl messageJournal = (JournalImpl) ((JournalStorageManager) storageManager).getOriginalMessageJournal();
+               builder.register(BrokerMetricNames.JOURNAL_COMPACT_RECLAIMABLE_BYTES, this, metrics -> Double.valueOf(messageJournal.getReclaimableBytes()), "Bytes of the message journal data files a compaction would reclaim");
+               builder.register(BrokerMetricNames.JOURNAL_COMPACT_DURATION, this, metrics -> Double.valueOf(messageJournal.getLastCompactDuration()), "Duration in milliseconds of the last compaction of the message journal");
+               builder.register(BrokerMetricNames.JOURNAL_COMPACT_COUNT, this, metrics -> Double.valueOf(messageJournal.getCompactCount()), "Number of compactions of the message journal");
+            }
          });
       }
    }
@@ -3225,6 +3256,8 @@ public class ActiveMQServerImpl implements ActiveMQServer {
 
       List<AddressBindingInfo> addressBindingInfos = new ArrayList<>();
 
+      final long loadStart = System.nanoTime();
+
       journalInfo[0] = storageManager.loadBindingJournal(queueBindingInfos, groupingInfos, addressBindingInfos);
 
       recoverStoredConfigs();
@@ -3243,8 +3276,12 @@ public class ActiveMQServerImpl implements ActiveMQServer {
 
       List<PageCountPending> pendingNonTXPageCounter = new LinkedList<>();
 
+      final long bindingsLoaded = System.nanoTime();
+
       journalInfo[1] = storageManager.loadMessageJournal(postOffice, pagingManager, resourceManager, queueBindingInfosMap, duplicateIDMap, pendingLargeMessages, pendingNonTXPageCounter, journalLoader);
 
+      final long messagesLoaded = System.nanoTime();
+
       journalLoader.handleDuplicateIds(duplicateIDMap);
 
       for (Pair<Long, Long> msgToDelete : pendingLargeMessages) {
@@ -3266,6 +3303,10 @@ public class ActiveMQServerImpl implements ActiveMQServer {
 
       journalLoader.cleanUp();
 
+      final long loadEnd = System.nanoTime();
+      ActiveMQServerLogger.LOGGER.journalsLoaded(TimeUnit.NANOSECONDS.toMillis(loadEnd - loadStart), TimeUnit.NANOSECONDS.toMillis(bindingsLoaded - loadStart),
+                                                TimeUnit.NANOSECONDS.toMillis(messagesLoaded - bindingsLoaded), TimeUnit.NANOSECONDS.toMillis(loadEnd - messagesLoaded));
+
       return journalInfo;
    }
 
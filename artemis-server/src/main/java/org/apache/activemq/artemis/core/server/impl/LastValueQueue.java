@@ -211,6 +211,12 @@ public class LastValueQueue extends QueueImpl {
       return false;
    }
 
+   @Override
+   protected boolean supportsConsumerFilterIndex() {
+      // the references are held by a HolderReference, which isn't an intrusive element of the queue
+      return false;
+   }
+
    @Override
    public QueueConfiguration getQueueConfiguration() {
       return super.getQueueConfiguration().setLastValue(true);
@@ -20,6 +20,7 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -107,6 +108,7 @@ import org.apache.activemq.artemis.utils.ReferenceCounter;
 import org.apache.activemq.artemis.utils.ReusableLatch;
 import org.apache.activemq.artemis.utils.actors.ArtemisExecutor;
 import org.apache.activemq.artemis.utils.collections.ConcurrentHashSet;
+import org.apache.activemq.artemis.utils.collections.LinkedListImpl;
 import org.apache.activemq.artemis.utils.collections.LinkedListIterator;
 import org.apache.activemq.artemis.utils.collections.PriorityLinkedList;
 import org.apache.activemq.artemis.utils.collections.PriorityLinkedListImpl;
@@ -153,6 +155,11 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
    public static final int DEFAULT_FLUSH_LIMIT = 500;
 
+   /**
+    * The maximum number of references waiting for a consumer in each shard of a sharded queue
+    */
+   public static final int MAX_SHARD_REFERENCES = 500;
+
    private final long id;
 
    private final SimpleString name;
@@ -213,7 +220,7 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
    private AtomicLong messagesReplaced = new AtomicLong(0);
 
-   private boolean paused;
+   private volatile boolean paused;
 
    private long pauseStatusRecord = -1;
 
@@ -232,6 +239,33 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
    private final ReentrantLock depageLock = new ReentrantLock();
 
+   // not null if the queue-shards address setting splits the dispatching of this queue, see DeliveryShard
+   private final DeliveryShard[] shards;
+
+   // whether the references are currently dispatched by the shards
+   private boolean sharded = false;
+
+   // the shards still cancelling their references back since the queue stopped being sharded: until they're done
+   // the queue doesn't dispatch, or it could deliver the next references of a group before the ones in the shards
+   private int drainingShards = 0;
+
+   // the open browsers and the operations iterating the queue: they need all the references in the queue
+   private int shardingSuspensions = 0;
+
+   private int nextShard = 0;
+
+   // consumers with a filter can only be dispatched to by the queue itself
+   private int filteredConsumers = 0;
+
+   // whether the index-consumer-filters address setting keeps the candidates of the consumers with a filter
+   private final boolean indexConsumerFilters;
+
+   // the consumers with a filter, when indexConsumerFilters
+   private final List<ConsumerHolder<? extends Consumer>> indexedConsumers = new ArrayList<>();
+
+   // the maximum number of references handed over at once to a consumer supporting batched delivery
+   private volatile int deliveryBatchSize;
+
    private volatile boolean depagePending = false;
 
    private final StorageManager storageManager;
@@ -662,7 +696,11 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
       this.server = server;
 
-      scheduledDeliveryHandler = new ScheduledDeliveryHandlerImpl(scheduledExecutor, this);
+      if (scheduledExecutor != null && server != null && server.getScheduledDeliveryWheel() != null) {
+         scheduledDeliveryHandler = new ScheduledDeliveryHandlerImpl(this, server.getScheduledDeliveryWheel());
+      } else {
+         scheduledDeliveryHandler = new ScheduledDeliveryHandlerImpl(scheduledExecutor, this);
+      }
 
       if (addressSettingsRepository != null) {
          addressSettingsRepositoryListener = new AddressSettingsRepositoryListener();
@@ -680,6 +718,12 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
       this.executor = executor;
 
+      this.shards = createShards(addressSettingsRepository == null ? AddressSettings.DEFAULT_QUEUE_SHARDS : addressSettingsRepository.getMatch(address.toString()).getQueueShards(), server);
+
+      this.indexConsumerFilters = addressSettingsRepository != null && addressSettingsRepository.getMatch(address.toString()).isIndexConsumerFilters() && supportsConsumerFilterIndex();
+
+      this.deliveryBatchSize = addressSettingsRepository == null ? AddressSettings.DEFAULT_DELIVERY_BATCH_SIZE : addressSettingsRepository.getMatch(address.toString()).getDeliveryBatchSize();
+
       this.user = queueConfiguration.getUser();
 
       this.factory = factory;
@@ -1338,7 +1382,7 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
             }
 
             if (consumers.isEmpty()) {
-               this.supportsDirectDeliver = consumer.supportsDirectDelivery();
+               this.supportsDirectDeliver = shards == null && consumer.supportsDirectDelivery();
             } else {
                if (!consumer.supportsDirectDelivery()) {
                   this.supportsDirectDeliver = false;
@@ -1348,6 +1392,16 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
             cancelRedistributor();
             ConsumerHolder<Consumer> newConsumerHolder = new ConsumerHolder<>(consumer);
             if (consumers.add(newConsumerHolder)) {
+               if (consumer.getFilter() != null) {
+                  filteredConsumers++;
+                  if (indexConsumerFilters) {
+                     indexCandidates(newConsumerHolder);
+                     indexedConsumers.add(newConsumerHolder);
+                  }
+               }
+               if (shards != null) {
+                  addShardConsumer(newConsumerHolder);
+               }
                int currentConsumerCount = consumers.size();
                if (delayBeforeDispatch >= 0) {
                   dispatchStartTimeUpdater.compareAndSet(this,-1, delayBeforeDispatch + System.currentTimeMillis());
@@ -1361,12 +1415,16 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
             if (groupRebalance) {
                groups.removeAll();
+               resetShardGroups(null);
             }
 
             if (refCountForConsumers != null) {
                refCountForConsumers.increment();
             }
 
+            if (shards != null) {
+               checkSharded();
+            }
          }
       } finally {
          leaveCritical(CRITICAL_CONSUMER);
@@ -1397,6 +1455,14 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
                   if (holder.iter != null) {
                      holder.iter.close();
                   }
+                  if (holder.shard != null) {
+                     holder.shard.consumerCount--;
+                     holder.shard.removeConsumer(consumer);
+                  }
+                  if (consumer.getFilter() != null) {
+                     filteredConsumers--;
+                     indexedConsumers.remove(holder);
+                  }
                   consumers.remove(holder);
                   consumerRemoved = true;
                   break;
@@ -1424,6 +1490,9 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
                refCountForConsumers.decrement();
             }
 
+            if (shards != null) {
+               checkSharded();
+            }
          }
       } finally {
          leaveCritical(CRITICAL_CONSUMER);
@@ -1431,7 +1500,7 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
    }
 
    private boolean checkConsumerDirectDeliver() {
-      if (consumers.isEmpty()) {
+      if (consumers.isEmpty() || shards != null) {
          return false;
       }
       boolean supports = true;
@@ -1534,11 +1603,13 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
    @Override
    public synchronized void resetGroup(SimpleString groupId) {
       groups.remove(groupId);
+      resetShardGroups(groupId);
    }
 
    @Override
    public synchronized void resetAllGroups() {
       groups.removeAll();
+      resetShardGroups(null);
    }
 
    @Override
@@ -1570,6 +1641,7 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
    @Override
    public LinkedListIterator<MessageReference> iterator() {
+      drainShards(false);
       return new SynchronizedIterator(messageReferences.iterator());
    }
 
@@ -2354,7 +2426,8 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
                logger.debug("Scanning for expires on " + QueueImpl.this.getName());
             }
 
-            LinkedListIterator<MessageReference> iter = iterator();
+            // the shards expire their own references while delivering them, no need to drain them on every scan
+            LinkedListIterator<MessageReference> iter = new SynchronizedIterator(messageReferences.iterator());
 
             try {
                while (postOffice.isStarted() && iter.hasNext()) {
@@ -2659,6 +2732,8 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
          ActiveMQServerLogger.LOGGER.unableToPauseQueue(e);
       }
       paused = true;
+      // the references of the shards are paused in the queue
+      drainShards(false);
    }
 
    @Override
@@ -2736,7 +2811,11 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
    private synchronized void internalAddTail(final MessageReference ref) {
       refAdded(ref);
-      messageReferences.addTail(ref, getPriority(ref));
+      final int priority = getPriority(ref);
+      messageReferences.addTail(ref, priority);
+      if (!indexedConsumers.isEmpty()) {
+         indexReference(ref, priority, true);
+      }
       pendingMetrics.incrementMetrics(ref);
       enforceRing(false);
    }
@@ -2757,6 +2836,10 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
       messageReferences.addHead(ref, priority);
 
+      if (!indexedConsumers.isEmpty()) {
+         indexReference(ref, priority, false);
+      }
+
       ref.setInDelivery(false);
    }
 
@@ -2775,6 +2858,10 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       int priority = getPriority(ref);
 
       messageReferences.addSorted(ref, priority);
+
+      if (!indexedConsumers.isEmpty()) {
+         indexReference(ref, priority, false);
+      }
    }
 
    private int getPriority(MessageReference ref) {
@@ -2819,6 +2906,10 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
       doInternalPoll();
 
+      if (shards != null && deliverToShards()) {
+         return true;
+      }
+
       // Either the iterator is empty or the consumer is busy
       int noDelivery = 0;
 
@@ -2850,6 +2941,8 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
          Consumer handledconsumer = null;
 
+         List<MessageReference> batch = null;
+
          synchronized (this) {
 
             // Need to do these checks inside the synchronized
@@ -2875,14 +2968,18 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
             Consumer consumer = holder.consumer;
             Consumer groupConsumer = null;
 
-            if (holder.iter == null) {
-               holder.iter = messageReferences.iterator();
-            }
-
-            if (holder.iter.hasNext()) {
-               ref = holder.iter.next();
+            if (holder.candidates != null) {
+               ref = nextCandidate(holder);
             } else {
-               ref = null;
+               if (holder.iter == null) {
+                  holder.iter = messageReferences.iterator();
+               }
+
+               if (holder.iter.hasNext()) {
+                  ref = holder.iter.next();
+               } else {
+                  ref = null;
+               }
             }
             if (ref == null) {
                noDelivery++;
@@ -2916,29 +3013,29 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
                   // this is to avoid breaks on the loop when checking for any other factors.
                   noDelivery = 0;
 
+                  // removed before handling the group as it could wrap the reference
+                  if (!nonDestructive) {
+                     removeMessageReference(holder, ref);
+                  }
+
                   if (redistributor == null) {
                      ref = handleMessageGroup(ref, consumer, groupConsumer, groupID);
                   }
 
                   deliveriesInTransit.countUp();
 
-                  if (!nonDestructive) {
-                     removeMessageReference(holder, ref);
-                  }
                   ref.setInDelivery(true);
                   handledconsumer = consumer;
                   handled++;
                   consumers.reset();
-               } else if (status == HandleStatus.BUSY) {
-                  try {
-                     holder.iter.repeat();
-                  } catch (NoSuchElementException e) {
-                     // this could happen if there was an exception on the queue handling
-                     // and it returned BUSY because of that exception
-                     //
-                     // We will just log it as there's nothing else we can do now.
-                     logger.warn(e.getMessage(), e);
+
+                  final int batchSize = Math.min(deliveryBatchSize, MAX_DELIVERIES_IN_LOOP - handled + 1);
+                  if (batchSize > 1 && redistributor == null && groupID == null && (!exclusive || groupConsumer != null) && consumer.supportsBatchedDelivery()) {
+                     batch = handleBatch(holder, consumer, ref, batchSize);
+                     handled += batch.size() - 1;
                   }
+               } else if (status == HandleStatus.BUSY) {
+                  repeat(holder, ref);
 
                   noDelivery++;
                } else if (status == HandleStatus.NO_MATCH) {
@@ -2972,7 +3069,9 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
             }
          }
 
-         if (handledconsumer != null) {
+         if (batch != null) {
+            proceedDeliver(handledconsumer, batch);
+         } else if (handledconsumer != null) {
             proceedDeliver(handledconsumer, ref);
          }
       }
@@ -2980,11 +3079,352 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       return true;
    }
 
+   /**
+    * Hands over more references to a consumer that has just accepted {@code first}, for as long as it accepts them,
+    * so they are delivered together.
+    * The caller of this method requires synchronized on the queue.
+    */
+   private List<MessageReference> handleBatch(ConsumerHolder<? extends Consumer> holder,
+                                              Consumer consumer,
+                                              MessageReference first,
+                                              int batchSize) {
+      final List<MessageReference> batch = new ArrayList<>(batchSize);
+      batch.add(first);
+      int batchedSize = first.getMessageMemoryEstimate();
+      while (batch.size() < batchSize && consumer.hasCreditsForBatch(batchedSize)) {
+         final MessageReference ref;
+         if (holder.candidates != null) {
+            ref = nextCandidate(holder);
+         } else {
+            ref = holder.iter.hasNext() ? holder.iter.next() : null;
+         }
+         if (ref == null) {
+            break;
+         }
+         if (checkExpired(ref)) {
+            removeMessageReference(holder, ref);
+            continue;
+         }
+         if (extractGroupID(ref) != null) {
+            // the group decides the consumer
+            repeat(holder, ref);
+            break;
+         }
+
+         final HandleStatus status = handle(ref, consumer);
+         if (status == HandleStatus.HANDLED) {
+            if (!nonDestructive) {
+               removeMessageReference(holder, ref);
+            }
+            deliveriesInTransit.countUp();
+            ref.setInDelivery(true);
+            batch.add(ref);
+            batchedSize += ref.getMessageMemoryEstimate();
+         } else {
+            if (status == HandleStatus.BUSY) {
+               repeat(holder, ref);
+            }
+            break;
+         }
+      }
+      return batch;
+   }
+
+   /**
+    * Gives {@code ref} back to the consumer that has just been offered it.
+    * The caller of this method requires synchronized on the queue.
+    */
+   private void repeat(ConsumerHolder<? extends Consumer> holder, MessageReference ref) {
+      if (holder.candidates != null) {
+         holder.candidates.addHead(ref, getPriority(ref));
+      } else {
+         try {
+            holder.iter.repeat();
+         } catch (NoSuchElementException e) {
+            // this could happen if there was an exception on the queue handling
+            // and it returned BUSY because of that exception
+            //
+            // We will just log it as there's nothing else we can do now.
+            logger.warn(e.getMessage(), e);
+         }
+      }
+   }
+
+   private DeliveryShard[] createShards(int count, ActiveMQServer server) {
+      if (count <= 1 || server == null || server.getExecutorFactory() == null) {
+         return null;
+      }
+      final DeliveryShard[] shards = new DeliveryShard[count];
+      for (int i = 0; i < count; i++) {
+         shards[i] = new DeliveryShard(server.getExecutorFactory().getExecutor());
+      }
+      return shards;
+   }
+
+   /**
+    * The caller of this method requires synchronized on the queue.
+    */
+   private void addShardConsumer(ConsumerHolder<? extends Consumer> holder) {
+      DeliveryShard shard = shards[0];
+      for (DeliveryShard candidate : shards) {
+         if (candidate.consumerCount < shard.consumerCount) {
+            shard = candidate;
+         }
+      }
+      shard.consumerCount++;
+      holder.shard = shard;
+      shard.addConsumer(holder.consumer);
+   }
+
+   /**
+    * The caller of this method requires synchronized on the queue.
+    *
+    * @return whether the references can be dispatched by the shards: the ones waiting in the shards are cancelled
+    * back to the queue when it stops being sharded
+    */
+   private boolean checkSharded() {
+      // the shards don't know about the priorities of the consumers nor about the first message of a group
+      boolean sharded = redistributor == null && filteredConsumers == 0 && !exclusive && !nonDestructive && !internalQueue &&
+         groupFirstKey == null && consumers.getPriorites().size() <= 1 && shardingSuspensions == 0 && !queueDestroyed &&
+         !isPaused();
+      for (DeliveryShard shard : shards) {
+         if (shard.consumerCount == 0) {
+            sharded = false;
+         }
+      }
+      if (this.sharded && !sharded) {
+         drainingShards += shards.length;
+         for (DeliveryShard shard : shards) {
+            shard.cancelReferences();
+         }
+      }
+      this.sharded = sharded;
+      return sharded;
+   }
+
+   /**
+    * The caller of this method requires synchronized on the queue.
+    *
+    * @param groupID the group to forget about, or {@code null} for all of them
+    */
+   private void resetShardGroups(SimpleString groupID) {
+      if (shards != null) {
+         for (DeliveryShard shard : shards) {
+            shard.resetGroups(groupID);
+         }
+      }
+   }
+
+   /**
+    * Gives the references of the shards back to the queue and waits for them: as long as the caller then holds the
+    * lock of the queue, all the references are in the queue. The lock of the queue is released while waiting, so this
+    * has to be called before anything else is done under it, and never by the executor of a shard.
+    *
+    * @param suspend whether the shards are suspended until {@link #resumeSharding()}
+    */
+   private void drainShards(boolean suspend) {
+      if (shards == null) {
+         return;
+      }
+      synchronized (this) {
+         shardingSuspensions++;
+         try {
+            checkSharded();
+            while (drainingShards > 0) {
+               wait();
+            }
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         } finally {
+            if (!suspend) {
+               shardingSuspensions--;
+            }
+         }
+      }
+   }
+
+   private void resumeSharding() {
+      if (shards == null) {
+         return;
+      }
+      synchronized (this) {
+         if (--shardingSuspensions == 0) {
+            deliverAsync();
+         }
+      }
+   }
+
+   /**
+    * Hands the references over to the shards, the ones of the same group always to the same shard.
+    *
+    * @return {@code false} if the queue isn't sharded and, with its shards drained, has to deliver the references itself
+    */
+   private boolean deliverToShards() {
+      int handed = 0;
+      boolean more = false;
+      synchronized (this) {
+         if (drainingShards > 0) {
+            // the queue dispatches again once the shards are drained
+            return true;
+         }
+
+         if (!checkSharded()) {
+            return drainingShards > 0;
+         }
+
+         if (isPaused() || !canDispatch()) {
+            return true;
+         }
+
+         try (LinkedListIterator<MessageReference> iter = messageReferences.iterator()) {
+            int scanned = 0;
+            while (iter.hasNext()) {
+               if (scanned++ == MAX_DELIVERIES_IN_LOOP) {
+                  more = true;
+                  break;
+               }
+               final MessageReference ref = iter.next();
+               if (checkExpired(ref)) {
+                  iter.remove();
+                  refRemoved(ref);
+                  continue;
+               }
+               final SimpleString groupID = extractGroupID(ref);
+               final DeliveryShard shard = groupID == null ? nextShard() : groupShard(groupID);
+               if (shard == null) {
+                  // every shard is full: they'll ask for more once they deliver
+                  break;
+               }
+               if (shard.isFull()) {
+                  continue;
+               }
+               iter.remove();
+               shard.add(ref);
+               handed++;
+            }
+         }
+      }
+
+      for (DeliveryShard shard : shards) {
+         shard.deliverAsync();
+      }
+
+      if (more && handed > 0) {
+         deliverAsync(true);
+      }
+
+      return true;
+   }
+
+   /**
+    * The shard of the consumer owning the group, if any, otherwise always the same shard for the same group.
+    */
+   private DeliveryShard groupShard(SimpleString groupID) {
+      final Consumer owner = groups.get(groupID);
+      if (owner != null) {
+         for (ConsumerHolder<? extends Consumer> holder : consumers) {
+            if (holder.consumer == owner) {
+               return holder.shard;
+            }
+         }
+      }
+      return shards[(groupID.hashCode() & Integer.MAX_VALUE) % shards.length];
+   }
+
+   private DeliveryShard nextShard() {
+      for (int i = 0; i < shards.length; i++) {
+         final DeliveryShard shard = shards[nextShard];
+         nextShard = (nextShard + 1) % shards.length;
+         if (!shard.isFull()) {
+            return shard;
+         }
+      }
+      return null;
+   }
+
    protected void removeMessageReference(ConsumerHolder<? extends Consumer> holder, MessageReference ref) {
-      holder.iter.remove();
+      if (holder.candidates != null) {
+         messageReferences.removeIntrusive(ref, getPriority(ref));
+      } else {
+         holder.iter.remove();
+      }
       refRemoved(ref);
    }
 
+   /**
+    * Whether the references of this queue can be removed from {@link #messageReferences} without scanning it, as
+    * required by the {@code index-consumer-filters} address setting.
+    */
+   protected boolean supportsConsumerFilterIndex() {
+      return true;
+   }
+
+   /**
+    * The caller of this method requires synchronized on the queue.
+    * <p>
+    * Collects the references matching the filter of the consumer of {@code holder}: from then on its candidates are
+    * kept up to date while references are added to the queue, see {@link #indexReference}.
+    */
+   private void indexCandidates(ConsumerHolder<? extends Consumer> holder) {
+      final PriorityLinkedList<MessageReference> candidates = new PriorityLinkedListImpl<>(QueueImpl.NUM_PRIORITIES, MessageReferenceImpl.getIDComparator());
+      final Filter filter = holder.consumer.getFilter();
+      try (LinkedListIterator<MessageReference> iter = messageReferences.iterator()) {
+         while (iter.hasNext()) {
+            final MessageReference ref = iter.next();
+            if (isCandidate(filter, ref)) {
+               candidates.addTail(ref, getPriority(ref));
+            }
+         }
+      }
+      holder.candidates = candidates;
+   }
+
+   /**
+    * The caller of this method requires synchronized on the queue.
+    * <p>
+    * Adds {@code ref}, already added to {@link #messageReferences}, to the candidates of the consumers with a matching
+    * filter: it must be added there first to be the intrusive element of that list.
+    */
+   private void indexReference(MessageReference ref, int priority, boolean tail) {
+      for (ConsumerHolder<? extends Consumer> holder : indexedConsumers) {
+         if (isCandidate(holder.consumer.getFilter(), ref)) {
+            if (tail) {
+               holder.candidates.addTail(ref, priority);
+            } else {
+               holder.candidates.addSorted(ref, priority);
+            }
+            // the candidates delivered to other consumers are only dropped while visited
+            if (holder.candidates.size() > 2 * messageReferences.size() + MAX_DELIVERIES_IN_LOOP) {
+               indexCandidates(holder);
+            }
+         }
+      }
+   }
+
+   private static boolean isCandidate(Filter filter, MessageReference ref) {
+      try {
+         return filter.match(ref.getMessage());
+      } catch (Throwable e) {
+         // the consumer will decide
+         return true;
+      }
+   }
+
+   /**
+    * The caller of this method requires synchronized on the queue.
+    *
+    * @return the next candidate of the consumer of {@code holder} still in the queue, or {@code null}
+    */
+   private MessageReference nextCandidate(ConsumerHolder<? extends Consumer> holder) {
+      MessageReference ref;
+      while ((ref = holder.candidates.poll()) != null) {
+         if (LinkedListImpl.isLinked(ref)) {
+            return ref;
+         }
+      }
+      return null;
+   }
+
    private void checkDepage(boolean noWait) {
       if (pageIterator != null && pageSubscription.isPaging() && !depagePending && needsDepage() && (noWait ? pageIterator.tryNext() > 0 : pageIterator.hasNext())) {
          scheduleDepage(false);
@@ -3671,6 +4111,18 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       }
    }
 
+   private void proceedDeliver(Consumer consumer, List<MessageReference> references) {
+      try {
+         consumer.proceedDeliver(references);
+      } catch (Throwable t) {
+         errorProcessing(consumer, t, references.get(0));
+      } finally {
+         for (int i = 0; i < references.size(); i++) {
+            deliveriesInTransit.countDown();
+         }
+      }
+   }
+
    /** This will print errors and decide what to do with the errored consumer from the protocol layer. */
    @Override
    public void errorProcessing(Consumer consumer, Throwable t, MessageReference reference) {
@@ -3966,6 +4418,12 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
 
       LinkedListIterator<MessageReference> iter;
 
+      // the shard of the consumer on a sharded queue
+      DeliveryShard shard;
+
+      // the references that may match the filter of the consumer, iterated instead of the queue when not null
+      PriorityLinkedList<MessageReference> candidates;
+
       private void resetIterator() {
          if (iter != null) {
             iter.close();
@@ -4014,6 +4472,346 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       }
    }
 
+   /**
+    * One of the shards the dispatching of a queue is split into by the {@code queue-shards} address setting.
+    * <p>
+    * While every shard has a consumer and no consumer has a filter the queue only hands its references over to the
+    * shards, and each shard delivers them to its own share of the consumers on its own executor: the consumers of a
+    * single queue are served on several threads instead of all of them under the lock of the queue.
+    * <p>
+    * The state of a shard is only accessed by its executor, which doesn't hold the lock of the queue. The references
+    * of a shard are accounted as pending by the queue until a consumer handles them, and they're cancelled back to the
+    * queue when the shard loses its consumers or the queue stops being sharded.
+    * <p>
+    * The owners of the groups are kept in the groups of the queue as well, so that a group keeps its consumer when the
+    * queue stops or starts being sharded: a reference of a group owned by the consumer of another shard is given back to
+    * the queue, which hands it over to the right shard.
+    * <p>
+    * The shards are drained synchronously before the queue is iterated, browsed or paused, so that those operations see
+    * all of its references, and they stay drained while a browser is open.
+    */
+   private final class DeliveryShard implements Runnable {
+
+      private final ArtemisExecutor executor;
+
+      private final MpscUnboundedArrayQueue<MessageReference> incoming = new MpscUnboundedArrayQueue<>(256);
+
+      // the references handed over by the queue and not handled yet, incoming or pending
+      private final AtomicInteger size = new AtomicInteger(0);
+
+      private final AtomicInteger scheduledRunners = new AtomicInteger(0);
+
+      // ordered by priority, as the references of the queue
+      private final PriorityLinkedList<MessageReference> pending = new PriorityLinkedListImpl<>(QueueImpl.NUM_PRIORITIES, MessageReferenceImpl.getIDComparator());
+
+      private final List<Consumer> shardConsumers = new ArrayList<>();
+
+      private final Map<SimpleString, Consumer> shardGroups = new HashMap<>();
+
+      private int position = 0;
+
+      // the consumers of the queue assigned to this shard, guarded by the queue
+      private int consumerCount = 0;
+
+      private DeliveryShard(ArtemisExecutor executor) {
+         this.executor = executor;
+      }
+
+      private boolean isFull() {
+         return size.get() >= MAX_SHARD_REFERENCES;
+      }
+
+      private void add(MessageReference ref) {
+         size.incrementAndGet();
+         incoming.add(ref);
+      }
+
+      private void addConsumer(Consumer consumer) {
+         executor.execute(() -> shardConsumers.add(consumer));
+      }
+
+      private void removeConsumer(Consumer consumer) {
+         executor.execute(() -> {
+            shardConsumers.remove(consumer);
+            shardGroups.values().removeIf(consumer::equals);
+            position = 0;
+            if (shardConsumers.isEmpty()) {
+               cancel();
+            }
+         });
+      }
+
+      private void cancelReferences() {
+         try {
+            executor.execute(() -> {
+               try {
+                  cancel();
+               } finally {
+                  drained();
+               }
+            });
+         } catch (RejectedExecutionException e) {
+            drained();
+         }
+      }
+
+      private void drained() {
+         synchronized (QueueImpl.this) {
+            if (--drainingShards == 0) {
+               QueueImpl.this.notifyAll();
+               QueueImpl.this.deliverAsync();
+            }
+         }
+      }
+
+      /**
+       * @param groupID the group to forget about, or {@code null} for all of them
+       */
+      private void resetGroups(SimpleString groupID) {
+         executor.execute(() -> {
+            if (groupID == null) {
+               shardGroups.clear();
+            } else {
+               shardGroups.remove(groupID);
+            }
+         });
+      }
+
+      private void deliverAsync() {
+         if (size.get() > 0 && scheduledRunners.get() < MAX_SCHEDULED_RUNNERS) {
+            scheduledRunners.incrementAndGet();
+            try {
+               executor.execute(this);
+            } catch (RejectedExecutionException ignored) {
+               scheduledRunners.decrementAndGet();
+            }
+         }
+      }
+
+      @Override
+      public void run() {
+         scheduledRunners.decrementAndGet();
+         try {
+            deliver();
+         } catch (Exception e) {
+            ActiveMQServerLogger.LOGGER.errorDelivering(e);
+         }
+      }
+
+      private void pollIncoming() {
+         MessageReference ref;
+         while ((ref = incoming.poll()) != null) {
+            pending.addTail(ref, getPriority(ref));
+         }
+      }
+
+      private void cancel() {
+         pollIncoming();
+         if (pending.isEmpty()) {
+            return;
+         }
+         final List<MessageReference> refs = new ArrayList<>(pending.size());
+         try (LinkedListIterator<MessageReference> iter = pending.iterator()) {
+            while (iter.hasNext()) {
+               refs.add(iter.next());
+            }
+         }
+         pending.clear();
+         for (MessageReference ref : refs) {
+            // the queue accounts them again while adding them back
+            refRemoved(ref);
+         }
+         size.addAndGet(-refs.size());
+         addSorted(refs, false);
+      }
+
+      private void deliver() {
+         pollIncoming();
+
+         if (pending.isEmpty() || shardConsumers.isEmpty() || paused || addressInfo != null && addressInfo.isPaused()) {
+            return;
+         }
+
+         // the owners of the groups this shard doesn't know about yet, as the queue knows them
+         final Map<SimpleString, Consumer> owners = resolveOwners();
+
+         int handled = 0;
+         // groups with a reference no consumer could handle: their next ones must wait too
+         Set<SimpleString> blockedGroups = null;
+         // references of groups owned by the consumers of other shards
+         List<MessageReference> misrouted = null;
+         // the owners to update in the groups of the queue, null for the closed groups
+         Map<SimpleString, Consumer> groupUpdates = null;
+         try (LinkedListIterator<MessageReference> iter = pending.iterator()) {
+            while (handled < MAX_DELIVERIES_IN_LOOP && iter.hasNext()) {
+               final MessageReference ref = iter.next();
+               final SimpleString groupID = extractGroupID(ref);
+               if (groupID != null && blockedGroups != null && blockedGroups.contains(groupID)) {
+                  continue;
+               }
+
+               if (checkExpired(ref)) {
+                  removeReference(iter, ref);
+                  continue;
+               }
+
+               Consumer groupConsumer = groupID == null ? null : shardGroups.get(groupID);
+               if (groupID != null && groupConsumer == null) {
+                  final Consumer owner = owners == null ? null : owners.get(groupID);
+                  if (owner != null) {
+                     if (!shardConsumers.contains(owner)) {
+                        removeReference(iter, ref);
+                        if (misrouted == null) {
+                           misrouted = new ArrayList<>();
+                        }
+                        misrouted.add(ref);
+                        continue;
+                     }
+                     shardGroups.put(groupID, owner);
+                     groupConsumer = owner;
+                  }
+               }
+               Consumer consumer = null;
+               boolean allBusy = true;
+               if (groupConsumer != null) {
+                  if (handle(groupConsumer, ref) == HandleStatus.HANDLED) {
+                     consumer = groupConsumer;
+                  }
+               } else {
+                  for (int i = 0; i < shardConsumers.size() && consumer == null; i++) {
+                     final Consumer candidate = shardConsumers.get(position);
+                     position = (position + 1) % shardConsumers.size();
+                     final HandleStatus status = handle(candidate, ref);
+                     if (status == HandleStatus.HANDLED) {
+                        consumer = candidate;
+                     } else if (status == HandleStatus.NO_MATCH) {
+                        allBusy = false;
+                     }
+                  }
+               }
+
+               if (consumer == null) {
+                  if (groupID != null) {
+                     if (blockedGroups == null) {
+                        blockedGroups = new HashSet<>();
+                     }
+                     blockedGroups.add(groupID);
+                  } else if (allBusy) {
+                     break;
+                  }
+                  continue;
+               }
+
+               removeReference(iter, ref);
+               if (groupID != null) {
+                  if (extractGroupSequence(ref) == -1) {
+                     shardGroups.remove(groupID);
+                     if (owners != null) {
+                        owners.remove(groupID);
+                     }
+                     if (groupUpdates == null) {
+                        groupUpdates = new HashMap<>();
+                     }
+                     groupUpdates.put(groupID, null);
+                  } else if (groupConsumer == null) {
+                     shardGroups.put(groupID, consumer);
+                     if (groupUpdates == null) {
+                        groupUpdates = new HashMap<>();
+                     }
+                     groupUpdates.put(groupID, consumer);
+                  }
+               }
+               handled++;
+               deliveriesInTransit.countUp();
+               ref.setInDelivery(true);
+               proceedDeliver(consumer, ref);
+            }
+         }
+
+         if (groupUpdates != null) {
+            synchronized (QueueImpl.this) {
+               for (Map.Entry<SimpleString, Consumer> update : groupUpdates.entrySet()) {
+                  if (update.getValue() == null) {
+                     groups.remove(update.getKey());
+                  } else {
+                     groups.put(update.getKey(), update.getValue());
+                  }
+               }
+            }
+         }
+
+         if (misrouted != null) {
+            // the queue accounts them again while adding them back
+            addSorted(misrouted, false);
+         }
+
+         if (handled > 0 || misrouted != null) {
+            // there's room for more references of the queue
+            QueueImpl.this.deliverAsync();
+         }
+
+         if (handled == MAX_DELIVERIES_IN_LOOP) {
+            deliverAsync();
+         }
+      }
+
+      /**
+       * @return the owners of the groups of the pending references this shard doesn't know about, looked up in the
+       * groups of the queue with a single acquisition of its lock, or {@code null} if there are none
+       */
+      private Map<SimpleString, Consumer> resolveOwners() {
+         Set<SimpleString> unknownGroups = null;
+         try (LinkedListIterator<MessageReference> iter = pending.iterator()) {
+            while (iter.hasNext()) {
+               final SimpleString groupID = extractGroupID(iter.next());
+               if (groupID != null && !shardGroups.containsKey(groupID)) {
+                  if (unknownGroups == null) {
+                     unknownGroups = new HashSet<>();
+                  }
+                  unknownGroups.add(groupID);
+               }
+            }
+         }
+         if (unknownGroups == null) {
+            return null;
+         }
+         final Map<SimpleString, Consumer> owners = new HashMap<>();
+         synchronized (QueueImpl.this) {
+            for (SimpleString groupID : unknownGroups) {
+               final Consumer owner = groups.get(groupID);
+               if (owner != null) {
+                  owners.put(groupID, owner);
+               }
+            }
+         }
+         return owners;
+      }
+
+      private void removeReference(Iterator<MessageReference> iter, MessageReference ref) {
+         iter.remove();
+         size.decrementAndGet();
+         refRemoved(ref);
+      }
+
+      private HandleStatus handle(Consumer consumer, MessageReference ref) {
+         final HandleStatus status;
+         try {
+            status = consumer.handle(ref);
+         } catch (Throwable t) {
+            ActiveMQServerLogger.LOGGER.removingBadConsumer(t, consumer, ref);
+            // it's removed from the shard on its executor, right after this delivery
+            QueueImpl.this.removeConsumer(consumer);
+            return HandleStatus.BUSY;
+         }
+
+         if (status == null) {
+            throw new IllegalStateException("ClientConsumer.handle() should never return null");
+         }
+
+         return status;
+      }
+   }
+
    /**
     * There's no need of having multiple instances of this class. a Single instance per QueueImpl should be more than sufficient.
     * previous versions of this class were using a synchronized object. The current version is using the deliverRunner
@@ -4154,7 +4952,11 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
       MessageReference cachedNext = null;
       HashSet<PagePosition> previouslyBrowsed = new HashSet<>();
 
+      private boolean shardingSuspended;
+
       private QueueBrowserIterator() {
+         drainShards(true);
+         shardingSuspended = shards != null;
          messagesIterator = new SynchronizedIterator(messageReferences.iterator());
       }
 
@@ -4225,6 +5027,10 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
          if (messagesIterator != null) {
             messagesIterator.close();
          }
+         if (shardingSuspended) {
+            shardingSuspended = false;
+            resumeSharding();
+         }
       }
    }
 
@@ -4365,6 +5171,7 @@ public class QueueImpl extends CriticalComponentImpl implements Queue {
          configureExpiry(settings);
          checkDeadLetterAddressAndExpiryAddress(settings);
          configureSlowConsumerReaper(settings);
+         deliveryBatchSize = settings.getDeliveryBatchSize();
       }
    }
 
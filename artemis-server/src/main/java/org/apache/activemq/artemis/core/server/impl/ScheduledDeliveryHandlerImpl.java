@@ -23,10 +23,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeSet;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.core.filter.Filter;
@@ -37,24 +34,41 @@ import org.jboss.logging.Logger;
 
 /**
  * Handles scheduling deliveries to a queue at the correct time.
+ * <p>
+ * The scheduled references are kept in buckets by tick of the {@link ScheduledDeliveryWheel}, so scheduling a
+ * reference doesn't need to keep all of them sorted: a bucket is only sorted when its tick expires and its
+ * references are moved back to the queue in bulk.
  */
 public class ScheduledDeliveryHandlerImpl implements ScheduledDeliveryHandler {
 
    private static final Logger logger = Logger.getLogger(ScheduledDeliveryHandlerImpl.class);
 
-   private final ScheduledExecutorService scheduledExecutor;
+   private static final Comparator<RefScheduled> COMPARATOR = new MessageReferenceComparator();
 
-   private final Map<Long, Runnable> runnables = new ConcurrentHashMap<>();
+   private final ScheduledDeliveryWheel wheel;
+
+   private final long tickMillis;
 
    // This contains RefSchedules which are delegates to the real references
    // just adding some information to keep it in order accordingly to the initial operations
-   private final TreeSet<RefScheduled> scheduledReferences = new TreeSet<>(new MessageReferenceComparator());
+   private final Map<Long, List<RefScheduled>> scheduledReferences = new HashMap<>();
+
+   // guarded by scheduledReferences
+   private long sequence;
 
    private final QueueMessageMetrics metrics;
 
    public ScheduledDeliveryHandlerImpl(final ScheduledExecutorService scheduledExecutor,
          final Queue queue) {
-      this.scheduledExecutor = scheduledExecutor;
+      this(queue, scheduledExecutor == null ? null : new ScheduledDeliveryWheel(scheduledExecutor));
+   }
+
+   /**
+    * @param wheel the wheel shared with the other queues of the broker, {@code null} to never schedule
+    */
+   public ScheduledDeliveryHandlerImpl(final Queue queue, final ScheduledDeliveryWheel wheel) {
+      this.wheel = wheel;
+      this.tickMillis = wheel == null ? ScheduledDeliveryWheel.DEFAULT_TICK_MILLIS : wheel.getTickMillis();
       this.metrics = new QueueMessageMetrics(queue, "scheduled");
    }
 
@@ -62,14 +76,16 @@ public class ScheduledDeliveryHandlerImpl implements ScheduledDeliveryHandler {
    public boolean checkAndSchedule(final MessageReference ref, final boolean tail) {
       long deliveryTime = ref.getScheduledDeliveryTime();
 
-      if (deliveryTime > 0 && scheduledExecutor != null) {
+      if (deliveryTime > 0 && wheel != null) {
          if (logger.isTraceEnabled()) {
             logger.trace("Scheduling delivery for " + ref + " to occur at " + deliveryTime);
          }
 
-         addInPlace(deliveryTime, ref, tail);
-
-         scheduleDelivery(deliveryTime);
+         final long tick = ScheduledDeliveryWheel.tickOf(deliveryTime, tickMillis);
+         if (add(tick, ref, tail)) {
+            // the first reference of the tick
+            wheel.schedule(this, tick);
+         }
 
          return true;
       }
@@ -77,10 +93,25 @@ public class ScheduledDeliveryHandlerImpl implements ScheduledDeliveryHandler {
    }
 
    public void addInPlace(final long deliveryTime, final MessageReference ref, final boolean tail) {
+      add(ScheduledDeliveryWheel.tickOf(deliveryTime, tickMillis), ref, tail);
+   }
+
+   /**
+    * @return {@code true} if {@code ref} is the first reference of {@code tick}
+    */
+   private boolean add(final long tick, final MessageReference ref, final boolean tail) {
+      final boolean first;
       synchronized (scheduledReferences) {
-         scheduledReferences.add(new RefScheduled(ref, tail));
+         List<RefScheduled> bucket = scheduledReferences.get(tick);
+         first = bucket == null;
+         if (first) {
+            bucket = new ArrayList<>();
+            scheduledReferences.put(tick, bucket);
+         }
+         bucket.add(new RefScheduled(ref, tail, sequence++));
       }
       metrics.incrementMetrics(ref);
+      return first;
    }
 
    @Override
@@ -105,45 +136,73 @@ public class ScheduledDeliveryHandlerImpl implements ScheduledDeliveryHandler {
 
    @Override
    public List<MessageReference> getScheduledReferences() {
-      List<MessageReference> refs = new LinkedList<>();
+      List<RefScheduled> sorted = new ArrayList<>();
 
       synchronized (scheduledReferences) {
-         for (RefScheduled ref : scheduledReferences) {
-            refs.add(ref.getRef());
+         for (List<RefScheduled> bucket : scheduledReferences.values()) {
+            sorted.addAll(bucket);
          }
       }
+      sorted.sort(COMPARATOR);
+
+      List<MessageReference> refs = new LinkedList<>();
+      for (RefScheduled ref : sorted) {
+         refs.add(ref.getRef());
+      }
       return refs;
    }
 
    @Override
    public List<MessageReference> cancel(final Filter filter) throws ActiveMQException {
-      List<MessageReference> refs = new ArrayList<>();
+      List<RefScheduled> cancelled = new ArrayList<>();
 
       synchronized (scheduledReferences) {
-         Iterator<RefScheduled> iter = scheduledReferences.iterator();
-
-         while (iter.hasNext()) {
-            MessageReference ref = iter.next().getRef();
-            if (filter == null || filter.match(ref.getMessage())) {
-               iter.remove();
-               refs.add(ref);
-               metrics.decrementMetrics(ref);
+         Iterator<List<RefScheduled>> buckets = scheduledReferences.values().iterator();
+         while (buckets.hasNext()) {
+            List<RefScheduled> bucket = buckets.next();
+            Iterator<RefScheduled> iter = bucket.iterator();
+
+            while (iter.hasNext()) {
+               RefScheduled refScheduled = iter.next();
+               MessageReference ref = refScheduled.getRef();
+               if (filter == null || filter.match(ref.getMessage())) {
+                  iter.remove();
+                  cancelled.add(refScheduled);
+                  metrics.decrementMetrics(ref);
+               }
+            }
+            if (bucket.isEmpty()) {
+               buckets.remove();
             }
          }
       }
+
+      // in scheduled order
+      cancelled.sort(COMPARATOR);
+      List<MessageReference> refs = new ArrayList<>(cancelled.size());
+      for (RefScheduled ref : cancelled) {
+         refs.add(ref.getRef());
+      }
       return refs;
    }
 
    @Override
    public MessageReference removeReferenceWithID(final long id) throws ActiveMQException {
       synchronized (scheduledReferences) {
-         Iterator<RefScheduled> iter = scheduledReferences.iterator();
-         while (iter.hasNext()) {
-            MessageReference ref = iter.next().getRef();
-            if (ref.getMessage().getMessageID() == id) {
-               iter.remove();
-               metrics.decrementMetrics(ref);
-               return ref;
+         Iterator<List<RefScheduled>> buckets = scheduledReferences.values().iterator();
+         while (buckets.hasNext()) {
+            List<RefScheduled> bucket = buckets.next();
+            Iterator<RefScheduled> iter = bucket.iterator();
+            while (iter.hasNext()) {
+               MessageReference ref = iter.next().getRef();
+               if (ref.getMessage().getMessageID() == id) {
+                  iter.remove();
+                  if (bucket.isEmpty()) {
+                     buckets.remove();
+                  }
+                  metrics.decrementMetrics(ref);
+                  return ref;
+               }
             }
          }
       }
@@ -151,127 +210,66 @@ public class ScheduledDeliveryHandlerImpl implements ScheduledDeliveryHandler {
       return null;
    }
 
-   private void scheduleDelivery(final long deliveryTime) {
-      final long now = System.currentTimeMillis();
-
-      final long delay = deliveryTime - now;
-
-      if (delay < 0) {
-         if (logger.isTraceEnabled()) {
-            logger.trace("calling another scheduler now as deliverTime " + deliveryTime + " < now=" + now);
-         }
-         // if delay == 0 we will avoid races between adding the scheduler and finishing it
-         ScheduledDeliveryRunnable runnable = new ScheduledDeliveryRunnable(deliveryTime);
-         scheduledExecutor.schedule(runnable, 0, TimeUnit.MILLISECONDS);
-      } else if (!runnables.containsKey(deliveryTime)) {
-         ScheduledDeliveryRunnable runnable = new ScheduledDeliveryRunnable(deliveryTime);
-
-         if (logger.isTraceEnabled()) {
-            logger.trace("Setting up scheduler for " + deliveryTime + " with a delay of " + delay + " as now=" + now);
-         }
-
-         runnables.put(deliveryTime, runnable);
-         scheduledExecutor.schedule(runnable, delay, TimeUnit.MILLISECONDS);
-      } else {
-         if (logger.isTraceEnabled()) {
-            logger.trace("Couldn't make another scheduler as " + deliveryTime + " is already set, now is " + now);
-         }
+   /**
+    * Moves the references of an expired tick back to their queues, called by the {@link ScheduledDeliveryWheel}.
+    */
+   void deliver(final long tick) {
+      final List<RefScheduled> bucket;
+      synchronized (scheduledReferences) {
+         bucket = scheduledReferences.remove(tick);
       }
-   }
 
-   private class ScheduledDeliveryRunnable implements Runnable {
-
-      long deliveryTime;
-
-      private ScheduledDeliveryRunnable(final long deliveryTime) {
-         this.deliveryTime = deliveryTime;
+      if (bucket == null) {
+         // all cancelled or removed
+         return;
       }
 
-      @Override
-      public void run() {
-         HashMap<Queue, LinkedList<MessageReference>> refs = new HashMap<>();
-
-         runnables.remove(deliveryTime);
-
-         final long now = System.currentTimeMillis();
-
-         if (now < deliveryTime) {
-            // Ohhhh... blame it on the OS
-            // on some OSes (so far Windows only) the precision of the scheduled executor could eventually give
-            // an executor call earlier than it was supposed...
-            // for that reason we will schedule it again so no messages are lost!
-            // we can't just assume deliveryTime here as we could deliver earlier than what we are supposed to
-            // this is basically a hack to work around an OS or JDK bug!
-            if (logger.isTraceEnabled()) {
-               logger.trace("Scheduler is working around OS imprecisions on " +
-                               "timing and re-scheduling an executor. now=" + now +
-                               " and deliveryTime=" + deliveryTime);
-            }
-            ScheduledDeliveryHandlerImpl.this.scheduleDelivery(deliveryTime);
-         }
-
-         if (logger.isTraceEnabled()) {
-            logger.trace("Is it " + System.currentTimeMillis() + " now and we are running deliveryTime = " + deliveryTime);
-         }
-
-         synchronized (scheduledReferences) {
-
-            Iterator<RefScheduled> iter = scheduledReferences.iterator();
-            while (iter.hasNext()) {
-               MessageReference reference = iter.next().getRef();
-               if (reference.getScheduledDeliveryTime() > now) {
-                  // We will delivery as long as there are messages to be delivered
-                  break;
-               }
-
-               iter.remove();
-               metrics.decrementMetrics(reference);
+      if (logger.isTraceEnabled()) {
+         logger.trace("Is it " + System.currentTimeMillis() + " now and we are running tick " + tick + " with " + bucket.size() + " references");
+      }
 
-               reference.setScheduledDeliveryTime(0);
+      bucket.sort(COMPARATOR);
 
-               LinkedList<MessageReference> references = refs.get(reference.getQueue());
+      HashMap<Queue, LinkedList<MessageReference>> refs = new HashMap<>();
+      for (RefScheduled refScheduled : bucket) {
+         MessageReference reference = refScheduled.getRef();
+         metrics.decrementMetrics(reference);
 
-               if (references == null) {
-                  references = new LinkedList<>();
-                  refs.put(reference.getQueue(), references);
-               }
+         reference.setScheduledDeliveryTime(0);
 
-               if (logger.isTraceEnabled()) {
-                  logger.trace("sending message " + reference + " to delivery, deliveryTime =  " + deliveryTime);
-               }
+         LinkedList<MessageReference> references = refs.get(reference.getQueue());
 
-               references.addFirst(reference);
-            }
-            if (logger.isTraceEnabled()) {
-               logger.trace("Finished loop on deliveryTime = " + deliveryTime);
-            }
+         if (references == null) {
+            references = new LinkedList<>();
+            refs.put(reference.getQueue(), references);
          }
 
-         for (Map.Entry<Queue, LinkedList<MessageReference>> entry : refs.entrySet()) {
+         references.addFirst(reference);
+      }
 
-            Queue queue = entry.getKey();
-            LinkedList<MessageReference> list = entry.getValue();
-            if (logger.isTraceEnabled()) {
-               logger.trace("Delivering " + list.size() + " elements on list to queue " + queue);
-            }
-            queue.addHead(list, true);
-         }
+      for (Map.Entry<Queue, LinkedList<MessageReference>> entry : refs.entrySet()) {
 
-         // Just to speed up GC
-         refs.clear();
+         Queue queue = entry.getKey();
+         LinkedList<MessageReference> list = entry.getValue();
+         if (logger.isTraceEnabled()) {
+            logger.trace("Delivering " + list.size() + " elements on list to queue " + queue);
+         }
+         queue.addHead(list, true);
       }
    }
 
-   // We need a treeset ordered, but we need to order tail operations as well.
+   // We need the references ordered, but we need to order tail operations as well.
    // So, this will serve as a delegate to the object
-   class RefScheduled {
+   static class RefScheduled {
 
       private final MessageReference ref;
       private final boolean tail;
+      private final long sequence;
 
-      RefScheduled(MessageReference ref, boolean tail) {
+      RefScheduled(MessageReference ref, boolean tail, long sequence) {
          this.ref = ref;
          this.tail = tail;
+         this.sequence = sequence;
       }
 
       public MessageReference getRef() {
@@ -282,6 +280,10 @@ public class ScheduledDeliveryHandlerImpl implements ScheduledDeliveryHandler {
          return tail;
       }
 
+      public long getSequence() {
+         return sequence;
+      }
+
    }
 
    static class MessageReferenceComparator implements Comparator<RefScheduled> {
@@ -300,18 +302,18 @@ public class ScheduledDeliveryHandlerImpl implements ScheduledDeliveryHandler {
          // Even if ref1 and ref2 have the same delivery time, we only want to return 0 if they are identical
          if (ref1 == ref2) {
             return 0;
-         } else {
+         }
 
-            if (ref1.isTail() && !ref2.isTail()) {
-               return 1;
-            } else if (!ref1.isTail() && ref2.isTail()) {
-               return -1;
-            }
-            if (!ref1.isTail() && !ref2.isTail()) {
-               return -1;
-            } else {
-               return 1;
-            }
+         if (ref1.isTail() && !ref2.isTail()) {
+            return 1;
+         } else if (!ref1.isTail() && ref2.isTail()) {
+            return -1;
+         }
+         // the last head added goes first, tails are kept in the order they were added
+         if (!ref1.isTail()) {
+            return Long.compare(ref2.getSequence(), ref1.getSequence());
+         } else {
+            return Long.compare(ref1.getSequence(), ref2.getSequence());
          }
       }
    }
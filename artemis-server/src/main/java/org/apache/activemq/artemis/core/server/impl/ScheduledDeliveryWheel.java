@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.server.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.logging.Logger;
+
+/**
+ * A hashed timing wheel shared by the {@link ScheduledDeliveryHandlerImpl}s of a broker.
+ * <p>
+ * Time is split in ticks of {@link #getTickMillis()} and each handler registers at most one timeout for each tick
+ * holding scheduled references, whatever the number of references. A single task on the scheduled executor
+ * advances the wheel while timeouts are pending and expires the due ticks in batch, in ascending tick order.
+ * Timeouts beyond a full turn of the wheel stay in their bucket until the turn they're due.
+ */
+public class ScheduledDeliveryWheel {
+
+   private static final Logger logger = Logger.getLogger(ScheduledDeliveryWheel.class);
+
+   public static final long DEFAULT_TICK_MILLIS = 10;
+
+   public static final int DEFAULT_WHEEL_SIZE = 512;
+
+   private static final Comparator<Timeout> TICK_ORDER = Comparator.comparingLong(timeout -> timeout.tick);
+
+   private final ScheduledExecutorService scheduledExecutor;
+
+   private final long tickMillis;
+
+   private final List<Timeout>[] buckets;
+
+   private final int mask;
+
+   // the last tick expired, guarded by this
+   private long lastTick;
+
+   // guarded by this
+   private int pending;
+
+   // an expiry task is scheduled on the executor, guarded by this
+   private boolean expiring;
+
+   private volatile long lag;
+
+   public ScheduledDeliveryWheel(final ScheduledExecutorService scheduledExecutor) {
+      this(scheduledExecutor, DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE);
+   }
+
+   /**
+    * @param wheelSize the number of buckets, rounded up to a power of 2
+    */
+   @SuppressWarnings("unchecked")
+   public ScheduledDeliveryWheel(final ScheduledExecutorService scheduledExecutor,
+                                 final long tickMillis,
+                                 final int wheelSize) {
+      if (tickMillis <= 0) {
+         throw new IllegalArgumentException("tickMillis must be > 0");
+      }
+      if (wheelSize <= 0 || wheelSize > 1 << 30) {
+         throw new IllegalArgumentException("wheelSize must be > 0 and <= 2^30");
+      }
+      this.scheduledExecutor = scheduledExecutor;
+      this.tickMillis = tickMillis;
+      final int size = Integer.highestOneBit(wheelSize) == wheelSize ? wheelSize : Integer.highestOneBit(wheelSize) << 1;
+      this.buckets = new List[size];
+      for (int i = 0; i < size; i++) {
+         buckets[i] = new ArrayList<>();
+      }
+      this.mask = size - 1;
+      this.lastTick = currentTick(System.currentTimeMillis());
+   }
+
+   public long getTickMillis() {
+      return tickMillis;
+   }
+
+   /**
+    * @return the first tick at which {@code time} is due
+    */
+   public long tickOf(final long time) {
+      return tickOf(time, tickMillis);
+   }
+
+   static long tickOf(final long time, final long tickMillis) {
+      // rounding up avoids any early delivery, without overflowing near Long.MAX_VALUE
+      return time / tickMillis + (time % tickMillis == 0 ? 0 : 1);
+   }
+
+   /**
+    * @return the number of pending timeouts, ie the (handler, tick) pairs with scheduled references
+    */
+   public synchronized int getDepth() {
+      return pending;
+   }
+
+   /**
+    * @return how late in milliseconds the last expiry ran behind the first tick it expired
+    */
+   public long getLag() {
+      return lag;
+   }
+
+   /**
+    * Expires {@code tick} of {@code handler} once due: ticks already expired are expired on the next tick.
+    */
+   void schedule(final ScheduledDeliveryHandlerImpl handler, final long tick) {
+      synchronized (this) {
+         if (pending == 0 && !expiring) {
+            // nothing to catch up with after being idle
+            lastTick = Math.max(lastTick, currentTick(System.currentTimeMillis()) - 1);
+         }
+         final long expiryTick = Math.max(tick, lastTick + 1);
+         buckets[(int) (expiryTick & mask)].add(new Timeout(handler, tick, expiryTick));
+         pending++;
+         if (!expiring) {
+            expiring = true;
+            scheduleExpiry();
+         }
+      }
+   }
+
+   // guarded by this
+   private void scheduleExpiry() {
+      final long delay = Math.max(0, (lastTick + 1) * tickMillis - System.currentTimeMillis());
+      scheduledExecutor.schedule(this::expire, delay, TimeUnit.MILLISECONDS);
+   }
+
+   private void expire() {
+      final List<Timeout> due = new ArrayList<>();
+      final long now = System.currentTimeMillis();
+      final long nowTick = currentTick(now);
+
+      synchronized (this) {
+         if (nowTick > lastTick) {
+            // a full turn visits every bucket, no matter how many ticks are missing
+            final long ticks = Math.min(nowTick - lastTick, buckets.length);
+            for (long tick = lastTick + 1; tick <= lastTick + ticks; tick++) {
+               Iterator<Timeout> iterator = buckets[(int) (tick & mask)].iterator();
+               while (iterator.hasNext()) {
+                  Timeout timeout = iterator.next();
+                  if (timeout.expiryTick <= nowTick) {
+                     iterator.remove();
+                     due.add(timeout);
+                  }
+               }
+            }
+            lag = now - (lastTick + 1) * tickMillis;
+            lastTick = nowTick;
+            pending -= due.size();
+         } else if (logger.isTraceEnabled()) {
+            // blame it on the OS: the executor can run a task a bit earlier than it was supposed to
+            logger.trace("Scheduled delivery wheel woke up before tick " + (lastTick + 1) + ", now=" + now);
+         }
+
+         if (pending > 0) {
+            scheduleExpiry();
+         } else {
+            expiring = false;
+         }
+      }
+
+      due.sort(TICK_ORDER);
+      for (Timeout timeout : due) {
+         try {
+            timeout.handler.deliver(timeout.tick);
+         } catch (Throwable t) {
+            logger.warn("Failed to deliver the scheduled references of tick " + timeout.tick + ": " + t.getMessage(), t);
+         }
+      }
+   }
+
+   private long currentTick(final long now) {
+      return now / tickMillis;
+   }
+
+   @Override
+   public String toString() {
+      return "ScheduledDeliveryWheel[tickMillis=" + tickMillis + ", wheelSize=" + buckets.length + "]";
+   }
+
+   private static final class Timeout {
+
+      final ScheduledDeliveryHandlerImpl handler;
+
+      // the tick of the scheduled references of the handler
+      final long tick;
+
+      // the tick the timeout expires at, later than tick if it was already expired
+      final long expiryTick;
+
+      Timeout(final ScheduledDeliveryHandlerImpl handler, final long tick, final long expiryTick) {
+         this.handler = handler;
+         this.tick = tick;
+         this.expiryTick = expiryTick;
+      }
+   }
+}
@@ -111,6 +111,8 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
 
    private volatile AtomicInteger availableCredits = new AtomicInteger(0);
 
+   private final boolean supportsBatchedDelivery;
+
    private boolean started;
 
    private volatile CoreLargeMessageDeliverer largeMessageDeliverer = null;
@@ -242,6 +244,8 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
 
       this.creationTime = System.currentTimeMillis();
 
+      this.supportsBatchedDelivery = !browseOnly && callback != null && callback.supportsBatchedDelivery();
+
       if (browseOnly) {
          browserDeliverer = new BrowserDeliverer(messageQueue.browserIterator());
       } else {
@@ -382,6 +386,17 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
       return callback.supportsDirectDelivery();
    }
 
+   @Override
+   public boolean supportsBatchedDelivery() {
+      return supportsBatchedDelivery;
+   }
+
+   @Override
+   public boolean hasCreditsForBatch(int batchedSize) {
+      AtomicInteger checkInteger = availableCredits;
+      return checkInteger == null || checkInteger.get() - batchedSize > 0;
+   }
+
    @Override
    public void errorProcessing(Throwable e, MessageReference deliveryObject) {
       messageQueue.errorProcessing(this, e, deliveryObject);
@@ -507,13 +522,65 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
             deliverStandardMessage(reference, message);
          }
       } finally {
-         pendingDelivery.countDown();
-         callback.afterDelivery();
-         if (server.hasBrokerMessagePlugins()) {
-            server.callBrokerMessagePlugins(plugin -> plugin.afterDeliver(this, reference));
+         afterDeliver(reference);
+      }
+
+   }
+
+   @Override
+   public void proceedDeliver(List<MessageReference> references) throws Exception {
+      if (references.size() == 1) {
+         proceedDeliver(references.get(0));
+         return;
+      }
+
+      List<MessageReference> standardReferences = new ArrayList<>(references.size());
+      List<Message> messages = new ArrayList<>(references.size());
+      MessageReference largeReference = null;
+      try {
+         for (MessageReference reference : references) {
+            Message message = reference.getMessage();
+
+            if (message instanceof CoreLargeServerMessage && supportLargeMessage) {
+               // handle doesn't take any other reference after a large message
+               largeReference = reference;
+               break;
+            }
+
+            if (server.hasBrokerMessagePlugins()) {
+               server.callBrokerMessagePlugins(plugin -> plugin.beforeDeliver(this, reference));
+            }
+
+            standardReferences.add(reference);
+            messages.add(message);
+         }
+
+         if (!messages.isEmpty()) {
+            deliverStandardMessages(standardReferences, messages);
          }
+      } catch (Throwable t) {
+         // the large message won't be delivered either
+         for (MessageReference reference : references) {
+            afterDeliver(reference);
+         }
+         throw t;
+      }
+
+      for (MessageReference reference : standardReferences) {
+         afterDeliver(reference);
       }
 
+      if (largeReference != null) {
+         proceedDeliver(largeReference);
+      }
+   }
+
+   private void afterDeliver(MessageReference reference) throws Exception {
+      pendingDelivery.countDown();
+      callback.afterDelivery();
+      if (server.hasBrokerMessagePlugins()) {
+         server.callBrokerMessagePlugins(plugin -> plugin.afterDeliver(this, reference));
+      }
    }
 
    @Override
@@ -1175,6 +1242,26 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
       }
    }
 
+   private void deliverStandardMessages(final List<MessageReference> refs, List<Message> messages) throws ActiveMQException {
+      for (Message message : messages) {
+         applyPrefixForLegacyConsumer(message);
+      }
+      int packetSize = callback.sendMessages(refs, messages, ServerConsumerImpl.this);
+
+      if (availableCredits != null) {
+         availableCredits.addAndGet(-packetSize);
+
+         if (logger.isTraceEnabled()) {
+            logger.trace(this + "::FlowControl::delivery of " +
+                            refs.size() +
+                            " standard messages taking " +
+                            packetSize +
+                            " from credits, available now is " +
+                            availableCredits);
+         }
+      }
+   }
+
    private void applyPrefixForLegacyConsumer(Message message) {
       /**
        * check to see if:
@@ -547,7 +547,7 @@ public class ServerSessionImpl implements ServerSession, FailureListener {
          }
       }
 
-      Filter filter = FilterImpl.createFilter(filterString);
+      Filter filter = FilterImpl.createFilter(filterString, server.getAddressSettingsRepository().getMatch(address.toString()).isCompileSelectors());
 
       if (server.hasBrokerConsumerPlugins()) {
          server.callBrokerConsumerPlugins(plugin -> plugin.beforeCreateConsumer(consumerID, (QueueBinding) binding,
@@ -1724,6 +1724,75 @@ public class ServerSessionImpl implements ServerSession, FailureListener {
       return send(getCurrentTransaction(), message, direct, noAutoCreateQueue);
    }
 
+   @Override
+   public synchronized void sendBatch(final List<? extends Message> messages, final boolean direct) throws Exception {
+      if (!autoCommitSends || messages.stream().noneMatch(Message::isDurable)) {
+         for (Message message : messages) {
+            send(message, direct);
+         }
+         return;
+      }
+
+      // the durable messages are stored in a single transaction, so the journal is synced once for the whole batch;
+      // a duplicate would make the whole transaction fail, so the messages before it are committed and it's sent alone
+      Transaction batchTx = null;
+      final Set<SimpleString> batchDuplicateIDs = new HashSet<>();
+      for (Message message : messages) {
+         if (isBatchDuplicate(message, batchDuplicateIDs)) {
+            if (batchTx != null) {
+               batchTx.commit();
+               batchTx = null;
+            }
+            batchDuplicateIDs.clear();
+            send(message, direct);
+            continue;
+         }
+
+         if (batchTx == null) {
+            batchTx = newTransaction();
+         }
+         final byte[] duplicateID = message.getDuplicateIDBytes();
+         if (duplicateID != null) {
+            batchDuplicateIDs.add(new SimpleString(duplicateID));
+         }
+         try {
+            send(batchTx, message, direct, false, routingContext, true);
+         } catch (Exception e) {
+            batchTx.rollback();
+            throw e;
+         }
+      }
+      if (batchTx != null) {
+         batchTx.commit();
+      }
+   }
+
+   /**
+    * @return {@code true} if the message of a batch may be a duplicate, either of a message already routed or of a
+    * message of the same batch
+    */
+   private boolean isBatchDuplicate(Message message, Set<SimpleString> batchDuplicateIDs) {
+      if (message.containsProperty(Message.HDR_BRIDGE_DUPLICATE_ID)) {
+         return true;
+      }
+
+      final byte[] duplicateID = message.getDuplicateIDBytes();
+      if (duplicateID == null) {
+         return false;
+      }
+
+      if (batchDuplicateIDs.contains(new SimpleString(duplicateID))) {
+         return true;
+      }
+
+      final SimpleString address = message.getAddressSimpleString() == null ? defaultAddress : message.getAddressSimpleString();
+      if (address == null) {
+         return false;
+      }
+      final SimpleString cacheAddress = getAddressAndRoutingType(new AddressInfo(address, message.getRoutingType())).getName();
+      return postOffice.getDuplicateIDCache(cacheAddress).contains(duplicateID);
+   }
+
    @Override
    public synchronized RoutingStatus send(Transaction tx,
                                           Message msg,
@@ -1738,6 +1807,19 @@ public class ServerSessionImpl implements ServerSession, FailureListener {
                                           final boolean direct,
                                           boolean noAutoCreateQueue,
                                           RoutingContext routingContext) throws Exception {
+      return send(tx, messageParameter, direct, noAutoCreateQueue, routingContext, !autoCommitSends);
+   }
+
+   /**
+    * @param routeInTx whether the message is routed in {@code tx}, otherwise the transaction is only passed along to
+    *                  the plugins and the audit log
+    */
+   private RoutingStatus send(Transaction tx,
+                              Message messageParameter,
+                              final boolean direct,
+                              boolean noAutoCreateQueue,
+                              RoutingContext routingContext,
+                              boolean routeInTx) throws Exception {
       if (AuditLogger.isMessageEnabled()) {
          AuditLogger.coreSendMessage(this, getUsername(), tx, messageParameter, direct, noAutoCreateQueue, routingContext);
       }
@@ -1790,9 +1872,9 @@ public class ServerSessionImpl implements ServerSession, FailureListener {
          if (message.getAddressSimpleString().equals(managementAddress)) {
             // It's a management message
 
-            result = handleManagementMessage(tx, message, direct);
+            result = handleManagementMessage(tx, message, direct, routeInTx);
          } else {
-            result = doSend(tx, message, address, direct, noAutoCreateQueue, routingContext);
+            result = doSend(tx, message, address, direct, noAutoCreateQueue, routingContext, routeInTx);
          }
 
       } catch (Exception e) {
@@ -2008,14 +2090,15 @@ public class ServerSessionImpl implements ServerSession, FailureListener {
 
    private RoutingStatus handleManagementMessage(final Transaction tx,
                                                  final Message message,
-                                                 final boolean direct) throws Exception {
+                                                 final boolean direct,
+                                                 final boolean routeInTx) throws Exception {
       if (AuditLogger.isEnabled()) {
          AuditLogger.handleManagementMessage(this.getName(), getUsername(), tx, message, direct);
       }
       try {
          securityCheck(removePrefix(message.getAddressSimpleString()), CheckType.MANAGE, this);
       } catch (ActiveMQException e) {
-         if (!autoCommitSends) {
+         if (routeInTx && tx != null) {
             tx.markAsRollbackOnly(e);
          }
          throw e;
@@ -2034,7 +2117,7 @@ public class ServerSessionImpl implements ServerSession, FailureListener {
          }
          reply.setAddress(replyTo);
 
-         doSend(tx, reply, null, direct, false, routingContext);
+         doSend(tx, reply, null, direct, false, routingContext, routeInTx);
       }
       return RoutingStatus.OK;
    }
@@ -2108,6 +2191,16 @@ public class ServerSessionImpl implements ServerSession, FailureListener {
                                             final boolean direct,
                                             final boolean noAutoCreateQueue,
                                             final RoutingContext routingContext) throws Exception {
+      return doSend(tx, msg, originalAddress, direct, noAutoCreateQueue, routingContext, !autoCommitSends);
+   }
+
+   private RoutingStatus doSend(final Transaction tx,
+                                final Message msg,
+                                final SimpleString originalAddress,
+                                final boolean direct,
+                                final boolean noAutoCreateQueue,
+                                final RoutingContext routingContext,
+                                final boolean routeInTx) throws Exception {
 
       RoutingStatus result = RoutingStatus.OK;
 
@@ -2129,7 +2222,7 @@ public class ServerSessionImpl implements ServerSession, FailureListener {
       try {
          securityCheck(art.getName(), CheckType.SEND, this);
       } catch (ActiveMQException e) {
-         if (!autoCommitSends && tx != null) {
+         if (routeInTx && tx != null) {
             tx.markAsRollbackOnly(e);
          }
          throw e;
@@ -2143,7 +2236,7 @@ public class ServerSessionImpl implements ServerSession, FailureListener {
          throw ActiveMQMessageBundle.BUNDLE.rejectEmptyValidatedUser();
       }
 
-      if (tx == null || autoCommitSends) {
+      if (tx == null || !routeInTx) {
          routingContext.setTransaction(null);
       } else {
          routingContext.setTransaction(tx);
@@ -23,4 +23,13 @@ public class BrokerMetricNames {
    public static final String TOTAL_CONNECTION_COUNT = "total.connection.count";
    public static final String ADDRESS_MEMORY_USAGE = "address.memory.usage";
    public static final String DISK_STORE_USAGE = "disk.store.usage";
+   public static final String PAGE_CACHE_SIZE = "page.cache.size";
+   public static final String PAGE_CACHE_HITS = "page.cache.hits";
+   public static final String PAGE_CACHE_MISSES = "page.cache.misses";
+   public static final String PAGE_CACHE_EVICTIONS = "page.cache.evictions";
+   public static final String SCHEDULED_DELIVERY_WHEEL_DEPTH = "scheduled.delivery.wheel.depth";
+   public static final String SCHEDULED_DELIVERY_LAG = "scheduled.delivery.lag";
+   public static final String JOURNAL_COMPACT_RECLAIMABLE_BYTES = "journal.compact.reclaimable.bytes";
+   public static final String JOURNAL_COMPACT_DURATION = "journal.compact.duration";
+   public static final String JOURNAL_COMPACT_COUNT = "journal.compact.count";
 }
@@ -121,6 +121,16 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
 
    public static final SimpleString DEFAULT_DEAD_LETTER_QUEUE_SUFFIX = SimpleString.toSimpleString("");
 
+   public static final boolean DEFAULT_COMPILE_SELECTORS = false;
+
+   public static final int DEFAULT_QUEUE_SHARDS = 1;
+
+   public static final boolean DEFAULT_INDEX_CONSUMER_FILTERS = false;
+
+   public static final int DEFAULT_DELIVERY_BATCH_SIZE = 1;
+
+   public static final boolean DEFAULT_INDEX_ROUTING_FILTERS = true;
+
    private AddressFullMessagePolicy addressFullMessagePolicy = null;
 
    private Long maxSizeBytes = null;
@@ -239,6 +249,16 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
 
    private SimpleString expiryQueueSuffix = null;
 
+   private Boolean compileSelectors = null;
+
+   private Integer queueShards = null;
+
+   private Boolean indexConsumerFilters = null;
+
+   private Integer deliveryBatchSize = null;
+
+   private Boolean indexRoutingFilters = null;
+
    //from amq5
    //make it transient
    private transient Integer queuePrefetch = null;
@@ -263,6 +283,11 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       this.autoCreateExpiryResources = other.autoCreateExpiryResources;
       this.expiryQueuePrefix = other.expiryQueuePrefix;
       this.expiryQueueSuffix = other.expiryQueueSuffix;
+      this.compileSelectors = other.compileSelectors;
+      this.queueShards = other.queueShards;
+      this.indexConsumerFilters = other.indexConsumerFilters;
+      this.deliveryBatchSize = other.deliveryBatchSize;
+      this.indexRoutingFilters = other.indexRoutingFilters;
       this.expiryDelay = other.expiryDelay;
       this.defaultLastValueQueue = other.defaultLastValueQueue;
       this.defaultLastValueKey = other.defaultLastValueKey;
@@ -668,6 +693,51 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       return this;
    }
 
+   public boolean isCompileSelectors() {
+      return compileSelectors != null ? compileSelectors : AddressSettings.DEFAULT_COMPILE_SELECTORS;
+   }
+
+   public AddressSettings setCompileSelectors(final Boolean value) {
+      compileSelectors = value;
+      return this;
+   }
+
+   public int getQueueShards() {
+      return queueShards != null ? queueShards : AddressSettings.DEFAULT_QUEUE_SHARDS;
+   }
+
+   public AddressSettings setQueueShards(final Integer value) {
+      queueShards = value;
+      return this;
+   }
+
+   public boolean isIndexConsumerFilters() {
+      return indexConsumerFilters != null ? indexConsumerFilters : AddressSettings.DEFAULT_INDEX_CONSUMER_FILTERS;
+   }
+
+   public AddressSettings setIndexConsumerFilters(final Boolean value) {
+      indexConsumerFilters = value;
+      return this;
+   }
+
+   public int getDeliveryBatchSize() {
+      return deliveryBatchSize != null ? deliveryBatchSize : AddressSettings.DEFAULT_DELIVERY_BATCH_SIZE;
+   }
+
+   public AddressSettings setDeliveryBatchSize(final Integer value) {
+      deliveryBatchSize = value;
+      return this;
+   }
+
+   public boolean isIndexRoutingFilters() {
+      return indexRoutingFilters != null ? indexRoutingFilters : AddressSettings.DEFAULT_INDEX_ROUTING_FILTERS;
+   }
+
+   public AddressSettings setIndexRoutingFilters(final Boolean value) {
+      indexRoutingFilters = value;
+      return this;
+   }
+
    public Long getExpiryDelay() {
       return expiryDelay;
    }
@@ -1035,6 +1105,21 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       if (expiryQueueSuffix == null) {
          expiryQueueSuffix = merged.expiryQueueSuffix;
       }
+      if (compileSelectors == null) {
+         compileSelectors = merged.compileSelectors;
+      }
+      if (queueShards == null) {
+         queueShards = merged.queueShards;
+      }
+      if (indexConsumerFilters == null) {
+         indexConsumerFilters = merged.indexConsumerFilters;
+      }
+      if (deliveryBatchSize == null) {
+         deliveryBatchSize = merged.deliveryBatchSize;
+      }
+      if (indexRoutingFilters == null) {
+         indexRoutingFilters = merged.indexRoutingFilters;
+      }
    }
 
    @Override
@@ -1231,6 +1316,26 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       if (buffer.readableBytes() > 0) {
          expiryQueueSuffix = buffer.readNullableSimpleString();
       }
+
+      if (buffer.readableBytes() > 0) {
+         compileSelectors = BufferHelper.readNullableBoolean(buffer);
+      }
+
+      if (buffer.readableBytes() > 0) {
+         queueShards = BufferHelper.readNullableInteger(buffer);
+      }
+
+      if (buffer.readableBytes() > 0) {
+         indexConsumerFilters = BufferHelper.readNullableBoolean(buffer);
+      }
+
+      if (buffer.readableBytes() > 0) {
+         deliveryBatchSize = BufferHelper.readNullableInteger(buffer);
+      }
+
+      if (buffer.readableBytes() > 0) {
+         indexRoutingFilters = BufferHelper.readNullableBoolean(buffer);
+      }
    }
 
    @Override
@@ -1290,7 +1395,12 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
          SimpleString.sizeofNullableString(deadLetterQueueSuffix) +
          BufferHelper.sizeOfNullableBoolean(autoCreateExpiryResources) +
          SimpleString.sizeofNullableString(expiryQueuePrefix) +
-         SimpleString.sizeofNullableString(expiryQueueSuffix);
+         SimpleString.sizeofNullableString(expiryQueueSuffix) +
+         BufferHelper.sizeOfNullableBoolean(compileSelectors) +
+         BufferHelper.sizeOfNullableInteger(queueShards) +
+         BufferHelper.sizeOfNullableBoolean(indexConsumerFilters) +
+         BufferHelper.sizeOfNullableInteger(deliveryBatchSize) +
+         BufferHelper.sizeOfNullableBoolean(indexRoutingFilters);
    }
 
    @Override
@@ -1408,6 +1518,16 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       buffer.writeNullableSimpleString(expiryQueuePrefix);
 
       buffer.writeNullableSimpleString(expiryQueueSuffix);
+
+      BufferHelper.writeNullableBoolean(buffer, compileSelectors);
+
+      BufferHelper.writeNullableInteger(buffer, queueShards);
+
+      BufferHelper.writeNullableBoolean(buffer, indexConsumerFilters);
+
+      BufferHelper.writeNullableInteger(buffer, deliveryBatchSize);
+
+      BufferHelper.writeNullableBoolean(buffer, indexRoutingFilters);
    }
 
    /* (non-Javadoc)
@@ -1475,6 +1595,11 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       result = prime * result + ((autoCreateExpiryResources == null) ? 0 : autoCreateExpiryResources.hashCode());
       result = prime * result + ((expiryQueuePrefix == null) ? 0 : expiryQueuePrefix.hashCode());
       result = prime * result + ((expiryQueueSuffix == null) ? 0 : expiryQueueSuffix.hashCode());
+      result = prime * result + ((compileSelectors == null) ? 0 : compileSelectors.hashCode());
+      result = prime * result + ((queueShards == null) ? 0 : queueShards.hashCode());
+      result = prime * result + ((indexConsumerFilters == null) ? 0 : indexConsumerFilters.hashCode());
+      result = prime * result + ((deliveryBatchSize == null) ? 0 : deliveryBatchSize.hashCode());
+      result = prime * result + ((indexRoutingFilters == null) ? 0 : indexRoutingFilters.hashCode());
       return result;
    }
 
@@ -1800,6 +1925,36 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       } else if (!expiryQueueSuffix.equals(other.expiryQueueSuffix))
          return false;
 
+      if (compileSelectors == null) {
+         if (other.compileSelectors != null)
+            return false;
+      } else if (!compileSelectors.equals(other.compileSelectors))
+         return false;
+
+      if (queueShards == null) {
+         if (other.queueShards != null)
+            return false;
+      } else if (!queueShards.equals(other.queueShards))
+         return false;
+
+      if (indexConsumerFilters == null) {
+         if (other.indexConsumerFilters != null)
+            return false;
+      } else if (!indexConsumerFilters.equals(other.indexConsumerFilters))
+         return false;
+
+      if (deliveryBatchSize == null) {
+         if (other.deliveryBatchSize != null)
+            return false;
+      } else if (!deliveryBatchSize.equals(other.deliveryBatchSize))
+         return false;
+
+      if (indexRoutingFilters == null) {
+         if (other.indexRoutingFilters != null)
+            return false;
+      } else if (!indexRoutingFilters.equals(other.indexRoutingFilters))
+         return false;
+
       return true;
    }
 
@@ -1921,6 +2076,16 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
          expiryQueuePrefix +
          ", expiryQueueSuffix=" +
          expiryQueueSuffix +
+         ", compileSelectors=" +
+         compileSelectors +
+         ", queueShards=" +
+         queueShards +
+         ", indexConsumerFilters=" +
+         indexConsumerFilters +
+         ", deliveryBatchSize=" +
+         deliveryBatchSize +
+         ", indexRoutingFilters=" +
+         indexRoutingFilters +
          "]";
    }
 }
@@ -16,6 +16,8 @@
  */
 package org.apache.activemq.artemis.spi.core.protocol;
 
+import java.util.List;
+
 import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.server.MessageReference;
@@ -69,6 +71,27 @@ public interface SessionCallback {
    //       Future developments may change this, but beware why I have chosen to keep the parameter separated here
    int sendMessage(MessageReference ref, Message message, ServerConsumer consumerID, int deliveryCount);
 
+   /**
+    * Whether {@link #sendMessages(List, List, ServerConsumer)} sends several messages to the client at once.
+    */
+   default boolean supportsBatchedDelivery() {
+      return false;
+   }
+
+   /**
+    * Sends several messages to the consumer, {@code messages} holding the message of each reference.
+    *
+    * @return the size taken from the credits of the consumer
+    */
+   default int sendMessages(List<MessageReference> refs, List<Message> messages, ServerConsumer consumerID) {
+      int size = 0;
+      for (int i = 0; i < refs.size(); i++) {
+         final MessageReference ref = refs.get(i);
+         size += sendMessage(ref, messages.get(i), consumerID, ref.getDeliveryCount());
+      }
+      return size;
+   }
+
    int sendLargeMessage(MessageReference reference,
                         Message message,
                         ServerConsumer consumerID,
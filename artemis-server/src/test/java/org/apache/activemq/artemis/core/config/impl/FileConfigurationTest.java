@@ -44,6 +44,7 @@ import org.apache.activemq.artemis.core.config.DivertConfiguration;
 import org.apache.activemq.artemis.core.config.FileDeploymentManager;
 import org.apache.activemq.artemis.core.config.HAPolicyConfiguration;
 import org.apache.activemq.artemis.core.config.ha.LiveOnlyPolicyConfiguration;
+import org.apache.activemq.artemis.core.journal.impl.CompactJournalRecordIndex;
 import org.apache.activemq.artemis.core.journal.impl.JournalImpl;
 import org.apache.activemq.artemis.core.remoting.impl.netty.TransportConstants;
 import org.apache.activemq.artemis.core.security.Role;
@@ -133,6 +134,10 @@ public class FileConfigurationTest extends ConfigurationImplTest {
       Assert.assertEquals(1000, conf.getJournalBufferTimeout_NIO());
       Assert.assertEquals(56546, conf.getJournalMaxIO_NIO());
       Assert.assertEquals(9876, conf.getJournalFileOpenTimeout());
+      Assert.assertEquals(true, conf.isJournalCompactRecordIndex());
+      Assert.assertEquals(4, conf.getJournalLoadThreads());
+      Assert.assertEquals(600000, conf.getJournalCheckpointPeriod());
+      Assert.assertEquals(20 * 1024 * 1024, conf.getJournalCompactMaxRate());
 
       Assert.assertEquals(false, conf.isJournalSyncTransactional());
       Assert.assertEquals(true, conf.isJournalSyncNonTransactional());
@@ -369,6 +374,11 @@ public class FileConfigurationTest extends ConfigurationImplTest {
       assertEquals(RoutingType.MULTICAST, conf.getAddressesSettings().get("a1").getDefaultAddressRoutingType());
       assertEquals(3, conf.getAddressesSettings().get("a1").getDefaultRingSize());
       assertEquals(0, conf.getAddressesSettings().get("a1").getRetroactiveMessageCount());
+      assertEquals(AddressSettings.DEFAULT_COMPILE_SELECTORS, conf.getAddressesSettings().get("a1").isCompileSelectors());
+      assertEquals(AddressSettings.DEFAULT_QUEUE_SHARDS, conf.getAddressesSettings().get("a1").getQueueShards());
+      assertEquals(AddressSettings.DEFAULT_INDEX_CONSUMER_FILTERS, conf.getAddressesSettings().get("a1").isIndexConsumerFilters());
+      assertEquals(AddressSettings.DEFAULT_DELIVERY_BATCH_SIZE, conf.getAddressesSettings().get("a1").getDeliveryBatchSize());
+      assertEquals(AddressSettings.DEFAULT_INDEX_ROUTING_FILTERS, conf.getAddressesSettings().get("a1").isIndexRoutingFilters());
 
       assertEquals("a2.1", conf.getAddressesSettings().get("a2").getDeadLetterAddress().toString());
       assertEquals(true, conf.getAddressesSettings().get("a2").isAutoCreateDeadLetterResources());
@@ -400,6 +410,11 @@ public class FileConfigurationTest extends ConfigurationImplTest {
       assertEquals(10000, conf.getAddressesSettings().get("a2").getDefaultConsumerWindowSize());
       assertEquals(-1, conf.getAddressesSettings().get("a2").getDefaultRingSize());
       assertEquals(10, conf.getAddressesSettings().get("a2").getRetroactiveMessageCount());
+      assertEquals(true, conf.getAddressesSettings().get("a2").isCompileSelectors());
+      assertEquals(4, conf.getAddressesSettings().get("a2").getQueueShards());
+      assertEquals(true, conf.getAddressesSettings().get("a2").isIndexConsumerFilters());
+      assertEquals(16, conf.getAddressesSettings().get("a2").getDeliveryBatchSize());
+      assertEquals(false, conf.getAddressesSettings().get("a2").isIndexRoutingFilters());
 
       assertTrue(conf.getResourceLimitSettings().containsKey("myUser"));
       assertEquals(104, conf.getResourceLimitSettings().get("myUser").getMaxConnections());
@@ -447,6 +462,7 @@ public class FileConfigurationTest extends ConfigurationImplTest {
       assertTrue(a2Role.isDeleteNonDurableQueue());
       assertFalse(a2Role.isManage());
       assertEquals(1234567, conf.getGlobalMaxSize());
+      assertEquals(7654321, conf.getGlobalPageCacheSize());
       assertEquals(37, conf.getMaxDiskUsage());
       assertEquals(123, conf.getDiskScanPeriod());
 
@@ -738,6 +754,25 @@ public class FileConfigurationTest extends ConfigurationImplTest {
       }
    }
 
+   @Test
+   public void testJournalCompactRecordIndex() throws Exception {
+      Configuration configuration = createConfiguration("shared-store-master-hapolicy-config.xml");
+      configuration.setJournalCompactRecordIndex(true)
+                   .setJournalDirectory(getJournalDir())
+                   .setPagingDirectory(getPageDir())
+                   .setLargeMessagesDirectory(getLargeMessagesDir())
+                   .setBindingsDirectory(getBindingsDir());
+      ActiveMQServerImpl server = new ActiveMQServerImpl(configuration);
+      try {
+         server.start();
+         JournalImpl journal = (JournalImpl) server.getStorageManager().getMessageJournal();
+         Assert.assertTrue(journal.isCompactRecordIndex());
+         Assert.assertTrue(journal.getRecords() instanceof CompactJournalRecordIndex);
+      } finally {
+         server.stop();
+      }
+   }
+
    @Override
    protected Configuration createConfiguration() throws Exception {
       // This may be set for the entire testsuite, but on this test we need this out
@@ -16,6 +16,7 @@
  */
 package org.apache.activemq.artemis.core.list;
 
+import org.apache.activemq.artemis.utils.collections.LinkedListImpl;
 import org.apache.activemq.artemis.utils.collections.LinkedListIterator;
 import org.apache.activemq.artemis.utils.collections.PriorityLinkedListImpl;
 import org.junit.Assert;
@@ -870,6 +871,63 @@ public final class PriorityLinkedListTest extends Assert {
       iter.remove();
    }
 
+   @Test
+   public void testRemoveIntrusive() {
+      PriorityLinkedListImpl<IntrusiveWibble> intrusiveList = new PriorityLinkedListImpl<>(10);
+      IntrusiveWibble w1 = new IntrusiveWibble("w1");
+      IntrusiveWibble w2 = new IntrusiveWibble("w2");
+      IntrusiveWibble w3 = new IntrusiveWibble("w3");
+      IntrusiveWibble w4 = new IntrusiveWibble("w4");
+
+      intrusiveList.addTail(w1, 4);
+      intrusiveList.addTail(w2, 4);
+      intrusiveList.addTail(w3, 4);
+      intrusiveList.addTail(w4, 9);
+
+      // an element linked to another list is wrapped there and stays intrusive in the first one
+      PriorityLinkedListImpl<IntrusiveWibble> otherList = new PriorityLinkedListImpl<>(10);
+      otherList.addTail(w2, 4);
+
+      LinkedListIterator<IntrusiveWibble> iter = intrusiveList.iterator();
+      assertEquals(w4, iter.next());
+      assertEquals(w1, iter.next());
+
+      assertTrue(LinkedListImpl.isLinked(w2));
+      assertTrue(intrusiveList.removeIntrusive(w2, 4));
+      assertFalse(LinkedListImpl.isLinked(w2));
+      assertFalse(intrusiveList.removeIntrusive(w2, 4));
+      assertTrue(intrusiveList.removeIntrusive(w4, 9));
+      assertEquals(2, intrusiveList.size());
+
+      assertTrue(iter.hasNext());
+      assertEquals(w3, iter.next());
+      assertFalse(iter.hasNext());
+      iter.close();
+
+      assertFalse(intrusiveList.removeIntrusive(new IntrusiveWibble("w5"), 4));
+
+      assertEquals(w1, intrusiveList.poll());
+      assertEquals(w3, intrusiveList.poll());
+      assertNull(intrusiveList.poll());
+      assertEquals(0, intrusiveList.size());
+
+      assertEquals(w2, otherList.poll());
+   }
+
+   static class IntrusiveWibble extends LinkedListImpl.Node<IntrusiveWibble> {
+
+      final String s1;
+
+      IntrusiveWibble(final String s) {
+         this.s1 = s;
+      }
+
+      @Override
+      public String toString() {
+         return s1;
+      }
+   }
+
    static class Wibble {
 
       String s1;
@@ -191,6 +191,36 @@ public class ScheduledDeliveryHandlerTest extends Assert {
       }
    }
 
+   @Test
+   public void testSharedWheel() throws Exception {
+      ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, ActiveMQThreadFactory.defaultThreadFactory());
+      try {
+         ScheduledDeliveryWheel wheel = new ScheduledDeliveryWheel(scheduler, 10, 4);
+         FakeQueueForScheduleUnitTest queue1 = new FakeQueueForScheduleUnitTest(100);
+         FakeQueueForScheduleUnitTest queue2 = new FakeQueueForScheduleUnitTest(100);
+         ScheduledDeliveryHandlerImpl handler1 = new ScheduledDeliveryHandlerImpl(queue1, wheel);
+         ScheduledDeliveryHandlerImpl handler2 = new ScheduledDeliveryHandlerImpl(queue2, wheel);
+
+         // more than a turn of the wheel ahead, in the same few ticks
+         long deliveryTime = System.currentTimeMillis() + 200;
+         for (int i = 0; i < 100; i++) {
+            checkAndSchedule(handler1, i, deliveryTime + i % 3, false, queue1);
+            checkAndSchedule(handler2, i, deliveryTime + i % 3, true, queue2);
+         }
+         assertTrue(wheel.getDepth() <= 6);
+         assertEquals(100, handler1.getScheduledCount());
+
+         assertTrue(queue1.waitCompletion(2, TimeUnit.SECONDS));
+         assertTrue(queue2.waitCompletion(2, TimeUnit.SECONDS));
+         assertTrue(System.currentTimeMillis() >= deliveryTime);
+         assertEquals(0, handler1.getScheduledCount());
+         assertEquals(0, handler2.getScheduledCount());
+         assertEquals(0, wheel.getDepth());
+      } finally {
+         scheduler.shutdownNow();
+      }
+   }
+
    private void internalSchedule(ExecutorService executor, ScheduledThreadPoolExecutor scheduler) throws Exception {
       final int NUMBER_OF_MESSAGES = 200;
       int NUMBER_OF_THREADS = 20;
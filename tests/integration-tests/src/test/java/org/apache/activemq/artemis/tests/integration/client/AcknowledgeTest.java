@@ -18,6 +18,7 @@ package org.apache.activemq.artemis.tests.integration.client;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -311,6 +312,11 @@ public class AcknowledgeTest extends ActiveMQTestBase {
          return null;
       }
 
+      @Override
+      public CompletableFuture<ClientMessage> receiveAsync() {
+         return null;
+      }
+
       @Override
       public MessageHandler getMessageHandler() throws ActiveMQException {
          return null;
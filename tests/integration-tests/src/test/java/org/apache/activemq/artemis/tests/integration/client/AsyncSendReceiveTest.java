@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.integration.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.Queue;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.apache.activemq.artemis.tests.util.Wait;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncSendReceiveTest extends ActiveMQTestBase {
+
+   private static final SimpleString SEQUENCE = new SimpleString("sequence");
+
+   private ActiveMQServer server;
+
+   private final SimpleString address = new SimpleString("AsyncSendReceiveTestAddress");
+
+   private final SimpleString qName = new SimpleString("AsyncSendReceiveTestQ1");
+
+   @Test
+   public void testSendAsyncCompletesOnConfirmation() throws Exception {
+      final int messages = 1000;
+      ServerLocator locator = createInVMNonHALocator().setConfirmationWindowSize(1024 * 1024);
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      ClientProducer producer = session.createProducer(address);
+      List<CompletableFuture<Void>> sends = new ArrayList<>();
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.putIntProperty(SEQUENCE, i);
+         sends.add(producer.sendAsync(message));
+      }
+      CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+      final Queue queue = server.locateQueue(qName);
+      assertEquals(messages, queue.getMessageCount());
+   }
+
+   @Test
+   public void testSendAsyncWithoutConfirmationWindow() throws Exception {
+      ServerLocator locator = createInVMNonHALocator().setBlockOnDurableSend(false);
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      ClientProducer producer = session.createProducer(address);
+      CompletableFuture<Void> send = producer.sendAsync(session.createMessage(true));
+      assertTrue(send.isDone());
+
+      final Queue queue = server.locateQueue(qName);
+      assertEquals(1L, queue.getMessageCount());
+   }
+
+   @Test
+   public void testSendAsyncOnClosedProducer() throws Exception {
+      ServerLocator locator = createInVMNonHALocator().setConfirmationWindowSize(1024 * 1024);
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      ClientProducer producer = session.createProducer(address);
+      producer.close();
+      CompletableFuture<Void> send = producer.sendAsync(session.createMessage(true));
+      try {
+         send.get(10, TimeUnit.SECONDS);
+         fail("the producer is closed");
+      } catch (ExecutionException expected) {
+      }
+   }
+
+   @Test
+   public void testReceiveAsyncInOrder() throws Exception {
+      final int messages = 100;
+      ServerLocator locator = createInVMNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      ClientConsumer consumer = session.createConsumer(qName);
+      session.start();
+      List<CompletableFuture<ClientMessage>> receives = new ArrayList<>();
+      for (int i = 0; i < messages; i++) {
+         receives.add(consumer.receiveAsync());
+      }
+
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.putIntProperty(SEQUENCE, i);
+         producer.send(message);
+      }
+
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = receives.get(i).get(5, TimeUnit.SECONDS);
+         assertNotNull(message);
+         assertEquals(i, message.getIntProperty(SEQUENCE).intValue());
+         message.acknowledge();
+      }
+      assertNull(consumer.receiveImmediate());
+
+      final Queue queue = server.locateQueue(qName);
+      Wait.assertEquals(0L, queue::getMessageCount);
+   }
+
+   @Test
+   public void testReceiveAsyncSlowConsumer() throws Exception {
+      final int messages = 10;
+      ServerLocator locator = createInVMNonHALocator().setConsumerWindowSize(0);
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.putIntProperty(SEQUENCE, i);
+         producer.send(message);
+      }
+
+      ClientConsumer consumer = session.createConsumer(qName);
+      session.start();
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = consumer.receiveAsync().get(5, TimeUnit.SECONDS);
+         assertNotNull(message);
+         assertEquals(i, message.getIntProperty(SEQUENCE).intValue());
+         message.acknowledge();
+      }
+
+      final Queue queue = server.locateQueue(qName);
+      Wait.assertEquals(0L, queue::getMessageCount);
+   }
+
+   @Test
+   public void testReceiveAsyncUnreadLargeMessages() throws Exception {
+      final int messages = 5;
+      ServerLocator locator = createInVMNonHALocator().setMinLargeMessageSize(1024).setConsumerWindowSize(10 * 1024);
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.putIntProperty(SEQUENCE, i);
+         message.setBodyInputStream(createFakeLargeStream(100 * 1024));
+         producer.send(message);
+      }
+
+      ClientConsumer consumer = session.createConsumer(qName);
+      session.start();
+      // the bodies are never read: the credits of their chunks are given back on the next receive
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = consumer.receiveAsync().get(5, TimeUnit.SECONDS);
+         assertNotNull(message);
+         assertEquals(i, message.getIntProperty(SEQUENCE).intValue());
+         message.acknowledge();
+      }
+
+      final Queue queue = server.locateQueue(qName);
+      Wait.assertEquals(0L, queue::getMessageCount);
+   }
+
+   @Test
+   public void testPendingReceiveCompletedOnClose() throws Exception {
+      ServerLocator locator = createInVMNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      ClientConsumer consumer = session.createConsumer(qName);
+      session.start();
+      CompletableFuture<ClientMessage> receive = consumer.receiveAsync();
+      assertFalse(receive.isDone());
+
+      consumer.close();
+      assertNull(receive.get(5, TimeUnit.SECONDS));
+      assertTrue(consumer.receiveAsync().isCompletedExceptionally());
+   }
+
+   @Override
+   @Before
+   public void setUp() throws Exception {
+      super.setUp();
+
+      server = addServer(createServer(false));
+      server.start();
+   }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.integration.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.activemq.artemis.api.core.Interceptor;
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.Queue;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.apache.activemq.artemis.tests.util.Wait;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchedSendTest extends ActiveMQTestBase {
+
+   private static final SimpleString SEQUENCE = new SimpleString("sequence");
+
+   private ActiveMQServer server;
+
+   private final SimpleString address = new SimpleString("BatchedSendTestAddress");
+
+   private final SimpleString qName = new SimpleString("BatchedSendTestQ1");
+
+   private final AtomicInteger sends = new AtomicInteger(0);
+
+   private final AtomicInteger batches = new AtomicInteger(0);
+
+   @Test
+   public void testMessagesAreSentInASinglePacket() throws Exception {
+      final int messages = 100;
+      ServerLocator locator = createInVMNonHALocator().setBlockOnDurableSend(true);
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      ClientProducer producer = session.createProducer(address);
+      List<ClientMessage> batch = new ArrayList<>();
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.putIntProperty(SEQUENCE, i);
+         batch.add(message);
+      }
+      producer.send(batch);
+
+      assertEquals(1, batches.get());
+      assertEquals(0, sends.get());
+      final Queue queue = server.locateQueue(qName);
+      assertEquals(messages, queue.getMessageCount());
+
+      receiveInOrder(session, messages);
+      Wait.assertEquals(0L, queue::getMessageCount);
+   }
+
+   @Test
+   public void testLargeMessageSplitsTheBatch() throws Exception {
+      final int messages = 10;
+      ServerLocator locator = createInVMNonHALocator().setBlockOnDurableSend(true).setMinLargeMessageSize(1024);
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      ClientProducer producer = session.createProducer(address);
+      List<ClientMessage> batch = new ArrayList<>();
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.putIntProperty(SEQUENCE, i);
+         if (i == messages / 2) {
+            message.getBodyBuffer().writeBytes(new byte[2048]);
+         }
+         batch.add(message);
+      }
+      producer.send(batch);
+
+      assertEquals(2, batches.get());
+      final Queue queue = server.locateQueue(qName);
+      Wait.assertEquals((long) messages, queue::getMessageCount);
+
+      receiveInOrder(session, messages);
+      Wait.assertEquals(0L, queue::getMessageCount);
+   }
+
+   @Test
+   public void testDuplicatesDontFailTheBatch() throws Exception {
+      final int messages = 10;
+      ServerLocator locator = createInVMNonHALocator().setBlockOnDurableSend(true);
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      ClientProducer producer = session.createProducer(address);
+      // the first half of the batch reached the server before a failover
+      producer.send(createDuplicateDetectedBatch(session, messages / 2));
+      // the whole batch is resent, with a message repeated in it
+      List<ClientMessage> batch = createDuplicateDetectedBatch(session, messages);
+      batch.add(messages - 1, createDuplicateDetectedMessage(session, messages - 2));
+      producer.send(batch);
+
+      final Queue queue = server.locateQueue(qName);
+      Wait.assertEquals((long) messages, queue::getMessageCount);
+
+      receiveInOrder(session, messages);
+      Wait.assertEquals(0L, queue::getMessageCount);
+   }
+
+   @Test
+   public void testRolledBackBatchIsDiscarded() throws Exception {
+      final int messages = 100;
+      ServerLocator locator = createInVMNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, false, false));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      ClientProducer producer = session.createProducer(address);
+      List<ClientMessage> batch = new ArrayList<>();
+      for (int i = 0; i < messages; i++) {
+         batch.add(session.createMessage(true));
+      }
+      producer.send(batch);
+      session.rollback();
+
+      final Queue queue = server.locateQueue(qName);
+      assertEquals(0L, queue.getMessageCount());
+
+      producer.send(batch);
+      session.commit();
+      Wait.assertEquals((long) messages, queue::getMessageCount);
+   }
+
+   private List<ClientMessage> createDuplicateDetectedBatch(ClientSession session, int messages) {
+      List<ClientMessage> batch = new ArrayList<>();
+      for (int i = 0; i < messages; i++) {
+         batch.add(createDuplicateDetectedMessage(session, i));
+      }
+      return batch;
+   }
+
+   private ClientMessage createDuplicateDetectedMessage(ClientSession session, int sequence) {
+      ClientMessage message = session.createMessage(true);
+      message.putIntProperty(SEQUENCE, sequence);
+      message.putStringProperty(Message.HDR_DUPLICATE_DETECTION_ID, new SimpleString("duplicate" + sequence));
+      return message;
+   }
+
+   private void receiveInOrder(ClientSession session, int messages) throws Exception {
+      ClientConsumer consumer = session.createConsumer(qName);
+      session.start();
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         assertEquals(i, message.getIntProperty(SEQUENCE).intValue());
+         message.acknowledge();
+      }
+      assertNull(consumer.receiveImmediate());
+   }
+
+   @Override
+   @Before
+   public void setUp() throws Exception {
+      super.setUp();
+
+      server = addServer(createServer(true));
+      server.start();
+      server.getRemotingService().addIncomingInterceptor((Interceptor) (packet, connection) -> {
+         if (packet.getType() == PacketImpl.SESS_SEND_BATCH) {
+            batches.incrementAndGet();
+         } else if (packet.getType() == PacketImpl.SESS_SEND) {
+            sends.incrementAndGet();
+         }
+         return true;
+      });
+   }
+}
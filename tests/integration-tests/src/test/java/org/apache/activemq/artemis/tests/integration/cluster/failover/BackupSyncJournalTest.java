@@ -328,6 +328,23 @@ public class BackupSyncJournalTest extends FailoverTestBase {
       assertNoMoreMessages();
    }
 
+   @Test
+   public void testResyncFromPreviousReplica() throws Exception {
+      createProducerSendSomeMessages();
+      startBackupFinishSyncing();
+      backupServer.stop();
+
+      sendMessages(session, producer, n_msgs);
+      session.commit();
+
+      startBackupCrashLive();
+      FileMoveManager backupMoveManager = new FileMoveManager(backupServer.getServer().getConfiguration().getJournalLocation(), -1);
+      assertEquals("the previous replica must have been kept", 1, backupMoveManager.getNumberOfFolders());
+      receiveMsgsInRange(0, n_msgs);
+      receiveMsgsInRange(0, n_msgs);
+      assertNoMoreMessages();
+   }
+
    @Test
    public void testRemoveAllMessageWithPurgeOnNoConsumers() throws Exception {
       final boolean purgeOnNoConsumers = true;
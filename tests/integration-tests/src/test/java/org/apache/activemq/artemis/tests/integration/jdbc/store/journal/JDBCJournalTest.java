@@ -16,7 +16,9 @@
  */
 package org.apache.activemq.artemis.tests.integration.jdbc.store.journal;
 
+import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -42,6 +44,7 @@ import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
 import org.apache.activemq.artemis.utils.ThreadLeakCheckRule;
 import org.junit.After;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -60,6 +63,8 @@ public class JDBCJournalTest extends ActiveMQTestBase {
 
    private ExecutorService executorService;
 
+   private ExecutorService partitionExecutorService;
+
    private SQLProvider sqlProvider;
 
    private DatabaseStorageConfiguration dbConf;
@@ -67,9 +72,12 @@ public class JDBCJournalTest extends ActiveMQTestBase {
    @Parameterized.Parameter
    public boolean useAuthentication;
 
-   @Parameterized.Parameters(name = "authentication = {0}")
+   @Parameterized.Parameter(1)
+   public int partitions;
+
+   @Parameterized.Parameters(name = "authentication = {0}, partitions = {1}")
    public static Collection<Object[]> data() {
-      return Arrays.asList(new Object[][]{{false}, {true}});
+      return Arrays.asList(new Object[][]{{false, 1}, {true, 1}, {false, 3}});
    }
 
    @After
@@ -92,6 +100,8 @@ public class JDBCJournalTest extends ActiveMQTestBase {
       scheduledExecutorService = null;
       executorService.shutdown();
       executorService = null;
+      partitionExecutorService.shutdown();
+      partitionExecutorService = null;
    }
 
    protected String getJdbcUser() {
@@ -129,6 +139,13 @@ public class JDBCJournalTest extends ActiveMQTestBase {
 
          }
       }, 5);
+      partitionExecutorService = Executors.newCachedThreadPool();
+      for (int i = 1; i < partitions; i++) {
+         journal.addPartition(JDBCUtils.getSQLProvider(
+            dbConf.getJdbcDriverClassName(),
+            dbConf.getMessageTableName() + "_" + i,
+            SQLProvider.DatabaseStoreType.MESSAGE_JOURNAL), partitionExecutorService);
+      }
       journal.start();
    }
 
@@ -250,4 +267,106 @@ public class JDBCJournalTest extends ActiveMQTestBase {
       assertEquals(noRecords + (noTxRecords * noTx), recordInfos.size());
    }
 
+   @Test
+   public void testDiscardIncompleteSync() throws Exception {
+      Assume.assumeTrue(partitions > 1);
+
+      int noRecords = 10;
+      for (int i = 0; i < noRecords; i++) {
+         journal.appendAddRecord(i, (byte) 1, new byte[]{1}, true);
+      }
+
+      insertIncompleteSyncRecord();
+
+      journal.stop();
+      journal.start();
+
+      List<RecordInfo> recordInfos = new ArrayList<>();
+      List<PreparedTransactionInfo> txInfos = new ArrayList<>();
+      journal.load(recordInfos, txInfos, null);
+
+      assertEquals(noRecords, recordInfos.size());
+      for (RecordInfo info : recordInfos) {
+         assertNotEquals(1000, info.id);
+      }
+      // and deleted
+      assertEquals(noRecords, journal.getNumberOfRecords());
+   }
+
+   @Test
+   public void testDiscardIncompleteFirstSync() throws Exception {
+      Assume.assumeTrue(partitions > 1);
+
+      // the journal crashed before the mark of its first sync got committed
+      insertIncompleteSyncRecord();
+
+      journal.stop();
+      journal.start();
+
+      List<RecordInfo> recordInfos = new ArrayList<>();
+      List<PreparedTransactionInfo> txInfos = new ArrayList<>();
+      journal.load(recordInfos, txInfos, null);
+
+      assertEquals(0, recordInfos.size());
+      assertEquals(0, journal.getNumberOfRecords());
+   }
+
+   private void insertIncompleteSyncRecord() throws Exception {
+      // a record of a sync committed on a table but not on the others
+      SQLProvider partitionProvider = JDBCUtils.getSQLProvider(
+         dbConf.getJdbcDriverClassName(),
+         dbConf.getMessageTableName() + "_1",
+         SQLProvider.DatabaseStoreType.MESSAGE_JOURNAL);
+      try (Connection connection = useAuthentication ? DriverManager.getConnection(dbConf.getJdbcConnectionUrl(), getJdbcUser(), getJdbcPassword()) : DriverManager.getConnection(dbConf.getJdbcConnectionUrl());
+           PreparedStatement insert = connection.prepareStatement(partitionProvider.getInsertJournalRecordsSQL())) {
+         insert.setLong(1, 1000);
+         insert.setByte(2, (byte) 11);
+         insert.setByte(3, (byte) 0);
+         insert.setLong(4, 0);
+         insert.setByte(5, (byte) 1);
+         insert.setInt(6, 1);
+         insert.setBytes(7, new byte[]{1});
+         insert.setInt(8, 0);
+         insert.setBytes(9, new byte[0]);
+         insert.setInt(10, 0);
+         insert.setLong(11, 1_000_000);
+         insert.executeUpdate();
+      }
+   }
+
+   @Test
+   public void testReloadUpdatedAndDeletedRecords() throws Exception {
+      int noRecords = 20;
+      for (int i = 0; i < noRecords; i++) {
+         journal.appendAddRecord(i, (byte) 1, new byte[]{1}, true);
+      }
+      // updates and deletes of the same records, in transactions stored anywhere
+      for (int i = 0; i < noRecords; i++) {
+         long txId = 1000 + i;
+         if (i % 2 == 0) {
+            journal.appendUpdateRecordTransactional(txId, i, (byte) 1, new byte[]{2});
+         } else {
+            journal.appendDeleteRecordTransactional(txId, i);
+         }
+         journal.appendCommitRecord(txId, true);
+      }
+      journal.appendDeleteRecord(0, true);
+
+      journal.stop();
+      journal.start();
+
+      List<RecordInfo> recordInfos = new ArrayList<>();
+      List<PreparedTransactionInfo> txInfos = new ArrayList<>();
+      journal.load(recordInfos, txInfos, null);
+
+      // the add and the update of each even record but the first one
+      assertEquals(0, txInfos.size());
+      assertEquals(2 * (noRecords / 2 - 1), recordInfos.size());
+      for (RecordInfo info : recordInfos) {
+         assertEquals(0, info.id % 2);
+         assertNotEquals(0, info.id);
+         assertArrayEquals(new byte[]{(byte) (info.isUpdate ? 2 : 1)}, info.data);
+      }
+   }
+
 }
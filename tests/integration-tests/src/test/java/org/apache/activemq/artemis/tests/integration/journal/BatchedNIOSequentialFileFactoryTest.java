@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.integration.journal;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.activemq.artemis.core.io.IOCallback;
+import org.apache.activemq.artemis.core.io.SequentialFile;
+import org.apache.activemq.artemis.core.io.SequentialFileFactory;
+import org.apache.activemq.artemis.core.io.nio.BatchedNIOSequentialFileFactory;
+import org.apache.activemq.artemis.tests.unit.core.journal.impl.SequentialFileFactoryTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BatchedNIOSequentialFileFactoryTest extends SequentialFileFactoryTestBase {
+
+   @Override
+   protected SequentialFileFactory createFactory(String folder) {
+      return new BatchedNIOSequentialFileFactory(new File(folder), 10);
+   }
+
+   @Test
+   public void testCallbackSubmittingWithoutSlots() throws Exception {
+      SequentialFileFactory singleSlotFactory = new BatchedNIOSequentialFileFactory(new File(getTestDir()), 1);
+      singleSlotFactory.start();
+      SequentialFile file = singleSlotFactory.createSequentialFile("callbacks.amq");
+      file.open();
+      try {
+         final CountDownLatch done = new CountDownLatch(3);
+         file.writeDirect(newBuffer(singleSlotFactory), true, new IOCallback() {
+            @Override
+            public void done() {
+               // more writes than slots, from the submitter thread
+               file.writeDirect(newBuffer(singleSlotFactory), false, countDown(done));
+               file.writeDirect(newBuffer(singleSlotFactory), true, countDown(done));
+               done.countDown();
+            }
+
+            @Override
+            public void onError(int errorCode, String errorMessage) {
+            }
+         });
+         Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+         Assert.assertEquals(300, file.size());
+      } finally {
+         file.close();
+         singleSlotFactory.stop();
+      }
+   }
+
+   @Test
+   public void testCallbacksInSubmissionOrder() throws Exception {
+      SequentialFile file = factory.createSequentialFile("batched.amq");
+      file.open();
+      try {
+         final int writes = 100;
+         final AtomicInteger completed = new AtomicInteger(0);
+         final AtomicInteger outOfOrder = new AtomicInteger(0);
+         final CountDownLatch done = new CountDownLatch(writes);
+         for (int i = 0; i < writes; i++) {
+            final int expected = i;
+            ByteBuffer buffer = factory.newBuffer(100);
+            buffer.put(new byte[100]);
+            buffer.flip();
+            file.writeDirect(buffer, i % 10 == 9, new IOCallback() {
+               @Override
+               public void done() {
+                  if (completed.getAndIncrement() != expected) {
+                     outOfOrder.incrementAndGet();
+                  }
+                  done.countDown();
+               }
+
+               @Override
+               public void onError(int errorCode, String errorMessage) {
+                  outOfOrder.incrementAndGet();
+                  done.countDown();
+               }
+            });
+         }
+         Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+         Assert.assertEquals(0, outOfOrder.get());
+         Assert.assertEquals(writes * 100, file.size());
+      } finally {
+         file.close();
+      }
+   }
+
+   private static ByteBuffer newBuffer(SequentialFileFactory factory) {
+      ByteBuffer buffer = factory.newBuffer(100);
+      buffer.put(new byte[100]);
+      buffer.flip();
+      return buffer;
+   }
+
+   private static IOCallback countDown(CountDownLatch latch) {
+      return new IOCallback() {
+         @Override
+         public void done() {
+            latch.countDown();
+         }
+
+         @Override
+         public void onError(int errorCode, String errorMessage) {
+         }
+      };
+   }
+}
@@ -50,6 +50,7 @@ import org.apache.activemq.artemis.core.persistence.impl.journal.OperationContex
 import org.apache.activemq.artemis.tests.unit.core.journal.impl.JournalImplTestBase;
 import org.apache.activemq.artemis.tests.unit.core.journal.impl.fakes.SimpleEncoding;
 import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.apache.activemq.artemis.tests.util.Wait;
 import org.apache.activemq.artemis.utils.ActiveMQThreadFactory;
 import org.apache.activemq.artemis.utils.IDGenerator;
 import org.apache.activemq.artemis.utils.actors.OrderedExecutorFactory;
@@ -418,6 +419,266 @@ public class NIOJournalCompactTest extends JournalImplTestBase {
 
    }
 
+   @Test
+   public void testCheckpointCompactingDisabled() throws Exception {
+
+      setup(2, 60 * 1024, false);
+
+      createJournal();
+
+      startJournal();
+
+      load();
+
+      add(1, 2, 3);
+
+      for (int i = 0; i < 5; i++) {
+         update(1, 2, 3);
+
+         journal.forceMoveNextFile();
+      }
+
+      final int dataFiles = journal.getDataFilesCount();
+
+      // the compact min files is 0
+      Assert.assertFalse(((JournalImpl) journal).checkpoint());
+
+      Assert.assertEquals(0, ((JournalImpl) journal).getCompactCount());
+
+      Assert.assertEquals(dataFiles, journal.getDataFilesCount());
+
+      stopJournal();
+   }
+
+   @Test
+   public void testCheckpoint() throws Exception {
+
+      setup(2, 60 * 1024, false);
+
+      createCheckpointJournal();
+
+      startJournal();
+
+      load();
+
+      add(1, 2, 3, 4, 5);
+
+      // nothing to rewrite yet
+      Assert.assertFalse(((JournalImpl) journal).checkpoint());
+
+      for (int i = 0; i < 5; i++) {
+         update(1, 2, 3);
+
+         journal.forceMoveNextFile();
+      }
+
+      delete(4);
+
+      journal.forceMoveNextFile();
+
+      final int dataFiles = journal.getDataFilesCount();
+
+      Assert.assertTrue(((JournalImpl) journal).checkpoint());
+
+      Wait.assertTrue(() -> journal.getDataFilesCount() < dataFiles, 5000, 10);
+
+      add(10);
+
+      update(5);
+
+      stopJournal();
+
+      startJournal();
+
+      loadAndCheck();
+
+      stopJournal();
+   }
+
+   @Test
+   public void testThrottledCompact() throws Exception {
+
+      setup(2, 60 * 1024, false);
+
+      createCheckpointJournal();
+
+      startJournal();
+
+      load();
+
+      add(1, 2, 3);
+
+      for (int i = 0; i < 5; i++) {
+         update(1, 2, 3);
+
+         journal.forceMoveNextFile();
+      }
+
+      final JournalImpl journalImpl = (JournalImpl) journal;
+
+      final int dataFiles = journal.getDataFilesCount();
+
+      Assert.assertTrue(journalImpl.getReclaimableBytes() >= 60 * 1024);
+
+      // 5 files per second
+      journalImpl.setCompactMaxBytesPerSecond(5 * 60 * 1024);
+
+      Assert.assertTrue(journalImpl.checkpoint());
+
+      Wait.assertTrue(() -> journalImpl.getLastCompactDuration() > 0, 10000, 10);
+
+      Assert.assertEquals(1, journalImpl.getCompactCount());
+
+      Assert.assertTrue(journal.getDataFilesCount() < dataFiles);
+
+      Assert.assertTrue("compacting " + dataFiles + " files took " + journalImpl.getLastCompactDuration() + " ms", journalImpl.getLastCompactDuration() >= (dataFiles - 1) * 1000 / 5);
+
+      Assert.assertTrue(journalImpl.getReclaimableBytes() < 60 * 1024);
+
+      stopJournal();
+
+      startJournal();
+
+      loadAndCheck();
+
+      stopJournal();
+   }
+
+   @Test
+   public void testStopDuringThrottledCompact() throws Exception {
+
+      setup(2, 60 * 1024, false);
+
+      createCheckpointJournal();
+
+      startJournal();
+
+      load();
+
+      add(1, 2, 3);
+
+      for (int i = 0; i < 5; i++) {
+         update(1, 2, 3);
+
+         journal.forceMoveNextFile();
+      }
+
+      final JournalImpl journalImpl = (JournalImpl) journal;
+
+      // a file every 10 seconds
+      journalImpl.setCompactMaxBytesPerSecond(60 * 1024 / 10);
+
+      Assert.assertTrue(journalImpl.checkpoint());
+
+      Wait.assertEquals(1, journalImpl::getCompactCount);
+
+      final long stopStart = System.currentTimeMillis();
+
+      stopJournal(false);
+
+      Assert.assertTrue(System.currentTimeMillis() - stopStart < 10000);
+
+      startJournal();
+
+      loadAndCheck();
+
+      stopJournal();
+   }
+
+   @Test
+   public void testSynchronizationDuringThrottledCompact() throws Exception {
+
+      setup(2, 60 * 1024, false);
+
+      createCheckpointJournal();
+
+      startJournal();
+
+      load();
+
+      add(1, 2, 3);
+
+      for (int i = 0; i < 5; i++) {
+         update(1, 2, 3);
+
+         journal.forceMoveNextFile();
+      }
+
+      final JournalImpl journalImpl = (JournalImpl) journal;
+
+      // a file every 10 seconds
+      journalImpl.setCompactMaxBytesPerSecond(60 * 1024 / 10);
+
+      Assert.assertTrue(journalImpl.checkpoint());
+
+      Wait.assertEquals(1, journalImpl::getCompactCount);
+
+      final long lockStart = System.currentTimeMillis();
+
+      journalImpl.synchronizationLock();
+      try {
+         Assert.assertTrue(System.currentTimeMillis() - lockStart < 10000);
+      } finally {
+         journalImpl.synchronizationUnlock();
+      }
+
+      Wait.assertTrue(() -> journalImpl.getLastCompactDuration() > 0, 10000, 10);
+
+      stopJournal();
+
+      startJournal();
+
+      loadAndCheck();
+
+      stopJournal();
+   }
+
+   @Test
+   public void testExplicitCompactDuringThrottledCompact() throws Exception {
+
+      setup(2, 60 * 1024, false);
+
+      createCheckpointJournal();
+
+      startJournal();
+
+      load();
+
+      add(1, 2, 3);
+
+      for (int i = 0; i < 5; i++) {
+         update(1, 2, 3);
+
+         journal.forceMoveNextFile();
+      }
+
+      final JournalImpl journalImpl = (JournalImpl) journal;
+
+      // a file every 10 seconds
+      journalImpl.setCompactMaxBytesPerSecond(60 * 1024 / 10);
+
+      Assert.assertTrue(journalImpl.checkpoint());
+
+      Wait.assertEquals(1, journalImpl::getCompactCount);
+
+      final long compactStart = System.currentTimeMillis();
+
+      Assert.assertTrue(journalImpl.isStarted());
+
+      journalImpl.compact();
+
+      Assert.assertTrue(System.currentTimeMillis() - compactStart < 10000);
+      Assert.assertEquals(2, journalImpl.getCompactCount());
+
+      stopJournal();
+
+      startJournal();
+
+      loadAndCheck();
+
+      stopJournal();
+   }
+
    @Test
    public void testIncompleteTXDuringcompact() throws Exception {
 
@@ -1843,6 +2104,16 @@ public class NIOJournalCompactTest extends JournalImplTestBase {
 
    }
 
+   /**
+    * Compacting enabled, but never triggered by the compact percentage: only a checkpoint compacts.
+    */
+   private void createCheckpointJournal() throws Exception {
+      journal = new JournalImpl(fileSize, minFiles, poolSize, 1, 0, fileFactory, filePrefix, fileExtension, maxAIO);
+
+      journal.setAutoReclaim(false);
+      addActiveMQComponent(journal);
+   }
+
    @Override
    @After
    public void tearDown() throws Exception {
@@ -28,9 +28,11 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -1896,6 +1898,89 @@ public class MQTTTest extends MQTTTestSupport {
       assertEquals(payload, new String(message.getPayload()));
    }
 
+   @Test(timeout = 60 * 1000)
+   public void testRetainedMessagesOnWildcardSubscription() throws Exception {
+      MQTT mqtt = createMQTTConnection();
+      mqtt.setClientId("publisher");
+      BlockingConnection publisher = mqtt.blockingConnection();
+      publisher.connect();
+
+      for (int i = 0; i < 10; i++) {
+         publisher.publish("sensors/" + i + "/temperature", ("old" + i).getBytes(), QoS.AT_LEAST_ONCE, true);
+         publisher.publish("sensors/" + i + "/temperature", ("" + i).getBytes(), QoS.AT_LEAST_ONCE, true);
+      }
+      publisher.publish("sensors/5/temperature", new byte[0], QoS.AT_LEAST_ONCE, true);
+      publisher.publish("other/temperature", "other".getBytes(), QoS.AT_LEAST_ONCE, true);
+      publisher.disconnect();
+
+      // all the retained messages live on a single queue
+      Queue retained = getServer().locateQueue(SimpleString.toSimpleString(MQTTUtil.MQTT_RETAINED_STORE_QUEUE));
+      assertNotNull(retained);
+      assertTrue(Wait.waitFor(() -> retained.getMessageCount() == 10));
+      assertTrue(getServer().bindingQuery(SimpleString.toSimpleString(MQTTUtil.MQTT_RETAIN_ADDRESS_PREFIX + "#")).getQueueNames().isEmpty());
+
+      for (String filter : new String[]{"sensors/#", "sensors/+/temperature"}) {
+         MQTT mqtt2 = createMQTTConnection();
+         mqtt2.setClientId("subscriber");
+         BlockingConnection subscriber = mqtt2.blockingConnection();
+         subscriber.connect();
+         subscriber.subscribe(new Topic[]{new Topic(filter, QoS.AT_LEAST_ONCE)});
+
+         Set<String> payloads = new HashSet<>();
+         for (int i = 0; i < 9; i++) {
+            Message message = subscriber.receive(5000, TimeUnit.MILLISECONDS);
+            assertNotNull("missing retained message on " + filter, message);
+            assertTrue(message.getTopic(), message.getTopic().startsWith("sensors/"));
+            payloads.add(new String(message.getPayload()));
+            message.ack();
+         }
+         assertNull(subscriber.receive(100, TimeUnit.MILLISECONDS));
+         assertEquals(9, payloads.size());
+         assertFalse(payloads.contains("5"));
+         subscriber.disconnect();
+      }
+   }
+
+   @Test(timeout = 60 * 1000)
+   public void testRetainedMessagesLoadedOnRestart() throws Exception {
+      MQTT mqtt = createMQTTConnection();
+      mqtt.setClientId("publisher");
+      BlockingConnection publisher = mqtt.blockingConnection();
+      publisher.connect();
+
+      for (int i = 0; i < 10; i++) {
+         publisher.publish("sensors/" + i + "/temperature", ("" + i).getBytes(), QoS.AT_LEAST_ONCE, true);
+      }
+      publisher.disconnect();
+
+      getServer().stop();
+      getServer().start();
+      getServer().waitForActivation(10, TimeUnit.SECONDS);
+
+      // the store is attached to the queue when the broker starts, before any MQTT client uses it
+      Queue retained = getServer().locateQueue(SimpleString.toSimpleString(MQTTUtil.MQTT_RETAINED_STORE_QUEUE));
+      assertNotNull(retained);
+      assertEquals(1, retained.getConsumerCount());
+      assertTrue(Wait.waitFor(() -> retained.getDeliveringCount() == 10));
+
+      MQTT mqtt2 = createMQTTConnection();
+      mqtt2.setClientId("subscriber");
+      BlockingConnection subscriber = mqtt2.blockingConnection();
+      subscriber.connect();
+      subscriber.subscribe(new Topic[]{new Topic("sensors/#", QoS.AT_LEAST_ONCE)});
+
+      Set<String> payloads = new HashSet<>();
+      for (int i = 0; i < 10; i++) {
+         Message message = subscriber.receive(5000, TimeUnit.MILLISECONDS);
+         assertNotNull(message);
+         payloads.add(new String(message.getPayload()));
+         message.ack();
+      }
+      assertNull(subscriber.receive(100, TimeUnit.MILLISECONDS));
+      assertEquals(10, payloads.size());
+      subscriber.disconnect();
+   }
+
    @Test(timeout = 60 * 1000)
    public void testBrokerRestartAfterSubHashWithConfigurationQueues() throws Exception {
 
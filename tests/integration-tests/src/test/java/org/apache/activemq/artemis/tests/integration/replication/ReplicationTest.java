@@ -74,7 +74,10 @@ import org.apache.activemq.artemis.core.persistence.impl.journal.JournalStorageM
 import org.apache.activemq.artemis.core.persistence.impl.journal.OperationContextImpl;
 import org.apache.activemq.artemis.core.protocol.core.CoreRemotingConnection;
 import org.apache.activemq.artemis.core.protocol.core.Packet;
+import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationResponseMessage;
 import org.apache.activemq.artemis.core.replication.ReplicatedJournal;
+import org.apache.activemq.artemis.core.replication.ReplicationEndpoint;
 import org.apache.activemq.artemis.core.replication.ReplicationManager;
 import org.apache.activemq.artemis.core.server.ActiveMQComponent;
 import org.apache.activemq.artemis.core.server.ActiveMQServer;
@@ -283,6 +286,68 @@ public final class ReplicationTest extends ActiveMQTestBase {
       Assert.assertEquals(0, store.getNumberOfPages());
    }
 
+   @Test
+   public void testCumulativeResponses() throws Exception {
+      final int nRecords = 1000;
+      setupServer(true);
+
+      final AtomicInteger responses = new AtomicInteger();
+      final AtomicInteger cumulativeResponses = new AtomicInteger();
+      liveServer.getRemotingService().addIncomingInterceptor((Interceptor) (packet, connection) -> {
+         if (packet.getType() == PacketImpl.REPLICATION_RESPONSE_V3) {
+            cumulativeResponses.incrementAndGet();
+         }
+         if (packet instanceof ReplicationResponseMessage) {
+            responses.incrementAndGet();
+         }
+         return true;
+      });
+
+      JournalStorageManager storage = getStorage();
+
+      manager = liveServer.getReplicationManager();
+      waitForComponent(manager);
+
+      Journal replicatedJournal = new ReplicatedJournal((byte) 1, new FakeJournal(), manager);
+
+      for (int i = 0; i < nRecords; i++) {
+         replicatedJournal.appendAddRecord(i, (byte) 1, new FakeData(), false);
+      }
+
+      blockOnReplication(storage, manager);
+
+      Assert.assertTrue("Expecting no active tokens:" + manager.getActiveTokens(), manager.getActiveTokens().isEmpty());
+      Assert.assertTrue("the backup should acknowledge cumulatively", cumulativeResponses.get() > 0);
+      Assert.assertTrue(responses.get() + " responses for " + nRecords + " records", responses.get() <= nRecords);
+   }
+
+   @Test
+   public void testRestartEndpointResetsResponses() throws Exception {
+      setupServer(true);
+
+      JournalStorageManager storage = getStorage();
+
+      manager = liveServer.getReplicationManager();
+      waitForComponent(manager);
+
+      Journal replicatedJournal = new ReplicatedJournal((byte) 1, new FakeJournal(), manager);
+
+      for (int i = 0; i < 100; i++) {
+         replicatedJournal.appendAddRecord(i, (byte) 1, new FakeData(), false);
+      }
+
+      blockOnReplication(storage, manager);
+
+      ReplicationEndpoint endpoint = backupServer.getReplicationEndpoint();
+      Assert.assertTrue(endpoint.getResponseSequence() > 0);
+
+      endpoint.stop();
+      endpoint.start();
+
+      // a new live counts its responses from 0
+      Assert.assertEquals(0, endpoint.getResponseSequence());
+   }
+
    @Test
    public void testSendPacketsWithFailure() throws Exception {
       final int nMsg = 100;
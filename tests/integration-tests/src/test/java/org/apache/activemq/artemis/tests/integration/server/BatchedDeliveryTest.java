@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.integration.server;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.activemq.artemis.api.core.Interceptor;
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveMessageBatch;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.ActiveMQServers;
+import org.apache.activemq.artemis.core.server.Queue;
+import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.apache.activemq.artemis.tests.util.Wait;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchedDeliveryTest extends ActiveMQTestBase {
+
+   private static final int BATCH_SIZE = 16;
+
+   private static final SimpleString SEQUENCE = new SimpleString("sequence");
+
+   private ActiveMQServer server;
+
+   private final SimpleString address = new SimpleString("BatchedDeliveryTestAddress");
+
+   private final SimpleString qName = new SimpleString("BatchedDeliveryTestQ1");
+
+   private final AtomicInteger batches = new AtomicInteger(0);
+
+   private final AtomicInteger largestBatch = new AtomicInteger(0);
+
+   private final Interceptor batchCounter = (packet, connection) -> {
+      if (packet.getType() == PacketImpl.SESS_RECEIVE_MSG_BATCH) {
+         batches.incrementAndGet();
+         largestBatch.accumulateAndGet(((SessionReceiveMessageBatch) packet).getMessages().size(), Math::max);
+      }
+      return true;
+   };
+
+   @Test
+   public void testMessagesKeepTheirOrder() throws Exception {
+      final int messages = 1000;
+      ServerLocator locator = createInVMNonHALocator().addIncomingInterceptor(batchCounter);
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.putIntProperty(SEQUENCE, i);
+         producer.send(message);
+      }
+
+      ClientConsumer consumer = session.createConsumer(qName);
+      session.start();
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         assertEquals(i, message.getIntProperty(SEQUENCE).intValue());
+         assertEquals(1, message.getDeliveryCount());
+         message.acknowledge();
+      }
+      assertNull(consumer.receiveImmediate());
+
+      assertTrue(batches.get() > 0);
+      assertTrue(largestBatch.get() <= BATCH_SIZE);
+      final Queue queue = server.locateQueue(qName);
+      Wait.assertEquals(0L, queue::getMessageCount);
+   }
+
+   @Test
+   public void testRolledBackMessagesAreRedelivered() throws Exception {
+      final int messages = 100;
+      ServerLocator locator = createInVMNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, false, false));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.putIntProperty(SEQUENCE, i);
+         producer.send(message);
+      }
+      session.commit();
+
+      ClientConsumer consumer = session.createConsumer(qName);
+      session.start();
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         message.acknowledge();
+      }
+      session.rollback();
+
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         assertEquals(i, message.getIntProperty(SEQUENCE).intValue());
+         assertEquals(2, message.getDeliveryCount());
+         message.acknowledge();
+      }
+      session.commit();
+
+      final Queue queue = server.locateQueue(qName);
+      Wait.assertEquals(0L, queue::getMessageCount);
+   }
+
+   @Test
+   public void testSlowConsumerIsNotBatched() throws Exception {
+      final int messages = 50;
+      ServerLocator locator = createInVMNonHALocator().setConsumerWindowSize(0).addIncomingInterceptor(batchCounter);
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < messages; i++) {
+         producer.send(session.createMessage(true));
+      }
+
+      ClientConsumer consumer = session.createConsumer(qName);
+      session.start();
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         message.acknowledge();
+      }
+      assertNull(consumer.receiveImmediate());
+
+      assertTrue(largestBatch.get() <= 1);
+   }
+
+   @Override
+   @Before
+   public void setUp() throws Exception {
+      super.setUp();
+
+      server = addServer(ActiveMQServers.newActiveMQServer(createDefaultInVMConfig(), false));
+      server.getAddressSettingsRepository().addMatch(address.toString(), new AddressSettings().setDeliveryBatchSize(BATCH_SIZE));
+      server.start();
+   }
+}
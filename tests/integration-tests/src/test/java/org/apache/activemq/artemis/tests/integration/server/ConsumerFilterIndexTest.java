@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.integration.server;
+
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.ActiveMQServers;
+import org.apache.activemq.artemis.core.server.Queue;
+import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.apache.activemq.artemis.tests.util.Wait;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConsumerFilterIndexTest extends ActiveMQTestBase {
+
+   private static final SimpleString SEQUENCE = new SimpleString("sequence");
+
+   private static final SimpleString COLOR = new SimpleString("color");
+
+   private ActiveMQServer server;
+
+   private final SimpleString address = new SimpleString("ConsumerFilterIndexTestAddress");
+
+   private final SimpleString qName = new SimpleString("ConsumerFilterIndexTestQ1");
+
+   @Test
+   public void testFilteredConsumersOnBacklog() throws Exception {
+      final int messages = 1000;
+      ServerLocator locator = createInVMNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      // a consumer indexing the messages already in the queue and one indexing them while they're added
+      ClientConsumer blue = session.createConsumer(qName.toString(), COLOR + " = 'blue'");
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.putIntProperty(SEQUENCE, i);
+         message.putStringProperty(COLOR, i % 10 == 0 ? "red" : i % 10 == 1 ? "blue" : "green");
+         producer.send(message);
+      }
+      ClientConsumer red = session.createConsumer(qName.toString(), COLOR + " = 'red'");
+      session.start();
+
+      receiveInOrder(red, 0, messages);
+      receiveInOrder(blue, 1, messages);
+      assertNull(red.receiveImmediate());
+      assertNull(blue.receiveImmediate());
+
+      final Queue queue = server.locateQueue(qName);
+      Wait.assertEquals((long) messages * 8 / 10, queue::getMessageCount);
+
+      ClientConsumer all = session.createConsumer(qName);
+      for (int i = 0; i < messages * 8 / 10; i++) {
+         ClientMessage message = all.receive(5000);
+         assertNotNull(message);
+         assertEquals("green", message.getStringProperty(COLOR));
+         message.acknowledge();
+      }
+      Wait.assertEquals(0L, queue::getMessageCount);
+   }
+
+   @Test
+   public void testCancelledMessagesAreIndexedAgain() throws Exception {
+      final int messages = 100;
+      ServerLocator locator = createInVMNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.putIntProperty(SEQUENCE, i);
+         message.putStringProperty(COLOR, i % 2 == 0 ? "red" : "green");
+         producer.send(message);
+      }
+
+      // receives the red messages without acknowledging them, then gives them back to the queue
+      ClientSession txSession = addClientSession(sf.createSession(false, false, false));
+      ClientConsumer txConsumer = txSession.createConsumer(qName.toString(), COLOR + " = 'red'");
+      txSession.start();
+      for (int i = 0; i < messages / 5; i += 2) {
+         ClientMessage message = txConsumer.receive(5000);
+         assertNotNull(message);
+         assertEquals(i, message.getIntProperty(SEQUENCE).intValue());
+         message.acknowledge();
+      }
+      txSession.rollback();
+      txConsumer.close();
+
+      ClientConsumer red = session.createConsumer(qName.toString(), COLOR + " = 'red'");
+      session.start();
+      for (int i = 0; i < messages; i += 2) {
+         ClientMessage message = red.receive(5000);
+         assertNotNull(message);
+         assertEquals(i, message.getIntProperty(SEQUENCE).intValue());
+         message.acknowledge();
+      }
+      assertNull(red.receiveImmediate());
+      final Queue queue = server.locateQueue(qName);
+      Wait.assertEquals((long) messages / 2, queue::getMessageCount);
+   }
+
+   private static void receiveInOrder(ClientConsumer consumer, int first, int messages) throws Exception {
+      for (int i = first; i < messages; i += 10) {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         assertEquals(i, message.getIntProperty(SEQUENCE).intValue());
+         message.acknowledge();
+      }
+   }
+
+   @Override
+   @Before
+   public void setUp() throws Exception {
+      super.setUp();
+
+      server = addServer(ActiveMQServers.newActiveMQServer(createDefaultInVMConfig(), false));
+      server.getAddressSettingsRepository().addMatch(address.toString(), new AddressSettings().setIndexConsumerFilters(true));
+      server.start();
+   }
+}
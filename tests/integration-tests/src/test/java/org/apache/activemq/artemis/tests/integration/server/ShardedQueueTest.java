@@ -0,0 +1,408 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.integration.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.ActiveMQServers;
+import org.apache.activemq.artemis.core.server.Queue;
+import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.apache.activemq.artemis.tests.util.Wait;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ShardedQueueTest extends ActiveMQTestBase {
+
+   private static final int SHARDS = 4;
+
+   private static final SimpleString SEQUENCE = new SimpleString("sequence");
+
+   private ActiveMQServer server;
+
+   private final SimpleString address = new SimpleString("ShardedQueueTestAddress");
+
+   private final SimpleString qName = new SimpleString("ShardedQueueTestQ1");
+
+   @Test
+   public void testGroupsKeepTheirOrder() throws Exception {
+      final int groups = 10;
+      final int messages = 2000;
+      ServerLocator locator = createInVMNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      final CountDownLatch received = new CountDownLatch(messages);
+      final AtomicInteger errors = new AtomicInteger(0);
+      final Map<String, Integer> lastSequences = new ConcurrentHashMap<>();
+      final Map<String, Integer> groupConsumers = new ConcurrentHashMap<>();
+      for (int i = 0; i < SHARDS * 2; i++) {
+         final int consumerIndex = i;
+         ClientSession consumerSession = addClientSession(sf.createSession(false, true, true));
+         ClientConsumer consumer = consumerSession.createConsumer(qName);
+         consumer.setMessageHandler(message -> {
+            final String group = message.getGroupID().toString();
+            final int sequence = message.getIntProperty(SEQUENCE);
+            final Integer last = lastSequences.put(group, sequence);
+            final Integer groupConsumer = groupConsumers.putIfAbsent(group, consumerIndex);
+            if (last != null && last >= sequence || groupConsumer != null && groupConsumer != consumerIndex) {
+               errors.incrementAndGet();
+            }
+            received.countDown();
+         });
+         consumerSession.start();
+      }
+
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.putStringProperty(ClientMessage.HDR_GROUP_ID, new SimpleString("group" + (i % groups)));
+         message.putIntProperty(SEQUENCE, i);
+         producer.send(message);
+      }
+
+      assertTrue(received.await(30, TimeUnit.SECONDS));
+      assertEquals(0, errors.get());
+      final Queue queue = server.locateQueue(qName);
+      Wait.assertEquals(0L, queue::getMessageCount);
+   }
+
+   @Test
+   public void testGroupsKeepTheirConsumerWhenShardingStops() throws Exception {
+      final int groups = 10;
+      final int messages = 3000;
+      ServerLocator locator = createInVMNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      final CountDownLatch received = new CountDownLatch(messages);
+      final AtomicInteger errors = new AtomicInteger(0);
+      final Map<String, Integer> lastSequences = new ConcurrentHashMap<>();
+      final Map<String, Integer> groupConsumers = new ConcurrentHashMap<>();
+      for (int i = 0; i < SHARDS * 2; i++) {
+         final int consumerIndex = i;
+         ClientSession consumerSession = addClientSession(sf.createSession(false, true, true));
+         ClientConsumer consumer = consumerSession.createConsumer(qName);
+         consumer.setMessageHandler(message -> {
+            final String group = message.getGroupID().toString();
+            final int sequence = message.getIntProperty(SEQUENCE);
+            final Integer last = lastSequences.put(group, sequence);
+            final Integer groupConsumer = groupConsumers.putIfAbsent(group, consumerIndex);
+            if (last != null && last >= sequence || groupConsumer != null && groupConsumer != consumerIndex) {
+               errors.incrementAndGet();
+            }
+            received.countDown();
+         });
+         consumerSession.start();
+      }
+
+      ClientProducer producer = session.createProducer(address);
+      ClientSession filteredSession = addClientSession(sf.createSession(false, true, true));
+      ClientConsumer filtered = null;
+      for (int i = 0; i < messages; i++) {
+         if (i % (messages / 6) == 0) {
+            // the queue stops or starts again being sharded while the shards are still delivering
+            if (filtered == null) {
+               filtered = filteredSession.createConsumer(qName.toString(), SEQUENCE + " < 0");
+            } else {
+               filtered.close();
+               filtered = null;
+            }
+         }
+         ClientMessage message = session.createMessage(true);
+         message.putStringProperty(ClientMessage.HDR_GROUP_ID, new SimpleString("group" + (i % groups)));
+         message.putIntProperty(SEQUENCE, i);
+         producer.send(message);
+      }
+
+      assertTrue(received.await(30, TimeUnit.SECONDS));
+      assertEquals(0, errors.get());
+      final Queue queue = server.locateQueue(qName);
+      Wait.assertEquals(0L, queue::getMessageCount);
+   }
+
+   @Test
+   public void testNotShardedWithMixedPriorities() throws Exception {
+      final int messages = 500;
+      ServerLocator locator = createInVMNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      List<ClientConsumer> consumers = new ArrayList<>();
+      for (int i = 0; i < SHARDS; i++) {
+         consumers.add(session.createConsumer(qName));
+      }
+      ClientConsumer highPriority = session.createConsumer(qName, null, 1, false);
+      session.start();
+
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.putIntProperty(SEQUENCE, i);
+         producer.send(message);
+      }
+
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = highPriority.receive(5000);
+         assertNotNull(message);
+         assertEquals(i, message.getIntProperty(SEQUENCE).intValue());
+         message.acknowledge();
+      }
+      for (ClientConsumer consumer : consumers) {
+         assertNull(consumer.receiveImmediate());
+      }
+      final Queue queue = server.locateQueue(qName);
+      Wait.assertEquals(0L, queue::getMessageCount);
+   }
+
+   @Test
+   public void testNotShardedWithFilteredConsumer() throws Exception {
+      final int messages = 500;
+      ServerLocator locator = createInVMNonHALocator();
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      List<ClientConsumer> consumers = new ArrayList<>();
+      for (int i = 0; i < SHARDS; i++) {
+         consumers.add(session.createConsumer(qName));
+      }
+      ClientConsumer filtered = session.createConsumer(qName.toString(), SEQUENCE + " < 0");
+      session.start();
+
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.putIntProperty(SEQUENCE, i);
+         producer.send(message);
+      }
+
+      int received = 0;
+      for (ClientConsumer consumer : consumers) {
+         ClientMessage message;
+         while ((message = consumer.receive(500)) != null) {
+            message.acknowledge();
+            received++;
+         }
+      }
+      assertNull(filtered.receiveImmediate());
+      assertEquals(messages, received);
+      final Queue queue = server.locateQueue(qName);
+      Wait.assertEquals(0L, queue::getMessageCount);
+   }
+
+   @Test
+   public void testReferencesGoBackWhenConsumersLeave() throws Exception {
+      final int messages = 500;
+      ServerLocator locator = createInVMNonHALocator().setConsumerWindowSize(0);
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      List<ClientConsumer> consumers = new ArrayList<>();
+      for (int i = 0; i < SHARDS; i++) {
+         consumers.add(session.createConsumer(qName));
+      }
+      session.start();
+
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < messages; i++) {
+         producer.send(session.createMessage(true));
+      }
+
+      final Queue queue = server.locateQueue(qName);
+      Wait.assertEquals((long) messages, queue::getMessageCount);
+
+      for (int i = 1; i < consumers.size(); i++) {
+         consumers.get(i).close();
+      }
+
+      ClientConsumer consumer = consumers.get(0);
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         message.acknowledge();
+      }
+      assertNull(consumer.receiveImmediate());
+      Wait.assertEquals(0L, queue::getMessageCount);
+   }
+
+   @Test
+   public void testDeleteAllReferencesInShards() throws Exception {
+      final int messages = 500;
+      ServerLocator locator = createInVMNonHALocator().setConsumerWindowSize(0);
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      for (int i = 0; i < SHARDS; i++) {
+         session.createConsumer(qName);
+      }
+      session.start();
+
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < messages; i++) {
+         producer.send(session.createMessage(true));
+      }
+
+      final Queue queue = server.locateQueue(qName);
+      Wait.assertEquals((long) messages, queue::getMessageCount);
+
+      assertEquals(messages, queue.deleteAllReferences());
+      assertEquals(0L, queue.getMessageCount());
+   }
+
+   @Test
+   public void testBrowseReferencesInShards() throws Exception {
+      final int messages = 500;
+      ServerLocator locator = createInVMNonHALocator().setConsumerWindowSize(0);
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      List<ClientConsumer> consumers = new ArrayList<>();
+      for (int i = 0; i < SHARDS; i++) {
+         consumers.add(session.createConsumer(qName));
+      }
+      session.start();
+
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < messages; i++) {
+         producer.send(session.createMessage(true));
+      }
+
+      final Queue queue = server.locateQueue(qName);
+      Wait.assertEquals((long) messages, queue::getMessageCount);
+
+      ClientSession browserSession = addClientSession(createSessionFactory(createInVMNonHALocator()).createSession(false, true, true));
+      ClientConsumer browser = browserSession.createConsumer(qName, true);
+      browserSession.start();
+      for (int i = 0; i < messages; i++) {
+         assertNotNull(browser.receive(5000));
+      }
+      assertNull(browser.receiveImmediate());
+      browser.close();
+
+      // the shards are used again once the browser is closed
+      int received = 0;
+      for (ClientConsumer consumer : consumers) {
+         ClientMessage message;
+         while ((message = consumer.receive(500)) != null) {
+            message.acknowledge();
+            received++;
+         }
+      }
+      assertEquals(messages, received);
+      Wait.assertEquals(0L, queue::getMessageCount);
+   }
+
+   @Test
+   public void testShardsKeepThePriorities() throws Exception {
+      final int messages = 200;
+      ServerLocator locator = createInVMNonHALocator().setConsumerWindowSize(0);
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      List<ClientConsumer> consumers = new ArrayList<>();
+      for (int i = 0; i < SHARDS; i++) {
+         consumers.add(session.createConsumer(qName));
+      }
+      session.start();
+
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = session.createMessage(true);
+         // the high priority ones are sent after the low priority ones are already in the shards
+         message.setPriority((byte) (i < messages / 2 ? 0 : 9));
+         producer.send(message);
+      }
+
+      final Queue queue = server.locateQueue(qName);
+      Wait.assertEquals((long) messages, queue::getMessageCount);
+
+      int received = 0;
+      for (ClientConsumer consumer : consumers) {
+         byte lastPriority = 9;
+         ClientMessage message;
+         while ((message = consumer.receive(500)) != null) {
+            assertTrue(message.getPriority() <= lastPriority);
+            lastPriority = message.getPriority();
+            message.acknowledge();
+            received++;
+         }
+      }
+      assertEquals(messages, received);
+      Wait.assertEquals(0L, queue::getMessageCount);
+   }
+
+   @Test
+   public void testDeleteQueueWithReferencesInShards() throws Exception {
+      final int messages = 500;
+      ServerLocator locator = createInVMNonHALocator().setConsumerWindowSize(0);
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(new QueueConfiguration(qName).setAddress(address).setRoutingType(RoutingType.ANYCAST));
+
+      for (int i = 0; i < SHARDS; i++) {
+         session.createConsumer(qName);
+      }
+      session.start();
+
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < messages; i++) {
+         producer.send(session.createMessage(true));
+      }
+
+      final Queue queue = server.locateQueue(qName);
+      Wait.assertEquals((long) messages, queue::getMessageCount);
+
+      server.destroyQueue(qName, null, false, true);
+
+      assertNull(server.locateQueue(qName));
+      Wait.assertEquals(0L, queue::getMessageCount);
+   }
+
+   @Override
+   @Before
+   public void setUp() throws Exception {
+      super.setUp();
+
+      server = addServer(ActiveMQServers.newActiveMQServer(createDefaultInVMConfig(), false));
+      server.getAddressSettingsRepository().addMatch(address.toString(), new AddressSettings().setQueueShards(SHARDS));
+      server.start();
+   }
+}
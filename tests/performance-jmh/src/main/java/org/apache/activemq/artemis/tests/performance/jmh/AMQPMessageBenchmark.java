@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.protocol.amqp.broker.AMQPMessage;
+import org.apache.activemq.artemis.protocol.amqp.broker.AMQPStandardMessage;
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.amqp.messaging.ApplicationProperties;
+import org.apache.qpid.proton.amqp.messaging.Data;
+import org.apache.qpid.proton.amqp.messaging.Header;
+import org.apache.qpid.proton.amqp.messaging.Properties;
+import org.apache.qpid.proton.message.impl.MessageImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Each benchmark decodes a freshly received message only as far as it needs to, as the broker does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 8, time = 1)
+public class AMQPMessageBenchmark {
+
+   @Param({"0", "1024"})
+   private int bodySize;
+
+   @Param({"4", "16"})
+   private int properties;
+
+   private byte[] encoded;
+
+   private SimpleString key;
+
+   @Setup
+   public void init() {
+      MessageImpl protonMessage = (MessageImpl) org.apache.qpid.proton.message.Message.Factory.create();
+      Header header = new Header();
+      header.setDurable(true);
+      protonMessage.setHeader(header);
+      Properties amqpProperties = new Properties();
+      amqpProperties.setTo("benchmark.address");
+      amqpProperties.setMessageId("ID:benchmark");
+      protonMessage.setProperties(amqpProperties);
+      Map<String, Object> applicationProperties = new HashMap<>();
+      for (int i = 0; i < properties; i++) {
+         applicationProperties.put("key" + i, "value" + i);
+      }
+      protonMessage.setApplicationProperties(new ApplicationProperties(applicationProperties));
+      protonMessage.setBody(new Data(new Binary(new byte[bodySize])));
+
+      byte[] buffer = new byte[bodySize + 64 * 1024];
+      int length = protonMessage.encode(buffer, 0, buffer.length);
+      encoded = new byte[length];
+      System.arraycopy(buffer, 0, encoded, 0, length);
+      key = SimpleString.toSimpleString("key" + (properties - 1));
+   }
+
+   private AMQPMessage received() {
+      return new AMQPStandardMessage(AMQPMessage.DEFAULT_MESSAGE_FORMAT, encoded, null, null);
+   }
+
+   @Benchmark
+   public boolean durable() {
+      return received().isDurable();
+   }
+
+   @Benchmark
+   public SimpleString address() {
+      return received().getAddressSimpleString();
+   }
+
+   @Benchmark
+   public Object applicationProperty() {
+      return received().getObjectProperty(key);
+   }
+
+   @Benchmark
+   public int persistSize() {
+      return received().getPersistSize();
+   }
+}
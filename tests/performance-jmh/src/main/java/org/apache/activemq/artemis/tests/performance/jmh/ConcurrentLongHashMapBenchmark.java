@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.utils.collections.ConcurrentLongHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lookups and updates keyed by message or record id, with {@link ConcurrentHashMap} as a baseline.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 8, time = 1)
+public class ConcurrentLongHashMapBenchmark {
+
+   @Param({"1024", "1048576"})
+   private int size;
+
+   private ConcurrentLongHashMap<Long> longHashMap;
+
+   private ConcurrentHashMap<Long, Long> hashMap;
+
+   @State(Scope.Thread)
+   public static class Keys {
+
+      private long next;
+
+      long next(int size) {
+         // visits the keys in a scattered order
+         next = (next + 0x9E3779B97F4A7C15L) & Long.MAX_VALUE;
+         return next % size;
+      }
+   }
+
+   @Setup
+   public void init() {
+      longHashMap = new ConcurrentLongHashMap<>(size);
+      hashMap = new ConcurrentHashMap<>(size);
+      for (long i = 0; i < size; i++) {
+         longHashMap.put(i, i);
+         hashMap.put(i, i);
+      }
+   }
+
+   @Benchmark
+   @Group("longHashMap")
+   @GroupThreads(3)
+   public Long longHashMapGet(Keys keys) {
+      return longHashMap.get(keys.next(size));
+   }
+
+   @Benchmark
+   @Group("longHashMap")
+   @GroupThreads(1)
+   public Long longHashMapRemovePut(Keys keys) {
+      final long key = keys.next(size);
+      longHashMap.remove(key);
+      return longHashMap.put(key, key);
+   }
+
+   @Benchmark
+   @Group("hashMap")
+   @GroupThreads(3)
+   public Long hashMapGet(Keys keys) {
+      return hashMap.get(keys.next(size));
+   }
+
+   @Benchmark
+   @Group("hashMap")
+   @GroupThreads(1)
+   public Long hashMapRemovePut(Keys keys) {
+      final long key = keys.next(size);
+      hashMap.remove(key);
+      return hashMap.put(key, key);
+   }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.api.core.ActiveMQBuffers;
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.core.message.impl.CoreMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 8, time = 1)
+public class CoreMessageBenchmark {
+
+   @Param({"0", "1024"})
+   private int bodySize;
+
+   @Param({"4", "16"})
+   private int properties;
+
+   private CoreMessage message;
+
+   private ActiveMQBuffer persisted;
+
+   private ActiveMQBuffer buffer;
+
+   @Setup
+   public void init() {
+      message = new CoreMessage(1, bodySize + 512);
+      message.setAddress("benchmark.address");
+      message.setDurable(true);
+      for (int i = 0; i < properties; i++) {
+         message.putStringProperty("key" + i, "value" + i);
+      }
+      message.getBodyBuffer().writeBytes(new byte[bodySize]);
+
+      persisted = ActiveMQBuffers.fixedBuffer(message.getPersistSize());
+      message.persist(persisted);
+      buffer = ActiveMQBuffers.fixedBuffer(message.getPersistSize());
+   }
+
+   @Benchmark
+   public Message copy() {
+      return message.copy();
+   }
+
+   /**
+    * Encodes the message as if its properties were changed, then persists it.
+    */
+   @Benchmark
+   public ActiveMQBuffer encode() {
+      message.messageChanged();
+      buffer.clear();
+      message.persist(buffer);
+      return buffer;
+   }
+
+   @Benchmark
+   public CoreMessage decode() {
+      CoreMessage decoded = new CoreMessage();
+      persisted.readerIndex(0);
+      decoded.reloadPersistence(persisted, null);
+      return decoded;
+   }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.filter.impl.FilterImpl;
+import org.apache.activemq.artemis.core.message.impl.CoreMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Matches consumer filters against a message, interpreted or compiled (see the compile-selectors address setting).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 8, time = 1)
+public class FilterBenchmark {
+
+   @Param({
+      "color = 'red'",
+      "color = 'red' AND weight > 100",
+      "(color = 'blue' OR color = 'red') AND weight BETWEEN 100 AND 500 AND NOT (region LIKE 'eu-%')",
+      "AMQPriority > 3 AND color IN ('green', 'yellow', 'red')"})
+   private String selector;
+
+   @Param({"false", "true"})
+   private boolean compiled;
+
+   private Filter filter;
+
+   private CoreMessage message;
+
+   @Setup
+   public void init() throws Exception {
+      filter = FilterImpl.createFilter(SimpleString.toSimpleString(selector), compiled);
+      message = new CoreMessage(1, 512);
+      message.setAddress("benchmark.address");
+      message.setPriority((byte) 4);
+      message.putStringProperty("color", "red");
+      message.putIntProperty("weight", 250);
+      message.putStringProperty("region", "us-east");
+      message.putLongProperty("sequence", 42L);
+      if (!filter.match(message)) {
+         throw new IllegalStateException(selector + " doesn't match " + message);
+      }
+   }
+
+   @Benchmark
+   public boolean match() {
+      return filter.match(message);
+   }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.core.journal.impl.CompactJournalRecordIndex;
+import org.apache.activemq.artemis.core.journal.impl.JournalFile;
+import org.apache.activemq.artemis.core.journal.impl.JournalFileImpl;
+import org.apache.activemq.artemis.core.journal.impl.JournalImpl;
+import org.apache.activemq.artemis.core.journal.impl.JournalRecordIndex;
+import org.apache.activemq.artemis.core.journal.impl.MapJournalRecordIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link JournalRecordIndex} implementations on a journal with millions of live records, each with an
+ * update: the heap retained by the index is printed on setup, while the benchmark measures the cost of deleting the
+ * oldest record and adding and updating a new one, as a queue being consumed at the rate it is produced would do.
+ * <p>
+ * The largest runs need a large heap, given by {@code -jvmArgsAppend}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms16g", "-Xmx16g"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 8, time = 1)
+public class JournalRecordIndexBenchmark {
+
+   private static final int RECORDS_PER_FILE = 100_000;
+
+   private static final int RECORD_SIZE = 128;
+
+   @Param({"10000000", "50000000"})
+   private int records;
+
+   @Param({"map", "compact"})
+   private String index;
+
+   private JournalRecordIndex recordIndex;
+
+   private JournalFile[] files;
+
+   private JournalFile currentFile;
+
+   private long nextId;
+
+   @Setup
+   public void init() {
+      // the index never touches the sequential files
+      files = new JournalFile[records / RECORDS_PER_FILE + 2];
+      for (int i = 0; i < files.length; i++) {
+         files[i] = new JournalFileImpl(null, i, JournalImpl.FORMAT_VERSION);
+      }
+      currentFile = files[files.length - 1];
+      final long usedBefore = usedHeap();
+      recordIndex = "compact".equals(index) ? new CompactJournalRecordIndex() : new MapJournalRecordIndex();
+      for (int id = 0; id < records; id++) {
+         recordIndex.add(id, files[id / RECORDS_PER_FILE], RECORD_SIZE);
+         recordIndex.update(id, files[id / RECORDS_PER_FILE + 1], RECORD_SIZE);
+      }
+      nextId = records;
+      final long retained = usedHeap() - usedBefore;
+      System.out.printf("%n%s index of %,d records retains %,d bytes: %.1f bytes per record%n", index, records, retained, (double) retained / records);
+   }
+
+   private static long usedHeap() {
+      for (int i = 0; i < 3; i++) {
+         System.gc();
+      }
+      return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+   }
+
+   @Benchmark
+   public boolean replaceOldestRecord() {
+      final long id = nextId++;
+      recordIndex.delete(id - records, currentFile);
+      recordIndex.add(id, currentFile, RECORD_SIZE);
+      return recordIndex.update(id, currentFile, RECORD_SIZE);
+   }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.client.ActiveMQClient;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.ActiveMQServers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sends and receives small non durable messages through the Netty acceptor of an embedded broker, to compare
+ * the throughput of the NIO, epoll and io_uring transports.
+ * <p>
+ * A transport that isn't available on the running system falls back to the next one, as logged by the broker.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 8, time = 1)
+public class NettyTransportBenchmark {
+
+   private static final String QUEUE = "benchmark";
+
+   @Param({"nio", "epoll", "io_uring"})
+   private String transport;
+
+   @Param({"16", "256"})
+   private int messageSize;
+
+   private ActiveMQServer server;
+
+   private ServerLocator locator;
+
+   private ClientSession session;
+
+   private ClientProducer producer;
+
+   private ClientConsumer consumer;
+
+   private byte[] body;
+
+   @Setup
+   public void init() throws Exception {
+      final String url = "tcp://localhost:61616?" + transportParameters();
+      server = ActiveMQServers.newActiveMQServer(new ConfigurationImpl().setPersistenceEnabled(false).setSecurityEnabled(false).setJMXManagementEnabled(false).addAcceptorConfiguration("netty", url), false);
+      server.start();
+      locator = ActiveMQClient.createServerLocator(url).setBlockOnNonDurableSend(false);
+      ClientSessionFactory factory = locator.createSessionFactory();
+      session = factory.createSession();
+      session.createQueue(new QueueConfiguration(QUEUE).setRoutingType(RoutingType.ANYCAST).setDurable(false));
+      producer = session.createProducer(QUEUE);
+      consumer = session.createConsumer(QUEUE);
+      session.start();
+      body = new byte[messageSize];
+   }
+
+   private String transportParameters() {
+      switch (transport) {
+         case "nio":
+            return "useEpoll=false&useKQueue=false&useIoUring=false";
+         case "epoll":
+            return "useEpoll=true&useIoUring=false";
+         case "io_uring":
+            return "useEpoll=true&useIoUring=true";
+         default:
+            throw new IllegalArgumentException("Unknown transport " + transport);
+      }
+   }
+
+   @TearDown
+   public void close() throws Exception {
+      locator.close();
+      server.stop();
+   }
+
+   @Benchmark
+   public ClientMessage sendAndReceive() throws Exception {
+      ClientMessage message = session.createMessage(false);
+      message.getBodyBuffer().writeBytes(body);
+      producer.send(message);
+      ClientMessage received = consumer.receive(5000);
+      if (received == null) {
+         throw new IllegalStateException("Message not received within 5 seconds");
+      }
+      received.acknowledge();
+      return received;
+   }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.message.impl.CoreMessage;
+import org.apache.activemq.artemis.core.postoffice.PostOffice;
+import org.apache.activemq.artemis.core.postoffice.RoutingStatus;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.ActiveMQServers;
+import org.apache.activemq.artemis.core.server.impl.AddressInfo;
+import org.apache.activemq.artemis.core.transaction.Transaction;
+import org.apache.activemq.artemis.core.transaction.impl.TransactionImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Routes a message to the queues bound to a multicast address of an embedded, non persistent broker.
+ * <p>
+ * Each invocation routes within a transaction which is rolled back, so that the queues never fill up.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 8, time = 1)
+public class PostOfficeRouteBenchmark {
+
+   private static final SimpleString ADDRESS = SimpleString.toSimpleString("benchmark");
+
+   @Param({"1", "16", "256"})
+   private int queues;
+
+   @Param({"false", "true"})
+   private boolean filtered;
+
+   private ActiveMQServer server;
+
+   private PostOffice postOffice;
+
+   private long messageID;
+
+   @Setup
+   public void init() throws Exception {
+      server = ActiveMQServers.newActiveMQServer(new ConfigurationImpl().setPersistenceEnabled(false).setSecurityEnabled(false).setJMXManagementEnabled(false), false);
+      server.start();
+      server.addAddressInfo(new AddressInfo(ADDRESS, RoutingType.MULTICAST));
+      for (int i = 0; i < queues; i++) {
+         QueueConfiguration queueConfiguration = new QueueConfiguration("queue" + i).setAddress(ADDRESS).setRoutingType(RoutingType.MULTICAST).setDurable(false);
+         if (filtered) {
+            // only one queue out of four matches the routed message
+            queueConfiguration.setFilterString("region = 'region" + (i % 4) + "'");
+         }
+         server.createQueue(queueConfiguration);
+      }
+      postOffice = server.getPostOffice();
+   }
+
+   @TearDown
+   public void close() throws Exception {
+      server.stop();
+   }
+
+   @Benchmark
+   public RoutingStatus route() throws Exception {
+      CoreMessage message = new CoreMessage(++messageID, 64);
+      message.setAddress(ADDRESS);
+      message.setDurable(false);
+      message.putStringProperty("region", "region0");
+      Transaction tx = new TransactionImpl(server.getStorageManager());
+      try {
+         return postOffice.route(message, tx, false);
+      } finally {
+         tx.rollback();
+      }
+   }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.utils.collections.LinkedListIterator;
+import org.apache.activemq.artemis.utils.collections.PriorityLinkedListImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The queue of the references of a {@code QueueImpl}: 10 priorities, with a steady number of elements.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 8, time = 1)
+public class PriorityLinkedListBenchmark {
+
+   private static final int PRIORITIES = 10;
+
+   private static final int ITERATED = 1024;
+
+   @Param({"1024", "65536"})
+   private int size;
+
+   @Param({"1", "3"})
+   private int usedPriorities;
+
+   private PriorityLinkedListImpl<Long> list;
+
+   private long sequence;
+
+   @Setup
+   public void init() {
+      list = new PriorityLinkedListImpl<>(PRIORITIES);
+      for (int i = 0; i < size; i++) {
+         addTail();
+      }
+   }
+
+   private void addTail() {
+      final long element = sequence++;
+      list.addTail(element, (int) (element % usedPriorities) * (PRIORITIES / usedPriorities));
+   }
+
+   @Benchmark
+   public Long addTailAndPoll() {
+      addTail();
+      return list.poll();
+   }
+
+   @Benchmark
+   public Long addHeadAndPoll() {
+      final long element = sequence++;
+      list.addHead(element, (int) (element % usedPriorities) * (PRIORITIES / usedPriorities));
+      return list.poll();
+   }
+
+   /**
+    * Removes every other element of the first {@link #ITERATED} with an iterator, as consumers with a filter do,
+    * then adds them back.
+    */
+   @Benchmark
+   @OperationsPerInvocation(ITERATED)
+   public int iteratorRemove() {
+      int removed = 0;
+      try (LinkedListIterator<Long> iterator = list.iterator()) {
+         for (int i = 0; i < ITERATED && iterator.hasNext(); i++) {
+            iterator.next();
+            if ((i & 1) == 0) {
+               iterator.remove();
+               removed++;
+            }
+         }
+      }
+      for (int i = 0; i < removed; i++) {
+         addTail();
+      }
+      return removed;
+   }
+}
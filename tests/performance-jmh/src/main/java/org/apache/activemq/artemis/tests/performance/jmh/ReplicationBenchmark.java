@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.client.ActiveMQClient;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.config.ClusterConnectionConfiguration;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.ha.ReplicaPolicyConfiguration;
+import org.apache.activemq.artemis.core.config.ha.ReplicatedPolicyConfiguration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.ActiveMQServers;
+import org.apache.activemq.artemis.core.server.JournalType;
+import org.apache.activemq.artemis.utils.FileUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sends durable messages to a live broker replicating to a backup, both embedded and connected on loopback, to
+ * measure the cost of replication on the send path.
+ * <p>
+ * {@code batchDelay} is set on the acceptor of the live the backup connects to: when it's positive, the replication
+ * packets of a burst are written to the backup together.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 8, time = 1)
+public class ReplicationBenchmark {
+
+   private static final String QUEUE = "benchmark";
+
+   private static final String LIVE_URL = "tcp://localhost:61616";
+
+   private static final String BACKUP_URL = "tcp://localhost:61617";
+
+   @Param({"0", "1"})
+   private int batchDelay;
+
+   @Param({"16", "1024"})
+   private int messageSize;
+
+   private File dataDir;
+
+   private ActiveMQServer live;
+
+   private ActiveMQServer backup;
+
+   private ServerLocator locator;
+
+   private ClientSession session;
+
+   private byte[] body;
+
+   @Setup
+   public void init() throws Exception {
+      dataDir = Files.createTempDirectory("replication-benchmark").toFile();
+      live = ActiveMQServers.newActiveMQServer(createConfiguration("live", LIVE_URL + "?batchDelay=" + batchDelay, BACKUP_URL).setHAPolicyConfiguration(new ReplicatedPolicyConfiguration().setCheckForLiveServer(false)), false);
+      live.start();
+      backup = ActiveMQServers.newActiveMQServer(createConfiguration("backup", BACKUP_URL, LIVE_URL).setHAPolicyConfiguration(new ReplicaPolicyConfiguration().setClusterName("cluster")), false);
+      backup.start();
+      final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+      while (!backup.isReplicaSync()) {
+         if (System.currentTimeMillis() > deadline) {
+            throw new IllegalStateException("The backup hasn't synchronized within 30 seconds");
+         }
+         TimeUnit.MILLISECONDS.sleep(100);
+      }
+      locator = ActiveMQClient.createServerLocator(LIVE_URL).setBlockOnDurableSend(true);
+      ClientSessionFactory factory = locator.createSessionFactory();
+      session = factory.createSession();
+      session.createQueue(new QueueConfiguration(QUEUE).setRoutingType(RoutingType.ANYCAST));
+      body = new byte[messageSize];
+   }
+
+   private Configuration createConfiguration(String name, String acceptorUrl, String otherUrl) throws Exception {
+      ClusterConnectionConfiguration cluster = new ClusterConnectionConfiguration().setName("cluster").setConnectorName(name).setStaticConnectors(new ArrayList<>());
+      cluster.getStaticConnectors().add("other");
+      return new ConfigurationImpl()
+         .setName(name)
+         .setBrokerInstance(new File(dataDir, name))
+         .setJournalType(JournalType.NIO)
+         .setSecurityEnabled(false)
+         .setJMXManagementEnabled(false)
+         .setClusterUser("benchmark")
+         .setClusterPassword("benchmark")
+         .addAcceptorConfiguration(name, acceptorUrl)
+         .addConnectorConfiguration(name, acceptorUrl)
+         .addConnectorConfiguration("other", otherUrl)
+         .addClusterConfiguration(cluster);
+   }
+
+   @TearDown
+   public void close() throws Exception {
+      locator.close();
+      backup.stop();
+      live.stop();
+      FileUtil.deleteDirectory(dataDir);
+   }
+
+   /**
+    * Each thread sends with its own producer: concurrent senders are what fills the replication stream.
+    */
+   @State(Scope.Thread)
+   public static class Producer {
+
+      private ClientSession session;
+
+      private ClientProducer producer;
+
+      @Setup
+      public void init(ReplicationBenchmark benchmark) throws Exception {
+         session = benchmark.locator.createSessionFactory().createSession();
+         producer = session.createProducer(QUEUE);
+      }
+
+      @TearDown
+      public void close() throws Exception {
+         session.close();
+      }
+   }
+
+   @Benchmark
+   public ClientMessage sendDurable(Producer producer) throws Exception {
+      ClientMessage message = producer.session.createMessage(true);
+      message.getBodyBuffer().writeBytes(body);
+      producer.producer.send(message);
+      return message;
+   }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import org.apache.activemq.artemis.ArtemisConstants;
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.core.io.DummyCallback;
+import org.apache.activemq.artemis.core.io.IOCallback;
+import org.apache.activemq.artemis.core.io.buffer.TimedBuffer;
+import org.apache.activemq.artemis.core.io.buffer.TimedBufferObserver;
+import org.apache.activemq.artemis.core.journal.EncodingSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of appending records to the {@link TimedBuffer} of the journal, flushing to an observer
+ * that discards the bytes: it isolates the batching of the journal from the actual disk writes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 8, time = 1)
+public class TimedBufferBenchmark {
+
+   @Param({"64", "1024"})
+   private int recordSize;
+
+   private TimedBuffer timedBuffer;
+
+   private EncodingSupport record;
+
+   @Setup
+   public void init() {
+      timedBuffer = new TimedBuffer(null, ArtemisConstants.DEFAULT_JOURNAL_BUFFER_SIZE_NIO, ArtemisConstants.DEFAULT_JOURNAL_BUFFER_TIMEOUT_NIO, false);
+      timedBuffer.setObserver(new TimedBufferObserver() {
+         @Override
+         public void flushBuffer(ByteBuf buffer, boolean syncRequested, List<IOCallback> callbacks) {
+            for (IOCallback callback : callbacks) {
+               callback.done();
+            }
+         }
+
+         @Override
+         public int getRemainingBytes() {
+            return Integer.MAX_VALUE;
+         }
+      });
+      timedBuffer.start();
+      final byte[] bytes = new byte[recordSize];
+      record = new EncodingSupport() {
+         @Override
+         public int getEncodeSize() {
+            return bytes.length;
+         }
+
+         @Override
+         public void encode(ActiveMQBuffer buffer) {
+            buffer.writeBytes(bytes);
+         }
+
+         @Override
+         public void decode(ActiveMQBuffer buffer) {
+            throw new UnsupportedOperationException();
+         }
+      };
+   }
+
+   @TearDown
+   public void close() {
+      timedBuffer.stop();
+   }
+
+   @Benchmark
+   public boolean addBytes() {
+      final boolean fits = timedBuffer.checkSize(recordSize);
+      timedBuffer.addBytes(record, false, DummyCallback.getInstance());
+      return fits;
+   }
+
+   @Benchmark
+   public boolean addBytesSync() {
+      final boolean fits = timedBuffer.checkSize(recordSize);
+      timedBuffer.addBytes(record, true, DummyCallback.getInstance());
+      return fits;
+   }
+}
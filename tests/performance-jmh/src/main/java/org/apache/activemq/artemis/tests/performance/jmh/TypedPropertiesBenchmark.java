@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.utils.collections.TypedProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 8, time = 1)
+public class TypedPropertiesBenchmark {
+
+   @Param({"4", "32"})
+   private int size;
+
+   private TypedProperties properties;
+
+   private ByteBuf encoded;
+
+   private ByteBuf buffer;
+
+   private TypedProperties.TypedPropertiesDecoderPools pools;
+
+   private SimpleString key;
+
+   @Setup
+   public void init() {
+      properties = new TypedProperties();
+      for (int i = 0; i < size; i++) {
+         switch (i % 3) {
+            case 0:
+               properties.putSimpleStringProperty(SimpleString.toSimpleString("string" + i), SimpleString.toSimpleString("value" + i));
+               break;
+            case 1:
+               properties.putLongProperty(SimpleString.toSimpleString("long" + i), i);
+               break;
+            default:
+               properties.putIntProperty(SimpleString.toSimpleString("int" + i), i);
+         }
+      }
+      encoded = Unpooled.buffer(properties.getEncodeSize());
+      properties.encode(encoded);
+      buffer = Unpooled.buffer(properties.getEncodeSize());
+      pools = new TypedProperties.TypedPropertiesDecoderPools();
+      key = SimpleString.toSimpleString("string0");
+   }
+
+   @Benchmark
+   public ByteBuf encode() {
+      buffer.clear();
+      properties.encode(buffer);
+      return buffer;
+   }
+
+   @Benchmark
+   public TypedProperties decode() {
+      TypedProperties decoded = new TypedProperties();
+      encoded.readerIndex(0);
+      decoded.decode(encoded);
+      return decoded;
+   }
+
+   @Benchmark
+   public TypedProperties decodeWithPools() {
+      TypedProperties decoded = new TypedProperties();
+      encoded.readerIndex(0);
+      decoded.decode(encoded, pools);
+      return decoded;
+   }
+
+   @Benchmark
+   public Object getProperty() {
+      return properties.getProperty(key);
+   }
+}
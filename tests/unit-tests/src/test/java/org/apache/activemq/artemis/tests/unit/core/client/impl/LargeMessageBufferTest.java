@@ -25,6 +25,8 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -690,6 +692,11 @@ public class LargeMessageBufferTest extends ActiveMQTestBase {
          return null;
       }
 
+      @Override
+      public CompletableFuture<ClientMessage> receiveAsync() {
+         return null;
+      }
+
       @Override
       public FakeConsumerInternal setMessageHandler(final MessageHandler handler) throws ActiveMQException {
          return this;
@@ -772,6 +779,10 @@ public class LargeMessageBufferTest extends ActiveMQTestBase {
       public void handleMessage(ClientMessageInternal message) throws Exception {
       }
 
+      @Override
+      public void handleMessages(List<ClientMessageInternal> messages) throws Exception {
+      }
+
       @Override
       public void handleLargeMessage(ClientLargeMessageInternal clientLargeMessage,
                                      long largeMessageSize) throws Exception {
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.unit.core.journal.impl;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.apache.activemq.artemis.core.journal.impl.CompactJournalRecordIndex;
+import org.apache.activemq.artemis.core.journal.impl.JournalFile;
+import org.apache.activemq.artemis.core.journal.impl.JournalFileImpl;
+import org.apache.activemq.artemis.core.journal.impl.JournalImpl;
+import org.apache.activemq.artemis.core.journal.impl.JournalRecordIndex;
+import org.apache.activemq.artemis.core.journal.impl.MapJournalRecordIndex;
+import org.apache.activemq.artemis.tests.unit.core.journal.impl.fakes.FakeSequentialFileFactory;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompactJournalRecordIndexTest extends ActiveMQTestBase {
+
+   private static final int NUMBER_OF_FILES = 8;
+
+   private final FakeSequentialFileFactory factory = new FakeSequentialFileFactory();
+
+   private JournalFile[] createFiles() {
+      JournalFile[] files = new JournalFile[NUMBER_OF_FILES];
+      for (int i = 0; i < NUMBER_OF_FILES; i++) {
+         files[i] = new JournalFileImpl(factory.createSequentialFile("file-" + i + ".tst"), i, JournalImpl.FORMAT_VERSION);
+      }
+      return files;
+   }
+
+   @Test
+   public void testAddUpdateDelete() {
+      JournalFile[] files = createFiles();
+      JournalRecordIndex index = new CompactJournalRecordIndex();
+
+      index.add(1, files[0], 10);
+      Assert.assertTrue(index.update(1, files[1], 20));
+      Assert.assertTrue(index.update(1, files[1], 30));
+      Assert.assertFalse(index.update(2, files[1], 40));
+      Assert.assertTrue(index.contains(1));
+      Assert.assertEquals(1, index.size());
+
+      Assert.assertEquals(1, files[0].getPosCount());
+      Assert.assertEquals(10, files[0].getLiveSize());
+      Assert.assertEquals(2, files[1].getPosCount());
+      Assert.assertEquals(50, files[1].getLiveSize());
+
+      Assert.assertTrue(index.delete(1, files[2]));
+      Assert.assertFalse(index.delete(1, files[2]));
+      Assert.assertFalse(index.contains(1));
+      Assert.assertEquals(0, index.size());
+
+      Assert.assertEquals(1, files[2].getNegCount(files[0]));
+      Assert.assertEquals(2, files[2].getNegCount(files[1]));
+      Assert.assertEquals(0, files[0].getLiveSize());
+      Assert.assertEquals(0, files[1].getLiveSize());
+   }
+
+   @Test
+   public void testSameCountsAsMapIndex() {
+      Random random = new Random(1234);
+      JournalFile[] mapFiles = createFiles();
+      JournalFile[] compactFiles = createFiles();
+      JournalRecordIndex mapIndex = new MapJournalRecordIndex();
+      // tiny sections, to exercise the rehashing and the collisions
+      JournalRecordIndex compactIndex = new CompactJournalRecordIndex(4, 2);
+
+      for (int i = 0; i < 100_000; i++) {
+         long id = random.nextInt(5_000);
+         int file = random.nextInt(NUMBER_OF_FILES);
+         int size = random.nextInt(1024);
+         switch (random.nextInt(4)) {
+            case 0:
+               if (!mapIndex.contains(id)) {
+                  mapIndex.add(id, mapFiles[file], size);
+                  compactIndex.add(id, compactFiles[file], size);
+               }
+               break;
+            case 1:
+               Assert.assertEquals(mapIndex.update(id, mapFiles[file], size), compactIndex.update(id, compactFiles[file], size));
+               break;
+            case 2:
+               Assert.assertEquals(mapIndex.delete(id, mapFiles[file]), compactIndex.delete(id, compactFiles[file]));
+               break;
+            default:
+               Assert.assertEquals(mapIndex.contains(id), compactIndex.contains(id));
+         }
+         Assert.assertEquals(mapIndex.size(), compactIndex.size());
+      }
+
+      for (int i = 0; i < NUMBER_OF_FILES; i++) {
+         Assert.assertEquals(mapFiles[i].getPosCount(), compactFiles[i].getPosCount());
+         Assert.assertEquals(mapFiles[i].getLiveSize(), compactFiles[i].getLiveSize());
+         for (int j = 0; j < NUMBER_OF_FILES; j++) {
+            Assert.assertEquals(mapFiles[i].getNegCount(mapFiles[j]), compactFiles[i].getNegCount(compactFiles[j]));
+         }
+      }
+
+      TreeSet<Long> mapIds = new TreeSet<>();
+      mapIndex.forEach(mapIds::add);
+      TreeSet<Long> compactIds = new TreeSet<>();
+      compactIndex.forEach(compactIds::add);
+      Assert.assertEquals(mapIds, compactIds);
+   }
+
+   @Test
+   public void testMerge() {
+      JournalFile[] files = createFiles();
+      CompactJournalRecordIndex index = new CompactJournalRecordIndex();
+      CompactJournalRecordIndex compacted = new CompactJournalRecordIndex();
+
+      index.add(1, files[0], 10);
+      compacted.add(2, files[1], 20);
+      compacted.update(2, files[2], 30);
+
+      index.merge(compacted);
+
+      Assert.assertEquals(0, compacted.size());
+      Assert.assertEquals(2, index.size());
+      Assert.assertEquals(1, files[1].getPosCount());
+      Assert.assertEquals(1, files[2].getPosCount());
+
+      // the merged record keeps its update, without accounting it twice
+      Assert.assertTrue(index.delete(2, files[3]));
+      Assert.assertEquals(1, files[3].getNegCount(files[1]));
+      Assert.assertEquals(1, files[3].getNegCount(files[2]));
+      Assert.assertEquals(0, files[1].getLiveSize());
+      Assert.assertEquals(0, files[2].getLiveSize());
+   }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.unit.core.paging.cursor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.activemq.artemis.core.message.impl.CoreMessage;
+import org.apache.activemq.artemis.core.paging.cursor.PageCache;
+import org.apache.activemq.artemis.core.paging.cursor.SharedPageCache;
+import org.apache.activemq.artemis.core.paging.cursor.impl.LivePageCacheImpl;
+import org.apache.activemq.artemis.core.paging.impl.PagedMessageImpl;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Test;
+
+public class SharedPageCacheTest extends ActiveMQTestBase {
+
+   @Test
+   public void testEvictLeastRecentlyUsedAcrossOwners() {
+      SharedPageCache sharedPageCache = new SharedPageCache(300);
+      FakeOwner owner1 = new FakeOwner();
+      FakeOwner owner2 = new FakeOwner();
+
+      PageCache page1 = closedPage(1);
+      PageCache page2 = closedPage(2);
+      PageCache page3 = closedPage(3);
+
+      assertTrue(sharedPageCache.put(owner1, page1, 100));
+      assertTrue(sharedPageCache.put(owner2, page2, 100));
+      assertTrue(sharedPageCache.put(owner1, page3, 100));
+      sharedPageCache.evictIfNeeded();
+      assertEquals(300, sharedPageCache.getSize());
+      assertEquals(3, sharedPageCache.getPageCount());
+
+      // page1 becomes the most recently used, page2 is the next victim
+      assertFalse(sharedPageCache.hit(owner1, page1));
+      sharedPageCache.put(owner2, closedPage(4), 150);
+      sharedPageCache.evictIfNeeded();
+
+      assertEquals(250, sharedPageCache.getSize());
+      assertEquals(2, sharedPageCache.getEvictionCount());
+      assertTrue(owner1.evicted.contains(page3));
+      assertTrue(owner2.evicted.contains(page2));
+      assertFalse(owner1.evicted.contains(page1));
+   }
+
+   @Test
+   public void testLivePagesAreNotAccounted() {
+      SharedPageCache sharedPageCache = new SharedPageCache(100);
+      FakeOwner owner = new FakeOwner();
+
+      LivePageCacheImpl livePage = new LivePageCacheImpl(1);
+      assertFalse(sharedPageCache.put(owner, livePage, 1000));
+      assertFalse(sharedPageCache.hit(owner, livePage));
+      assertEquals(0, sharedPageCache.getSize());
+
+      // accounted on its first hit once it's closed
+      livePage.close();
+      assertTrue(sharedPageCache.hit(owner, livePage));
+      assertEquals(1, sharedPageCache.getPageCount());
+      assertEquals(2, sharedPageCache.getHitCount());
+   }
+
+   @Test
+   public void testRemove() {
+      SharedPageCache sharedPageCache = new SharedPageCache(0);
+      FakeOwner owner1 = new FakeOwner();
+      FakeOwner owner2 = new FakeOwner();
+
+      PageCache page1 = closedPage(1);
+      sharedPageCache.put(owner1, page1, 100);
+      sharedPageCache.put(owner1, closedPage(2), 100);
+      sharedPageCache.put(owner2, closedPage(3), 100);
+
+      // no budget: nothing is evicted
+      sharedPageCache.evictIfNeeded();
+      assertEquals(300, sharedPageCache.getSize());
+
+      sharedPageCache.remove(page1);
+      assertEquals(200, sharedPageCache.getSize());
+
+      sharedPageCache.removeAll(owner1);
+      assertEquals(100, sharedPageCache.getSize());
+      assertEquals(1, sharedPageCache.getPageCount());
+      assertTrue(owner1.evicted.isEmpty());
+   }
+
+   @Test
+   public void testPagesAreAccountedWithTheMemoryEstimateOfTheirMessages() {
+      SharedPageCache sharedPageCache = new SharedPageCache(0);
+      FakeOwner owner = new FakeOwner();
+
+      LivePageCacheImpl page = new LivePageCacheImpl(1);
+      long expected = 0;
+      for (int i = 0; i < 10; i++) {
+         CoreMessage message = new CoreMessage(i, 1024);
+         message.getBodyBuffer().writeBytes(new byte[512]);
+         message.putStringProperty("key", "value" + i);
+         page.addLiveMessage(new PagedMessageImpl(message, new long[] {1}));
+         expected += message.getMemoryEstimate();
+      }
+      page.close();
+
+      assertEquals(expected, SharedPageCache.estimateMemory(page));
+      assertTrue(sharedPageCache.hit(owner, page));
+      assertEquals(expected, sharedPageCache.getSize());
+   }
+
+   private static PageCache closedPage(long pageId) {
+      LivePageCacheImpl cache = new LivePageCacheImpl(pageId);
+      cache.close();
+      return cache;
+   }
+
+   private static final class FakeOwner implements SharedPageCache.Owner {
+
+      final List<PageCache> evicted = new ArrayList<>();
+
+      @Override
+      public void evicted(PageCache cache) {
+         evicted.add(cache);
+      }
+   }
+}
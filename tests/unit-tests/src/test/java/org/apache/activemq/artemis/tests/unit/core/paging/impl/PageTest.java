@@ -30,6 +30,7 @@ import org.apache.activemq.artemis.core.io.nio.NIOSequentialFileFactory;
 import org.apache.activemq.artemis.core.message.impl.CoreMessage;
 import org.apache.activemq.artemis.core.message.impl.CoreMessagePersister;
 import org.apache.activemq.artemis.core.paging.PagedMessage;
+import org.apache.activemq.artemis.core.paging.impl.MappedPage;
 import org.apache.activemq.artemis.core.paging.impl.Page;
 import org.apache.activemq.artemis.core.paging.impl.PagedMessageImpl;
 import org.apache.activemq.artemis.core.persistence.StorageManager;
@@ -107,6 +108,107 @@ public class PageTest extends ActiveMQTestBase {
       testAdd(new NIOSequentialFileFactory(getTestDirfile(), 1), 1);
    }
 
+   @Test
+   public void testMappedIndexedPageWithNIO() throws Exception {
+      recreateDirectory(getTestDir());
+      final SequentialFileFactory factory = new NIOSequentialFileFactory(getTestDirfile(), 1);
+      final int numberOfElements = 100;
+
+      SequentialFile file = factory.createSequentialFile("00010.page");
+      Page page = new Page(new SimpleString("something"), new NullStorageManager(), factory, file, 10);
+      page.open();
+
+      SimpleString simpleDestination = new SimpleString("Test");
+      addPageElements(simpleDestination, page, numberOfElements, 1);
+      final int dataSize = page.getSize();
+      page.close(false, false);
+
+      // the index follows the messages
+      Assert.assertTrue(file.getJavaFile().length() > dataSize);
+
+      file = factory.createSequentialFile("00010.page");
+      page = new Page(new SimpleString("something"), new NullStorageManager(), factory, file, 10);
+
+      try (MappedPage mappedPage = page.map()) {
+         Assert.assertNotNull(mappedPage);
+         Assert.assertEquals(numberOfElements, mappedPage.getNumberOfMessages());
+         for (int i = numberOfElements - 1; i >= 0; i -= 7) {
+            PagedMessage msg = mappedPage.getMessage(i);
+            Assert.assertEquals(1 + i, msg.getMessage().getMessageID());
+            Assert.assertEquals(simpleDestination, msg.getMessage().getAddressSimpleString());
+         }
+         Assert.assertNull(mappedPage.getMessage(numberOfElements));
+      }
+
+      // the sequential read stops at the index
+      file.open();
+      List<PagedMessage> msgs = page.read(new NullStorageManager());
+      Assert.assertEquals(numberOfElements, msgs.size());
+      Assert.assertEquals(dataSize, page.getSize());
+      Assert.assertNull(page.readMessage(0, 0, numberOfElements));
+
+      page.delete(null);
+
+      Assert.assertEquals(0, factory.listFiles("page").size());
+      Assert.assertEquals(0, factory.listFiles("invalidPage").size());
+   }
+
+   @Test
+   public void testIndexIsOnlyWrittenWhenModified() throws Exception {
+      recreateDirectory(getTestDir());
+      final SequentialFileFactory factory = new NIOSequentialFileFactory(getTestDirfile(), 1);
+
+      // an empty page opened and closed without writes stays empty
+      SequentialFile file = factory.createSequentialFile("00010.page");
+      Page page = new Page(new SimpleString("something"), new NullStorageManager(), factory, file, 10);
+      page.open();
+      page.close(false, false);
+      Assert.assertEquals(0, file.getJavaFile().length());
+
+      page.open();
+      addPageElements(new SimpleString("Test"), page, 10, 1);
+      page.close(false, false);
+      final long indexedSize = file.getJavaFile().length();
+
+      // closing again, or reopening to read, doesn't write another index
+      page.close(false, false);
+      page.open();
+      page.read(new NullStorageManager());
+      page.close(false, false);
+      Assert.assertEquals(indexedSize, file.getJavaFile().length());
+
+      file = factory.createSequentialFile("00010.page");
+      page = new Page(new SimpleString("something"), new NullStorageManager(), factory, file, 10);
+      try (MappedPage mappedPage = page.map()) {
+         Assert.assertNotNull(mappedPage);
+         Assert.assertEquals(10, mappedPage.getNumberOfMessages());
+      }
+   }
+
+   @Test
+   public void testNotIndexedPageIsNotMapped() throws Exception {
+      recreateDirectory(getTestDir());
+      final SequentialFileFactory factory = new NIOSequentialFileFactory(getTestDirfile(), 1);
+
+      SequentialFile file = factory.createSequentialFile("00010.page");
+      Page page = new Page(new SimpleString("something"), new NullStorageManager(), factory, file, 10);
+      page.open();
+      addPageElements(new SimpleString("Test"), page, 10, 1);
+      page.close(false, false);
+
+      // appending to a page that wasn't empty when opened can't keep the index consistent
+      file = factory.createSequentialFile("00010.page");
+      page = new Page(new SimpleString("something"), new NullStorageManager(), factory, file, 10);
+      page.open();
+      page.read(new NullStorageManager());
+      addPageElements(new SimpleString("Test"), page, 10, 11);
+      page.close(false, false);
+
+      file = factory.createSequentialFile("00010.page");
+      page = new Page(new SimpleString("something"), new NullStorageManager(), factory, file, 10);
+      Assert.assertNull(page.map());
+   }
+
    /**
     * Validate if everything we add is recovered
     */
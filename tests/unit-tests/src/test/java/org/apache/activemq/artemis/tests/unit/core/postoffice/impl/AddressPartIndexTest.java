@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.unit.core.postoffice.impl;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.config.WildcardConfiguration;
+import org.apache.activemq.artemis.core.postoffice.Address;
+import org.apache.activemq.artemis.core.postoffice.impl.AddressImpl;
+import org.apache.activemq.artemis.core.postoffice.impl.AddressPartIndex;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AddressPartIndexTest extends ActiveMQTestBase {
+
+   private final WildcardConfiguration wildcardConfiguration = new WildcardConfiguration();
+
+   private Address address(String address) {
+      return new AddressImpl(new SimpleString(address), wildcardConfiguration);
+   }
+
+   @Test
+   public void testWildcardsMatching() {
+      AddressPartIndex index = new AddressPartIndex(wildcardConfiguration);
+      index.put(address("a.*"));
+      index.put(address("a.#"));
+      index.put(address("#"));
+      index.put(address("a.*.c"));
+      index.put(address("b.#"));
+      index.put(address("#.c"));
+
+      Set<Address> result = new HashSet<>();
+      index.collectWildcardsMatching(address("a.b.c"), result);
+
+      Assert.assertTrue(result.contains(address("a.#")));
+      Assert.assertTrue(result.contains(address("#")));
+      Assert.assertTrue(result.contains(address("a.*.c")));
+      Assert.assertTrue(result.contains(address("#.c")));
+      Assert.assertFalse(result.contains(address("a.*")));
+      Assert.assertFalse(result.contains(address("b.#")));
+
+      result.clear();
+      index.collectWildcardsMatching(address("a"), result);
+      Assert.assertTrue(result.contains(address("a.#")));
+      Assert.assertTrue(result.contains(address("#")));
+      Assert.assertEquals(2, result.size());
+   }
+
+   @Test
+   public void testMatchedBy() {
+      AddressPartIndex index = new AddressPartIndex(wildcardConfiguration);
+      index.put(address("a"));
+      index.put(address("a.b"));
+      index.put(address("a.b.c"));
+      index.put(address("a.x.c"));
+      index.put(address("b.c"));
+
+      Set<Address> result = new HashSet<>();
+      index.collectMatchedBy(address("a.*.c"), result);
+      Assert.assertEquals(2, result.size());
+      Assert.assertTrue(result.contains(address("a.b.c")));
+      Assert.assertTrue(result.contains(address("a.x.c")));
+
+      result.clear();
+      index.collectMatchedBy(address("a.#"), result);
+      Assert.assertEquals(4, result.size());
+
+      result.clear();
+      index.collectMatchedBy(address("#.c"), result);
+      Assert.assertEquals(3, result.size());
+   }
+
+   @Test
+   public void testRemovePrunesBranches() {
+      AddressPartIndex index = new AddressPartIndex(wildcardConfiguration);
+      index.put(address("a.b.c"));
+      index.put(address("a.b"));
+
+      index.remove(address("a.b.c"));
+      Set<Address> result = new HashSet<>();
+      index.collectMatchedBy(address("#"), result);
+      Assert.assertEquals(1, result.size());
+      Assert.assertTrue(result.contains(address("a.b")));
+
+      index.remove(address("a.b"));
+      Assert.assertTrue(index.isEmpty());
+   }
+
+   @Test
+   public void testCandidatesAreSupersetOfMatches() {
+      final Random random = new Random(42);
+      final String[] words = {"a", "b", "c", "d"};
+      final List<Address> addresses = new ArrayList<>();
+      final List<Address> wildcards = new ArrayList<>();
+      for (int i = 0; i < 500; i++) {
+         StringBuilder address = new StringBuilder();
+         StringBuilder wildcard = new StringBuilder();
+         int depth = 1 + random.nextInt(5);
+         for (int j = 0; j < depth; j++) {
+            if (j > 0) {
+               address.append('.');
+               wildcard.append('.');
+            }
+            address.append(words[random.nextInt(words.length)]);
+            int r = random.nextInt(6);
+            wildcard.append(r == 0 ? "*" : r == 1 ? "#" : words[random.nextInt(words.length)]);
+         }
+         addresses.add(address(address.toString()));
+         wildcards.add(address(wildcard.toString()));
+      }
+
+      AddressPartIndex addressIndex = new AddressPartIndex(wildcardConfiguration);
+      AddressPartIndex wildcardIndex = new AddressPartIndex(wildcardConfiguration);
+      addresses.forEach(addressIndex::put);
+      wildcards.forEach(wildcardIndex::put);
+
+      for (Address address : addresses) {
+         Set<Address> candidates = new HashSet<>();
+         wildcardIndex.collectWildcardsMatching(address, candidates);
+         for (Address wildcard : wildcards) {
+            if (address.matches(wildcard)) {
+               Assert.assertTrue(address + " should match " + wildcard, candidates.contains(wildcard));
+            }
+         }
+      }
+
+      for (Address wildcard : wildcards) {
+         Set<Address> candidates = new HashSet<>();
+         addressIndex.collectMatchedBy(wildcard, candidates);
+         for (Address address : addresses) {
+            if (address.matches(wildcard)) {
+               Assert.assertTrue(address + " should be matched by " + wildcard, candidates.contains(address));
+            }
+         }
+      }
+   }
+}
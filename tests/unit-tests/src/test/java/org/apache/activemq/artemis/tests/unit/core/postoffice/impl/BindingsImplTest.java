@@ -16,6 +16,7 @@
  */
 package org.apache.activemq.artemis.tests.unit.core.postoffice.impl;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +28,7 @@ import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.filter.impl.FilterImpl;
 import org.apache.activemq.artemis.core.message.impl.CoreMessage;
 import org.apache.activemq.artemis.core.postoffice.Binding;
 import org.apache.activemq.artemis.core.postoffice.BindingType;
@@ -71,6 +73,71 @@ public class BindingsImplTest extends ActiveMQTestBase {
       }
    }
 
+   @Test
+   public void testRouteWithFilterIndex() throws Exception {
+      internalTestRouteWithFilters(true);
+   }
+
+   @Test
+   public void testRouteWithFilterIndexDisabled() throws Exception {
+      internalTestRouteWithFilters(false);
+   }
+
+   private void internalTestRouteWithFilters(final boolean indexed) throws Exception {
+      final BindingsImpl bind = new BindingsImpl(null, null);
+      if (!indexed) {
+         bind.setFilterIndexEnabled(false);
+      }
+      List<FakeBinding> bindings = new ArrayList<>();
+      for (int i = 0; i < 50; i++) {
+         bindings.add(new FakeBinding(new SimpleString("eq" + i), FilterImpl.createFilter("region = 'R" + (i % 10) + "' AND level > 2")));
+         bindings.add(new FakeBinding(new SimpleString("num" + i), FilterImpl.createFilter("code = " + (i % 5))));
+         bindings.add(new FakeBinding(new SimpleString("range" + i), FilterImpl.createFilter("level >= " + (i % 7) + " AND level < 5")));
+      }
+      bindings.add(new FakeBinding(new SimpleString("like"), FilterImpl.createFilter("region LIKE 'R1%'")));
+      bindings.add(new FakeBinding(new SimpleString("or"), FilterImpl.createFilter("region = 'R2' OR code = 3")));
+      bindings.add(new FakeBinding(new SimpleString("all"), null));
+      for (FakeBinding binding : bindings) {
+         bind.addBinding(binding);
+      }
+
+      // removing and adding back must keep the index consistent
+      bind.removeBinding(bindings.get(0));
+      bind.addBinding(bindings.get(0));
+
+      // disabling and enabling back must rebuild the index
+      bind.setFilterIndexEnabled(!indexed);
+      bind.setFilterIndexEnabled(indexed);
+      assertEquals(indexed, bind.isFilterIndexEnabled());
+
+      Object[] regions = {null, "R1", "R2", "R7", "X", 3};
+      Object[] levels = {null, 0, 2, 3L, 6, 4.5d, (short) 5, "3"};
+      Object[] codes = {null, 0, 3L, (byte) 4, 3.0d, "3"};
+      int id = 0;
+      for (Object region : regions) {
+         for (Object level : levels) {
+            for (Object code : codes) {
+               CoreMessage message = new CoreMessage(id++, 100);
+               message.putObjectProperty("region", region);
+               message.putObjectProperty("level", level);
+               message.putObjectProperty("code", code);
+
+               int[] expected = new int[bindings.size()];
+               for (int i = 0; i < bindings.size(); i++) {
+                  Filter filter = bindings.get(i).filter;
+                  expected[i] = bindings.get(i).routed + (filter == null || filter.match(message) ? 1 : 0);
+               }
+
+               bind.route(message, new RoutingContextImpl(new FakeTransaction()));
+
+               for (int i = 0; i < bindings.size(); i++) {
+                  assertEquals(message + " on " + bindings.get(i).name, expected[i], bindings.get(i).routed);
+               }
+            }
+         }
+      }
+   }
+
    private void internalTest(final boolean route) throws Exception {
       final FakeBinding fake = new FakeBinding(new SimpleString("a"));
 
@@ -313,9 +380,16 @@ public class BindingsImplTest extends ActiveMQTestBase {
 
       final SimpleString name;
       final SimpleString uniqueName = SimpleString.toSimpleString(UUID.randomUUID().toString());
+      final Filter filter;
+      int routed;
 
       FakeBinding(final SimpleString name) {
+         this(name, null);
+      }
+
+      FakeBinding(final SimpleString name, final Filter filter) {
          this.name = name;
+         this.filter = filter;
       }
 
       @Override
@@ -354,7 +428,7 @@ public class BindingsImplTest extends ActiveMQTestBase {
        */
       @Override
       public Filter getFilter() {
-         return new FakeFilter();
+         return filter == null ? new FakeFilter() : filter;
       }
 
       @Override
@@ -399,7 +473,7 @@ public class BindingsImplTest extends ActiveMQTestBase {
 
       @Override
       public void route(final Message message, final RoutingContext context) throws Exception {
-
+         routed++;
       }
 
       /* (non-Javadoc)
@@ -116,6 +116,28 @@ public class NettyConnectorTest extends ActiveMQTestBase {
       Assert.assertFalse(connector.isStarted());
    }
 
+   /**
+    * that io_uring falls back to the next transport when the system doesn't support it
+    */
+   @Test
+   public void testStartStopIoUring() throws Exception {
+      BufferHandler handler = new BufferHandler() {
+         @Override
+         public void bufferReceived(final Object connectionID, final ActiveMQBuffer buffer) {
+         }
+      };
+      Map<String, Object> params = new HashMap<>();
+      params.put(TransportConstants.USE_IO_URING_PROP_NAME, true);
+      params.put(TransportConstants.USE_GLOBAL_WORKER_POOL_PROP_NAME, false);
+
+      NettyConnector connector = new NettyConnector(params, handler, listener, Executors.newCachedThreadPool(ActiveMQThreadFactory.defaultThreadFactory()), Executors.newCachedThreadPool(ActiveMQThreadFactory.defaultThreadFactory()), Executors.newScheduledThreadPool(5, ActiveMQThreadFactory.defaultThreadFactory()));
+
+      connector.start();
+      Assert.assertTrue(connector.isStarted());
+      connector.close();
+      Assert.assertFalse(connector.isStarted());
+   }
+
    @Test
    public void testNullParams() throws Exception {
       BufferHandler handler = new BufferHandler() {